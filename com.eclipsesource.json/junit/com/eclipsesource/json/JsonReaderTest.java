@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.json.JsonReader.Event;
+
+
+public class JsonReaderTest {
+
+  private JsonReader reader;
+
+  @Before
+  public void setUp() {
+    reader = new JsonReader();
+  }
+
+  @Test
+  public void next_readsAllEvents() {
+    reader.reset( " { \"a\" : [ 1 , true , false , null , \"s\" ] , \"b\" : { } }\r\n" );
+
+    assertNext( Event.START_OBJECT, 1 );
+    assertNext( Event.NAME, 1 );
+    assertTrue( reader.isName( "a" ) );
+    assertNext( Event.START_ARRAY, 2 );
+    assertNext( Event.NUMBER, 2 );
+    assertNext( Event.TRUE, 2 );
+    assertNext( Event.FALSE, 2 );
+    assertNext( Event.NULL, 2 );
+    assertNext( Event.STRING, 2 );
+    assertTrue( reader.isName( "s" ) );
+    assertNext( Event.END_ARRAY, 1 );
+    assertNext( Event.NAME, 1 );
+    assertTrue( reader.isName( "b" ) );
+    assertFalse( reader.isName( "a" ) );
+    assertNext( Event.START_OBJECT, 2 );
+    assertNext( Event.END_OBJECT, 1 );
+    assertNext( Event.END_OBJECT, 0 );
+    assertNext( Event.END_OF_TEXT, 0 );
+  }
+
+  @Test
+  public void next_readsTopLevelScalar() {
+    reader.reset( "-12.5" );
+
+    assertNext( Event.NUMBER, 0 );
+    assertEquals( -12.5, reader.getDouble(), 0 );
+    assertNext( Event.END_OF_TEXT, 0 );
+  }
+
+  @Test
+  public void strings_decodeEscapes() {
+    reader.reset( "{\"x\\ty\":\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\\u20AC\"}" );
+
+    reader.next();
+    assertEquals( Event.NAME, reader.next() );
+    assertTrue( reader.isName( "x\ty" ) );
+    assertEquals( "x\ty", reader.getString() );
+    assertEquals( Event.STRING, reader.next() );
+    assertEquals( "a\"b\\c/d\b\f\n\r\t\u00e9\u20ac", reader.getString() );
+  }
+
+  @Test
+  public void strings_longerThanBuffer() {
+    StringBuilder value = new StringBuilder();
+    for( int i = 0; i < 500; i++ ) {
+      value.append( (char)( 'a' + i % 26 ) );
+    }
+    reader.reset( "[\"" + value + "\",\"" + value + "\\n\"]" );
+
+    reader.next();
+    assertEquals( Event.STRING, reader.next() );
+    assertEquals( value.toString(), reader.getString() );
+    assertTrue( reader.isName( value.toString() ) );
+    assertEquals( Event.STRING, reader.next() );
+    assertEquals( value + "\n", reader.getString() );
+  }
+
+  @Test
+  public void skipValue_skipsNestedValues() {
+    reader.reset( "{\"skip\":{\"a\":[1,{\"b\":[2,[3,[]]]},{\"c\":{}}],\"d\":\"}]\"},\"keep\":5,\"last\":[[1],{}]}" );
+
+    reader.next();
+    assertEquals( Event.NAME, reader.next() );
+    reader.skipValue();
+    assertEquals( 1, reader.getDepth() );
+    assertEquals( Event.NAME, reader.next() );
+    assertTrue( reader.isName( "keep" ) );
+    assertEquals( Event.NUMBER, reader.next() );
+    assertEquals( 5, reader.getInt() );
+    assertEquals( Event.NAME, reader.next() );
+    assertEquals( Event.START_ARRAY, reader.next() );
+    reader.skipValue();
+    assertEquals( Event.END_OBJECT, reader.next() );
+    assertEquals( Event.END_OF_TEXT, reader.next() );
+  }
+
+  @Test
+  public void skipValue_skipsScalarAfterName() {
+    reader.reset( "{\"a\":\"text\",\"b\":null,\"c\":-1.5e3,\"d\":true}" );
+
+    reader.next();
+    int names = 0;
+    while( reader.next() == Event.NAME ) {
+      reader.skipValue();
+      names++;
+    }
+    assertEquals( 4, names );
+    assertEquals( Event.END_OBJECT, reader.getEvent() );
+  }
+
+  @Test
+  public void readValue_buildsNestedValues() {
+    String object = "{\"a\":[1,2.5,{\"b\":\"c\"}],\"d\":{\"e\":null}}";
+    reader.reset( "{\"r\":" + object + ",\"s\":\"t\",\"n\":1.50,\"f\":false}" );
+
+    reader.next();
+    reader.next();
+    assertEquals( JsonValue.readFrom( object ), reader.readValue() );
+    assertEquals( 1, reader.getDepth() );
+    reader.next();
+    assertEquals( JsonValue.valueOf( "t" ), reader.readValue() );
+    reader.next();
+    assertEquals( "1.50", reader.readValue().toString() );
+    reader.next();
+    assertEquals( JsonValue.FALSE, reader.readValue() );
+    assertEquals( Event.END_OBJECT, reader.next() );
+  }
+
+  @Test
+  public void numbers_decodeIntegersAndDecimals() {
+    assertNumber( "0", 0 );
+    assertNumber( "-0", -0.0 );
+    assertNumber( "7", 7 );
+    assertNumber( "-42", -42 );
+    assertNumber( "0.5", 0.5 );
+    assertNumber( "-0.001", -0.001 );
+    assertNumber( "123.456", 123.456 );
+    assertNumber( "1.10", 1.1 );
+    assertNumber( "999999999999999", 999999999999999d );
+    assertNumber( "0.123456789012345", 0.123456789012345 );
+  }
+
+  @Test
+  public void numbers_decodeExponents() {
+    assertNumber( "1e3", 1000 );
+    assertNumber( "1E3", 1000 );
+    assertNumber( "1.5e-2", 0.015 );
+    assertNumber( "-2.5E+2", -250 );
+    assertNumber( "0e0", 0 );
+    assertNumber( "1e400", Double.POSITIVE_INFINITY );
+  }
+
+  @Test
+  public void numbers_longerThan15Digits() {
+    assertNumber( "1234567890123456", 1234567890123456d );
+    assertNumber( "12345678901234567890", 12345678901234567890d );
+    assertNumber( "-1234567890.123456789", -1234567890.123456789 );
+    assertNumber( "0.1000000000000000055511151231257827", 0.1 );
+    assertNumber( "9007199254740993", 9007199254740993d );
+  }
+
+  @Test
+  public void numbers_matchDoubleParsing() {
+    Random random = new Random( 42 );
+    for( int i = 0; i < 100000; i++ ) {
+      int digits = 1 + random.nextInt( 15 );
+      StringBuilder number = new StringBuilder();
+      if( random.nextBoolean() ) {
+        number.append( '-' );
+      }
+      int point = random.nextInt( digits + 1 );
+      for( int d = 0; d < digits; d++ ) {
+        if( d == point && d > 0 ) {
+          number.append( '.' );
+        }
+        number.append( (char)( ( d == 0 && point != 1 ? 1 + random.nextInt( 9 ) : random.nextInt( 10 ) ) + '0' ) );
+      }
+      assertNumber( number.toString(), Double.parseDouble( number.toString() ) );
+    }
+  }
+
+  @Test
+  public void numbers_asIntAndBigDecimal() {
+    reader.reset( "[12.9,-3.7,1.500,2147483647]" );
+
+    reader.next();
+    reader.next();
+    assertEquals( 12, reader.getInt() );
+    reader.next();
+    assertEquals( -3, reader.getInt() );
+    reader.next();
+    assertEquals( new BigDecimal( "1.500" ), reader.getBigDecimal() );
+    assertEquals( "1.500", reader.getString() );
+    reader.next();
+    assertEquals( Integer.MAX_VALUE, reader.getInt() );
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void getDouble_failsOnString() {
+    reader.reset( "\"1\"" );
+    reader.next();
+
+    reader.getDouble();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void readValue_failsAtEndOfObject() {
+    reader.reset( "{}" );
+    reader.next();
+    reader.next();
+
+    reader.readValue();
+  }
+
+  @Test
+  public void malformedInput_isRejected() {
+    assertParseException( "" );
+    assertParseException( "{" );
+    assertParseException( "{\"a\"" );
+    assertParseException( "{\"a\":}" );
+    assertParseException( "{\"a\" 1}" );
+    assertParseException( "{\"a\":1,}" );
+    assertParseException( "{\"a\":1" );
+    assertParseException( "{a:1}" );
+    assertParseException( "{\"a\":[1 2]}" );
+    assertParseException( "{\"a\":[1,]}" );
+    assertParseException( "{\"a\":[}" );
+    assertParseException( "{\"a\":01}" );
+    assertParseException( "{\"a\":1.}" );
+    assertParseException( "{\"a\":.5}" );
+    assertParseException( "{\"a\":-}" );
+    assertParseException( "{\"a\":1e}" );
+    assertParseException( "{\"a\":+1}" );
+    assertParseException( "{\"a\":tru}" );
+    assertParseException( "{\"a\":nul}" );
+    assertParseException( "{\"a\":\"\\x\"}" );
+    assertParseException( "{\"a\":\"\\u12G4\"}" );
+    assertParseException( "{\"a\":\"unterminated" );
+    assertParseException( "{\"a\":\"line\nbreak\"}" );
+    assertParseException( "{\"a\":1}}" );
+    assertParseException( "{\"a\":1} x" );
+    assertParseException( "{\"a\":1}{\"b\":2}" );
+  }
+
+  @Test
+  public void malformedInput_reportsPosition() {
+    reader.reset( "{\"a\":1,\n \"b\":x}" );
+    try {
+      readAll();
+      fail();
+    } catch( ParseException exception ) {
+      assertEquals( 2, exception.getLine() );
+      assertEquals( 5, exception.getColumn() );
+    }
+  }
+
+  @Test
+  public void reset_afterMalformedInput() {
+    assertParseException( "{\"a\":[1,{\"b\":" );
+
+    reader.reset( "{\"qr\":28}" );
+    assertEquals( Event.START_OBJECT, reader.next() );
+    assertEquals( Event.NAME, reader.next() );
+    assertTrue( reader.isName( "qr" ) );
+    assertEquals( Event.NUMBER, reader.next() );
+    assertEquals( 28, reader.getInt() );
+    assertEquals( Event.END_OBJECT, reader.next() );
+    assertEquals( Event.END_OF_TEXT, reader.next() );
+  }
+
+  private void assertNext( Event event, int depth ) {
+    assertEquals( event, reader.next() );
+    assertEquals( event, reader.getEvent() );
+    assertEquals( depth, reader.getDepth() );
+  }
+
+  private void assertNumber( String number, double expected ) {
+    reader.reset( "[" + number + "]" );
+    reader.next();
+    assertEquals( number, Event.NUMBER, reader.next() );
+    assertEquals( number, Double.doubleToLongBits( expected ), Double.doubleToLongBits( reader.getDouble() ) );
+    assertEquals( number, reader.getString() );
+    assertEquals( Event.END_ARRAY, reader.next() );
+  }
+
+  private void assertParseException( String text ) {
+    reader.reset( text );
+    try {
+      readAll();
+      fail( "No ParseException for " + text );
+    } catch( ParseException exception ) {
+      // expected
+    }
+  }
+
+  private void readAll() {
+    while( reader.next() != Event.END_OF_TEXT ) {
+      // read until the end of the text
+    }
+  }
+
+}
@@ -0,0 +1,541 @@
+/*******************************************************************************
+ * Copyright (c) 2013 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.json;
+
+import java.math.BigDecimal;
+
+
+/**
+ * A pull reader that walks a JSON text event by event, without building any {@link JsonValue}.
+ * <p>
+ * The reader is meant to be reused: once created, reading a text with {@link #reset(CharSequence)}
+ * does not allocate as long as names and values are compared with {@link #isName(String)} and read
+ * with {@link #getDouble()} or {@link #getInt()}. Parts of the text that are easier to handle as a
+ * tree can still be read with {@link #readValue()}.
+ * </p>
+ * <pre>
+ * reader.reset( text );
+ * reader.next(); // START_OBJECT
+ * while( reader.next() == Event.NAME ) {
+ *   if( reader.isName( "x" ) &amp;&amp; reader.next() == Event.NUMBER ) {
+ *     x = reader.getDouble();
+ *   } else {
+ *     reader.skipValue();
+ *   }
+ * }
+ * </pre>
+ */
+public class JsonReader {
+
+  /**
+   * The events returned by {@link JsonReader#next()}
+   */
+  public enum Event {
+    START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_OF_TEXT
+  }
+
+  private static final int FIRST_ELEMENT = 0;
+  private static final int NAME_SEPARATOR = 1;
+  private static final int NEXT_ELEMENT = 2;
+  private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+      1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+  private static final int MAX_EXACT_DIGITS = 15;
+
+  private CharSequence text;
+  private int length;
+  private int index;
+  private int expect;
+  private Event event;
+  private boolean[] objects;
+  private int depth;
+  private char[] chars;
+  private int charCount;
+  private int tokenStart;
+  private int tokenEnd;
+  private boolean exactNumber;
+
+  /**
+   * Creates a new reader, {@link #reset(CharSequence)} must be called before reading.
+   */
+  public JsonReader() {
+    objects = new boolean[ 16 ];
+    chars = new char[ 64 ];
+    reset( "" );
+  }
+
+  /**
+   * Creates a new reader on the given text.
+   *
+   * @param text the JSON text to read
+   */
+  public JsonReader( CharSequence text ) {
+    this();
+    reset( text );
+  }
+
+  /**
+   * Starts reading the given text from its beginning.
+   *
+   * @param text the JSON text to read
+   */
+  public void reset( CharSequence text ) {
+    this.text = text;
+    length = text.length();
+    index = 0;
+    depth = 0;
+    expect = FIRST_ELEMENT;
+    event = null;
+  }
+
+  /**
+   * Reads the next event.
+   *
+   * @return the event, {@link Event#END_OF_TEXT} once the top level value was completely read
+   * @throws ParseException if the text is not valid JSON
+   */
+  public Event next() {
+    skipWhiteSpace();
+    if( depth == 0 ) {
+      if( expect == NEXT_ELEMENT ) {
+        if( index < length ) {
+          throw error( "Unexpected character" );
+        }
+        return event = Event.END_OF_TEXT;
+      }
+      return startValue( current() );
+    }
+    boolean inObject = objects[ depth - 1 ];
+    int current = current();
+    switch( expect ) {
+    case NAME_SEPARATOR:
+      if( current != ':' ) {
+        throw expected( "':'" );
+      }
+      index++;
+      skipWhiteSpace();
+      return startValue( current() );
+    case NEXT_ELEMENT:
+      if( current == ',' ) {
+        index++;
+        skipWhiteSpace();
+        return inObject ? readName( current() ) : startValue( current() );
+      }
+      return readEnd( current, inObject );
+    default:
+      if( current == ( inObject ? '}' : ']' ) ) {
+        return readEnd( current, inObject );
+      }
+      return inObject ? readName( current ) : startValue( current );
+    }
+  }
+
+  /**
+   * Returns the last event returned by {@link #next()}.
+   *
+   * @return the current event, <code>null</code> if reading did not start
+   */
+  public Event getEvent() {
+    return event;
+  }
+
+  /**
+   * Returns the number of objects and arrays that contain the current position.
+   *
+   * @return the current depth, 0 at top level
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Skips the value of the current event : the value following the current name, or the rest of
+   * the current object or array if the current event starts one. Does nothing for other events.
+   *
+   * @throws ParseException if the text is not valid JSON
+   */
+  public void skipValue() {
+    if( event == Event.NAME ) {
+      next();
+    }
+    if( event == Event.START_OBJECT || event == Event.START_ARRAY ) {
+      int target = depth - 1;
+      while( depth > target ) {
+        next();
+      }
+    }
+  }
+
+  /**
+   * Reads the value of the current event as a {@link JsonValue} : the value following the current
+   * name, or the whole object or array if the current event starts one.
+   * <p>
+   * An object or an array is skipped first, then its text is parsed again with
+   * {@link JsonValue#readFrom(String)} : this allocates the whole tree, prefer the events where
+   * speed matters.
+   * </p>
+   *
+   * @return the value
+   * @throws ParseException if the text is not valid JSON
+   * @throws IllegalStateException if the current event does not start a value
+   */
+  public JsonValue readValue() {
+    if( event == Event.NAME ) {
+      next();
+    }
+    switch( event ) {
+    case START_OBJECT:
+    case START_ARRAY:
+      int start = tokenStart;
+      skipValue();
+      return JsonValue.readFrom( text.subSequence( start, index ).toString() );
+    case STRING:
+      return JsonValue.valueOf( getString() );
+    case NUMBER:
+      return new JsonNumber( getString() );
+    case TRUE:
+      return JsonValue.TRUE;
+    case FALSE:
+      return JsonValue.FALSE;
+    case NULL:
+      return JsonValue.NULL;
+    default:
+      throw new IllegalStateException( "Not a value: " + event );
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if the current name or string is equal to the given one, without
+   * allocating.
+   *
+   * @param name the expected name
+   * @return <code>true</code> if the current name or string matches
+   */
+  public boolean isName( String name ) {
+    if( name.length() != charCount ) {
+      return false;
+    }
+    for( int i = 0; i < charCount; i++ ) {
+      if( chars[ i ] != name.charAt( i ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the current name, string or number as a String.
+   *
+   * @return a new String
+   */
+  public String getString() {
+    if( event == Event.NUMBER ) {
+      return text.subSequence( tokenStart, tokenEnd ).toString();
+    }
+    return new String( chars, 0, charCount );
+  }
+
+  /**
+   * Returns the current number as a double. Numbers with at most 15 digits and no exponent are
+   * converted without allocating.
+   *
+   * @return the value of the current number
+   * @throws IllegalStateException if the current event is not a number
+   */
+  public double getDouble() {
+    checkNumber();
+    if( !exactNumber ) {
+      return Double.parseDouble( getString() );
+    }
+    boolean negative = false;
+    long mantissa = 0;
+    int scale = -1;
+    for( int i = tokenStart; i < tokenEnd; i++ ) {
+      char ch = text.charAt( i );
+      if( ch == '-' ) {
+        negative = true;
+      } else if( ch == '.' ) {
+        scale = 0;
+      } else {
+        mantissa = mantissa * 10 + ( ch - '0' );
+        if( scale >= 0 ) {
+          scale++;
+        }
+      }
+    }
+    // Both operands are exact, so the division is correctly rounded like Double.parseDouble
+    double value = scale > 0 ? mantissa / POWERS_OF_TEN[ scale ] : mantissa;
+    return negative ? -value : value;
+  }
+
+  /**
+   * Returns the current number as an int, the fractional part is truncated.
+   *
+   * @return the value of the current number
+   * @throws IllegalStateException if the current event is not a number
+   */
+  public int getInt() {
+    return (int)getDouble();
+  }
+
+  /**
+   * Returns the current number as a BigDecimal, keeping its scale.
+   *
+   * @return a new BigDecimal
+   * @throws IllegalStateException if the current event is not a number
+   */
+  public BigDecimal getBigDecimal() {
+    checkNumber();
+    return new BigDecimal( getString() );
+  }
+
+  private void checkNumber() {
+    if( event != Event.NUMBER ) {
+      throw new IllegalStateException( "Not a number: " + event );
+    }
+  }
+
+  private Event startValue( int current ) {
+    tokenStart = index;
+    switch( current ) {
+    case '{':
+      index++;
+      push( true );
+      return event = Event.START_OBJECT;
+    case '[':
+      index++;
+      push( false );
+      return event = Event.START_ARRAY;
+    case '"':
+      readString();
+      expect = NEXT_ELEMENT;
+      return event = Event.STRING;
+    case 'n':
+      readLiteral( "null" );
+      return event = Event.NULL;
+    case 't':
+      readLiteral( "true" );
+      return event = Event.TRUE;
+    case 'f':
+      readLiteral( "false" );
+      return event = Event.FALSE;
+    case '-':
+    case '0':
+    case '1':
+    case '2':
+    case '3':
+    case '4':
+    case '5':
+    case '6':
+    case '7':
+    case '8':
+    case '9':
+      readNumber();
+      expect = NEXT_ELEMENT;
+      return event = Event.NUMBER;
+    default:
+      throw expected( "value" );
+    }
+  }
+
+  private Event readName( int current ) {
+    if( current != '"' ) {
+      throw expected( "name" );
+    }
+    tokenStart = index;
+    readString();
+    expect = NAME_SEPARATOR;
+    return event = Event.NAME;
+  }
+
+  private Event readEnd( int current, boolean inObject ) {
+    if( current != ( inObject ? '}' : ']' ) ) {
+      throw expected( inObject ? "',' or '}'" : "',' or ']'" );
+    }
+    index++;
+    depth--;
+    expect = NEXT_ELEMENT;
+    return event = inObject ? Event.END_OBJECT : Event.END_ARRAY;
+  }
+
+  private void push( boolean object ) {
+    if( depth == objects.length ) {
+      boolean[] newObjects = new boolean[ depth * 2 ];
+      System.arraycopy( objects, 0, newObjects, 0, depth );
+      objects = newObjects;
+    }
+    objects[ depth++ ] = object;
+    expect = FIRST_ELEMENT;
+  }
+
+  private void readLiteral( String literal ) {
+    for( int i = 0; i < literal.length(); i++ ) {
+      if( current() != literal.charAt( i ) ) {
+        throw expected( "'" + literal.charAt( i ) + "'" );
+      }
+      index++;
+    }
+    expect = NEXT_ELEMENT;
+  }
+
+  private void readString() {
+    index++;
+    charCount = 0;
+    int current = current();
+    while( current != '"' ) {
+      if( current == '\\' ) {
+        index++;
+        readEscape();
+      } else if( current < 0x20 ) {
+        throw expected( "valid string character" );
+      } else {
+        append( (char)current );
+        index++;
+      }
+      current = current();
+    }
+    index++;
+  }
+
+  private void readEscape() {
+    int current = current();
+    switch( current ) {
+    case '"':
+    case '/':
+    case '\\':
+      append( (char)current );
+      break;
+    case 'b':
+      append( '\b' );
+      break;
+    case 'f':
+      append( '\f' );
+      break;
+    case 'n':
+      append( '\n' );
+      break;
+    case 'r':
+      append( '\r' );
+      break;
+    case 't':
+      append( '\t' );
+      break;
+    case 'u':
+      int value = 0;
+      for( int i = 0; i < 4; i++ ) {
+        index++;
+        int digit = Character.digit( current(), 16 );
+        if( digit < 0 ) {
+          throw expected( "hexadecimal digit" );
+        }
+        value = value * 16 + digit;
+      }
+      append( (char)value );
+      break;
+    default:
+      throw expected( "valid escape sequence" );
+    }
+    index++;
+  }
+
+  private void readNumber() {
+    int digits = 0;
+    exactNumber = true;
+    if( current() == '-' ) {
+      index++;
+    }
+    int firstDigit = current();
+    if( !isDigit( firstDigit ) ) {
+      throw expected( "digit" );
+    }
+    index++;
+    digits++;
+    if( firstDigit != '0' ) {
+      while( isDigit( current() ) ) {
+        index++;
+        digits++;
+      }
+    }
+    if( current() == '.' ) {
+      index++;
+      if( !isDigit( current() ) ) {
+        throw expected( "digit" );
+      }
+      while( isDigit( current() ) ) {
+        index++;
+        digits++;
+      }
+    }
+    if( current() == 'e' || current() == 'E' ) {
+      exactNumber = false;
+      index++;
+      if( current() == '+' || current() == '-' ) {
+        index++;
+      }
+      if( !isDigit( current() ) ) {
+        throw expected( "digit" );
+      }
+      while( isDigit( current() ) ) {
+        index++;
+      }
+    }
+    if( digits > MAX_EXACT_DIGITS ) {
+      exactNumber = false;
+    }
+    tokenEnd = index;
+  }
+
+  private void append( char ch ) {
+    if( charCount == chars.length ) {
+      char[] newChars = new char[ charCount * 2 ];
+      System.arraycopy( chars, 0, newChars, 0, charCount );
+      chars = newChars;
+    }
+    chars[ charCount++ ] = ch;
+  }
+
+  private int current() {
+    return index < length ? text.charAt( index ) : -1;
+  }
+
+  private void skipWhiteSpace() {
+    while( index < length && isWhiteSpace( text.charAt( index ) ) ) {
+      index++;
+    }
+  }
+
+  private ParseException expected( String expected ) {
+    if( index >= length ) {
+      return error( "Unexpected end of input" );
+    }
+    return error( "Expected " + expected );
+  }
+
+  private ParseException error( String message ) {
+    int line = 1;
+    int lineStart = 0;
+    for( int i = 0; i < index && i < length; i++ ) {
+      if( text.charAt( i ) == '\n' ) {
+        line++;
+        lineStart = i + 1;
+      }
+    }
+    return new ParseException( message, line, index - lineStart );
+  }
+
+  private static boolean isWhiteSpace( int ch ) {
+    return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r';
+  }
+
+  private static boolean isDigit( int ch ) {
+    return ch >= '0' && ch <= '9';
+  }
+
+}
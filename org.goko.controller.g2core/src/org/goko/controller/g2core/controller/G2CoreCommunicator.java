@@ -11,8 +11,7 @@ import org.goko.controller.g2core.configuration.G2CoreConfiguration;
 import org.goko.controller.g2core.preferences.G2CorePreferences;
 import org.goko.controller.tinyg.commons.AbstractTinyGCommunicator;
 import org.goko.controller.tinyg.commons.ITinyGStatus;
-import org.goko.controller.tinyg.commons.TinyG;
-import org.goko.core.common.GkUtils;
+import org.goko.controller.tinyg.commons.bean.TinyGStatusReport;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Angle;
 import org.goko.core.common.measure.quantity.AngleUnit;
@@ -29,7 +28,6 @@ import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
 import org.goko.core.log.GkLog;
 import org.goko.core.math.Tuple6b;
 
-import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 
@@ -65,7 +63,7 @@ public class G2CoreCommunicator extends AbstractTinyGCommunicator<G2CoreConfigur
 	@Override
 	protected void onConnected() throws GkException {
 		getIncomingBuffer().clear();
-		getConnectionService().addInputDataListener(this);
+		getConnectionService().addInputByteListener(this);
 		forceJsonMode();
 		forceStatusReportFormat();
 		requestStatusReport();
@@ -80,19 +78,17 @@ public class G2CoreCommunicator extends AbstractTinyGCommunicator<G2CoreConfigur
 	@Override
 	protected void onDisconnected() throws GkException {
 		getIncomingBuffer().clear();
-		getConnectionService().removeInputDataListener(this);
+		getConnectionService().removeInputByteListener(this);
 		getControllerService().setState(G2Core.State.UNDEFINED);
 		getControllerService().resetConfiguration();
 	}
 	
 	/** (inheritDoc)
-	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#getResponseFooter(org.goko.controller.tinyg.commons.JsonValue)
+	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#getResponseStatus(int)
 	 */
 	@Override
-	protected ITinyGStatus getResponseFooter(JsonValue footerBody) throws GkException {
-		JsonArray footerArray = footerBody.asArray();
-		int statusCodeIntValue = footerArray.get(TinyG.FOOTER_STATUS_CODE_INDEX).asInt();
-		ITinyGStatus status = G2CoreStatusCode.findEnum(statusCodeIntValue);
+	protected ITinyGStatus getResponseStatus(int statusCode) throws GkException {
+		ITinyGStatus status = G2CoreStatusCode.findEnum(statusCode);
 		return status;
 	}
 
@@ -108,10 +104,10 @@ public class G2CoreCommunicator extends AbstractTinyGCommunicator<G2CoreConfigur
 		}else{
 			for(String name : responseBody.names()){
 				if(StringUtils.equals(name, G2Core.STATUS_REPORT)){
-					handleStatusReport((JsonObject)responseBody.get(G2Core.STATUS_REPORT));
+					handleStatusReport(readStatusReport(responseBody.get(G2Core.STATUS_REPORT)));
 				
 				}else if(StringUtils.equals(name, G2Core.QUEUE_REPORT)){
-					handleQueueReport(responseBody.get(G2Core.QUEUE_REPORT));
+					handleQueueReport(responseBody.get(G2Core.QUEUE_REPORT).asInt());
 	
 				}else if(StringUtils.equals(name, G2Core.GCODE_COMMAND)){
 					handleGCodeResponse(responseBody.get(G2Core.GCODE_COMMAND).asString(), status);
@@ -166,44 +162,40 @@ public class G2CoreCommunicator extends AbstractTinyGCommunicator<G2CoreConfigur
 	}
 	
 	/** (inheritDoc)
-	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#handleStatusReport(org.goko.controller.tinyg.commons.JsonObject)
+	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#handleStatusReport(org.goko.controller.tinyg.commons.bean.TinyGStatusReport)
 	 */
 	@Override
-	protected void handleStatusReport(JsonObject statusReportBody) throws GkException {
-		if(statusReportBody.isObject()){
-			JsonObject 	statusReportObject = (JsonObject) statusReportBody;
+	protected void handleStatusReport(TinyGStatusReport statusReport) throws GkException {
+		EnumUnit 		 units 			= findUnits(statusReport);
+		Tuple6b 		 workPosition 	= findWorkPosition(statusReport, units);
+		Tuple6b 		 machinePosition= findMachinePosition(statusReport, units);
+		MachineState 	 state 			= findState(statusReport);
+		EnumDistanceMode distanceMode 	= findDistanceMode(statusReport);			
+		Speed 		 	 velocity 		= findVelocity(statusReport, units);
+		Speed 			 feedrate 		= findFeedrate(statusReport, units);
+		CoordinateSystem cs 			= findCoordinateSystem(statusReport);
+		EnumPlane 		 plane 			= findPlane(statusReport);
+		EnumMotionMode 	 motionMode 	= findMotionMode(statusReport);
+		
+		GCodeContext gcodeContext = new GCodeContext(getControllerService().getGCodeContext());
 
-			EnumUnit 		 units 			= findUnits(statusReportObject);
-			Tuple6b 		 workPosition 	= findWorkPosition(statusReportObject, units);
-			Tuple6b 		 machinePosition= findMachinePosition(statusReportObject, units);
-			MachineState 	 state 			= findState(statusReportObject);
-			EnumDistanceMode distanceMode 	= findDistanceMode(statusReportObject);			
-			Speed 		 	 velocity 		= findVelocity(statusReportObject, units);
-			Speed 			 feedrate 		= findFeedrate(statusReportObject, units);
-			CoordinateSystem cs 			= findCoordinateSystem(statusReportObject);
-			EnumPlane 		 plane 			= findPlane(statusReportObject);
-			EnumMotionMode 	 motionMode 	= findMotionMode(statusReportObject);
-			
-			GCodeContext gcodeContext = new GCodeContext(getControllerService().getGCodeContext());
-
-			gcodeContext.setPosition(workPosition);
-			gcodeContext.setMachinePosition(machinePosition);	
-			gcodeContext.setDistanceMode(distanceMode);
-			gcodeContext.setUnit(units);
-			gcodeContext.setCoordinateSystem(cs);
-			gcodeContext.setFeedrate(feedrate);
-			gcodeContext.setMachinePosition(machinePosition);
-			gcodeContext.setPlane(plane);
-			gcodeContext.setMotionMode(motionMode);
-			
-			if(state != null){
-				getControllerService().setState(state);
-			}
-			if(velocity != null){
-				getControllerService().setVelocity(velocity);
-			}	
-			getControllerService().updateGCodeContext(gcodeContext);
+		gcodeContext.setPosition(workPosition);
+		gcodeContext.setMachinePosition(machinePosition);	
+		gcodeContext.setDistanceMode(distanceMode);
+		gcodeContext.setUnit(units);
+		gcodeContext.setCoordinateSystem(cs);
+		gcodeContext.setFeedrate(feedrate);
+		gcodeContext.setMachinePosition(machinePosition);
+		gcodeContext.setPlane(plane);
+		gcodeContext.setMotionMode(motionMode);
+		
+		if(state != null){
+			getControllerService().setState(state);
 		}
+		if(velocity != null){
+			getControllerService().setVelocity(velocity);
+		}	
+		getControllerService().updateGCodeContext(gcodeContext);
 	}
 
 	
@@ -215,10 +207,9 @@ public class G2CoreCommunicator extends AbstractTinyGCommunicator<G2CoreConfigur
 	 * @param statusReport
 	 * @return
 	 */
-	private MachineState findState(JsonObject statusReport){
-		JsonValue statReport = statusReport.get(G2Core.STATUS_REPORT_STATE);
-		if(statReport != null){			
-			switch(statReport.asInt()){
+	private MachineState findState(TinyGStatusReport statusReport){
+		if(statusReport.getState() != TinyGStatusReport.NONE){			
+			switch(statusReport.getState()){
 			case 0: return MachineState.INITIALIZING;
 			case 1: return MachineState.READY;
 			case 2: return MachineState.ALARM;
@@ -236,11 +227,11 @@ public class G2CoreCommunicator extends AbstractTinyGCommunicator<G2CoreConfigur
 	}
 	
 	/** (inheritDoc)
-	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#handleQueueReport(org.goko.controller.tinyg.commons.JsonValue)
+	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#handleQueueReport(int)
 	 */
 	@Override
-	protected void handleQueueReport(JsonValue queueReportBody) throws GkException {
-		getControllerService().setAvailablePlannerBuffer(queueReportBody.asInt());
+	protected void handleQueueReport(int availablePlannerBuffer) throws GkException {
+		getControllerService().setAvailablePlannerBuffer(availablePlannerBuffer);
 	}
 
 	/** (inheritDoc)
@@ -398,15 +389,15 @@ public class G2CoreCommunicator extends AbstractTinyGCommunicator<G2CoreConfigur
 	 * @throws GkException GkException
 	 */
 	public void resetZero(List<String> axes) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList("G28.3");
+		StringBuilder command = new StringBuilder("G28.3");
 		if(CollectionUtils.isNotEmpty(axes)){
 			for (String axe : axes) {
-				lstBytes.addAll(GkUtils.toBytesList(axe+"0"));
+				command.append(axe).append("0");
 			}
 		}else{
-			lstBytes.addAll( GkUtils.toBytesList("X0Y0Z0"));
+			command.append("X0Y0Z0");
 		}
-		send(lstBytes, true);
+		send(command.toString(), true);
 	}
 	
 	/**
@@ -20,24 +20,19 @@
 package org.goko.controller.grbl.commons;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.goko.controller.grbl.commons.configuration.AbstractGrblConfiguration;
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.applicative.logging.IApplicativeLogService;
-import org.goko.core.common.buffer.ByteCommandBuffer;
+import org.goko.core.common.buffer.ByteLineSplitter;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkFunctionalException;
 import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.common.measure.units.Unit;
 import org.goko.core.connection.DataPriority;
 import org.goko.core.connection.EnumConnectionEvent;
-import org.goko.core.connection.IConnectionDataListener;
+import org.goko.core.connection.IConnectionByteListener;
 import org.goko.core.connection.IConnectionListener;
 import org.goko.core.connection.IConnectionService;
 import org.goko.core.controller.bean.MachineState;
@@ -46,7 +41,7 @@ import org.goko.core.gcode.rs274ngcv3.context.CoordinateSystemFactory;
 import org.goko.core.log.GkLog;
 import org.goko.core.math.Tuple6b;
 
-public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfiguration<C>, M extends MachineState, S extends IGrblControllerService<C, M>> implements IConnectionDataListener, IConnectionListener {
+public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfiguration<C>, M extends MachineState, S extends IGrblControllerService<C, M>> implements IConnectionByteListener, IConnectionListener {
 	/** LOG */
 	private static final GkLog LOG = GkLog.getLogger(AbstractGrblCommunicator.class);
 	/** GCode for turning spindle on CW */
@@ -59,9 +54,9 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 	/** The target Grbl service */
 	private S controllerService;
 	/** Buffer for incoming data	 */
-	private ByteCommandBuffer incomingBuffer;
+	private ByteLineSplitter incomingBuffer;
 	/** End line characters */
-	private List<Character> endLineCharacters;
+	private byte[] endLineCharacters;
 	/** Connected flag */
 	private boolean connected;
 	/** The connection service */
@@ -75,8 +70,7 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 	 */
 	protected AbstractGrblCommunicator(S grblControllerService) {
 		this.controllerService = grblControllerService;
-		this.incomingBuffer    = new ByteCommandBuffer((byte) '\n');
-		this.endLineCharacters = new ArrayList<Character>();
+		this.incomingBuffer    = new ByteLineSplitter((byte) '\n');
 		setEndLineCharacters('\n');
 	}
 	
@@ -85,25 +79,30 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 	 * @param chars the end line characters
 	 */
 	public void setEndLineCharacters(char... chars){
-		this.endLineCharacters = Arrays.asList(ArrayUtils.toObject(chars));
-		this.incomingBuffer.setCommandDelimiter(chars[chars.length - 1]);
+		this.endLineCharacters = new byte[chars.length];
+		for (int i = 0; i < chars.length; i++) {
+			this.endLineCharacters[i] = (byte) chars[i];
+		}
+		this.incomingBuffer.setDelimiter((byte) chars[chars.length - 1]);
 	}
 	
 	/** (inheritDoc)
-	 * @see org.goko.core.connection.IConnectionDataListener#onDataReceived(java.util.List)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataReceived(byte[], int, int)
 	 */
 	@Override
-	public void onDataReceived(List<Byte> data) throws GkException {
-		incomingBuffer.addAll(data);
-		while(incomingBuffer.hasNext()){
-			handleIncomingData(GkUtils.toString(incomingBuffer.unstackNextCommand()));
+	public void onDataReceived(byte[] data, int offset, int length) throws GkException {
+		incomingBuffer.append(data, offset, length);
+		String line = incomingBuffer.nextLine();
+		while(line != null){
+			handleIncomingData(line);
+			line = incomingBuffer.nextLine();
 		}
 	}
 	/** (inheritDoc)
-	 * @see org.goko.core.connection.IConnectionDataListener#onDataSent(java.util.List)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataSent(byte[], int, int)
 	 */
 	@Override
-	public void onDataSent(List<Byte> data) throws GkException {
+	public void onDataSent(byte[] data, int offset, int length) throws GkException {
 		// TODO Auto-generated method stub
 
 	}
@@ -112,12 +111,12 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 	public void onConnectionEvent(EnumConnectionEvent event) throws GkException {
 		if(event == EnumConnectionEvent.CONNECTED){
 			connected = true;
-			connectionService.addInputDataListener(this);
+			connectionService.addInputByteListener(this);
 			onConnected();		
 			getControllerService().onConnected();
 		}else if(event == EnumConnectionEvent.DISCONNECTED){
 			connected = false;
-			connectionService.removeInputDataListener(this);
+			connectionService.removeInputByteListener(this);
 			onDisconnected();
 			getControllerService().onDisconnected();
 		}		
@@ -150,31 +149,31 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 			}else if(StringUtils.startsWith(trimmedData, "Grbl")){
 				handleHeader(trimmedData);
 			/* Received a configuration confirmation */
-			}else if(trimmedData.matches("\\$[0-9]*=.*")){
+			}else if(isConfigurationReading(trimmedData)){
 				handleConfigurationReading(trimmedData);
 				
 			/* Received a probe result */
-			}else if(trimmedData.matches("\\[PRB.*]")){
+			}else if(isBracketReport(trimmedData, "[PRB")){
 				//[PRB:0.000,0.000,0.000:0]
 				handleProbeResult(trimmedData);
 			/* Received a work position report */
-			}else if(trimmedData.matches("\\[TLO.*]")){
+			}else if(isBracketReport(trimmedData, "[TLO")){
 				//[PRB:0.000,0.000,0.000:0]
 				handleToolLengthOffset(trimmedData);
 			/* Received a work position report */
-			}else if(trimmedData.matches("\\[G5.*\\]")){
+			}else if(isBracketReport(trimmedData, "[G5")){
 				handleCoordinateSystemOffset(trimmedData);
 			
-			}else if(trimmedData.matches("\\[MSG:.*\\]")){
+			}else if(isBracketReport(trimmedData, "[MSG:")){
 				handleMessage(trimmedData);
 			/* Received an offset position report */
-			}else if(trimmedData.matches("\\[(G92|G28|G30).*\\]")){					
+			}else if(isBracketReport(trimmedData, "[G92") || isBracketReport(trimmedData, "[G28") || isBracketReport(trimmedData, "[G30")){					
 //				Tuple6b targetPoint = new Tuple6b().setNull();
 //				String coordinateSystemName = parseCoordinateSystem(trimmedData, targetPoint);
 //				grbl.setOffsetCoordinate(coordinateSystemName, targetPoint);
 				// TODO Handle G92
 			/* Parser state report */
-			}else if(trimmedData.matches("\\[GC:.*\\]")){
+			}else if(isBracketReport(trimmedData, "[GC:")){
 				handleParserState(trimmedData);
 			/* Unknown format received */
 			}else if(trimmedData.startsWith("ALARM")){
@@ -188,6 +187,32 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 		}
 	}
 
+	/**
+	 * Test if the given data is a configuration setting such as <code>$0=10</code>
+	 * @param data the received data
+	 * @return <code>true</code> if the data is a configuration setting, <code>false</code> otherwise
+	 */
+	private static boolean isConfigurationReading(String data){
+		if(data.isEmpty() || data.charAt(0) != '$'){
+			return false;
+		}
+		int index = 1;
+		while(index < data.length() && Character.isDigit(data.charAt(index))){
+			index++;
+		}
+		return index < data.length() && data.charAt(index) == '=';
+	}
+
+	/**
+	 * Test if the given data is a bracketed report starting with the given prefix, such as <code>[GC:G0 G54]</code>
+	 * @param data the received data
+	 * @param prefix the expected prefix including the opening bracket
+	 * @return <code>true</code> if the data is a report with the given prefix, <code>false</code> otherwise
+	 */
+	private static boolean isBracketReport(String data, String prefix){
+		return data.startsWith(prefix) && data.endsWith("]");
+	}
+
 	/**
 	 * @param trimmedData
 	 */
@@ -339,13 +364,19 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 		sendImmediately(TURN_SPINDLE_OFF_GCODE, true);
 	}
 	/**
-	 * Add the end line character at the end of the given list
-	 * @param list the list
-	 */
-	private void addEndLineCharacter(List<Byte> list){
-		for (char endChar : endLineCharacters) {
-			list.add(new Byte((byte) endChar));	
-		}	
+	 * Creates the array of bytes to send for the given data, optionally followed by the end line characters
+	 * @param data the data to send
+	 * @param useEndLineCharacter <code>true</code> to append end line characters, <code>false</code> otherwise
+	 * @return a new byte array
+	 */
+	private byte[] toBytes(byte[] data, boolean useEndLineCharacter){
+		if(!useEndLineCharacter){
+			return data;
+		}
+		byte[] bytes = new byte[data.length + endLineCharacters.length];
+		System.arraycopy(data, 0, bytes, 0, data.length);
+		System.arraycopy(endLineCharacters, 0, bytes, data.length, endLineCharacters.length);
+		return bytes;
 	}
 	
 	/**
@@ -370,24 +401,17 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 	 * @throws GkException GkException
 	 */
 	public final void send(String data, boolean useEndLineCharacter) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList(data);
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstBytes);
-		}
-		getConnectionService().send(lstBytes);
+		send(data.getBytes(), useEndLineCharacter, false);
 	}
 	
 	/**
-	 * Sends the given list of byte over the connection service
-	 * @param lstByte the list of byte to send
+	 * Sends the given bytes over the connection service
+	 * @param data the bytes to send
 	 * @param useEndLineCharacter <code>true</code> to append end line characters before sending, <code>false</code> otherwise
 	 * @throws GkException GkException
 	 */
-	public final void send(List<Byte> lstByte, boolean useEndLineCharacter) throws GkException{
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstByte);
-		}
-		getConnectionService().send(lstByte);
+	public final void send(byte[] data, boolean useEndLineCharacter) throws GkException{
+		send(data, useEndLineCharacter, false);
 	}
 
 	/**
@@ -397,11 +421,7 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 	 * @throws GkException GkException
 	 */
 	public final void sendImmediately(String data, boolean useEndLineCharacter) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList(data);
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstBytes);
-		}
-		getConnectionService().send(lstBytes, DataPriority.IMPORTANT);
+		send(data.getBytes(), useEndLineCharacter, true);
 	}
 	
 	/**
@@ -411,25 +431,47 @@ public abstract class AbstractGrblCommunicator<C extends AbstractGrblConfigurati
 	 * @throws GkException GkException
 	 */
 	public final void sendImmediately(byte data, boolean useEndLineCharacter) throws GkException{
-		List<Byte> lstBytes = new ArrayList<>();
-		lstBytes.add(data);
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstBytes);
-		}
-		getConnectionService().send(lstBytes, DataPriority.IMPORTANT);
+		send(new byte[]{data}, useEndLineCharacter, true);
 	}
 	
 	/**
-	 * Sends the given list of byte over the connection service with high priority
-	 * @param lstByte the list of byte to send
+	 * Sends the given bytes over the connection service with high priority
+	 * @param data the bytes to send
 	 * @param useEndLineCharacter <code>true</code> to append end line characters before sending, <code>false</code> otherwise
 	 * @throws GkException GkException
 	 */
-	public final void sendImmediately(List<Byte> lstByte, boolean useEndLineCharacter) throws GkException{
+	public final void sendImmediately(byte[] data, boolean useEndLineCharacter) throws GkException{
+		send(data, useEndLineCharacter, true);
+	}
+
+	/**
+	 * Sends the given bytes over the connection service. Lines ended by the end line characters are registered before they are sent, 
+	 * so their acknowledgment can't be received first
+	 * @param data the bytes to send
+	 * @param useEndLineCharacter <code>true</code> to append end line characters before sending, <code>false</code> otherwise
+	 * @param immediately <code>true</code> to send with high priority, <code>false</code> otherwise
+	 * @throws GkException GkException
+	 */
+	private void send(byte[] data, boolean useEndLineCharacter, boolean immediately) throws GkException{
+		byte[] bytes = toBytes(data, useEndLineCharacter);
 		if(useEndLineCharacter){
-			addEndLineCharacter(lstByte);
+			onLineSent(bytes.length);
 		}
-		getConnectionService().send(lstByte, DataPriority.IMPORTANT);
+		if(immediately){
+			getConnectionService().send(bytes, DataPriority.IMPORTANT);
+		}else{
+			getConnectionService().send(bytes);
+		}
+	}
+
+	/**
+	 * Notifies the controller service that a line was sent. Grbl acknowledges every line, whether it's a streamed GCode line or a command
+	 * such as <code>$G</code>, so they all use space in Grbl RX buffer until the acknowledgment
+	 * @param length the number of bytes of the line, including the end line characters
+	 * @throws GkException GkException
+	 */
+	protected void onLineSent(int length) throws GkException{
+		controllerService.onLineSent(length);
 	}
 
 	/**
@@ -27,8 +27,6 @@ import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -37,7 +35,6 @@ import org.goko.controller.grbl.commons.configuration.IGrblConfigurationListener
 import org.goko.controller.grbl.commons.configuration.settings.GrblSetting;
 import org.goko.controller.grbl.commons.jog.AbstractGrblJogger;
 import org.goko.controller.grbl.commons.schedule.GrblScheduler;
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.applicative.logging.IApplicativeLogService;
 import org.goko.core.common.event.EventDispatcher;
 import org.goko.core.common.event.EventListener;
@@ -112,14 +109,15 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	private IExecutionService<ExecutionTokenState, IExecutionToken<ExecutionTokenState>> executionService;
 	/** The Grbl Executor */
 	private X executor;
-	/** The history of used buffer for the last sent command s*/
-	private LinkedBlockingQueue<Integer> usedBufferStack;
+	/** The lines sent to Grbl and not acknowledged yet */
+	private GrblRxBuffer rxBuffer;
 	/** GCode context listener delegate */
 	private ObservableDelegate<IGCodeContextListener<GCodeContext>> gcodeContextListener;
 	/** Jog runnable */
 	private J jogger;
-	public AtomicInteger pendingCommandsCount;
 	public Integer plannerBufferCapacity;
+	/** The capacity of Grbl RX buffer */
+	private volatile int rxBufferCapacity;
 	
 	/**
 	 * Constructor
@@ -127,7 +125,7 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 */
 	public AbstractGrblControllerService(S internalState, C configuration) throws GkException {
 		this.configuration = configuration;
-		this.usedBufferStack = new LinkedBlockingQueue<Integer>();
+		this.rxBuffer = new GrblRxBuffer();
 		this.gcodeContextListener = new GCodeContextObservable();		
 		this.configurationListener = new CopyOnWriteArrayList<IGrblConfigurationListener<C>>();
 		this.grblState = internalState;
@@ -137,7 +135,7 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 		this.executor = createExecutor();
 		this.statusPoller = new GrblStatusPoller(this);		
 		getInternalState().setActivePolling(true);
-		this.pendingCommandsCount = new AtomicInteger(0);
+		this.rxBufferCapacity = Grbl.GRBL_RX_BUFFER_SIZE;
 	}
 
 	/**
@@ -212,34 +210,87 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 */
 	@Override
 	public void send(GCodeLine gCodeLine) throws GkException{
-		String cmd = gcodeService.render(gCodeLine);
-		List<Byte> byteCommand = GkUtils.toBytesList(cmd);		
-		int usedBufferCount = CollectionUtils.size(byteCommand);
-		// Increment before we even send, to make sure we have enough space
-		consumeRxBuffer(usedBufferCount + 2); // Dirty hack for end of line chars
-		increasePendingCommands();
+		send(gCodeLine, renderLine(gCodeLine));
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.IGrblControllerService#send(org.goko.core.gcode.element.GCodeLine, byte[])
+	 */
+	@Override
+	public void send(GCodeLine gCodeLine, byte[] byteCommand) throws GkException{
+		// RX buffer space is consumed by the communicator, as for any other line
 		communicator.send( byteCommand, true);
-		
+		onMotionCommandSent();
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.IGrblControllerService#renderLine(org.goko.core.gcode.element.GCodeLine)
+	 */
+	@Override
+	public byte[] renderLine(GCodeLine line) throws GkException {
+		return gcodeService.render(line).getBytes();
+	}
+	
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.IGrblControllerService#getRxBufferUsage(org.goko.core.gcode.element.GCodeLine)
+	 */
+	@Override
+	public int getRxBufferUsage(GCodeLine line) throws GkException {
+		// Conservative count, allowing up to two end line characters
+		return renderLine(line).length + 2;
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.IGrblControllerService#getRxBufferCapacity()
+	 */
+	@Override
+	public int getRxBufferCapacity() {
+		return rxBufferCapacity;
+	}
+	
 	/**
-	 * Register a quantity of space buffer being used for the last sent data
+	 * Handles the buffer feedback of a received status report : feeds the status poller and learns the capacity of Grbl RX buffer
+	 * @param machineActive <code>true</code> if the machine is moving or a file is being streamed
+	 * @param availableRxBuffer the free space reported in Grbl RX buffer, or a negative value if not reported
+	 * @throws GkException GkException
+	 */
+	protected void handleStatusReportFeedback(boolean machineActive, int availableRxBuffer) throws GkException{
+		if(availableRxBuffer > 0 && !machineActive && rxBuffer.getPendingLineCount() == 0){
+			// Nothing is waiting in the RX buffer : the whole buffer is reported, minus the slot kept free by Grbl
+			rxBufferCapacity = Math.max(1, availableRxBuffer - 1);
+		}
+		statusPoller.onStatusReport(machineActive, availableRxBuffer, rxBufferCapacity);
+		grblState.setStatusReportStatistics(statusPoller.getReportRate(), statusPoller.getReportJitter());
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.IGrblControllerService#onLineSent(int)
+	 */
+	@Override
+	public void onLineSent(int length) throws GkException {
+		consumeRxBuffer(length);
+	}
+
+	/**
+	 * Register a quantity of space buffer being used for the last sent line
 	 * @param amount the amount of used space
 	 * @throws GkException GkException
 	 */
 	protected void consumeRxBuffer(int amount) throws GkException{
-		usedBufferStack.add(amount);
+		int usedRxBuffer = rxBuffer.consume(amount);
 		setAvailableRxBuffer(getAvailableRxBuffer() - amount);		
+		grblState.setUsedRxBuffer(usedRxBuffer);
 	}
 
 	/**
-	 * Decrement the used serial buffer by depiling the size of the send data, in reverse order
+	 * Decrement the used serial buffer by the size of the oldest line sent, when it's acknowledged by Grbl
 	 * @throws GkException GkException
 	 */
 	protected void releaseRxBuffer() throws GkException{
-		if(CollectionUtils.isNotEmpty(usedBufferStack)){
-			Integer amount = usedBufferStack.poll();
+		int amount = rxBuffer.release();
+		if(amount > 0){
 			setAvailableRxBuffer(getAvailableRxBuffer() + amount);			
+			grblState.setUsedRxBuffer(rxBuffer.getUsed());
 		}
 	}
 		
@@ -387,7 +438,7 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 * @throws GkException GkException
 	 */
 	public void refreshStatus() throws GkException{
-		communicator.send( Grbl.CURRENT_STATUS, false );		
+		communicator.sendImmediately( Grbl.CURRENT_STATUS, false );
 	}
 
 	public void refreshSpaceCoordinates() throws GkException{
@@ -418,6 +469,7 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 
 	protected void initialiseConnectedState() throws GkException{
 		setAvailableRxBuffer(0);
+		resetUsedRxBuffer();
 		refreshConfiguration();
 		refreshSpaceCoordinates();
 		refreshParserState();
@@ -438,9 +490,8 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 */
 
 	public void startHomingSequence() throws GkException{
-		List<Byte> homeCommand = new ArrayList<Byte>();
-		homeCommand.addAll(GkUtils.toBytesList(Grbl.HOME_COMMAND));
-		communicator.send( homeCommand, true );
+		communicator.send( Grbl.HOME_COMMAND, true );
+		onMotionCommandSent();
 	}
 
 	/**
@@ -449,9 +500,7 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 * @throws GkException GkException
 	 */
 	public void pauseMotion() throws GkException{
-		List<Byte> pauseCommand = new ArrayList<Byte>();
-		pauseCommand.add(Grbl.PAUSE_COMMAND);
-		communicator.sendImmediately( pauseCommand, false );
+		communicator.sendImmediately( Grbl.PAUSE_COMMAND, false );
 		if(executionService.getExecutionState() != ExecutionState.IDLE){
 			executionService.pauseQueueExecution();
 		}
@@ -463,16 +512,23 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 * @throws GkException GkException
 	 */
 	public void stopMotion() throws GkException{
-		List<Byte> stopCommand = new ArrayList<Byte>();
-		stopCommand.add(Grbl.PAUSE_COMMAND);
-		stopCommand.add(Grbl.RESET_COMMAND);
+		byte[] stopCommand = new byte[]{Grbl.PAUSE_COMMAND, Grbl.RESET_COMMAND};
 		
 		communicator.sendImmediately(stopCommand, true);
 		if(executionService.getExecutionState() != ExecutionState.IDLE){
 			executionService.stopQueueExecution();
 		}
 		setAvailableRxBuffer(0);
-		usedBufferStack.clear();
+		resetUsedRxBuffer();
+	}
+	
+	/**
+	 * Forget about all the bytes sent and not acknowledged, after a reset of Grbl for example
+	 * @throws GkException GkException
+	 */
+	protected void resetUsedRxBuffer() throws GkException{
+		rxBuffer.reset();
+		grblState.setUsedRxBuffer(0);
 	}
 
 	/**
@@ -481,9 +537,8 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 * @throws GkException GkException
 	 */
 	public void startMotion() throws GkException{
-		List<Byte> startResumeCommand = new ArrayList<Byte>();
-		startResumeCommand.add(Grbl.RESUME_COMMAND);
-		communicator.send( startResumeCommand, false );
+		communicator.send( new byte[]{Grbl.RESUME_COMMAND}, false );
+		onMotionCommandSent();
 		if(executionService.getExecutionState() == ExecutionState.PAUSED){
 			executionService.resumeQueueExecution();
 		}else if(executionService.getExecutionState() == ExecutionState.RUNNING){
@@ -492,9 +547,8 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	}
 	
 	public void resumeMotion() throws GkException{
-		List<Byte> startResumeCommand = new ArrayList<Byte>();
-		startResumeCommand.add(Grbl.RESUME_COMMAND);
-		communicator.send( startResumeCommand, false );		
+		communicator.send( new byte[]{Grbl.RESUME_COMMAND}, false );		
+		onMotionCommandSent();
 		executionService.resumeQueueExecution();		
 	}
 
@@ -511,15 +565,15 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	 */
 	@Override
 	public void resetZero(List<String> axes) throws GkException {
-		List<Byte> lstBytes = GkUtils.toBytesList("G92");
+		StringBuilder command = new StringBuilder("G92");
 		if(CollectionUtils.isNotEmpty(axes)){
 			for (String axe : axes) {
-				lstBytes.addAll(GkUtils.toBytesList(axe+"0"));
+				command.append(axe).append("0");
 			}
 		}else{
-			lstBytes.addAll( GkUtils.toBytesList("X0Y0Z0"));
+			command.append("X0Y0Z0");
 		}
-		communicator.send(lstBytes, true);
+		communicator.send(command.toString(), true);
 	}
 
 	public void killAlarm() throws GkException{
@@ -971,6 +1025,14 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 		return statusPoller;
 	}
 	
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.IGrblControllerService#onMotionCommandSent()
+	 */
+	@Override
+	public void onMotionCommandSent() {
+		statusPoller.wakeUp();
+	}
+	
 	/** (inheritDoc)
 	 * @see org.goko.controller.grbl.commons.IGrblControllerService#schedule()
 	 */
@@ -995,21 +1057,22 @@ public abstract class AbstractGrblControllerService <M extends MachineState,
 	public void onDisconnected() throws GkException {
 		getStatusPoller().stop();
 		plannerBufferCapacity = null;
+		rxBufferCapacity = Grbl.GRBL_RX_BUFFER_SIZE;
 	}
 
 	/**
-	 * @return the pendingCommandsCount
+	 * @return the number of lines sent and not acknowledged yet
 	 */
 	public int getPendingCommandsCount() {
-		return pendingCommandsCount.get();
+		return rxBuffer.getPendingLineCount();
 	}
 	
-	protected void decreasePendingCommands(){
-		pendingCommandsCount.set(Math.max(0, pendingCommandsCount.get() - 1));
-	}
-	
-	protected void increasePendingCommands(){
-		pendingCommandsCount.set(Math.max(0, pendingCommandsCount.get() + 1));
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.IGrblControllerService#getUsedRxBuffer()
+	 */
+	@Override
+	public int getUsedRxBuffer() {
+		return rxBuffer.getUsed();
 	}
 
 	/** (inheritDoc)
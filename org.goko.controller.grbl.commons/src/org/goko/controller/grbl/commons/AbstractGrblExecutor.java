@@ -3,11 +3,10 @@
  */
 package org.goko.controller.grbl.commons;
 
-import java.util.List;
-
-import org.apache.commons.collections.CollectionUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.execution.monitor.executor.AbstractStreamingExecutor;
+import org.goko.core.execution.monitor.executor.IGCodeLineRenderer;
+import org.goko.core.execution.monitor.executor.LookAheadLineRenderer;
 import org.goko.core.gcode.element.GCodeLine;
 import org.goko.core.gcode.element.IGCodeProvider;
 import org.goko.core.gcode.execution.ExecutionToken;
@@ -24,9 +23,20 @@ import org.goko.core.gcode.service.IGCodeExecutionListener;
 public abstract class AbstractGrblExecutor<T extends IGrblControllerService<?, ?>> extends AbstractStreamingExecutor<ExecutionTokenState, IExecutionToken<ExecutionTokenState>> implements IExecutor<ExecutionTokenState, IExecutionToken<ExecutionTokenState>>, IGCodeExecutionListener<ExecutionTokenState, IExecutionToken<ExecutionTokenState>>{
 	/** The underlying grbl service */
 	private T grblService;
+	/** The flow control used to stream lines */
+	private GrblStreamingMode streamingMode;
+	/** Renders the lines ahead of the streaming while waiting for space in Grbl buffer */
+	private final LookAheadLineRenderer lineRenderer;
 
-	public AbstractGrblExecutor(T grblService) {
+	public AbstractGrblExecutor(final T grblService) {
 		this.grblService = grblService;
+		this.streamingMode = GrblStreamingMode.CHARACTER_COUNTING;
+		this.lineRenderer = new LookAheadLineRenderer(new IGCodeLineRenderer() {
+			@Override
+			public byte[] render(GCodeLine line) throws GkException {
+				return grblService.renderLine(line);
+			}
+		}, LookAheadLineRenderer.DEFAULT_DEPTH);
 	}
 	/** (inheritDoc)
 	 * @see org.goko.core.gcode.execution.IExecutor#createToken(org.goko.core.gcode.element.IGCodeProvider)
@@ -36,12 +46,25 @@ public abstract class AbstractGrblExecutor<T extends IGrblControllerService<?, ?
 		return new ExecutionToken<ExecutionTokenState>(provider, ExecutionTokenState.NONE);
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.core.execution.monitor.executor.AbstractStreamingExecutor#executeToken(org.goko.core.gcode.execution.IExecutionToken)
+	 */
+	@Override
+	public void executeToken(IExecutionToken<ExecutionTokenState> token) throws GkException {
+		lineRenderer.start(token.getGCodeProvider());
+		try{
+			super.executeToken(token);
+		}finally{
+			lineRenderer.stop();
+		}
+	}
+
 	/** (inheritDoc)
 	 * @see org.goko.core.execution.monitor.executor.AbstractStreamingExecutor#send(org.goko.core.gcode.element.GCodeLine)
 	 */
 	@Override
 	protected void send(GCodeLine line) throws GkException {
-		grblService.send(line);
+		grblService.send(line, lineRenderer.take(line));
 		getToken().setLineState(line.getId(), ExecutionTokenState.SENT);
 	}
 
@@ -51,10 +74,41 @@ public abstract class AbstractGrblExecutor<T extends IGrblControllerService<?, ?
 	@Override
 	protected boolean isReadyForNextLine() throws GkException {
 		if(getToken().hasMoreLine()){
-			return grblService.getPendingCommandsCount() <= 2;
+			if(streamingMode == GrblStreamingMode.CHARACTER_COUNTING){
+				int usedRxBuffer = grblService.getUsedRxBuffer();
+				// A line bigger than the buffer can still be sent once everything else is acknowledged
+				return usedRxBuffer == 0 || usedRxBuffer + getRxBufferUsage(getToken().getNextLine()) <= grblService.getRxBufferCapacity();
+			}
+			return grblService.getPendingCommandsCount() <= Grbl.GRBL_MAX_PENDING_COMMANDS;
 		}
 		return true;
 	}
+
+	/**
+	 * Returns the RX buffer usage of the given line. The line is rendered once, the rendered bytes are kept until
+	 * the line is actually sent
+	 * @param line the line
+	 * @return the number of bytes used by the line in the RX buffer
+	 * @throws GkException GkException
+	 */
+	private int getRxBufferUsage(GCodeLine line) throws GkException{
+		// Conservative count, allowing up to two end line characters
+		return lineRenderer.peek(line).length + 2;
+	}
+
+	/**
+	 * @return the streamingMode
+	 */
+	public GrblStreamingMode getStreamingMode() {
+		return streamingMode;
+	}
+
+	/**
+	 * @param streamingMode the streamingMode to set
+	 */
+	public void setStreamingMode(GrblStreamingMode streamingMode) {
+		this.streamingMode = streamingMode;
+	}
 	
 	/** (inheritDoc)
 	 * @see org.goko.core.gcode.execution.IExecutor#isReadyForQueueExecution()
@@ -68,10 +122,8 @@ public abstract class AbstractGrblExecutor<T extends IGrblControllerService<?, ?
 	 * @throws GkException
 	 */
 	public GCodeLine markNextLineAsError() throws GkException{
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
-		GCodeLine line = null;
-		if(CollectionUtils.isNotEmpty(lstLines)){
-			line = lstLines.get(0);
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
+		if(line != null){
 			getToken().setLineState(line.getId(), ExecutionTokenState.ERROR);
 			getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
 		}
@@ -83,14 +135,10 @@ public abstract class AbstractGrblExecutor<T extends IGrblControllerService<?, ?
 	 * @throws GkException
 	 */
 	public void confirmNextLineExecution() throws GkException{
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
-		if(CollectionUtils.isNotEmpty(lstLines)){
-			GCodeLine line = null;
-			if(CollectionUtils.isNotEmpty(lstLines)){
-				line = lstLines.get(0);
-				getToken().setLineState(line.getId(), ExecutionTokenState.EXECUTED);
-				getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
-			}
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
+		if(line != null){
+			getToken().setLineState(line.getId(), ExecutionTokenState.EXECUTED);
+			getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
 			notifyReadyForNextLineIfRequired();
 			notifyTokenCompleteIfRequired();		
 		}
@@ -19,6 +19,8 @@
  */
 package org.goko.controller.grbl.commons;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -119,6 +121,9 @@ public abstract class AbstractGrblState<S extends MachineState> extends MachineV
 		
 		storeValue(Grbl.GRBL_AVAILABLE_RX_BUFFER, "Grbl RX Buffer", "The available space in Grbl RX buffer", 0);
 		storeValue(Grbl.GRBL_AVAILABLE_PLANNER_BUFFER, "Grbl Planner Buffer", "The available space in Grbl planner buffer", 0);
+		storeValue(Grbl.GRBL_USED_RX_BUFFER, "Grbl RX usage", "The number of bytes sent to Grbl and not yet acknowledged", 0);
+		storeValue(Grbl.GRBL_STATUS_REPORT_RATE, "Status rate", "The number of status reports received per second", BigDecimal.ZERO.setScale(1));
+		storeValue(Grbl.GRBL_STATUS_REPORT_JITTER, "Status jitter", "The average deviation of the interval between two status reports in milliseconds", 0);
 		
 		
 		offsets = new HashMap<ICoordinateSystem, Tuple6b>();
@@ -313,6 +318,25 @@ public abstract class AbstractGrblState<S extends MachineState> extends MachineV
 		return getValue(Grbl.GRBL_AVAILABLE_RX_BUFFER, Integer.class).getValue();
 	}
 	
+	public void setUsedRxBuffer(int usedRxBuffer) throws GkException {
+		updateValue(Grbl.GRBL_USED_RX_BUFFER, usedRxBuffer);
+	}
+
+	public int getUsedRxBuffer() throws GkException {
+		return getValue(Grbl.GRBL_USED_RX_BUFFER, Integer.class).getValue();
+	}
+
+	/**
+	 * Updates the statistics of the received status reports. Values are rounded so listeners are only notified of significant changes
+	 * @param reportRate the number of reports per second
+	 * @param reportJitter the jitter of the reports in milliseconds
+	 * @throws GkException GkException
+	 */
+	public void setStatusReportStatistics(double reportRate, double reportJitter) throws GkException {
+		updateValue(Grbl.GRBL_STATUS_REPORT_RATE, BigDecimal.valueOf(reportRate).setScale(1, RoundingMode.HALF_UP));
+		updateValue(Grbl.GRBL_STATUS_REPORT_JITTER, (int) Math.round(reportJitter));
+	}
+	
 	public EnumUnit getContextUnit(){
 		return getGCodeContext().getUnit();
 	}
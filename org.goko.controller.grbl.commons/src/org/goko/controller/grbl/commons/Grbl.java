@@ -55,8 +55,18 @@ public abstract class Grbl implements DefaultControllerValues {
     public static final String GRBL_AVAILABLE_RX_BUFFER = "GrblControllerAvailableRxBuffer";
     /** Constant for Grbl planner buffer value in value store */
     public static final String GRBL_AVAILABLE_PLANNER_BUFFER = "GrblControllerAvailablePlannerBuffer";
+    /** Constant for the bytes sent to Grbl and not yet acknowledged in value store */
+    public static final String GRBL_USED_RX_BUFFER = "GrblControllerUsedRxBuffer";
+    /** Constant for the rate of the received status reports in value store */
+    public static final String GRBL_STATUS_REPORT_RATE = "GrblControllerStatusReportRate";
+    /** Constant for the jitter of the received status reports in value store */
+    public static final String GRBL_STATUS_REPORT_JITTER = "GrblControllerStatusReportJitter";
 	/** Grbl buffer size */
 	public static final int GRBL_BUFFER_SIZE = 120;
+	/** Usable size of Grbl serial RX buffer (128 bytes, one is kept free by Grbl ring buffer) */
+	public static final int GRBL_RX_BUFFER_SIZE = 127;
+	/** Maximum number of lines sent ahead in {@link GrblStreamingMode#SEND_RESPONSE} mode */
+	public static final int GRBL_MAX_PENDING_COMMANDS = 2;
 	/** G54 offset name */
 	public static final String G54_OFFSET = "G54";
 	/** G55 offset name */
@@ -0,0 +1,79 @@
+/**
+ * 
+ */
+package org.goko.controller.grbl.commons;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the lines sent to Grbl and not acknowledged yet.
+ * Grbl answers each received line with an <code>ok</code> or an <code>error</code>, in the order the lines were received : each
+ * acknowledgment releases the space used by the oldest pending line in Grbl RX buffer.
+ * Every line ended by the end line characters has to be registered, not only the streamed GCode lines, otherwise the acknowledgments
+ * of the other commands would release the space of the wrong lines.
+ *
+ * @author Psyko
+ */
+public class GrblRxBuffer {
+	/** The number of bytes of each pending line, oldest first */
+	private LinkedBlockingQueue<Integer> pendingLines;
+	/** The number of bytes sent and not yet acknowledged */
+	private AtomicInteger usedCount;
+
+	/**
+	 * Constructor
+	 */
+	public GrblRxBuffer() {
+		this.pendingLines = new LinkedBlockingQueue<Integer>();
+		this.usedCount = new AtomicInteger(0);
+	}
+
+	/**
+	 * Registers a line sent to Grbl
+	 * @param length the number of bytes of the line, including the end line characters
+	 * @return the number of bytes sent and not acknowledged, including the given line
+	 */
+	public int consume(int length){
+		pendingLines.add(length);
+		return usedCount.addAndGet(length);
+	}
+
+	/**
+	 * Releases the space of the oldest pending line, once it's acknowledged by Grbl
+	 * @return the number of released bytes
+	 */
+	public int release(){
+		Integer length = pendingLines.poll();
+		if(length == null){
+			// Acknowledgment of a line sent before the last reset
+			return 0;
+		}
+		usedCount.addAndGet(-length);
+		return length;
+	}
+
+	/**
+	 * Forgets about all the pending lines, after a reset of Grbl for example
+	 */
+	public void reset(){
+		pendingLines.clear();
+		usedCount.set(0);
+	}
+
+	/**
+	 * Returns the number of bytes sent and not yet acknowledged
+	 * @return an integer
+	 */
+	public int getUsed(){
+		return usedCount.get();
+	}
+
+	/**
+	 * Returns the number of lines sent and not yet acknowledged
+	 * @return an integer
+	 */
+	public int getPendingLineCount(){
+		return pendingLines.size();
+	}
+}
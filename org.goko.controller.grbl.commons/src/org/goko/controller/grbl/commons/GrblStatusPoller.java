@@ -3,9 +3,10 @@
  */
 package org.goko.controller.grbl.commons;
 
-import java.util.Date;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Time;
@@ -13,19 +14,61 @@ import org.goko.core.common.measure.quantity.TimeUnit;
 import org.goko.core.log.GkLog;
 
 /**
+ * Adaptive status poller. The polling period depends on the activity of the machine and on the feedback of the reports :
+ * <ul>
+ * <li>the configured period is used while the machine is moving or a file is streamed</li>
+ * <li>the period is multiplied by {@link #IDLE_PERIOD_FACTOR} while the machine is idle, any motion command switches back
+ * to the configured period immediately</li>
+ * <li>a single status request is pending at a time, a new request is only sent once the previous one is answered, or
+ * considered lost after {@link #LOST_REQUEST_TIMEOUT} milliseconds</li>
+ * <li>the period is doubled, up to {@link #MAX_BACKOFF_FACTOR}, when a report is answered later than the current period
+ * while the RX buffer stays busy, or when a request is lost. It is halved back for each report answered in time</li>
+ * </ul>
+ * A busy RX buffer (<code>Bf:</code> field of the reports) is the normal state while streaming : it only slows the polling down
+ * when the reports are late as well. When the buffer is not reported, late reports are enough to slow the polling down.<br>
+ * The achieved report rate and its jitter are measured on the received reports.
+ *
  * @author Psyko
  * @date 9 avr. 2017
  */
 public class GrblStatusPoller {
 	private static final GkLog LOG = GkLog.getLogger(GrblStatusPoller.class);
+	/** Factor applied to the polling period while the machine is idle */
+	public static final int IDLE_PERIOD_FACTOR = 4;
+	/** Maximum factor applied to the polling period while the reports are late */
+	public static final int MAX_BACKOFF_FACTOR = 4;
+	/** Delay after which an unanswered status request is considered lost, in milliseconds */
+	public static final long LOST_REQUEST_TIMEOUT = 1000;
+	/** Ratio of the RX buffer capacity under which the reported free space means a busy buffer */
+	private static final double BUSY_RX_BUFFER_RATIO = 0.25;
+	/** Number of consecutive reports of a busy RX buffer after which the buffer is considered to stay busy */
+	private static final int BUSY_RX_BUFFER_REPORTS = 2;
+	/** Weight of the last interval in the report rate and jitter averages */
+	private static final double SMOOTHING = 0.1;
 	/** Status polling */
-	private Timer statusPollingTimer;
+	private ScheduledExecutorService statusPollingScheduler;
+	/** The next scheduled poll */
+	private ScheduledFuture<?> nextPoll;
 	/** Target service*/
 	private IGrblControllerService<?, ?> grblControllerService;
 	/** The polling period*/
 	private Time period = Time.valueOf(100, TimeUnit.MILLISECOND);
 	/** Running state */
-	private boolean running;
+	private volatile boolean running;
+	/** <code>true</code> if the machine is moving or a file is streamed */
+	private volatile boolean active;
+	/** The factor applied to the period while the reports are late */
+	private volatile int backoffFactor;
+	/** Time of the pending status request in nanoseconds, 0 if no request is pending */
+	private volatile long requestTime;
+	/** Number of consecutive reports of a busy RX buffer */
+	private volatile int busyRxBufferReports;
+	/** Time of the last received report in nanoseconds, 0 if no report was received */
+	private long lastReportTime;
+	/** Average interval between two reports in milliseconds */
+	private double meanReportInterval;
+	/** Average deviation of the interval between two reports in milliseconds */
+	private double reportJitter;
 	
 	/**
 	 * Constructor
@@ -34,38 +77,201 @@ public class GrblStatusPoller {
 	public GrblStatusPoller(IGrblControllerService<?, ?> grblControllerService) {
 		super();
 		this.grblControllerService = grblControllerService;
+		this.backoffFactor = 1;
 	}
 
 	/**
 	 * Stops the polling 
 	 */
-	public void stop(){
-		if(statusPollingTimer != null){
-			statusPollingTimer.cancel();
+	public synchronized void stop(){
+		if(statusPollingScheduler != null){
+			statusPollingScheduler.shutdownNow();
+			statusPollingScheduler = null;
 		}
+		nextPoll = null;
 		running = false;
 	}
 
 	/**
 	 * Starts the polling
 	 */
-	public void start() {
+	public synchronized void start() {
 		stop();
-		statusPollingTimer = new Timer();
-		TimerTask task = new TimerTask(){
+		statusPollingScheduler = Executors.newSingleThreadScheduledExecutor(new PollingThreadFactory());
+		running = true;
+		requestTime = 0;
+		lastReportTime = 0;
+		meanReportInterval = 0;
+		reportJitter = 0;
+		backoffFactor = 1;
+		busyRxBufferReports = 0;
+		schedulePoll(0);
+	}
+
+	/**
+	 * Notifies the poller that a command that may start a motion was sent, the status is polled at the active rate at once
+	 */
+	public void wakeUp(){
+		if(!active){
+			active = true;
+			synchronized (this) {
+				// A poll that already started reschedules itself with the active period
+				if(running && nextPoll != null && nextPoll.getDelay(java.util.concurrent.TimeUnit.MILLISECONDS) > 0 && nextPoll.cancel(false)){
+					schedulePoll(0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Notifies the poller of a received status report that does not report the RX buffer
+	 * @param machineActive <code>true</code> if the machine is moving or a file is streamed
+	 */
+	public void onStatusReport(boolean machineActive){
+		onStatusReport(machineActive, -1, 0);
+	}
+
+	/**
+	 * Notifies the poller of a received status report
+	 * @param machineActive <code>true</code> if the machine is moving or a file is streamed
+	 * @param availableRxBuffer the free space reported in Grbl RX buffer, or a negative value if not reported
+	 * @param rxBufferCapacity the capacity of Grbl RX buffer
+	 */
+	public void onStatusReport(boolean machineActive, int availableRxBuffer, int rxBufferCapacity){
+		long now = nanoTime();
+		long pendingRequestTime = requestTime;
+		long expectedDelay = getCurrentPeriod() * 1000000L;
+		requestTime = 0;
+		active = machineActive;
+		boolean rxBufferReported = availableRxBuffer >= 0;
+		if(rxBufferReported && availableRxBuffer < rxBufferCapacity * BUSY_RX_BUFFER_RATIO){
+			busyRxBufferReports++;
+		}else{
+			busyRxBufferReports = 0;
+		}
+		// Reports that were not requested by the poller don't tell anything about the response time
+		if(pendingRequestTime != 0){
+			if(now - pendingRequestTime > expectedDelay){
+				if(!rxBufferReported || busyRxBufferReports >= BUSY_RX_BUFFER_REPORTS){
+					increaseBackoff();
+				}
+			}else{
+				backoffFactor = Math.max(1, backoffFactor / 2);
+			}
+		}
+		synchronized (this) {
+			if(lastReportTime != 0){
+				double interval = (now - lastReportTime) / 1000000d;
+				if(meanReportInterval == 0){
+					meanReportInterval = interval;
+				}else{
+					reportJitter += SMOOTHING * (Math.abs(interval - meanReportInterval) - reportJitter);
+					meanReportInterval += SMOOTHING * (interval - meanReportInterval);
+				}
+			}
+			lastReportTime = now;
+		}
+	}
+
+	/**
+	 * Returns the current delay between two polls
+	 * @return the delay in milliseconds
+	 */
+	public long getCurrentPeriod(){
+		long millis = period.value(TimeUnit.MILLISECOND).longValue();
+		if(!active){
+			millis *= IDLE_PERIOD_FACTOR;
+		}
+		return millis * backoffFactor;
+	}
+
+	/**
+	 * Returns the achieved rate of the received reports
+	 * @return the number of reports per second
+	 */
+	public synchronized double getReportRate(){
+		if(meanReportInterval <= 0){
+			return 0;
+		}
+		return 1000 / meanReportInterval;
+	}
+
+	/**
+	 * Returns the average deviation of the interval between two received reports
+	 * @return the jitter in milliseconds
+	 */
+	public synchronized double getReportJitter(){
+		return reportJitter;
+	}
+
+	/**
+	 * Doubles the polling period, up to {@link #MAX_BACKOFF_FACTOR}
+	 */
+	private void increaseBackoff(){
+		backoffFactor = Math.min(MAX_BACKOFF_FACTOR, backoffFactor * 2);
+	}
+
+	/**
+	 * Sends a status request if none is pending, and schedules the next poll
+	 */
+	protected void poll(){
+		if(!running){
+			return;
+		}
+		long now = nanoTime();
+		long pendingRequestTime = requestTime;
+		if(pendingRequestTime != 0 && now - pendingRequestTime > LOST_REQUEST_TIMEOUT * 1000000L){
+			// The previous request was lost : Grbl or the link can't keep up
+			increaseBackoff();
+			pendingRequestTime = 0;
+		}
+		// Skip this poll while the previous request is not answered
+		if(pendingRequestTime == 0){
+			try {
+				requestTime = now;
+				grblControllerService.requestStatus();
+			} catch (GkException e) {
+				stop();
+				LOG.error(e);
+				return;
+			}
+		}
+		synchronized (this) {
+			if(running){
+				schedulePoll(getCurrentPeriod());
+			}
+		}
+	}
+
+	/**
+	 * Schedules the next poll
+	 * @param delay the delay before the poll in milliseconds
+	 */
+	private synchronized void schedulePoll(long delay){
+		nextPoll = schedule(new Runnable() {
 			@Override
 			public void run() {
-				try {
-					running = true;
-					grblControllerService.requestStatus();
-				} catch (GkException e) {					
-					stop();
-					LOG.error(e);
-				}
+				poll();
 			}
+		}, delay);
+	}
+
+	/**
+	 * Schedules the given task on the polling thread
+	 * @param task the task to run
+	 * @param delay the delay before the task in milliseconds
+	 * @return the scheduled task
+	 */
+	protected ScheduledFuture<?> schedule(Runnable task, long delay){
+		return statusPollingScheduler.schedule(task, delay, java.util.concurrent.TimeUnit.MILLISECONDS);
+	}
 
-		};		
-		statusPollingTimer.scheduleAtFixedRate(task, new Date(), period.value(TimeUnit.MILLISECOND).longValue());
+	/**
+	 * Returns the current time of the poller clock
+	 * @return the time in nanoseconds
+	 */
+	protected long nanoTime(){
+		return System.nanoTime();
 	}
 
 	/**
@@ -92,4 +298,19 @@ public class GrblStatusPoller {
 	public boolean isRunning() {
 		return running;
 	}
+
+	/**
+	 * Creates the daemon thread used for polling
+	 */
+	private static final class PollingThreadFactory implements ThreadFactory {
+		/** (inheritDoc)
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "grbl-status-poller");
+			t.setDaemon(true);
+			return t;
+		}
+	}
 }
@@ -0,0 +1,274 @@
+/*
+ *
+ *   Goko
+ *   Copyright (C) 2013, 2016  PsyKo
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.goko.controller.grbl.commons;
+
+/**
+ * Single pass scanner over the fields of a Grbl status report, such as <code>&lt;Idle|MPos:1.000,2.000,0.000|FS:0,0&gt;</code>
+ * in Grbl 1.1 or <code>&lt;Idle,MPos:1.000,2.000,0.000,Buf:0&gt;</code> in Grbl 0.9.
+ * <ul>
+ * <li>the first field is the state of the machine</li>
+ * <li>each following field is a name followed by a colon and a list of values separated by commas</li>
+ * </ul>
+ * The report is read in place and numbers are decoded as primitives, so scanning a report does not allocate.
+ * A scanner is meant to be reused for each received report, it is not thread safe.
+ *
+ * @author PsyKo
+ */
+public class GrblStatusReportScanner {
+	/** Maximum number of values decoded for a field */
+	public static final int MAX_VALUES = 6;
+	/** Powers of ten exactly represented as double */
+	private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	/** Mantissa above which one more digit could overflow */
+	private static final long MANTISSA_LIMIT = (Long.MAX_VALUE - 9) / 10;
+	/** The scanned report */
+	private CharSequence report;
+	/** Index of the end of the report content, excluding the closing bracket */
+	private int end;
+	/** Index of the next character to scan */
+	private int position;
+	/** Index of the end of the state */
+	private int stateEnd;
+	/** Index of the first character of the current field name */
+	private int nameStart;
+	/** Index of the end of the current field name */
+	private int nameEnd;
+	/** Index of the first character of the current field values */
+	private int valuesStart;
+	/** Index of the end of the current field values */
+	private int valuesEnd;
+	/** The decoded values of the current field, NaN when a value is not a number */
+	private final double[] values;
+	/** Number of values in the current field */
+	private int valueCount;
+
+	/**
+	 * Constructor
+	 */
+	public GrblStatusReportScanner() {
+		this.values = new double[MAX_VALUES];
+	}
+
+	/**
+	 * Starts the scan of the given report
+	 * @param report the report including its surrounding brackets
+	 * @return <code>true</code> if the given data is a status report, <code>false</code> otherwise
+	 */
+	public boolean reset(CharSequence report){
+		this.report = report;
+		this.valueCount = 0;
+		int length = report.length();
+		if(length < 2 || report.charAt(0) != '<' || report.charAt(length - 1) != '>'){
+			this.end = 0;
+			this.position = 0;
+			this.stateEnd = 0;
+			return false;
+		}
+		this.end = length - 1;
+		int index = 1;
+		while(index < end && !isFieldSeparator(report.charAt(index))){
+			index++;
+		}
+		this.stateEnd = index;
+		this.position = Math.min(index + 1, end);
+		return true;
+	}
+
+	/**
+	 * Test if the state of the report is the given state
+	 * @param state the state
+	 * @return <code>true</code> if the state of the report is the given state, <code>false</code> otherwise
+	 */
+	public boolean isState(String state){
+		return regionEquals(1, stateEnd, state);
+	}
+
+	/**
+	 * Moves to the next field of the report
+	 * @return <code>true</code> if a field was found, <code>false</code> at the end of the report
+	 */
+	public boolean nextField(){
+		valueCount = 0;
+		if(position >= end){
+			return false;
+		}
+		nameStart = position;
+		int index = position;
+		while(index < end && report.charAt(index) != ':' && !isFieldSeparator(report.charAt(index))){
+			index++;
+		}
+		nameEnd = index;
+		if(index >= end || report.charAt(index) != ':'){
+			// Field without values
+			valuesStart = index;
+			valuesEnd = index;
+			position = Math.min(index + 1, end);
+			return true;
+		}
+		index++;
+		valuesStart = index;
+		int valueStart = index;
+		while(true){
+			char c = index < end ? report.charAt(index) : '|';
+			if(c == ',' || c == '|'){
+				if(valueCount < MAX_VALUES){
+					values[valueCount] = parseNumber(valueStart, index);
+				}
+				valueCount++;
+				// Grbl 0.9 separates fields with commas, a value starting with a letter is the name of the next field
+				if(c == '|' || index + 1 >= end || Character.isLetter(report.charAt(index + 1))){
+					break;
+				}
+				valueStart = index + 1;
+			}
+			index++;
+		}
+		valuesEnd = index;
+		position = Math.min(index + 1, end);
+		valueCount = Math.min(valueCount, MAX_VALUES);
+		return true;
+	}
+
+	/**
+	 * Test if the current field has the given name
+	 * @param name the name
+	 * @return <code>true</code> if the current field has the given name, <code>false</code> otherwise
+	 */
+	public boolean isField(String name){
+		return regionEquals(nameStart, nameEnd, name);
+	}
+
+	/**
+	 * @return the number of values in the current field
+	 */
+	public int getValueCount() {
+		return valueCount;
+	}
+
+	/**
+	 * Returns the value at the given index in the current field
+	 * @param index the index of the value
+	 * @return the value, NaN if it is not a number
+	 */
+	public double getValue(int index){
+		return values[index];
+	}
+
+	/**
+	 * Returns the value at the given index in the current field as an integer
+	 * @param index the index of the value
+	 * @param defaultValue the value to return if the value is not a number
+	 * @return the value
+	 */
+	public int getIntValue(int index, int defaultValue){
+		double value = values[index];
+		if(Double.isNaN(value)){
+			return defaultValue;
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Returns the raw length of the values of the current field, used for fields whose values are not numbers
+	 * @return the number of characters of the values
+	 */
+	public int getRawValuesLength(){
+		return valuesEnd - valuesStart;
+	}
+
+	/**
+	 * Returns a character of the raw values of the current field
+	 * @param index the index of the character in the values
+	 * @return the character
+	 */
+	public char getRawValuesChar(int index){
+		return report.charAt(valuesStart + index);
+	}
+
+	/**
+	 * Decodes the decimal number between the given indexes
+	 * @param start the index of the first character
+	 * @param stop the index of the end of the number
+	 * @return the number, or NaN if the characters are not a number
+	 */
+	private double parseNumber(int start, int stop){
+		int index = start;
+		boolean negative = false;
+		if(index < stop && (report.charAt(index) == '-' || report.charAt(index) == '+')){
+			negative = report.charAt(index) == '-';
+			index++;
+		}
+		long mantissa = 0;
+		int decimals = 0;
+		boolean digits = false;
+		boolean point = false;
+		for (; index < stop; index++) {
+			char c = report.charAt(index);
+			if(c >= '0' && c <= '9'){
+				if(mantissa > MANTISSA_LIMIT){
+					// Never sent by Grbl, let the JDK handle the precision
+					return Double.parseDouble(report.subSequence(start, stop).toString());
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				digits = true;
+				if(point){
+					decimals++;
+				}
+			}else if(c == '.' && !point){
+				point = true;
+			}else{
+				return Double.NaN;
+			}
+		}
+		if(!digits){
+			return Double.NaN;
+		}
+		double value = decimals < POWERS_OF_TEN.length ? mantissa / POWERS_OF_TEN[decimals] : mantissa / Math.pow(10, decimals);
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Test if the report characters between the given indexes are the given text
+	 * @param start the index of the first character
+	 * @param stop the index of the end of the region
+	 * @param text the expected text
+	 * @return <code>true</code> if the region matches the text, <code>false</code> otherwise
+	 */
+	private boolean regionEquals(int start, int stop, String text){
+		if(stop - start != text.length()){
+			return false;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			if(report.charAt(start + i) != text.charAt(i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Test if the given character separates two fields
+	 * @param c the character
+	 * @return <code>true</code> if the character separates two fields
+	 */
+	private static boolean isFieldSeparator(char c){
+		return c == '|' || c == ',';
+	}
+}
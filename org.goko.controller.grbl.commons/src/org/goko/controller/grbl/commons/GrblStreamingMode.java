@@ -0,0 +1,14 @@
+/**
+ * 
+ */
+package org.goko.controller.grbl.commons;
+
+/**
+ * Flow control used to stream GCode lines to Grbl
+ */
+public enum GrblStreamingMode {
+	/** Only a few lines are sent ahead, each new line waits for the acknowledgement of a previous one */
+	SEND_RESPONSE,
+	/** Lines are sent as long as the bytes not yet acknowledged fit in Grbl serial RX buffer */
+	CHARACTER_COUNTING;
+}
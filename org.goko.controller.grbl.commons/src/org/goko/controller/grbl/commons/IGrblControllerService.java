@@ -160,6 +160,34 @@ public interface IGrblControllerService<C extends AbstractGrblConfiguration<C>,
 	 */
 	int getAvailablePlannerBuffer() throws GkException;
 	
+	/**
+	 * Returns the number of bytes sent to Grbl and not acknowledged yet
+	 * @return an integer
+	 */
+	int getUsedRxBuffer();
+	
+	/**
+	 * Returns the number of bytes the given line will use in Grbl RX buffer once sent
+	 * @param line the line
+	 * @return an integer
+	 * @throws GkException GkException
+	 */
+	int getRxBufferUsage(GCodeLine line) throws GkException;
+	
+	/**
+	 * Returns the capacity of Grbl RX buffer, as learned from the status reports, or {@link Grbl#GRBL_RX_BUFFER_SIZE} by default
+	 * @return an integer
+	 */
+	int getRxBufferCapacity();
+	
+	/**
+	 * Registers a line sent to Grbl, including the commands other than streamed GCode lines. Grbl acknowledges each line 
+	 * with an ok or an error, in the order they were received
+	 * @param length the number of bytes of the line, including the end line characters
+	 * @throws GkException GkException
+	 */
+	void onLineSent(int length) throws GkException;
+	
 	/**
 	 * Returns <code>true</code> if the planner buffer is completely empty (no motion running)
 	 * @return an integer
@@ -173,6 +201,22 @@ public interface IGrblControllerService<C extends AbstractGrblConfiguration<C>,
 	 * @throws GkException GkException
 	 */
 	void send(GCodeLine line) throws GkException;
+
+	/**
+	 * Sends the given GCode line, already rendered using {@link #renderLine(GCodeLine)}
+	 * @param line the line to send
+	 * @param renderedLine the rendered line
+	 * @throws GkException GkException
+	 */
+	void send(GCodeLine line, byte[] renderedLine) throws GkException;
+
+	/**
+	 * Renders the given GCode line as it is sent to Grbl, without the end line characters. Can be called from any thread
+	 * @param line the line to render
+	 * @return the bytes to send
+	 * @throws GkException GkException
+	 */
+	byte[] renderLine(GCodeLine line) throws GkException;
 	
 	/**
 	 * Sets the offset from machine origin for the given coordinate system 
@@ -188,6 +232,11 @@ public interface IGrblControllerService<C extends AbstractGrblConfiguration<C>,
 	 */
 	void requestStatus() throws GkException;
 	
+	/**
+	 * Notifies the service that a command that may start a motion was sent, so the status is polled at the active rate
+	 */
+	void onMotionCommandSent();
+	
 	/**
 	 * Entry point for Kill Alarm action
 	 * @throws GkException GkException
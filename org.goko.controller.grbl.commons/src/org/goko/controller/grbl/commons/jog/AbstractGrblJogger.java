@@ -51,6 +51,7 @@ public abstract class AbstractGrblJogger<F extends AbstractGrblConfiguration<F>,
 				command = getRelativeJogCommand(command, tinygAxis, localStep);
 				
 				controllerService.getCommunicator().send(command, true);
+				controllerService.onMotionCommandSent();
 			}
 			
 		}	
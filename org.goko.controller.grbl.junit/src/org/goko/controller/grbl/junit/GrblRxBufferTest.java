@@ -0,0 +1,165 @@
+package org.goko.controller.grbl.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import org.goko.controller.grbl.commons.AbstractGrblCommunicator;
+import org.goko.controller.grbl.commons.Grbl;
+import org.goko.controller.grbl.commons.GrblRxBuffer;
+import org.goko.controller.grbl.commons.IGrblControllerService;
+import org.goko.controller.grbl.commons.configuration.AbstractGrblConfiguration;
+import org.goko.core.common.exception.GkException;
+import org.goko.core.controller.bean.MachineState;
+import org.goko.junit.tools.connection.SerialConnectionEmulator;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the RX buffer accounting of the lines sent to Grbl
+ */
+public class GrblRxBufferTest {
+	private SerialConnectionEmulator serialEmulator;
+	private GrblRxBuffer rxBuffer;
+	private TestCommunicator communicator;
+
+	@Before
+	public void setUp() throws Exception {
+		serialEmulator = new SerialConnectionEmulator();
+		rxBuffer = new GrblRxBuffer();
+		communicator = new TestCommunicator(rxBuffer);
+		communicator.setConnectionService(serialEmulator);
+	}
+
+	/**
+	 * Context : streamed lines are mixed with commands such as $G, and real time status requests
+	 * Result  : every line consumes space until its own acknowledgment, real time commands don't
+	 * @throws Exception
+	 */
+	@Test
+	public void testStreamedLinesMixedWithCommands() throws Exception{
+		communicator.send("G1X10".getBytes(), true);
+		communicator.send("$G", true);
+		communicator.send("G1Y20F100".getBytes(), true);
+		communicator.send(Grbl.CURRENT_STATUS, false);
+		assertEquals(6 + 3 + 10, rxBuffer.getUsed());
+		assertEquals(3, rxBuffer.getPendingLineCount());
+
+		// G1X10
+		receive("ok");
+		assertEquals(3 + 10, rxBuffer.getUsed());
+		// $G
+		receive("[GC:G0 G54 G17 G21 G90 G94 M5 M9 T0 F0 S0]");
+		assertEquals(3 + 10, rxBuffer.getUsed());
+		receive("ok");
+		assertEquals(10, rxBuffer.getUsed());
+
+		communicator.sendImmediately("M5", true);
+		assertEquals(10 + 3, rxBuffer.getUsed());
+		// G1Y20F100
+		receive("error:20");
+		assertEquals(3, rxBuffer.getUsed());
+		// M5
+		receive("ok");
+		assertEquals(0, rxBuffer.getUsed());
+		assertEquals(0, rxBuffer.getPendingLineCount());
+	}
+
+	/**
+	 * Context : Grbl is reset while lines are pending
+	 * Result  : the pending lines are forgotten, late acknowledgments don't release the space of the next lines
+	 * @throws Exception
+	 */
+	@Test
+	public void testReset() throws Exception{
+		communicator.send("G1X10".getBytes(), true);
+		communicator.send("$G", true);
+		rxBuffer.reset();
+		assertEquals(0, rxBuffer.getUsed());
+
+		receive("ok");
+		assertEquals(0, rxBuffer.getUsed());
+
+		communicator.send("$#", true);
+		assertEquals(3, rxBuffer.getUsed());
+		receive("ok");
+		assertEquals(0, rxBuffer.getUsed());
+	}
+
+	/**
+	 * Simulates the reception of the given line
+	 * @param line the received line
+	 * @throws GkException GkException
+	 */
+	private void receive(String line) throws GkException{
+		byte[] data = (line + "\r\n").getBytes();
+		communicator.onDataReceived(data, 0, data.length);
+	}
+
+	/**
+	 * Communicator registering the sent lines in a GrblRxBuffer
+	 */
+	private static class TestCommunicator extends AbstractGrblCommunicator<TestConfiguration, MachineState, IGrblControllerService<TestConfiguration, MachineState>>{
+		private GrblRxBuffer rxBuffer;
+
+		TestCommunicator(GrblRxBuffer rxBuffer) {
+			super(null);
+			this.rxBuffer = rxBuffer;
+		}
+
+		@Override
+		protected void onLineSent(int length) throws GkException {
+			rxBuffer.consume(length);
+		}
+
+		@Override
+		protected void handleOkResponse() throws GkException {
+			rxBuffer.release();
+		}
+
+		@Override
+		protected void handleError(String trimmedData) throws GkException {
+			rxBuffer.release();
+		}
+
+		@Override
+		protected void onConnected() throws GkException {}
+
+		@Override
+		protected void onDisconnected() throws GkException {}
+
+		@Override
+		protected void handleMessage(String trimmedData) throws GkException {}
+
+		@Override
+		protected void handleProbeResult(String trimmedData) throws GkException {}
+
+		@Override
+		protected void handleParserState(String trimmedData) throws GkException {}
+
+		@Override
+		protected void handleToolLengthOffset(String trimmedData) throws GkException {}
+
+		@Override
+		protected void handleAlarm(String trimmedData) throws GkException {}
+
+		@Override
+		protected void handleStatusReport(String trimmedData) throws GkException {}
+
+		@Override
+		protected MachineState getGrblStateFromString(String state) {
+			return null;
+		}
+	}
+
+	/**
+	 * Empty configuration
+	 */
+	private static class TestConfiguration extends AbstractGrblConfiguration<TestConfiguration>{
+		@Override
+		protected void initSettings() {}
+
+		@Override
+		public TestConfiguration getCopy() {
+			return new TestConfiguration();
+		}
+	}
+}
@@ -0,0 +1,272 @@
+package org.goko.controller.grbl.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.goko.controller.grbl.commons.GrblStatusPoller;
+import org.goko.controller.grbl.commons.IGrblControllerService;
+import org.goko.core.common.measure.quantity.Time;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the rescheduling and backoff of the Grbl status poller
+ */
+public class GrblStatusPollerTest {
+	private static final long MILLISECOND = 1000000L;
+	/** Number of status requests sent by the poller */
+	private int requestCount;
+	private TestPoller poller;
+
+	@Before
+	public void setUp() throws Exception {
+		IGrblControllerService<?, ?> service = (IGrblControllerService<?, ?>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{IGrblControllerService.class}, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if("requestStatus".equals(method.getName())){
+					requestCount++;
+				}
+				return null;
+			}
+		});
+		poller = new TestPoller(service);
+		poller.setPeriod(Time.valueOf(100, org.goko.core.common.measure.quantity.TimeUnit.MILLISECOND));
+		poller.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		poller.stop();
+	}
+
+	/**
+	 * Context : the machine switches between idle and active
+	 * Result  : the idle period is used while idle, a motion command reschedules the next poll at once
+	 * @throws Exception
+	 */
+	@Test
+	public void testRescheduling() throws Exception{
+		assertEquals(0, poller.nextPoll.delay);
+		poller.runNextPoll();
+		assertEquals(1, requestCount);
+		assertEquals(100 * GrblStatusPoller.IDLE_PERIOD_FACTOR, poller.nextPoll.delay);
+
+		poller.onStatusReport(false);
+		ManualPoll idlePoll = poller.nextPoll;
+		poller.wakeUp();
+		assertTrue(idlePoll.isCancelled());
+		assertEquals(0, poller.nextPoll.delay);
+		poller.runNextPoll();
+		assertEquals(2, requestCount);
+		assertEquals(100, poller.nextPoll.delay);
+
+		poller.time += 5 * MILLISECOND;
+		poller.onStatusReport(false);
+		poller.runNextPoll();
+		assertEquals(100 * GrblStatusPoller.IDLE_PERIOD_FACTOR, poller.nextPoll.delay);
+	}
+
+	/**
+	 * Context : reports are answered quickly while streaming
+	 * Result  : the active period is kept
+	 * @throws Exception
+	 */
+	@Test
+	public void testNoBackoffWhileStreaming() throws Exception{
+		poller.wakeUp();
+		for (int i = 0; i < 10; i++) {
+			poller.runNextPoll();
+			poller.time += 5 * MILLISECOND;
+			poller.onStatusReport(true);
+			poller.time += 95 * MILLISECOND;
+			assertEquals(100, poller.getCurrentPeriod());
+		}
+		assertEquals(10, requestCount);
+	}
+
+	/**
+	 * Context : reports are answered later than the polling period
+	 * Result  : the period is doubled up to the maximum factor, then halved back by reports answered in time
+	 * @throws Exception
+	 */
+	@Test
+	public void testBackoffOnLateReports() throws Exception{
+		poller.wakeUp();
+		respond(150);
+		assertEquals(200, poller.getCurrentPeriod());
+		respond(250);
+		assertEquals(400, poller.getCurrentPeriod());
+		respond(450);
+		assertEquals(100 * GrblStatusPoller.MAX_BACKOFF_FACTOR, poller.getCurrentPeriod());
+		// Late for the active period, but in time for the current one
+		respond(150);
+		assertEquals(200, poller.getCurrentPeriod());
+		respond(5);
+		assertEquals(100, poller.getCurrentPeriod());
+		respond(5);
+		assertEquals(100, poller.getCurrentPeriod());
+	}
+
+	/**
+	 * Context : reports are answered late while the RX buffer is reported
+	 * Result  : the period is only doubled once the buffer stays busy
+	 * @throws Exception
+	 */
+	@Test
+	public void testBackoffOnBusyRxBuffer() throws Exception{
+		poller.wakeUp();
+		// Late reports with room left in the buffer : Grbl keeps up with the stream
+		respond(150, 100, 128);
+		respond(150, 60, 128);
+		assertEquals(100, poller.getCurrentPeriod());
+		// A single busy report is expected while streaming
+		respond(150, 10, 128);
+		assertEquals(100, poller.getCurrentPeriod());
+		respond(150, 10, 128);
+		assertEquals(200, poller.getCurrentPeriod());
+		respond(250, 0, 128);
+		assertEquals(400, poller.getCurrentPeriod());
+		// Answered in time
+		respond(5, 0, 128);
+		assertEquals(200, poller.getCurrentPeriod());
+	}
+
+	/**
+	 * Context : a status request is never answered
+	 * Result  : no other request is sent until the request is considered lost, then the period is doubled
+	 * @throws Exception
+	 */
+	@Test
+	public void testBackoffOnLostReport() throws Exception{
+		poller.wakeUp();
+		poller.onStatusReport(true);
+		poller.runNextPoll();
+		assertEquals(1, requestCount);
+		for (int i = 0; i < 9; i++) {
+			poller.time += 100 * MILLISECOND;
+			poller.runNextPoll();
+			assertEquals(1, requestCount);
+			assertEquals(100, poller.nextPoll.delay);
+		}
+		poller.time += 101 * MILLISECOND;
+		poller.runNextPoll();
+		assertEquals(2, requestCount);
+		assertEquals(200, poller.nextPoll.delay);
+	}
+
+	/**
+	 * Runs the next poll and answers the request after the given delay
+	 * @param delay the response time in milliseconds
+	 */
+	private void respond(long delay){
+		poller.runNextPoll();
+		poller.time += delay * MILLISECOND;
+		poller.onStatusReport(true);
+	}
+
+	/**
+	 * Runs the next poll and answers the request after the given delay, with the given RX buffer feedback
+	 * @param delay the response time in milliseconds
+	 * @param availableRxBuffer the reported free space in the RX buffer
+	 * @param rxBufferCapacity the capacity of the RX buffer
+	 */
+	private void respond(long delay, int availableRxBuffer, int rxBufferCapacity){
+		poller.runNextPoll();
+		poller.time += delay * MILLISECOND;
+		poller.onStatusReport(true, availableRxBuffer, rxBufferCapacity);
+	}
+
+	/**
+	 * Poller using a manual clock, the polls are run by the test
+	 */
+	private static class TestPoller extends GrblStatusPoller{
+		/** The current time in nanoseconds */
+		private long time = 1;
+		/** The last scheduled poll */
+		private ManualPoll nextPoll;
+
+		TestPoller(IGrblControllerService<?, ?> grblControllerService) {
+			super(grblControllerService);
+		}
+
+		@Override
+		protected long nanoTime() {
+			return time;
+		}
+
+		@Override
+		protected ScheduledFuture<?> schedule(Runnable task, long delay) {
+			nextPoll = new ManualPoll(task, delay);
+			return nextPoll;
+		}
+
+		void runNextPoll(){
+			ManualPoll poll = nextPoll;
+			assertTrue(!poll.isCancelled());
+			poll.done = true;
+			poll.task.run();
+		}
+	}
+
+	/**
+	 * Scheduled poll run by the test
+	 */
+	private static class ManualPoll implements ScheduledFuture<Object>{
+		private final Runnable task;
+		private final long delay;
+		private boolean cancelled;
+		private boolean done;
+
+		ManualPoll(Runnable task, long delay) {
+			this.task = task;
+			this.delay = delay;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return done ? 0 : unit.convert(Math.max(1, delay), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed o) {
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if(done || cancelled){
+				return false;
+			}
+			cancelled = true;
+			return true;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		@Override
+		public boolean isDone() {
+			return done || cancelled;
+		}
+
+		@Override
+		public Object get() {
+			return null;
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit) {
+			return null;
+		}
+	}
+}
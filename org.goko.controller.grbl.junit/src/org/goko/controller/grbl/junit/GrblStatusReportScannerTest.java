@@ -0,0 +1,142 @@
+package org.goko.controller.grbl.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.goko.controller.grbl.commons.GrblStatusReportScanner;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the single pass scanner of the Grbl status reports
+ */
+public class GrblStatusReportScannerTest {
+	private static final double EPSILON = 1e-9;
+	private GrblStatusReportScanner scanner;
+
+	@Before
+	public void setUp() throws Exception {
+		scanner = new GrblStatusReportScanner();
+	}
+
+	/**
+	 * Context : a Grbl 1.1 report, fields separated by '|'
+	 * Result  : the state, the name and the values of each field are read, negative and decimal values included
+	 * @throws Exception
+	 */
+	@Test
+	public void testGrbl11Report() throws Exception{
+		assertTrue(scanner.reset("<Run|MPos:-10.125,2.5,0.000|Bf:15,128|FS:500.5,12000|WCO:0.000,-1.25,3|Ov:100,50,120|A:SF>"));
+		assertTrue(scanner.isState("Run"));
+		assertFalse(scanner.isState("Ru"));
+
+		assertField("MPos", -10.125, 2.5, 0);
+		assertField("Bf", 15, 128);
+		assertEquals(15, scanner.getIntValue(0, -1));
+		assertField("FS", 500.5, 12000);
+		assertField("WCO", 0, -1.25, 3);
+		assertField("Ov", 100, 50, 120);
+
+		assertTrue(scanner.nextField());
+		assertTrue(scanner.isField("A"));
+		assertEquals(1, scanner.getValueCount());
+		assertTrue(Double.isNaN(scanner.getValue(0)));
+		assertEquals(-1, scanner.getIntValue(0, -1));
+		assertEquals(2, scanner.getRawValuesLength());
+		assertEquals('S', scanner.getRawValuesChar(0));
+		assertEquals('F', scanner.getRawValuesChar(1));
+
+		assertFalse(scanner.nextField());
+	}
+
+	/**
+	 * Context : a Grbl 0.9 report, fields and values both separated by ','
+	 * Result  : a value starting with a letter starts the next field
+	 * @throws Exception
+	 */
+	@Test
+	public void testGrbl09Report() throws Exception{
+		assertTrue(scanner.reset("<Idle,MPos:5.529,-0.560,7.000,WPos:1.529,-5.440,-0.000,Buf:0,RX:3>"));
+		assertTrue(scanner.isState("Idle"));
+
+		assertField("MPos", 5.529, -0.56, 7);
+		assertField("WPos", 1.529, -5.44, 0);
+		assertField("Buf", 0);
+		assertField("RX", 3);
+		assertFalse(scanner.nextField());
+	}
+
+	/**
+	 * Context : states holding a colon, and a report made of the state only
+	 * Result  : the colon is part of the state, and no field is found after the state
+	 * @throws Exception
+	 */
+	@Test
+	public void testStates() throws Exception{
+		assertTrue(scanner.reset("<Door:1|MPos:0.000,0.000,0.000|FS:0,0>"));
+		assertTrue(scanner.isState("Door:1"));
+		assertField("MPos", 0, 0, 0);
+
+		assertTrue(scanner.reset("<Sleep>"));
+		assertTrue(scanner.isState("Sleep"));
+		assertFalse(scanner.nextField());
+	}
+
+	/**
+	 * Context : a field without values, a value that is not a number, and more values than decoded
+	 * Result  : the field is returned empty, the value is NaN, and the extra values are skipped
+	 * @throws Exception
+	 */
+	@Test
+	public void testUnusualFields() throws Exception{
+		assertTrue(scanner.reset("<Idle|Pn|F:-|Pos:1,2,3,4,5,6,7,8|Ln:99>"));
+		assertTrue(scanner.nextField());
+		assertTrue(scanner.isField("Pn"));
+		assertEquals(0, scanner.getValueCount());
+
+		assertTrue(scanner.nextField());
+		assertTrue(scanner.isField("F"));
+		assertEquals(1, scanner.getValueCount());
+		assertTrue(Double.isNaN(scanner.getValue(0)));
+
+		assertTrue(scanner.nextField());
+		assertTrue(scanner.isField("Pos"));
+		assertEquals(GrblStatusReportScanner.MAX_VALUES, scanner.getValueCount());
+		assertEquals(6, scanner.getValue(5), EPSILON);
+
+		assertField("Ln", 99);
+		assertFalse(scanner.nextField());
+	}
+
+	/**
+	 * Context : data that is not a status report
+	 * Result  : it is rejected, and the scanner is still usable
+	 * @throws Exception
+	 */
+	@Test
+	public void testNotAReport() throws Exception{
+		assertFalse(scanner.reset("ok"));
+		assertFalse(scanner.nextField());
+		assertFalse(scanner.reset("<Idle|MPos:0.000,0.000"));
+		assertFalse(scanner.reset("<"));
+		assertFalse(scanner.reset(""));
+
+		assertTrue(scanner.reset("<Idle|MPos:1,2,3>"));
+		assertField("MPos", 1, 2, 3);
+	}
+
+	/**
+	 * Moves to the next field and checks its name and values
+	 * @param name the expected name
+	 * @param values the expected values
+	 */
+	private void assertField(String name, double... values){
+		assertTrue("Missing field "+name, scanner.nextField());
+		assertTrue("Expected field "+name, scanner.isField(name));
+		assertEquals(values.length, scanner.getValueCount());
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(name+"["+i+"]", values[i], scanner.getValue(i), EPSILON);
+		}
+	}
+}
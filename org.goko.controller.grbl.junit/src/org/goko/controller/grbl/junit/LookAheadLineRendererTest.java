@@ -0,0 +1,170 @@
+package org.goko.controller.grbl.junit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.goko.core.common.exception.GkException;
+import org.goko.core.execution.monitor.executor.IGCodeLineRenderer;
+import org.goko.core.execution.monitor.executor.LookAheadLineRenderer;
+import org.goko.core.gcode.element.GCodeLine;
+import org.goko.core.gcode.element.IGCodeProvider;
+import org.goko.core.gcode.rs274ngcv3.RS274NGCServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the look ahead rendering of the streamed lines. The bytes sent must be the ones the executors used to render inline
+ */
+public class LookAheadLineRendererTest {
+	/** Number of lines of the streamed provider, more than the look ahead depth */
+	private static final int LINE_COUNT = 3 * LookAheadLineRenderer.DEFAULT_DEPTH + 17;
+	private RS274NGCServiceImpl gcodeService;
+	private IGCodeProvider provider;
+	/** Number of lines rendered by the look ahead renderer, on any thread */
+	private AtomicInteger renderCount;
+	private LookAheadLineRenderer lineRenderer;
+
+	@Before
+	public void setUp() throws Exception {
+		gcodeService = new RS274NGCServiceImpl();
+		StringBuilder gcode = new StringBuilder();
+		for (int i = 0; i < LINE_COUNT; i++) {
+			switch (i % 6) {
+			case 0: gcode.append("G1 X").append(i).append(".125 Y-").append(i % 13).append(" F300");
+				break;
+			case 1: // Blank line
+				break;
+			case 2: gcode.append("N").append(i).append(" G0 Z").append(i % 7).append(".5 (line ").append(i).append(")");
+				break;
+			case 3: gcode.append("   ");
+				break;
+			case 4: gcode.append("(comment ").append(i).append(")");
+				break;
+			default: gcode.append("G2 X").append(i).append(" Y").append(i).append(" I-1.5 J0 M3 S1000");
+				break;
+			}
+			gcode.append("\n");
+		}
+		provider = gcodeService.parse(gcode.toString());
+		assertEquals(LINE_COUNT, provider.getLinesCount());
+		renderCount = new AtomicInteger(0);
+		lineRenderer = new LookAheadLineRenderer(new IGCodeLineRenderer() {
+			@Override
+			public byte[] render(GCodeLine line) throws GkException {
+				renderCount.incrementAndGet();
+				// Same rendering as AbstractGrblControllerService
+				return gcodeService.render(line).getBytes();
+			}
+		}, LookAheadLineRenderer.DEFAULT_DEPTH);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		lineRenderer.stop();
+	}
+
+	/**
+	 * Context : the streaming waits while the rendering thread renders ahead, then streams the whole provider
+	 * Result  : at most the look ahead depth is rendered ahead, and every line gets the bytes of the former inline rendering, blank lines included
+	 * @throws Exception
+	 */
+	@Test
+	public void testLookAheadMatchesInlineRendering() throws Exception{
+		lineRenderer.start(provider);
+		waitForRenderCount(LookAheadLineRenderer.DEFAULT_DEPTH);
+		Thread.sleep(50);
+		assertEquals(LookAheadLineRenderer.DEFAULT_DEPTH, renderCount.get());
+
+		for (int i = 0; i < LINE_COUNT; i++) {
+			GCodeLine line = provider.getLineAtIndex(i);
+			byte[] expected = inlineRendering(line);
+			// The executor peeks the line to measure its RX buffer usage before taking it
+			assertArrayEquals("Line "+i, expected, lineRenderer.peek(line));
+			assertArrayEquals("Line "+i, expected, lineRenderer.take(line));
+		}
+	}
+
+	/**
+	 * Context : the rendering is stopped partway through the token, for example when the execution is paused or canceled
+	 * Result  : the remaining lines are rendered on the calling thread with the same bytes, and a new start begins again from the first line
+	 * @throws Exception
+	 */
+	@Test
+	public void testStopPartwayThroughToken() throws Exception{
+		int stopIndex = LookAheadLineRenderer.DEFAULT_DEPTH + 23;
+		lineRenderer.start(provider);
+		for (int i = 0; i < stopIndex; i++) {
+			GCodeLine line = provider.getLineAtIndex(i);
+			assertArrayEquals("Line "+i, inlineRendering(line), lineRenderer.take(line));
+		}
+		lineRenderer.stop();
+		// Let a line being rendered when stopped complete
+		Thread.sleep(50);
+		int stoppedRenderCount = renderCount.get();
+
+		for (int i = stopIndex; i < LINE_COUNT; i++) {
+			GCodeLine line = provider.getLineAtIndex(i);
+			assertArrayEquals("Line "+i, inlineRendering(line), lineRenderer.peek(line));
+			assertArrayEquals("Line "+i, inlineRendering(line), lineRenderer.take(line));
+		}
+		// Each remaining line was rendered twice on the calling thread, nothing was kept from the stopped rendering
+		assertEquals(stoppedRenderCount + 2 * (LINE_COUNT - stopIndex), renderCount.get());
+
+		lineRenderer.start(provider);
+		for (int i = 0; i < LINE_COUNT; i++) {
+			GCodeLine line = provider.getLineAtIndex(i);
+			assertArrayEquals("Line "+i, inlineRendering(line), lineRenderer.take(line));
+		}
+	}
+
+	/**
+	 * Context : lines without any word, such as blank lines
+	 * Result  : they are rendered as empty byte arrays, as the TinyG executor expects to confirm them without sending anything
+	 * @throws Exception
+	 */
+	@Test
+	public void testBlankLines() throws Exception{
+		lineRenderer.start(provider);
+		waitForRenderCount(LookAheadLineRenderer.DEFAULT_DEPTH);
+		int blankLineCount = 0;
+		for (int i = 0; i < LINE_COUNT; i++) {
+			GCodeLine line = provider.getLineAtIndex(i);
+			byte[] bytes = lineRenderer.take(line);
+			if(i % 6 == 1 || i % 6 == 3){
+				assertEquals("Line "+i, 0, bytes.length);
+				blankLineCount++;
+			}
+			assertEquals("Line "+i, StringUtils.isBlank(gcodeService.render(line)), bytes.length == 0);
+		}
+		assertTrue(blankLineCount > 0);
+	}
+
+	/**
+	 * Renders the line the way the executors used to, on the streaming thread
+	 * @param line the line
+	 * @return the rendered bytes
+	 * @throws GkException GkException
+	 */
+	private byte[] inlineRendering(GCodeLine line) throws GkException{
+		String cmd = gcodeService.render(line);
+		return cmd.getBytes();
+	}
+
+	/**
+	 * Waits until the given number of lines were rendered
+	 * @param count the number of lines
+	 * @throws InterruptedException InterruptedException
+	 */
+	private void waitForRenderCount(int count) throws InterruptedException{
+		long timeout = System.currentTimeMillis() + 5000;
+		while(renderCount.get() < count && System.currentTimeMillis() < timeout){
+			Thread.sleep(5);
+		}
+		assertTrue("Look ahead not rendered in time", renderCount.get() >= count);
+	}
+}
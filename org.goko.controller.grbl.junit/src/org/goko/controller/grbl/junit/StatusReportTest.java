@@ -0,0 +1,153 @@
+package org.goko.controller.grbl.junit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.goko.controller.grbl.v11.bean.GrblMachineState;
+import org.goko.controller.grbl.v11.bean.StatusReport;
+import org.goko.controller.grbl.v11.bean.StatusReportReader;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the reading of the Grbl status reports into a reusable StatusReport
+ */
+public class StatusReportTest {
+	private static final double EPSILON = 1e-9;
+	private StatusReportReader reader;
+	private StatusReport report;
+
+	@Before
+	public void setUp() throws Exception {
+		reader = new StatusReportReader();
+		report = new StatusReport();
+	}
+
+	/**
+	 * Context : a complete Grbl 1.1 report
+	 * Result  : every field is read, negative and decimal values included
+	 * @throws Exception
+	 */
+	@Test
+	public void testCompleteReport() throws Exception{
+		assertTrue(reader.read("<Run|MPos:-10.125,2.5,0.000|Bf:15,128|FS:500.5,12000|WCO:0.000,-1.250,3.000|Ov:100,50,120|A:SFM>", report));
+		assertSame(GrblMachineState.RUN, report.getState());
+		assertTrue(report.hasMachinePosition());
+		assertArrayEquals(new double[]{-10.125, 2.5, 0}, report.getMachinePosition(), EPSILON);
+		assertFalse(report.hasWorkPosition());
+		assertEquals(15, report.getAvailablePlannerBuffer());
+		assertEquals(128, report.getAvailableRxBuffer());
+		assertEquals(500.5, report.getVelocity(), EPSILON);
+		assertEquals(12000, report.getSpindleSpeed());
+		assertTrue(report.hasCurrentWorkCoordinateOffset());
+		assertArrayEquals(new double[]{0, -1.25, 3}, report.getCurrentWorkCoordinateOffset(), EPSILON);
+		assertEquals(100, report.getOverrideFeed());
+		assertEquals(50, report.getOverrideRapid());
+		assertEquals(120, report.getOverrideSpindle());
+		assertEquals("CW", report.getSpindleDirection());
+		assertEquals(Boolean.TRUE, report.getFloodCoolantState());
+		assertEquals(Boolean.TRUE, report.getMistCoolantState());
+	}
+
+	/**
+	 * Context : a report without buffer state, work coordinate offset, overrides or accessories, using the F field
+	 * Result  : the missing values are NONE, NaN or null
+	 * @throws Exception
+	 */
+	@Test
+	public void testMissingFields() throws Exception{
+		assertTrue(reader.read("<Idle|WPos:-1.500,0.025,-0.001|F:0>", report));
+		assertSame(GrblMachineState.IDLE, report.getState());
+		assertFalse(report.hasMachinePosition());
+		assertArrayEquals(new double[]{-1.5, 0.025, -0.001}, report.getWorkPosition(), EPSILON);
+		assertEquals(0, report.getVelocity(), EPSILON);
+		assertEquals(StatusReport.NONE, report.getAvailablePlannerBuffer());
+		assertEquals(StatusReport.NONE, report.getAvailableRxBuffer());
+		assertEquals(StatusReport.NONE, report.getSpindleSpeed());
+		assertFalse(report.hasCurrentWorkCoordinateOffset());
+		assertEquals(StatusReport.NONE, report.getOverrideFeed());
+		assertNull(report.getSpindleDirection());
+		assertNull(report.getFloodCoolantState());
+		assertNull(report.getMistCoolantState());
+	}
+
+	/**
+	 * Context : a report with overrides but without accessory state, then with a partial accessory state
+	 * Result  : the coolants are reported off when missing, as Grbl only sends the accessories that are on
+	 * @throws Exception
+	 */
+	@Test
+	public void testAccessoryState() throws Exception{
+		assertTrue(reader.read("<Hold:0|MPos:0.000,0.000,0.000|FS:0,0|Ov:100,100,100>", report));
+		assertSame(GrblMachineState.HOLD, report.getState());
+		assertEquals(Boolean.FALSE, report.getFloodCoolantState());
+		assertEquals(Boolean.FALSE, report.getMistCoolantState());
+		assertNull(report.getSpindleDirection());
+
+		assertTrue(reader.read("<Hold:1|MPos:0.000,0.000,0.000|FS:0,0|A:CF>", report));
+		assertSame(GrblMachineState.HOLDING, report.getState());
+		assertEquals("CCW", report.getSpindleDirection());
+		assertEquals(Boolean.TRUE, report.getFloodCoolantState());
+		assertEquals(Boolean.FALSE, report.getMistCoolantState());
+		// Cleared when the report is reused
+		assertEquals(StatusReport.NONE, report.getOverrideFeed());
+	}
+
+	/**
+	 * Context : a Grbl 0.9 style report, fields and values separated by ','
+	 * Result  : the positions are read, the unknown fields are ignored
+	 * @throws Exception
+	 */
+	@Test
+	public void testGrbl09Layout() throws Exception{
+		assertTrue(reader.read("<Idle,MPos:5.529,-0.560,7.000,WPos:1.529,-5.440,-0.000,Buf:0,RX:3>", report));
+		assertSame(GrblMachineState.IDLE, report.getState());
+		assertArrayEquals(new double[]{5.529, -0.56, 7}, report.getMachinePosition(), EPSILON);
+		assertArrayEquals(new double[]{1.529, -5.44, 0}, report.getWorkPosition(), EPSILON);
+		assertEquals(StatusReport.NONE, report.getAvailablePlannerBuffer());
+	}
+
+	/**
+	 * Context : data that is not a status report, and an unknown state
+	 * Result  : the data is rejected, the unknown state is UNDEFINED
+	 * @throws Exception
+	 */
+	@Test
+	public void testInvalidReports() throws Exception{
+		assertFalse(reader.read("[MSG:Reset to continue]", report));
+		assertNull(report.getState());
+		assertTrue(reader.read("<Unknown|MPos:1.000,2.000,3.000>", report));
+		assertSame(GrblMachineState.UNDEFINED, report.getState());
+		assertSame(GrblMachineState.DOOR, StatusReportReader.findState("Door:2"));
+		assertSame(GrblMachineState.UNDEFINED, StatusReportReader.findState("Door"));
+	}
+
+	/**
+	 * Context : the values of a report are applied to the last applied report
+	 * Result  : only the values that changed are reported as updated
+	 * @throws Exception
+	 */
+	@Test
+	public void testUpdate() throws Exception{
+		StatusReport applied = new StatusReport();
+		assertTrue(reader.read("<Run|MPos:1.000,2.000,3.000|FS:100,0|WCO:0.000,0.000,0.000>", report));
+		assertTrue(applied.updateMachinePosition(report));
+		assertTrue(applied.updateVelocity(report));
+		assertTrue(applied.updateCurrentWorkCoordinateOffset(report));
+		assertFalse(applied.updateWorkPosition(report));
+
+		assertTrue(reader.read("<Run|MPos:1.000,2.000,3.000|FS:100,0>", report));
+		assertFalse(applied.updateMachinePosition(report));
+		assertFalse(applied.updateVelocity(report));
+
+		assertTrue(reader.read("<Run|MPos:1.000,2.000,3.001|FS:99.5,0>", report));
+		assertTrue(applied.updateMachinePosition(report));
+		assertArrayEquals(new double[]{1, 2, 3.001}, applied.getMachinePosition(), EPSILON);
+		assertTrue(applied.updateVelocity(report));
+		assertEquals(99.5, applied.getVelocity(), EPSILON);
+	}
+}
@@ -16,9 +16,6 @@
  *******************************************************************************/
 package org.goko.controller.grbl.v08;
 
-import java.util.List;
-
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.execution.monitor.executor.AbstractStreamingExecutor;
@@ -81,10 +78,8 @@ public class GrblExecutor extends AbstractStreamingExecutor<ExecutionTokenState,
 	 * @throws GkException
 	 */
 	protected GCodeLine markNextLineAsError() throws GkException{
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
-		GCodeLine line = null;
-		if(CollectionUtils.isNotEmpty(lstLines)){
-			line = lstLines.get(0);
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
+		if(line != null){
 			getToken().setLineState(line.getId(), ExecutionTokenState.ERROR);
 			getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
 		}
@@ -96,14 +91,10 @@ public class GrblExecutor extends AbstractStreamingExecutor<ExecutionTokenState,
 	 * @throws GkException
 	 */
 	protected void confirmNextLineExecution() throws GkException{
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
-		if(CollectionUtils.isNotEmpty(lstLines)){
-			GCodeLine line = null;
-			if(CollectionUtils.isNotEmpty(lstLines)){
-				line = lstLines.get(0);
-				getToken().setLineState(line.getId(), ExecutionTokenState.EXECUTED);
-				getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
-			}
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
+		if(line != null){
+			getToken().setLineState(line.getId(), ExecutionTokenState.EXECUTED);
+			getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
 			notifyReadyForNextLineIfRequired();
 			notifyTokenCompleteIfRequired();		
 		}
@@ -3,7 +3,6 @@
  */
 package org.goko.controller.grbl.v08;
 
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.common.measure.quantity.QuantityUtils;
@@ -59,9 +58,9 @@ public class GrblJogging {
 												
 				command = getRelativeJogCommand(command, tinygAxis, localStep);
 				
-				grblCommunicator.send(GkUtils.toBytesList(command));
+				grblCommunicator.send(command);
 				if(previousDistanceMode == EnumDistanceMode.ABSOLUTE){
-					grblCommunicator.send(GkUtils.toBytesList("G90"));	
+					grblCommunicator.send("G90");	
 				}
 			}
 			
@@ -102,7 +101,7 @@ public class GrblJogging {
 	 */
 	public void stopJog() throws GkException {
 		if(previousDistanceMode == EnumDistanceMode.ABSOLUTE){
-			grblCommunicator.send(GkUtils.toBytesList("G90"));
+			grblCommunicator.send("G90");
 		}
 		previousDistanceMode  = null;
 	}
@@ -20,22 +20,21 @@
 package org.goko.controller.grbl.v09;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.goko.controller.grbl.v09.bean.StatusReport;
-import org.goko.core.common.GkUtils;
-import org.goko.core.common.buffer.ByteCommandBuffer;
+import org.goko.core.common.buffer.ByteLineSplitter;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkFunctionalException;
 import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.common.measure.units.Unit;
 import org.goko.core.connection.DataPriority;
 import org.goko.core.connection.EnumConnectionEvent;
-import org.goko.core.connection.IConnectionDataListener;
+import org.goko.core.connection.IConnectionByteListener;
 import org.goko.core.connection.IConnectionListener;
 import org.goko.core.connection.IConnectionService;
 import org.goko.core.controller.bean.ProbeResult;
@@ -43,7 +42,7 @@ import org.goko.core.gcode.rs274ngcv3.context.CoordinateSystemFactory;
 import org.goko.core.log.GkLog;
 import org.goko.core.math.Tuple6b;
 
-public class GrblCommunicator implements IConnectionDataListener, IConnectionListener {
+public class GrblCommunicator implements IConnectionByteListener, IConnectionListener {
 	/** LOG */
 	private static final GkLog LOG = GkLog.getLogger(GrblCommunicator.class);
 	/** The target Grbl service */
@@ -51,7 +50,7 @@ public class GrblCommunicator implements IConnectionDataListener, IConnectionLis
 	/** Grbl end line delimiter */
 	private char endLineCharDelimiter;
 	/** Buffer for incoming data	 */
-	private ByteCommandBuffer incomingBuffer;
+	private ByteLineSplitter incomingBuffer;
 	/** The connection service */
 	private IConnectionService connectionService;
 	private static String NUMBER_PATTERN = "(-?[0-9]*\\.[0-9]*)";
@@ -68,23 +67,25 @@ public class GrblCommunicator implements IConnectionDataListener, IConnectionLis
 	protected GrblCommunicator(GrblControllerService grbl) {
 		this.grbl = grbl;
 		endLineCharDelimiter = '\n';
-		incomingBuffer 		 = new ByteCommandBuffer((byte) endLineCharDelimiter);
+		incomingBuffer 		 = new ByteLineSplitter((byte) endLineCharDelimiter);
 	}
 	/** (inheritDoc)
-	 * @see org.goko.core.connection.IConnectionDataListener#onDataReceived(java.util.List)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataReceived(byte[], int, int)
 	 */
 	@Override
-	public void onDataReceived(List<Byte> data) throws GkException {
-		incomingBuffer.addAll(data);
-		while(incomingBuffer.hasNext()){
-			handleIncomingData(GkUtils.toString(incomingBuffer.unstackNextCommand()));
+	public void onDataReceived(byte[] data, int offset, int length) throws GkException {
+		incomingBuffer.append(data, offset, length);
+		String line = incomingBuffer.nextLine();
+		while(line != null){
+			handleIncomingData(line);
+			line = incomingBuffer.nextLine();
 		}
 	}
 	/** (inheritDoc)
-	 * @see org.goko.core.connection.IConnectionDataListener#onDataSent(java.util.List)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataSent(byte[], int, int)
 	 */
 	@Override
-	public void onDataSent(List<Byte> data) throws GkException {
+	public void onDataSent(byte[] data, int offset, int length) throws GkException {
 		// TODO Auto-generated method stub
 
 	}
@@ -93,10 +94,10 @@ public class GrblCommunicator implements IConnectionDataListener, IConnectionLis
 	public void onConnectionEvent(EnumConnectionEvent event) throws GkException {
 		if(event == EnumConnectionEvent.CONNECTED){
 			incomingBuffer.clear();
-			getConnectionService().addInputDataListener(this);
+			getConnectionService().addInputByteListener(this);
 			grbl.startStatusPolling();
 		}else if(event == EnumConnectionEvent.DISCONNECTED){
-			getConnectionService().removeInputDataListener(this);
+			getConnectionService().removeInputByteListener(this);
 			grbl.stopStatusPolling();
 			grbl.setState(GrblMachineState.UNDEFINED);
 			incomingBuffer.clear();
@@ -265,12 +266,14 @@ public class GrblCommunicator implements IConnectionDataListener, IConnectionLis
 		return identifier;
 	}
 	/**
-	 * Add the end line character at the end of the given list
-	 * @param list the list
+	 * Returns a copy of the given data followed by the end line character
+	 * @param data the data
+	 * @return a new byte array
 	 */
-	private void addEndLineCharacter(List<Byte> list){
-		//command.add(new Byte((byte) endLineCharDelimiter));
-		list.add(new Byte((byte) endLineCharDelimiter));
+	private byte[] addEndLineCharacter(byte[] data){
+		byte[] bytes = Arrays.copyOf(data, data.length + 1);
+		bytes[data.length] = (byte) endLineCharDelimiter;
+		return bytes;
 	}
 	/**
 	 * @return the connectionService
@@ -287,16 +290,19 @@ public class GrblCommunicator implements IConnectionDataListener, IConnectionLis
 		this.connectionService.addConnectionListener(this);
 	}
 
-	protected void send(List<Byte> lstByte) throws GkException{
-		addEndLineCharacter(lstByte);
-		getConnectionService().send(lstByte);
+	protected void send(byte[] data) throws GkException{
+		getConnectionService().send(addEndLineCharacter(data));
 	}
 
-	protected void sendWithoutEndLineCharacter(List<Byte> lstByte) throws GkException{
-		getConnectionService().send(lstByte);
+	protected void send(String data) throws GkException{
+		send(data.getBytes());
 	}
 
-	protected void sendImmediately(List<Byte> lstByte) throws GkException{
-		getConnectionService().send(lstByte, DataPriority.IMPORTANT);
+	protected void sendWithoutEndLineCharacter(byte[] data) throws GkException{
+		getConnectionService().send(data);
+	}
+
+	protected void sendImmediately(byte[] data) throws GkException{
+		getConnectionService().send(data, DataPriority.IMPORTANT);
 	}
 }
@@ -47,7 +47,6 @@ import org.goko.controller.grbl.v09.configuration.GrblSetting;
 import org.goko.controller.grbl.v09.configuration.IGrblConfigurationListener;
 import org.goko.controller.grbl.v09.configuration.topic.GrblExecutionErrorTopic;
 import org.goko.controller.grbl.v09.probe.ProbeCallable;
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.applicative.logging.IApplicativeLogService;
 import org.goko.core.common.event.EventBrokerUtils;
 import org.goko.core.common.event.EventDispatcher;
@@ -236,8 +235,8 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	@Override
 	public void send(GCodeLine gCodeLine) throws GkException{
 		String cmd = gcodeService.render(gCodeLine);
-		List<Byte> byteCommand = GkUtils.toBytesList(cmd);
-		int usedBufferCount = CollectionUtils.size(byteCommand);
+		byte[] byteCommand = cmd.getBytes();
+		int usedBufferCount = byteCommand.length;
 		// Increment before we even send, to make sure we have enough space
 		incrementUsedBufferCount(usedBufferCount + 2); // Dirty hack for end of line chars
 		communicator.send( byteCommand );
@@ -409,20 +408,20 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	 */
 	public void refreshStatus() throws GkException{
 		if(isActivePollingEnabled()){
-			communicator.sendWithoutEndLineCharacter( GkUtils.toBytesList(Grbl.CURRENT_STATUS) );
+			communicator.sendWithoutEndLineCharacter( Grbl.CURRENT_STATUS.getBytes() );
 		}
 	}
 
 	public void refreshSpaceCoordinates() throws GkException{
-		communicator.send( GkUtils.toBytesList(Grbl.VIEW_PARAMETERS) );
+		communicator.send( Grbl.VIEW_PARAMETERS );
 	}
 
 	public void refreshParserState() throws GkException{
-		communicator.send( GkUtils.toBytesList(Grbl.PARSER_STATE) );
+		communicator.send( Grbl.PARSER_STATE );
 	}
 
 	public void refreshConfiguration() throws GkException{
-		communicator.send( GkUtils.toBytesList(Grbl.CONFIGURATION) );
+		communicator.send( Grbl.CONFIGURATION );
 	}
 
 	protected void handleConfigurationReading(String configurationMessage) throws GkException{
@@ -577,9 +576,7 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	 */
 
 	public void startHomingSequence() throws GkException{
-		List<Byte> homeCommand = new ArrayList<Byte>();
-		homeCommand.addAll(GkUtils.toBytesList(Grbl.HOME_COMMAND));
-		communicator.send( homeCommand );
+		communicator.send( Grbl.HOME_COMMAND );
 	}
 
 	/**
@@ -588,9 +585,7 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	 * @throws GkException GkException
 	 */
 	public void pauseMotion() throws GkException{
-		List<Byte> pauseCommand = new ArrayList<Byte>();
-		pauseCommand.add(Grbl.PAUSE_COMMAND);
-		communicator.sendImmediately( pauseCommand );
+		communicator.sendImmediately( new byte[]{Grbl.PAUSE_COMMAND} );
 		if(executionService.getExecutionState() != ExecutionState.IDLE){
 			executionService.pauseQueueExecution();
 		}
@@ -602,9 +597,7 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	 * @throws GkException GkException
 	 */
 	public void stopMotion() throws GkException{
-		List<Byte> stopCommand = new ArrayList<Byte>();
-		stopCommand.add(Grbl.PAUSE_COMMAND);
-		stopCommand.add(Grbl.RESET_COMMAND);
+		byte[] stopCommand = new byte[]{Grbl.PAUSE_COMMAND, Grbl.RESET_COMMAND};
 		
 		communicator.sendImmediately(stopCommand);
 		if(executionService.getExecutionState() != ExecutionState.IDLE){
@@ -623,9 +616,7 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	 * @throws GkException GkException
 	 */
 	public void startMotion() throws GkException{
-		List<Byte> startResumeCommand = new ArrayList<Byte>();
-		startResumeCommand.add(Grbl.RESUME_COMMAND);
-		communicator.sendWithoutEndLineCharacter( startResumeCommand );
+		communicator.sendWithoutEndLineCharacter( new byte[]{Grbl.RESUME_COMMAND} );
 		if(executionService.getExecutionState() == ExecutionState.PAUSED){
 			executionService.resumeQueueExecution();
 		}else{
@@ -634,9 +625,7 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	}
 	
 	public void resumeMotion() throws GkException{
-		List<Byte> startResumeCommand = new ArrayList<Byte>();
-		startResumeCommand.add(Grbl.RESUME_COMMAND);
-		communicator.sendWithoutEndLineCharacter( startResumeCommand );		
+		communicator.sendWithoutEndLineCharacter( new byte[]{Grbl.RESUME_COMMAND} );		
 		executionService.resumeQueueExecution();		
 	}
 
@@ -649,20 +638,19 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	}
 
 	public void resetZero(List<String> axes) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList("G92");
+		StringBuilder command = new StringBuilder("G92");
 		if(CollectionUtils.isNotEmpty(axes)){
 			for (String axe : axes) {
-				lstBytes.addAll(GkUtils.toBytesList(axe+"0"));
+				command.append(axe).append("0");
 			}
 		}else{
-			lstBytes.addAll( GkUtils.toBytesList("X0Y0Z0"));
+			command.append("X0Y0Z0");
 		}
-		communicator.send(lstBytes);
+		communicator.send(command.toString());
 	}
 
 	public void killAlarm() throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList("$X");
-		communicator.send(lstBytes);
+		communicator.send("$X");
 	}
 
 	/**
@@ -707,12 +695,9 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 		
 		if(CollectionUtils.isNotEmpty( configuration.getLstGrblSetting() )){
 			List<GrblSetting<?>> lstSetting = configuration.getLstGrblSetting();
-			List<Byte> cfgCommand = new ArrayList<Byte>();
 			
 			for (GrblSetting<?> newGrblSetting : lstSetting) {
-				cfgCommand.addAll(GkUtils.toBytesList(newGrblSetting.getIdentifier()+"="+newGrblSetting.getValueAsString() ));
-				communicator.send( cfgCommand );
-				cfgCommand.clear();
+				communicator.send( newGrblSetting.getIdentifier()+"="+newGrblSetting.getValueAsString() );
 				notifyConfigurationChanged(newGrblSetting.getIdentifier());
 				// Start of dirty hack to avoid flooding Grbl RX buffer. Need to work on a proper solution
 				try {
@@ -813,8 +798,8 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	 */
 	@Override
 	public void setCurrentCoordinateSystem(ICoordinateSystem cs) throws GkException {
-		communicator.send( GkUtils.toBytesList( cs.getCode()) );
-		communicator.send( GkUtils.toBytesList( "$G" ) );
+		communicator.send( cs.getCode() );
+		communicator.send( "$G" );
 	}
 	/** (inheritDoc)
 	 * @see org.goko.core.controller.ICoordinateSystemAdapter#resetCurrentCoordinateSystem()
@@ -845,8 +830,8 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 		cmd += "X"+getPositionAsString(mPos.getX());
 		cmd += "Y"+getPositionAsString(mPos.getY());
 		cmd += "Z"+getPositionAsString(mPos.getZ());
-		communicator.send( GkUtils.toBytesList( cmd ) );
-		communicator.send( GkUtils.toBytesList( Grbl.VIEW_PARAMETERS ) );
+		communicator.send( cmd );
+		communicator.send( Grbl.VIEW_PARAMETERS );
 	}
 	
 
@@ -876,8 +861,8 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 		cmd += "X"+getPositionAsString(mPos.getX());
 		cmd += "Y"+getPositionAsString(mPos.getY());
 		cmd += "Z"+getPositionAsString(mPos.getZ());
-		communicator.send(GkUtils.toBytesList(cmd));
-		communicator.send(GkUtils.toBytesList(Grbl.VIEW_PARAMETERS));
+		communicator.send(cmd);
+		communicator.send(Grbl.VIEW_PARAMETERS);
 	}
 	
 	/**
@@ -921,7 +906,7 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	public void setCheckModeEnabled(boolean enabled) throws GkException {
 		if((enabled && ObjectUtils.equals(GrblMachineState.READY, getState())) || // Check mode is disabled and we want to enable it
 			(!enabled && ObjectUtils.equals(GrblMachineState.CHECK, getState())) ){ // Check mode is enabled and we want to disable it
-			communicator.send(GkUtils.toBytesList(Grbl.CHECK_MODE));
+			communicator.send(Grbl.CHECK_MODE);
 		}else{
 			throw new GkFunctionalException("GRBL-001", String.valueOf(enabled), getState().getLabel());
 		}
@@ -1168,8 +1153,6 @@ public class GrblControllerService extends EventDispatcher implements IGrblContr
 	 */
 	@Override
 	public void resetGrbl() throws GkException {
-		List<Byte> resetCommand = new ArrayList<Byte>();
-		resetCommand.add(Grbl.RESET_COMMAND);
-		communicator.sendImmediately(resetCommand);
+		communicator.sendImmediately(new byte[]{Grbl.RESET_COMMAND});
 	}
 }
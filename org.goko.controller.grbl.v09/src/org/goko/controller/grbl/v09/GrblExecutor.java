@@ -82,10 +82,8 @@ public class GrblExecutor extends AbstractStreamingExecutor<ExecutionTokenState,
 	 * @throws GkException
 	 */
 	protected GCodeLine markNextLineAsError() throws GkException{
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
-		GCodeLine line = null;
-		if(CollectionUtils.isNotEmpty(lstLines)){
-			line = lstLines.get(0);
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
+		if(line != null){
 			getToken().setLineState(line.getId(), ExecutionTokenState.ERROR);
 			getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
 		}
@@ -97,14 +95,10 @@ public class GrblExecutor extends AbstractStreamingExecutor<ExecutionTokenState,
 	 * @throws GkException
 	 */
 	protected void confirmNextLineExecution() throws GkException{
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
-		if(CollectionUtils.isNotEmpty(lstLines)){
-			GCodeLine line = null;
-			if(CollectionUtils.isNotEmpty(lstLines)){
-				line = lstLines.get(0);
-				getToken().setLineState(line.getId(), ExecutionTokenState.EXECUTED);
-				getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
-			}
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
+		if(line != null){
+			getToken().setLineState(line.getId(), ExecutionTokenState.EXECUTED);
+			getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
 			notifyReadyForNextLineIfRequired();
 			notifyTokenCompleteIfRequired();		
 		}
@@ -3,8 +3,6 @@
  */
 package org.goko.controller.grbl.v09;
 
-import java.util.ArrayList;
-import java.util.List;
 
 import org.goko.controller.grbl.v09.bean.IGrblStateChangeListener;
 import org.goko.core.common.exception.GkException;
@@ -42,9 +40,7 @@ public class GrblResetOnHoldListener implements IGrblStateChangeListener {
 				} catch (InterruptedException e) {
 					LOG.error(e);
 				}		
-				List<Byte> resetCommand = new ArrayList<Byte>();
-				resetCommand.add(Grbl.RESET_COMMAND);
-				communicator.sendImmediately(resetCommand);
+				communicator.sendImmediately(new byte[]{Grbl.RESET_COMMAND});
 				
 				// Remove itself from listening to the state change
 				grblService.removeStateListener(this);
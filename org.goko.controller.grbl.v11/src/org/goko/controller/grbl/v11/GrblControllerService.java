@@ -3,6 +3,7 @@
  */
 package org.goko.controller.grbl.v11;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.concurrent.CompletionService;
 
@@ -62,6 +63,8 @@ public class GrblControllerService extends AbstractGrblControllerService<GrblMac
 	private IGCodeExecutionTimeService gcodeExecutionTimeService;
 	/** Probe utility */
 	private ProbeUtility probeUtility;
+	/** Unit of the values of the applied status reports */
+	private Unit<Length> appliedReportUnit;
 	/**
 	 * Constructor
 	 * @param internalState
@@ -181,6 +184,7 @@ public class GrblControllerService extends AbstractGrblControllerService<GrblMac
 	@Override
 	protected void startGrblService() {
 		getStatusPoller().setPeriod( Grblv11Preferences.getInstance().getPollingPeriod() );
+		getExecutor().setStreamingMode( Grblv11Preferences.getInstance().getStreamingMode() );
 		getInternalState().addListener(this);
 	}
 
@@ -219,7 +223,6 @@ public class GrblControllerService extends AbstractGrblControllerService<GrblMac
 		
 	protected void handleOkResponse() throws GkException {
 		releaseRxBuffer();	
-		decreasePendingCommands();
 		getInternalState().setAvailablePlannerBuffer( getInternalState().getAvailablePlannerBuffer() - 1);
 		ExecutionState state = getExecutionService().getExecutionState();
 		if( state == ExecutionState.RUNNING ||
@@ -233,63 +236,111 @@ public class GrblControllerService extends AbstractGrblControllerService<GrblMac
 		getInternalState().setToolLengthOffset(toolLengthOffset);
 	}
 	
+	/**
+	 * Applies the given status report to the state. Values that did not change since the last report are skipped
+	 * @param statusReport the received report
+	 * @throws GkException GkException
+	 */
 	protected void handleStatusReport(StatusReport statusReport) throws GkException {		
 		getInternalState().setState(statusReport.getState());
 		
 		if ( getPlannerBufferCapacity() == null
 				&& statusReport.getState() == GrblMachineState.IDLE
-				&& statusReport.getAvailablePlannerBuffer() != null) {
+				&& statusReport.getAvailablePlannerBuffer() != StatusReport.NONE) {
 			setPlannerBufferCapacity( statusReport.getAvailablePlannerBuffer() );
 		}
 		if (statusReport.getState() != GrblMachineState.ALARM) {
 			getInternalState().setAlarmMessage(StringUtils.EMPTY);
 		}
-		if(statusReport.getCurrentWorkCoordinateOffset() != null){
-			getInternalState().setCurrentWorkCoordinateOffset(statusReport.getCurrentWorkCoordinateOffset());
+		Unit<Length> unit = getReportUnit();
+		StatusReport appliedReport = getInternalState().getAppliedStatusReport();
+		if(!unit.equals(appliedReportUnit)){
+			appliedReport.clear();
+			appliedReportUnit = unit;
+		}
+		boolean offsetChanged = false;
+		if(statusReport.hasCurrentWorkCoordinateOffset() && appliedReport.updateCurrentWorkCoordinateOffset(statusReport)){
+			getInternalState().setCurrentWorkCoordinateOffset(toTuple(statusReport.getCurrentWorkCoordinateOffset(), unit));
+			offsetChanged = true;
 		}
-		if(statusReport.getMachinePosition() != null){
-			getInternalState().setMachinePosition(statusReport.getMachinePosition());
+		if(statusReport.hasMachinePosition() && (appliedReport.updateMachinePosition(statusReport) || offsetChanged)){
+			Tuple6b machinePosition = toTuple(statusReport.getMachinePosition(), unit);
+			getInternalState().setMachinePosition(machinePosition);
 			if(getInternalState().getCurrentWorkCoordinateOffset() != null){
-				getInternalState().setWorkPosition(statusReport.getMachinePosition().subtract(getInternalState().getCurrentWorkCoordinateOffset()));
+				getInternalState().setWorkPosition(machinePosition.subtract(getInternalState().getCurrentWorkCoordinateOffset()));
 			}
 		}
-		if(statusReport.getWorkPosition() != null){
-			getInternalState().setWorkPosition(statusReport.getWorkPosition());	
+		if(statusReport.hasWorkPosition() && (appliedReport.updateWorkPosition(statusReport) || offsetChanged)){
+			Tuple6b workPosition = toTuple(statusReport.getWorkPosition(), unit);
+			getInternalState().setWorkPosition(workPosition);	
 			if(getInternalState().getCurrentWorkCoordinateOffset() != null){
-				getInternalState().setMachinePosition(statusReport.getWorkPosition().add(getInternalState().getCurrentWorkCoordinateOffset()));
+				getInternalState().setMachinePosition(workPosition.add(getInternalState().getCurrentWorkCoordinateOffset()));
 			}
 		}
-		if(statusReport.getAvailablePlannerBuffer() != null){
+		if(statusReport.getAvailablePlannerBuffer() != StatusReport.NONE){
 			getInternalState().setAvailablePlannerBuffer(statusReport.getAvailablePlannerBuffer());
 		}
-		if(statusReport.getAvailableRxBuffer() != null){
+		if(statusReport.getAvailableRxBuffer() != StatusReport.NONE){
 			getInternalState().setAvailableRxBuffer(statusReport.getAvailableRxBuffer());
 		}
-		if(statusReport.getOverrideFeed() != null){
+		if(statusReport.getOverrideFeed() != StatusReport.NONE){
 			getInternalState().setOverrideFeed(statusReport.getOverrideFeed());
 		}
-		if(statusReport.getOverrideRapid() != null){
+		if(statusReport.getOverrideRapid() != StatusReport.NONE){
 			getInternalState().setOverrideRapid(statusReport.getOverrideRapid());
 		}
-		if(statusReport.getOverrideSpindle() != null){
+		if(statusReport.getOverrideSpindle() != StatusReport.NONE){
 			getInternalState().setOverrideSpindle(statusReport.getOverrideSpindle());
 		}	
-		if(statusReport.getVelocity() != null){
-			getInternalState().setVelocity(statusReport.getVelocity());
+		if(!Double.isNaN(statusReport.getVelocity()) && appliedReport.updateVelocity(statusReport)){
+			Unit<Speed> feedUnit = SpeedUnit.MILLIMETRE_PER_MINUTE;
+			if(LengthUnit.INCH.equals(unit)){
+				feedUnit = SpeedUnit.INCH_PER_MINUTE;
+			}
+			getInternalState().setVelocity(Speed.valueOf(BigDecimal.valueOf(statusReport.getVelocity()), feedUnit));
 		}
-		if(statusReport.getSpindleSpeed() != null){
+		if(statusReport.getSpindleSpeed() != StatusReport.NONE && statusReport.getSpindleSpeed() != appliedReport.getSpindleSpeed()){
+			appliedReport.setSpindleSpeed(statusReport.getSpindleSpeed());
 			getInternalState().setSpindleSpeed(statusReport.getSpindleSpeed());
 			getInternalState().setSpindleEnabled(statusReport.getSpindleSpeed() > 0);
 		}		
 		if(StringUtils.isNotBlank(statusReport.getSpindleDirection())){
 			getInternalState().setSpindleDirection(statusReport.getSpindleDirection());
 		}
-		if(statusReport.getMistCoolantState() != null){
+		if(statusReport.getMistCoolantState() != null && !statusReport.getMistCoolantState().equals(appliedReport.getMistCoolantState())){
+			appliedReport.setMistCoolantState(statusReport.getMistCoolantState());
 			getInternalState().setMistCoolantState(statusReport.getMistCoolantState());
 		}
-		if(statusReport.getFloodCoolantState() != null){
+		if(statusReport.getFloodCoolantState() != null && !statusReport.getFloodCoolantState().equals(appliedReport.getFloodCoolantState())){
+			appliedReport.setFloodCoolantState(statusReport.getFloodCoolantState());
 			getInternalState().setFloodCoolantState(statusReport.getFloodCoolantState());
 		}
+		handleStatusReportFeedback(isMachineActive(statusReport.getState()), statusReport.getAvailableRxBuffer());
+	}
+
+	/**
+	 * Determines if the machine is moving or a file is being streamed, in which case the status is polled at the active rate
+	 * @param state the reported state
+	 * @return <code>true</code> if the machine is active
+	 * @throws GkException GkException
+	 */
+	private boolean isMachineActive(GrblMachineState state) throws GkException{
+		return state == GrblMachineState.RUN
+			|| state == GrblMachineState.JOG
+			|| state == GrblMachineState.HOME
+			|| state == GrblMachineState.HOLDING
+			|| state == GrblMachineState.CHECK
+			|| getExecutionService().getExecutionState() == ExecutionState.RUNNING;
+	}
+
+	/**
+	 * Creates a tuple from the given reported position
+	 * @param position the x, y and z values
+	 * @param unit the unit of the values
+	 * @return a new Tuple6b
+	 */
+	private Tuple6b toTuple(double[] position, Unit<Length> unit){
+		return new Tuple6b(position[0], position[1], position[2], unit);
 	}
 
 	protected void handleAlarm(GrblMachineState alarmState) throws GkException{
@@ -630,6 +681,8 @@ public class GrblControllerService extends AbstractGrblControllerService<GrblMac
 			if(getStatusPoller() != null){
 				getStatusPoller().setPeriod( Grblv11Preferences.getInstance().getPollingPeriod() );
 			}
+		}else if(StringUtils.equals(Grblv11Preferences.STREAMING_MODE, event.getProperty())){
+			getExecutor().setStreamingMode( Grblv11Preferences.getInstance().getStreamingMode() );
 		}
 	}
 
@@ -6,10 +6,12 @@ package org.goko.controller.grbl.v11;
 import org.apache.commons.lang3.StringUtils;
 import org.goko.controller.grbl.commons.AbstractGrblState;
 import org.goko.controller.grbl.v11.bean.GrblMachineState;
+import org.goko.controller.grbl.v11.bean.StatusReport;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.controller.bean.DefaultControllerValues;
 import org.goko.core.controller.bean.OnOffBoolean;
+import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
 import org.goko.core.math.Tuple6b;
 
 /**
@@ -21,6 +23,8 @@ import org.goko.core.math.Tuple6b;
 public class GrblState extends AbstractGrblState<GrblMachineState> {
 	/** The current work coordinate offset */
 	private Tuple6b currentWorkCoordinateOffset;
+	/** The values of the status reports applied to this state, used to skip the values that did not change */
+	private StatusReport appliedStatusReport;
 	
 	/**
 	 * Cosntructor
@@ -28,6 +32,27 @@ public class GrblState extends AbstractGrblState<GrblMachineState> {
 	 */
 	public GrblState() throws GkException {
 		super();
+		appliedStatusReport = new StatusReport();
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.controller.grbl.commons.AbstractGrblState#setGCodeContext(org.goko.core.gcode.rs274ngcv3.context.GCodeContext)
+	 */
+	@Override
+	public void setGCodeContext(GCodeContext gcodeContext) throws GkException {
+		super.setGCodeContext(gcodeContext);
+		// The positions were replaced by the ones of the context, the next report has to be applied completely
+		if(appliedStatusReport != null){
+			appliedStatusReport.clear();
+		}
+	}
+
+	/**
+	 * Returns the values of the status reports applied to this state
+	 * @return the applied status report
+	 */
+	public StatusReport getAppliedStatusReport() {
+		return appliedStatusReport;
 	}
 
 	/** (inheritDoc)
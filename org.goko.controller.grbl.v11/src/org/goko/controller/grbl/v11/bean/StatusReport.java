@@ -19,38 +19,131 @@
  */
 package org.goko.controller.grbl.v11.bean;
 
-import org.goko.core.common.measure.quantity.Speed;
-import org.goko.core.math.Tuple6b;
+import java.util.Arrays;
 
+/**
+ * Content of a Grbl status report. The report is backed by primitives so it can be reused for each received report :
+ * <ul>
+ * <li>lengths are expressed in the report unit of Grbl, as x, y and z arrays</li>
+ * <li>missing integers are {@link #NONE}, missing decimals are NaN and missing flags are <code>null</code></li>
+ * </ul>
+ */
 public class StatusReport {
+	/** Value of an integer missing from the report */
+	public static final int NONE = -1;
 	/** The state of the machine */
 	private GrblMachineState state;
 	/** The machine position */
-	private Tuple6b machinePosition;
+	private final double[] machinePosition;
 	/** The work position of the machine */
-	private Tuple6b workPosition;
+	private final double[] workPosition;
 	/** The current work coordinate offset */
-	private Tuple6b currentWorkCoordinateOffset;
+	private final double[] currentWorkCoordinateOffset;
 	/** The number of available planner buffer slot */
-	private Integer availablePlannerBuffer;
+	private int availablePlannerBuffer;
 	/** The number of available RX buffer slot */
-	private Integer availableRxBuffer;
+	private int availableRxBuffer;
 	/** Override value for feed motion */
-	private Integer overrideFeed;
+	private int overrideFeed;
 	/** Override value for rapid motion */
-	private Integer overrideRapid;
+	private int overrideRapid;
 	/** Override value for spindle RPM */
-	private Integer overrideSpindle;
-	/** Current velocity */
-	private Speed velocity;
+	private int overrideSpindle;
+	/** Current velocity in report unit per minute */
+	private double velocity;
 	/** Spindle speed in RPM */
-	private Integer spindleSpeed;
+	private int spindleSpeed;
 	/** Spindle direction */
 	private String spindleDirection;
 	/** Flood coolant state */
 	private Boolean floodCoolantState;
 	/** Mist coolant state */
 	private Boolean mistCoolantState;
+
+	/**
+	 * Constructor of an empty report
+	 */
+	public StatusReport() {
+		this.machinePosition = new double[3];
+		this.workPosition = new double[3];
+		this.currentWorkCoordinateOffset = new double[3];
+		clear();
+	}
+
+	/**
+	 * Clears all the values of this report
+	 */
+	public void clear(){
+		state = null;
+		Arrays.fill(machinePosition, Double.NaN);
+		Arrays.fill(workPosition, Double.NaN);
+		Arrays.fill(currentWorkCoordinateOffset, Double.NaN);
+		availablePlannerBuffer = NONE;
+		availableRxBuffer = NONE;
+		overrideFeed = NONE;
+		overrideRapid = NONE;
+		overrideSpindle = NONE;
+		velocity = Double.NaN;
+		spindleSpeed = NONE;
+		spindleDirection = null;
+		floodCoolantState = null;
+		mistCoolantState = null;
+	}
+
+	/**
+	 * Copies the machine position of the given report if it differs from the one of this report
+	 * @param report the report
+	 * @return <code>true</code> if the machine position changed, <code>false</code> otherwise
+	 */
+	public boolean updateMachinePosition(StatusReport report){
+		return update(machinePosition, report.machinePosition);
+	}
+
+	/**
+	 * Copies the work position of the given report if it differs from the one of this report
+	 * @param report the report
+	 * @return <code>true</code> if the work position changed, <code>false</code> otherwise
+	 */
+	public boolean updateWorkPosition(StatusReport report){
+		return update(workPosition, report.workPosition);
+	}
+
+	/**
+	 * Copies the work coordinate offset of the given report if it differs from the one of this report
+	 * @param report the report
+	 * @return <code>true</code> if the work coordinate offset changed, <code>false</code> otherwise
+	 */
+	public boolean updateCurrentWorkCoordinateOffset(StatusReport report){
+		return update(currentWorkCoordinateOffset, report.currentWorkCoordinateOffset);
+	}
+
+	/**
+	 * Copies the velocity of the given report if it differs from the one of this report
+	 * @param report the report
+	 * @return <code>true</code> if the velocity changed, <code>false</code> otherwise
+	 */
+	public boolean updateVelocity(StatusReport report){
+		if(Double.compare(velocity, report.velocity) == 0){
+			return false;
+		}
+		velocity = report.velocity;
+		return true;
+	}
+
+	/**
+	 * Copies the source tuple into the target tuple if they differ
+	 * @param target the target tuple
+	 * @param source the source tuple
+	 * @return <code>true</code> if the target changed, <code>false</code> otherwise
+	 */
+	private static boolean update(double[] target, double[] source){
+		if(Arrays.equals(target, source)){
+			return false;
+		}
+		System.arraycopy(source, 0, target, 0, target.length);
+		return true;
+	}
+
 	/**
 	 * @return the state
 	 */
@@ -64,123 +157,153 @@ public class StatusReport {
 		this.state = state;
 	}
 	/**
-	 * @return the machinePosition
+	 * @return <code>true</code> if the machine position is reported
 	 */
-	public Tuple6b getMachinePosition() {
+	public boolean hasMachinePosition() {
+		return !Double.isNaN(machinePosition[0]);
+	}
+	/**
+	 * @return the machinePosition as x, y and z
+	 */
+	public double[] getMachinePosition() {
 		return machinePosition;
 	}
 	/**
-	 * @param machinePosition the machinePosition to set
+	 * @param x the x machine position
+	 * @param y the y machine position
+	 * @param z the z machine position
 	 */
-	public void setMachinePosition(Tuple6b machinePosition) {
-		this.machinePosition = machinePosition;
+	public void setMachinePosition(double x, double y, double z) {
+		this.machinePosition[0] = x;
+		this.machinePosition[1] = y;
+		this.machinePosition[2] = z;
 	}
 	/**
-	 * @return the workPosition
+	 * @return <code>true</code> if the work position is reported
 	 */
-	public Tuple6b getWorkPosition() {
+	public boolean hasWorkPosition() {
+		return !Double.isNaN(workPosition[0]);
+	}
+	/**
+	 * @return the workPosition as x, y and z
+	 */
+	public double[] getWorkPosition() {
 		return workPosition;
 	}
 	/**
-	 * @param workPosition the workPosition to set
+	 * @param x the x work position
+	 * @param y the y work position
+	 * @param z the z work position
 	 */
-	public void setWorkPosition(Tuple6b workPosition) {
-		this.workPosition = workPosition;
+	public void setWorkPosition(double x, double y, double z) {
+		this.workPosition[0] = x;
+		this.workPosition[1] = y;
+		this.workPosition[2] = z;
 	}
 	/**
 	 * @return the overrideFeed
 	 */
-	public Integer getOverrideFeed() {
+	public int getOverrideFeed() {
 		return overrideFeed;
 	}
 	/**
 	 * @param overrideFeed the overrideFeed to set
 	 */
-	public void setOverrideFeed(Integer overrideFeed) {
+	public void setOverrideFeed(int overrideFeed) {
 		this.overrideFeed = overrideFeed;
 	}
 	/**
 	 * @return the overrideRapid
 	 */
-	public Integer getOverrideRapid() {
+	public int getOverrideRapid() {
 		return overrideRapid;
 	}
 	/**
 	 * @param overrideRapid the overrideRapid to set
 	 */
-	public void setOverrideRapid(Integer overrideRapid) {
+	public void setOverrideRapid(int overrideRapid) {
 		this.overrideRapid = overrideRapid;
 	}
 	/**
 	 * @return the overrideSpindle
 	 */
-	public Integer getOverrideSpindle() {
+	public int getOverrideSpindle() {
 		return overrideSpindle;
 	}
 	/**
 	 * @param overrideSpindle the overrideSpindle to set
 	 */
-	public void setOverrideSpindle(Integer overrideSpindle) {
+	public void setOverrideSpindle(int overrideSpindle) {
 		this.overrideSpindle = overrideSpindle;
 	}
 	/**
 	 * @return the availablePlannerBuffer
 	 */
-	public Integer getAvailablePlannerBuffer() {
+	public int getAvailablePlannerBuffer() {
 		return availablePlannerBuffer;
 	}
 	/**
 	 * @param availablePlannerBuffer the availablePlannerBuffer to set
 	 */
-	public void setAvailablePlannerBuffer(Integer availablePlannerBuffer) {
+	public void setAvailablePlannerBuffer(int availablePlannerBuffer) {
 		this.availablePlannerBuffer = availablePlannerBuffer;
 	}
 	/**
 	 * @return the availableRxBuffer
 	 */
-	public Integer getAvailableRxBuffer() {
+	public int getAvailableRxBuffer() {
 		return availableRxBuffer;
 	}
 	/**
 	 * @param availableRxBuffer the availableRxBuffer to set
 	 */
-	public void setAvailableRxBuffer(Integer availableRxBuffer) {
+	public void setAvailableRxBuffer(int availableRxBuffer) {
 		this.availableRxBuffer = availableRxBuffer;
 	}
 	/**
-	 * @return the currentWorkCoordinateOffset
+	 * @return <code>true</code> if the current work coordinate offset is reported
+	 */
+	public boolean hasCurrentWorkCoordinateOffset() {
+		return !Double.isNaN(currentWorkCoordinateOffset[0]);
+	}
+	/**
+	 * @return the currentWorkCoordinateOffset as x, y and z
 	 */
-	public Tuple6b getCurrentWorkCoordinateOffset() {
+	public double[] getCurrentWorkCoordinateOffset() {
 		return currentWorkCoordinateOffset;
 	}
 	/**
-	 * @param currentWorkCoordinateOffset the currentWorkCoordinateOffset to set
+	 * @param x the x offset
+	 * @param y the y offset
+	 * @param z the z offset
 	 */
-	public void setCurrentWorkCoordinateOffset(Tuple6b currentWorkCoordinateOffset) {
-		this.currentWorkCoordinateOffset = currentWorkCoordinateOffset;
+	public void setCurrentWorkCoordinateOffset(double x, double y, double z) {
+		this.currentWorkCoordinateOffset[0] = x;
+		this.currentWorkCoordinateOffset[1] = y;
+		this.currentWorkCoordinateOffset[2] = z;
 	}
 	/**
 	 * @return the velocity
 	 */
-	public Speed getVelocity() {
+	public double getVelocity() {
 		return velocity;
 	}
 	/**
 	 * @param velocity the velocity to set
 	 */
-	public void setVelocity(Speed velocity) {
+	public void setVelocity(double velocity) {
 		this.velocity = velocity;
 	}
 	/**
 	 * @return the spindleSpeed
 	 */
-	public Integer getSpindleSpeed() {
+	public int getSpindleSpeed() {
 		return spindleSpeed;
 	}
 	/**
 	 * @param spindleSpeed the spindleSpeed to set
 	 */
-	public void setSpindleSpeed(Integer spindleSpeed) {
+	public void setSpindleSpeed(int spindleSpeed) {
 		this.spindleSpeed = spindleSpeed;
 	}
 	/**
@@ -0,0 +1,156 @@
+/*
+ *
+ *   Goko
+ *   Copyright (C) 2013, 2016  PsyKo
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.goko.controller.grbl.v11.bean;
+
+import org.goko.controller.grbl.commons.GrblStatusReportScanner;
+import org.goko.core.log.GkLog;
+
+/**
+ * Reads the Grbl status reports into a reusable {@link StatusReport}, using a {@link GrblStatusReportScanner}.
+ * A reader is meant to be reused for each received report, it is not thread safe.
+ */
+public class StatusReportReader {
+	/** LOG */
+	private static final GkLog LOG = GkLog.getLogger(StatusReportReader.class);
+	/** Names of the states in status reports */
+	private static final String[] STATE_NAMES = {"Alarm", "Idle", "Jog", "Run", "Home", "Sleep", "Door:0", "Door:1", "Door:2", "Door:3", "Check", "Hold:0", "Hold:1"};
+	/** The states matching {@link #STATE_NAMES} */
+	private static final GrblMachineState[] STATES = {GrblMachineState.ALARM, GrblMachineState.IDLE, GrblMachineState.JOG, GrblMachineState.RUN, GrblMachineState.HOME, GrblMachineState.SLEEP,
+			GrblMachineState.DOOR, GrblMachineState.DOOR, GrblMachineState.DOOR, GrblMachineState.DOOR, // Create multiple states for door
+			GrblMachineState.CHECK, GrblMachineState.HOLD, GrblMachineState.HOLDING};
+	/** The scanner used to read the status reports */
+	private final GrblStatusReportScanner scanner;
+
+	/**
+	 * Constructor
+	 */
+	public StatusReportReader() {
+		this.scanner = new GrblStatusReportScanner();
+	}
+
+	/**
+	 * Returns the state matching the given name
+	 * @param state the name of the state, as found in status reports
+	 * @return the GrblMachineState, {@link GrblMachineState#UNDEFINED} if the name is unknown
+	 */
+	public static GrblMachineState findState(String state){
+		for (int i = 0; i < STATE_NAMES.length; i++) {
+			if(STATE_NAMES[i].equals(state)){
+				return STATES[i];
+			}
+		}
+		return GrblMachineState.UNDEFINED;
+	}
+
+	/**
+	 * Reads the given status report into the given report
+	 * @param strStatusReport the String representing the status report
+	 * @param result the report to fill, cleared first
+	 * @return <code>true</code> if the given String is a status report, <code>false</code> otherwise
+	 */
+	public boolean read(CharSequence strStatusReport, StatusReport result){
+		result.clear();
+		if(!scanner.reset(strStatusReport)){
+			return false;
+		}
+		result.setState(getGrblState());
+
+		// Indicate a tool state report (if override is present, then the report also report tools state)
+		boolean toolStateReport = false;
+		boolean accessoryStateReport = false;
+		while(scanner.nextField()){
+			int valueCount = scanner.getValueCount();
+			if(scanner.isField("MPos") && valueCount >= 3){
+				result.setMachinePosition(scanner.getValue(0), scanner.getValue(1), scanner.getValue(2));
+
+			}else if(scanner.isField("WPos") && valueCount >= 3){
+				result.setWorkPosition(scanner.getValue(0), scanner.getValue(1), scanner.getValue(2));
+
+			}else if(scanner.isField("Bf") && valueCount >= 2){
+				result.setAvailablePlannerBuffer(scanner.getIntValue(0, StatusReport.NONE));
+				result.setAvailableRxBuffer(scanner.getIntValue(1, StatusReport.NONE));
+
+			}else if(scanner.isField("WCO") && valueCount >= 3){
+				result.setCurrentWorkCoordinateOffset(scanner.getValue(0), scanner.getValue(1), scanner.getValue(2));
+
+			}else if(scanner.isField("Ov") && valueCount >= 3){
+				toolStateReport = true;
+				result.setOverrideFeed(scanner.getIntValue(0, StatusReport.NONE));
+				result.setOverrideRapid(scanner.getIntValue(1, StatusReport.NONE));
+				result.setOverrideSpindle(scanner.getIntValue(2, StatusReport.NONE));
+
+			}else if(scanner.isField("FS") && valueCount >= 2){
+				result.setVelocity(scanner.getValue(0));
+				result.setSpindleSpeed(scanner.getIntValue(1, StatusReport.NONE));
+
+			}else if(scanner.isField("F") && valueCount >= 1){
+				result.setVelocity(scanner.getValue(0));
+
+			}else if(scanner.isField("A")){
+				accessoryStateReport = true;
+				readAccessoryState(result);
+			}
+		}
+
+		// Looking for accessory state
+		if(toolStateReport && !accessoryStateReport){
+			result.setFloodCoolantState(false);
+			result.setMistCoolantState(false);
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the accessory state field of a status report
+	 * @param result the report to fill
+	 */
+	private void readAccessoryState(StatusReport result){
+		result.setMistCoolantState(false);
+		result.setFloodCoolantState(false);
+		for (int i = 0; i < scanner.getRawValuesLength(); i++) {
+			char letter = scanner.getRawValuesChar(i);
+			switch (letter) {
+			case 'S': result.setSpindleDirection("CW");
+				break;
+			case 'C': result.setSpindleDirection("CCW");
+				break;
+			case 'F': result.setFloodCoolantState(true);
+				break;
+			case 'M': result.setMistCoolantState(true);
+				break;
+			default: LOG.warn("Ignoring accessory state ["+letter+"]");
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Return the Grbl state of the report being scanned
+	 * @return GrblMachineState
+	 */
+	private GrblMachineState getGrblState() {
+		for (int i = 0; i < STATE_NAMES.length; i++) {
+			if(scanner.isState(STATE_NAMES[i])){
+				return STATES[i];
+			}
+		}
+		return GrblMachineState.UNDEFINED;
+	}
+}
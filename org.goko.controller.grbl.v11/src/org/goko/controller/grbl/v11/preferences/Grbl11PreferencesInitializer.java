@@ -3,6 +3,7 @@
  */
 package org.goko.controller.grbl.v11.preferences;
 
+import org.goko.controller.grbl.commons.GrblStreamingMode;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Time;
 import org.goko.core.common.measure.quantity.TimeUnit;
@@ -21,6 +22,7 @@ public class Grbl11PreferencesInitializer extends GkPreferenceInitializer{
 	protected void initializeDefaultGkPreferences() throws GkException {
 		Grblv11Preferences prefs = Grblv11Preferences.getInstance();
 		prefs.setPollingPeriod(Time.valueOf(100, TimeUnit.MILLISECOND));
+		prefs.setStreamingMode(GrblStreamingMode.CHARACTER_COUNTING);
 		
 	}
 
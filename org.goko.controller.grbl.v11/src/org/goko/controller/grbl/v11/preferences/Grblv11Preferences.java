@@ -3,6 +3,7 @@
  */
 package org.goko.controller.grbl.v11.preferences;
 
+import org.goko.controller.grbl.commons.GrblStreamingMode;
 import org.goko.core.common.measure.quantity.Time;
 import org.goko.core.common.measure.quantity.TimeUnit;
 import org.goko.core.config.GkPreference;
@@ -15,6 +16,7 @@ public class Grblv11Preferences extends GkPreference {
 	public static final String NODE = "org.goko.controller.grbl.v11";
 	
 	public static final String POLLING_PERIOD_MS 	= "pollingPeriodMs";
+	public static final String STREAMING_MODE	 	= "streamingMode";
 	
 	private static Grblv11Preferences instance;
 
@@ -32,6 +34,7 @@ public class Grblv11Preferences extends GkPreference {
 	
 	private void initialiseValues() {
 		getPreferenceStore().setDefault(POLLING_PERIOD_MS, 100);
+		getPreferenceStore().setDefault(STREAMING_MODE, GrblStreamingMode.CHARACTER_COUNTING.name());
 	}
 	
 	public void setPollingPeriod(Time period){
@@ -41,4 +44,18 @@ public class Grblv11Preferences extends GkPreference {
 	public Time getPollingPeriod(){
 		return Time.valueOf(getPreferenceStore().getString(POLLING_PERIOD_MS), TimeUnit.MILLISECOND);
 	}
+	
+	public void setStreamingMode(GrblStreamingMode mode){
+		getPreferenceStore().setValue(STREAMING_MODE, mode.name());
+	}
+	
+	public GrblStreamingMode getStreamingMode(){
+		String mode = getPreferenceStore().getString(STREAMING_MODE);
+		for (GrblStreamingMode streamingMode : GrblStreamingMode.values()) {
+			if(streamingMode.name().equals(mode)){
+				return streamingMode;
+			}
+		}
+		return GrblStreamingMode.CHARACTER_COUNTING;
+	}
 }
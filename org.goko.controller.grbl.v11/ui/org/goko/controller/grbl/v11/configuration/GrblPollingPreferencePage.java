@@ -28,7 +28,9 @@ import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.wb.swt.SWTResourceManager;
 import org.goko.common.preferences.fieldeditor.preference.BigDecimalFieldEditor;
+import org.goko.common.preferences.fieldeditor.preference.ComboFieldEditor;
 import org.goko.common.preferences.fieldeditor.preference.validator.IntegerValidator;
+import org.goko.controller.grbl.commons.GrblStreamingMode;
 import org.goko.controller.grbl.commons.configuration.AbstractGrblConfigurationPage;
 import org.goko.controller.grbl.v11.preferences.Grblv11Preferences;
 import org.goko.core.common.exception.GkException;
@@ -81,6 +83,23 @@ public class GrblPollingPreferencePage extends AbstractGrblConfigurationPage<Grb
 		pollingPeriodField.setValidator(new IntegerValidator(100, true, null, false, "Polling period should be longer than 100ms"));
 		
 		addField(pollingPeriodField);	
+		
+		Group grpStreaming = new Group(composite, SWT.NONE);
+		grpStreaming.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
+		grpStreaming.setFont(SWTResourceManager.getFont("Segoe UI", 9, SWT.BOLD));
+		GridLayout gl_grpStreaming = new GridLayout(1, false);
+		gl_grpStreaming.marginWidth = 0;
+		gl_grpStreaming.marginHeight = 0;
+		grpStreaming.setLayout(gl_grpStreaming);
+		grpStreaming.setText("Streaming");
+		
+		ComboFieldEditor streamingModeField = new ComboFieldEditor(grpStreaming, SWT.READ_ONLY);
+		streamingModeField.setLabel("Flow control");
+		streamingModeField.setEntry(new String[][]{{"Character counting", GrblStreamingMode.CHARACTER_COUNTING.name()},
+												   {"Send-response", GrblStreamingMode.SEND_RESPONSE.name()}});
+		streamingModeField.setPreferenceName(Grblv11Preferences.STREAMING_MODE);
+		
+		addField(streamingModeField);
 	}
 
 	protected Point getInitialSize() {
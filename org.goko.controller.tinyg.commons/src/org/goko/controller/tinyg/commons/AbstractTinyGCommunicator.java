@@ -4,18 +4,15 @@
 package org.goko.controller.tinyg.commons;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.goko.controller.tinyg.commons.bean.TinyGStatusReport;
 import org.goko.controller.tinyg.commons.configuration.AbstractTinyGConfiguration;
 import org.goko.controller.tinyg.commons.configuration.TinyGGroupSettings;
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.applicative.logging.IApplicativeLogService;
-import org.goko.core.common.buffer.ByteCommandBuffer;
+import org.goko.core.common.buffer.ByteLineSplitter;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Angle;
 import org.goko.core.common.measure.quantity.AngleUnit;
@@ -25,7 +22,7 @@ import org.goko.core.common.measure.quantity.SpeedUnit;
 import org.goko.core.common.measure.units.Unit;
 import org.goko.core.connection.DataPriority;
 import org.goko.core.connection.EnumConnectionEvent;
-import org.goko.core.connection.IConnectionDataListener;
+import org.goko.core.connection.IConnectionByteListener;
 import org.goko.core.connection.IConnectionListener;
 import org.goko.core.connection.serial.ISerialConnectionService;
 import org.goko.core.gcode.element.ICoordinateSystem;
@@ -38,34 +35,45 @@ import org.goko.core.log.GkLog;
 import org.goko.core.math.Tuple6b;
 
 import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonReader;
+import com.eclipsesource.json.JsonReader.Event;
 import com.eclipsesource.json.JsonValue;
+import com.eclipsesource.json.ParseException;
 
 /**
  * @author Psyko
  * @date 6 janv. 2017
  */
-public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfiguration<C>, S extends ITinyGControllerService<C>> implements IConnectionDataListener, IConnectionListener{
+public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfiguration<C>, S extends ITinyGControllerService<C>> implements IConnectionByteListener, IConnectionListener{
 	/** LOG */
 	private static final GkLog LOG = GkLog.getLogger(AbstractTinyGCommunicator.class);
 	/** The connection service */
 	private ISerialConnectionService connectionService;
 	/** Buffer for incoming data	 */
-	private ByteCommandBuffer incomingBuffer;
+	private ByteLineSplitter incomingBuffer;
 	/** End line characters */
-	private List<Character> endLineCharacters;
+	private byte[] endLineCharacters;
 	/** Connected flag */
 	private boolean connected;
 	/** The running TinyG service*/
 	private S controllerService;
 	/** UI Log service */	
 	private IApplicativeLogService applicativeLogService;
+	/** Reader of the incoming JSON lines */
+	private JsonReader jsonReader;
+	/** The status report, reused for every received report */
+	private TinyGStatusReport statusReport;
+	/** The status report embedded in a response envelope, reused for every received response */
+	private TinyGStatusReport responseStatusReport;
 
 	/**
 	 * Constructor 
 	 */
 	public AbstractTinyGCommunicator() {
-		this.incomingBuffer    = new ByteCommandBuffer((byte) '\n');
-		this.endLineCharacters = new ArrayList<Character>();
+		this.incomingBuffer    = new ByteLineSplitter((byte) '\n');
+		this.jsonReader = new JsonReader();
+		this.statusReport = new TinyGStatusReport();
+		this.responseStatusReport = new TinyGStatusReport();
 		setEndLineCharacters('\n');
 	}
 	
@@ -84,27 +92,28 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	}
 
 	/** (inheritDoc)
-	 * @see org.goko.core.connection.IConnectionDataListener#onDataReceived(java.util.List)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataReceived(byte[], int, int)
 	 */
 	@Override
-	public final void onDataReceived(List<Byte> data) throws GkException {		
-		incomingBuffer.addAll(data);
+	public final void onDataReceived(byte[] data, int offset, int length) throws GkException {		
+		incomingBuffer.append(data, offset, length);
 
-		while(incomingBuffer.hasNext()){
+		String next = incomingBuffer.nextLine();
+		while(next != null){
 			try {
-				String next = GkUtils.toString(incomingBuffer.unstackNextCommand());				
 				handleIncomingData(next);
 			} catch (GkException e) {
 				LOG.error(e);
 			}
+			next = incomingBuffer.nextLine();
 		}
 	}
 
 	/** (inheritDoc)
-	 * @see org.goko.core.connection.IConnectionDataListener#onDataSent(java.util.List)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataSent(byte[], int, int)
 	 */
 	@Override
-	public final void onDataSent(List<Byte> data) throws GkException { }
+	public final void onDataSent(byte[] data, int offset, int length) throws GkException { }
 	
 	/**
 	 * @return the connectionService
@@ -120,8 +129,8 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	public void setConnectionService(ISerialConnectionService connectionService) throws GkException {
 		if(this.connectionService != null){
 			this.connectionService.removeConnectionListener(this);
-			this.connectionService.removeInputDataListener(this);
-			this.connectionService.removeOutputDataListener(this);
+			this.connectionService.removeInputByteListener(this);
+			this.connectionService.removeOutputByteListener(this);
 		}
 		this.connectionService = connectionService;
 		connectionService.addConnectionListener(this);
@@ -132,18 +141,27 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @param chars the end line characters
 	 */
 	public void setEndLineCharacters(char... chars){
-		this.endLineCharacters = Arrays.asList(ArrayUtils.toObject(chars));
-		this.incomingBuffer.setCommandDelimiter(chars[chars.length - 1]);
+		this.endLineCharacters = new byte[chars.length];
+		for (int i = 0; i < chars.length; i++) {
+			this.endLineCharacters[i] = (byte) chars[i];
+		}
+		this.incomingBuffer.setDelimiter((byte) chars[chars.length - 1]);
 	}
 	
 	/**
-	 * Add the end line character at the end of the given list
-	 * @param list the list
+	 * Creates the array of bytes to send for the given data, optionally followed by the end line characters
+	 * @param data the data to send
+	 * @param useEndLineCharacter <code>true</code> to append end line characters, <code>false</code> otherwise
+	 * @return a byte array
 	 */
-	protected final  void addEndLineCharacter(List<Byte> list){
-		for (char endChar : endLineCharacters) {
-			list.add(new Byte((byte) endChar));	
-		}		
+	protected final byte[] toBytes(byte[] data, boolean useEndLineCharacter){
+		if(!useEndLineCharacter){
+			return data;
+		}
+		byte[] bytes = new byte[data.length + endLineCharacters.length];
+		System.arraycopy(data, 0, bytes, 0, data.length);
+		System.arraycopy(endLineCharacters, 0, bytes, data.length, endLineCharacters.length);
+		return bytes;
 	}
 		
 	/**
@@ -163,24 +181,7 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @throws GkException GkException
 	 */
 	public final void send(String data, boolean useEndLineCharacter) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList(data);
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstBytes);
-		}
-		getConnectionService().send(lstBytes);
-	}
-	
-	/**
-	 * Sends the given list of byte over the connection service
-	 * @param lstByte the list of byte to send
-	 * @param useEndLineCharacter <code>true</code> to append end line characters before sending, <code>false</code> otherwise
-	 * @throws GkException GkException
-	 */
-	public final void send(List<Byte> lstByte, boolean useEndLineCharacter) throws GkException{
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstByte);
-		}
-		getConnectionService().send(lstByte);
+		getConnectionService().send(toBytes(data.getBytes(), useEndLineCharacter));
 	}
 	
 	/**
@@ -191,6 +192,15 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	public final void sendGCode(String gcode) throws GkException{
 		send(gcode, true);
 	}
+
+	/**
+	 * Sends the given rendered GCode over the connection service
+	 * @param gcode the bytes of the gcode to send
+	 * @throws GkException GkException
+	 */
+	public final void sendGCode(byte[] gcode) throws GkException{
+		getConnectionService().send(toBytes(gcode, true));
+	}
 	
 	/**
 	 * Sends the given byte over the connection service
@@ -199,8 +209,7 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @throws GkException GkException
 	 */
 	public final void send(byte byteCommand, boolean useEndLineCharacter) throws GkException{
-		List<Byte> lstByte = Arrays.asList(byteCommand);
-		send(lstByte, useEndLineCharacter);
+		getConnectionService().send(toBytes(new byte[]{byteCommand}, useEndLineCharacter));
 	}
 	
 	/**
@@ -220,25 +229,9 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @throws GkException GkException
 	 */
 	public final void sendImmediately(String data, boolean useEndLineCharacter) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList(data);
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstBytes);
-		}
-		getConnectionService().send(lstBytes, DataPriority.IMPORTANT);
+		getConnectionService().send(toBytes(data.getBytes(), useEndLineCharacter), DataPriority.IMPORTANT);
 	}
 	
-	/**
-	 * Sends the given list of byte over the connection service with high priority
-	 * @param lstByte the list of byte to send
-	 * @param useEndLineCharacter <code>true</code> to append end line characters before sending, <code>false</code> otherwise
-	 * @throws GkException GkException
-	 */
-	public final void sendImmediately(List<Byte> lstByte, boolean useEndLineCharacter) throws GkException{
-		if(useEndLineCharacter){
-			addEndLineCharacter(lstByte);
-		}
-		getConnectionService().send(lstByte, DataPriority.IMPORTANT);
-	}
 	/**
 	 * Sends the given list of byte over the connection service with high priority
 	 * @param lstByte the list of byte to send
@@ -246,8 +239,7 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @throws GkException GkException
 	 */
 	public final void sendImmediately(byte byteCommand, boolean useEndLineCharacter) throws GkException{
-		List<Byte> lstByte = Arrays.asList(byteCommand);
-		sendImmediately(lstByte, useEndLineCharacter);
+		getConnectionService().send(toBytes(new byte[]{byteCommand}, useEndLineCharacter), DataPriority.IMPORTANT);
 	}
 	/**
 	 * Handdle incoming datas 
@@ -258,54 +250,190 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 		String trimmedData = StringUtils.trim(data);
 		if(StringUtils.isNotEmpty(trimmedData)){
 			if(TinyGJsonUtils.isJsonFormat(trimmedData)){
-				JsonObject response = null;
 				try{
-					response = JsonObject.readFrom(trimmedData);
-				}catch(Exception e){
+					handleJsonData(trimmedData);
+				}catch(ParseException e){
 					String msg = "Error while parsing JSon for string '"+trimmedData+"'"+System.lineSeparator()+e.getMessage();					
 					LOG.error(msg);					
 					handleMalformedJson(trimmedData);
-					return;
-				}
-				
-				JsonValue footerBody = response.get(TinyG.FOOTER);
-				ITinyGStatus status = null;				
-				
-				if(footerBody != null){
-					status = getResponseFooter(footerBody);
 				}
-
-				JsonValue responseBody = response.get(TinyG.RESPONSE_ENVELOPE);
-				if(responseBody != null){
-					handleResponse((JsonObject) responseBody, status);
-				}
-				JsonValue statusReport = response.get(TinyG.STATUS_REPORT);
-				if(statusReport != null){
-					handleStatusReport((JsonObject) statusReport);
+			}else{
+				handleNonJsonData(trimmedData);
+			}
+		}
+	}
+		
+	
+	/**
+	 * Dispatches the top level keys of the given JSON line. Status and queue reports are read straight into primitive values, 
+	 * only the response envelope and the error reports are built as JSON trees.
+	 * The whole line is read before any handler is called, so a malformed line is not partially handled
+	 * @param trimmedData the JSON line
+	 * @throws GkException GkException
+	 */
+	private void handleJsonData(String trimmedData) throws GkException{
+		jsonReader.reset(trimmedData);
+		jsonReader.next(); // Start of the top level object, ensured by isJsonFormat
+		JsonValue responseBody = null;
+		JsonValue errorReport = null;
+		int statusCode = TinyGStatusReport.NONE;
+		boolean statusReportReceived = false;
+		boolean queueReportReceived = false;
+		int queueReport = 0;
+		
+		while(jsonReader.next() == Event.NAME){
+			if(jsonReader.isName(TinyG.STATUS_REPORT)){
+				if(jsonReader.next() == Event.START_OBJECT){
+					readStatusReport(jsonReader, statusReport);
+					statusReportReceived = true;
+				}else{
+					jsonReader.skipValue();
 				}
-				JsonValue queueReport = response.get(TinyG.QUEUE_REPORT);
-				if(queueReport != null){
-					handleQueueReport((JsonValue)queueReport);
+			}else if(jsonReader.isName(TinyG.QUEUE_REPORT)){
+				if(jsonReader.next() == Event.NUMBER){
+					queueReport = jsonReader.getInt();
+					queueReportReceived = true;
+				}else{
+					jsonReader.skipValue();
 				}
-				JsonValue errorReport = response.get(TinyG.ERROR_REPORT);
-				if(errorReport != null){
-					handleErrorReport((JsonObject)errorReport);
+			}else if(jsonReader.isName(TinyG.FOOTER)){
+				statusCode = readFooterStatusCode(jsonReader);
+			}else if(jsonReader.isName(TinyG.RESPONSE_ENVELOPE)){
+				// The footer follows the response, it is handled once the footer is read
+				responseBody = jsonReader.readValue();
+			}else if(jsonReader.isName(TinyG.ERROR_REPORT)){
+				errorReport = jsonReader.readValue();
+			}else{
+				jsonReader.skipValue();
+			}
+		}
+		// Make sure nothing follows the top level object before calling the handlers
+		jsonReader.next();
+		
+		ITinyGStatus status = null;
+		if(statusCode != TinyGStatusReport.NONE){
+			status = getResponseStatus(statusCode);
+		}
+		if(responseBody != null && responseBody.isObject()){
+			handleResponse((JsonObject) responseBody, status);
+		}
+		if(statusReportReceived){
+			handleStatusReport(statusReport);
+		}
+		if(queueReportReceived){
+			handleQueueReport(queueReport);
+		}
+		if(errorReport != null && errorReport.isObject()){
+			handleErrorReport((JsonObject) errorReport);
+		}
+	}
+	
+	/**
+	 * Reads the status code from the footer array
+	 * @param reader the reader, positioned on the footer name
+	 * @return the status code, or {@link TinyGStatusReport#NONE} if not found
+	 */
+	private int readFooterStatusCode(JsonReader reader){
+		int statusCode = TinyGStatusReport.NONE;
+		if(reader.next() == Event.START_ARRAY){
+			int index = 0;
+			Event event = reader.next();
+			while(event != Event.END_ARRAY){
+				if(index == TinyG.FOOTER_STATUS_CODE_INDEX && event == Event.NUMBER){
+					statusCode = reader.getInt();
 				}
-				
+				reader.skipValue();
+				index++;
+				event = reader.next();
+			}
+		}
+		return statusCode;
+	}
+	
+	/**
+	 * Reads the content of a status report object
+	 * @param reader the reader, positioned on the start of the status report object
+	 * @param report the target report, cleared before reading
+	 */
+	protected void readStatusReport(JsonReader reader, TinyGStatusReport report){
+		report.clear();
+		while(reader.next() == Event.NAME){
+			if(reader.isName(TinyG.STATUS_REPORT_WORK_POSITION_X)){
+				report.setWorkPosition(TinyGStatusReport.X, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_WORK_POSITION_Y)){
+				report.setWorkPosition(TinyGStatusReport.Y, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_WORK_POSITION_Z)){
+				report.setWorkPosition(TinyGStatusReport.Z, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_WORK_POSITION_A)){
+				report.setWorkPosition(TinyGStatusReport.A, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_MACHINE_POSITION_X)){
+				report.setMachinePosition(TinyGStatusReport.X, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_MACHINE_POSITION_Y)){
+				report.setMachinePosition(TinyGStatusReport.Y, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_MACHINE_POSITION_Z)){
+				report.setMachinePosition(TinyGStatusReport.Z, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_MACHINE_POSITION_A)){
+				report.setMachinePosition(TinyGStatusReport.A, nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_VELOCITY)){
+				report.setVelocity(nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_FEEDRATE)){
+				report.setFeedrate(nextDouble(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_STATE)){
+				report.setState(nextInt(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_UNITS)){
+				report.setUnits(nextInt(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_COORDINATES)){
+				report.setCoordinateSystem(nextInt(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_MOTION_MODE)){
+				report.setMotionMode(nextInt(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_PLANE)){
+				report.setPlane(nextInt(reader));
+			}else if(reader.isName(TinyG.STATUS_REPORT_DISTANCE_MODE)){
+				report.setDistanceMode(nextInt(reader));
 			}else{
-				handleNonJsonData(trimmedData);
+				reader.skipValue();
 			}
 		}
 	}
-		
 	
-	protected abstract ITinyGStatus getResponseFooter(JsonValue footerBody) throws GkException;
+	/**
+	 * Reads a status report that was already parsed as a JSON tree, such as the one embedded in a response envelope
+	 * @param statusReportBody the status report body
+	 * @return the read report, shared with the other responses
+	 */
+	protected TinyGStatusReport readStatusReport(JsonValue statusReportBody){
+		jsonReader.reset(statusReportBody.toString());
+		if(jsonReader.next() == Event.START_OBJECT){
+			readStatusReport(jsonReader, responseStatusReport);
+		}else{
+			responseStatusReport.clear();
+		}
+		return responseStatusReport;
+	}
+	
+	private static double nextDouble(JsonReader reader){
+		if(reader.next() == Event.NUMBER){
+			return reader.getDouble();
+		}
+		reader.skipValue();
+		return Double.NaN;
+	}
+	
+	private static int nextInt(JsonReader reader){
+		if(reader.next() == Event.NUMBER){
+			return reader.getInt();
+		}
+		reader.skipValue();
+		return TinyGStatusReport.NONE;
+	}
+	
+	protected abstract ITinyGStatus getResponseStatus(int statusCode) throws GkException;
 
 	protected abstract void handleResponse(JsonObject responseBody, ITinyGStatus status) throws GkException;
 	
-	protected abstract void handleStatusReport(JsonObject statusReportBody) throws GkException;
+	protected abstract void handleStatusReport(TinyGStatusReport statusReport) throws GkException;
 	
-	protected abstract void handleQueueReport(JsonValue queueReportBody) throws GkException;
+	protected abstract void handleQueueReport(int availablePlannerBuffer) throws GkException;
 	
 	protected abstract void handleErrorReport(JsonObject errorReportBody) throws GkException;
 	
@@ -320,7 +448,7 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	/**
 	 * @return the incomingBuffer
 	 */
-	public ByteCommandBuffer getIncomingBuffer() {
+	public ByteLineSplitter getIncomingBuffer() {
 		return incomingBuffer;
 	}
 
@@ -339,10 +467,9 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return {@link EnumGCodeCommandUnit}
 	 * @throws GkException GkException 
 	 */
-	protected EnumUnit findUnits(JsonObject statusReport) throws GkException{
-		JsonValue unitReport = statusReport.get(TinyG.STATUS_REPORT_UNITS);
-		if(unitReport != null && unitReport.isNumber()){
-			int units = unitReport.asInt();
+	protected EnumUnit findUnits(TinyGStatusReport statusReport) throws GkException{
+		int units = statusReport.getUnits();
+		if(units != TinyGStatusReport.NONE){
 			if(units == 1){
 				return EnumUnit.MILLIMETERS;
 			}else{
@@ -359,23 +486,23 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return Tuple6b
 	 * @throws GkException
 	 */
-	protected Tuple6b findWorkPosition(JsonObject statusReport, EnumUnit unit) throws GkException{
+	protected Tuple6b findWorkPosition(TinyGStatusReport statusReport, EnumUnit unit) throws GkException{
 		Tuple6b 	workPosition = new Tuple6b(controllerService.getGCodeContext().getPosition());
-		JsonValue newPositionX = statusReport.get(TinyG.STATUS_REPORT_WORK_POSITION_X);
-		JsonValue newPositionY = statusReport.get(TinyG.STATUS_REPORT_WORK_POSITION_Y);
-		JsonValue newPositionZ = statusReport.get(TinyG.STATUS_REPORT_WORK_POSITION_Z);
-		JsonValue newPositionA = statusReport.get(TinyG.STATUS_REPORT_WORK_POSITION_A);
-		if(newPositionX != null){
-			workPosition.setX( Length.valueOf(newPositionX.asBigDecimal(), unit.getUnit()));
+		double newPositionX = statusReport.getWorkPosition(TinyGStatusReport.X);
+		double newPositionY = statusReport.getWorkPosition(TinyGStatusReport.Y);
+		double newPositionZ = statusReport.getWorkPosition(TinyGStatusReport.Z);
+		double newPositionA = statusReport.getWorkPosition(TinyGStatusReport.A);
+		if(!Double.isNaN(newPositionX)){
+			workPosition.setX( Length.valueOf(BigDecimal.valueOf(newPositionX), unit.getUnit()));
 		}
-		if(newPositionY != null){
-			workPosition.setY( Length.valueOf(newPositionY.asBigDecimal() , unit.getUnit()));
+		if(!Double.isNaN(newPositionY)){
+			workPosition.setY( Length.valueOf(BigDecimal.valueOf(newPositionY) , unit.getUnit()));
 		}
-		if(newPositionZ != null){
-			workPosition.setZ( Length.valueOf(newPositionZ.asBigDecimal() , unit.getUnit()));
+		if(!Double.isNaN(newPositionZ)){
+			workPosition.setZ( Length.valueOf(BigDecimal.valueOf(newPositionZ) , unit.getUnit()));
 		}
-		if(newPositionA != null){
-			workPosition.setA( Angle.valueOf(newPositionA.asBigDecimal() , AngleUnit.DEGREE_ANGLE));
+		if(!Double.isNaN(newPositionA)){
+			workPosition.setA( Angle.valueOf(BigDecimal.valueOf(newPositionA) , AngleUnit.DEGREE_ANGLE));
 		}
 		
 		return workPosition;
@@ -388,23 +515,23 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return Tuple6b
 	 * @throws GkException
 	 */
-	protected Tuple6b findMachinePosition(JsonObject statusReport, EnumUnit unit) throws GkException{
+	protected Tuple6b findMachinePosition(TinyGStatusReport statusReport, EnumUnit unit) throws GkException{
 		Tuple6b 	machinePosition = new Tuple6b(controllerService.getGCodeContext().getMachinePosition());
-		JsonValue newPositionX = statusReport.get(TinyG.STATUS_REPORT_MACHINE_POSITION_X);
-		JsonValue newPositionY = statusReport.get(TinyG.STATUS_REPORT_MACHINE_POSITION_Y);
-		JsonValue newPositionZ = statusReport.get(TinyG.STATUS_REPORT_MACHINE_POSITION_Z);
-		JsonValue newPositionA = statusReport.get(TinyG.STATUS_REPORT_MACHINE_POSITION_A);
-		if(newPositionX != null){
-			machinePosition.setX( Length.valueOf(newPositionX.asBigDecimal(), unit.getUnit()));
+		double newPositionX = statusReport.getMachinePosition(TinyGStatusReport.X);
+		double newPositionY = statusReport.getMachinePosition(TinyGStatusReport.Y);
+		double newPositionZ = statusReport.getMachinePosition(TinyGStatusReport.Z);
+		double newPositionA = statusReport.getMachinePosition(TinyGStatusReport.A);
+		if(!Double.isNaN(newPositionX)){
+			machinePosition.setX( Length.valueOf(BigDecimal.valueOf(newPositionX), unit.getUnit()));
 		}
-		if(newPositionY != null){
-			machinePosition.setY( Length.valueOf(newPositionY.asBigDecimal() , unit.getUnit()));
+		if(!Double.isNaN(newPositionY)){
+			machinePosition.setY( Length.valueOf(BigDecimal.valueOf(newPositionY) , unit.getUnit()));
 		}
-		if(newPositionZ != null){
-			machinePosition.setZ( Length.valueOf(newPositionZ.asBigDecimal() , unit.getUnit()));
+		if(!Double.isNaN(newPositionZ)){
+			machinePosition.setZ( Length.valueOf(BigDecimal.valueOf(newPositionZ) , unit.getUnit()));
 		}
-		if(newPositionA != null){
-			machinePosition.setA( Angle.valueOf(newPositionA.asBigDecimal() , AngleUnit.DEGREE_ANGLE));
+		if(!Double.isNaN(newPositionA)){
+			machinePosition.setA( Angle.valueOf(BigDecimal.valueOf(newPositionA) , AngleUnit.DEGREE_ANGLE));
 		}
 		
 		return machinePosition;
@@ -416,10 +543,9 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return EnumDistanceMode
 	 * @throws GkException GkException 
 	 */
-	protected EnumDistanceMode findDistanceMode(JsonObject statusReport) throws GkException{
-		JsonValue distReport = statusReport.get(TinyG.STATUS_REPORT_DISTANCE_MODE);
-		if(distReport != null && distReport.isNumber()){
-			int dist = distReport.asInt();
+	protected EnumDistanceMode findDistanceMode(TinyGStatusReport statusReport) throws GkException{
+		int dist = statusReport.getDistanceMode();
+		if(dist != TinyGStatusReport.NONE){
 			if(dist == 0){
 				return EnumDistanceMode.ABSOLUTE;
 			}else{
@@ -436,14 +562,14 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return Speed
 	 * @throws GkException GkException 
 	 */
-	protected Speed findVelocity(JsonObject statusReport, EnumUnit unit){
-		JsonValue velocityReport = statusReport.get(TinyG.STATUS_REPORT_VELOCITY);
-		if(velocityReport != null && velocityReport.isNumber()){			
+	protected Speed findVelocity(TinyGStatusReport statusReport, EnumUnit unit){
+		double velocity = statusReport.getVelocity();
+		if(!Double.isNaN(velocity)){			
 			Unit<Speed> speedUnit = SpeedUnit.MILLIMETRE_PER_MINUTE;
 			if(EnumUnit.INCHES.equals(unit)){
 				speedUnit = SpeedUnit.INCH_PER_MINUTE;
 			}
-			return Speed.valueOf(velocityReport.asBigDecimal(), speedUnit);
+			return Speed.valueOf(BigDecimal.valueOf(velocity), speedUnit);
 		}
 		return null;
 	}
@@ -455,14 +581,14 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return Speed
 	 * @throws GkException GkException 
 	 */
-	protected Speed findFeedrate(JsonObject feedrate,  EnumUnit unit){
-		JsonValue feedrateReport = feedrate.get(TinyG.STATUS_REPORT_FEEDRATE);
-		if(feedrateReport != null && feedrateReport.isNumber()){
+	protected Speed findFeedrate(TinyGStatusReport statusReport,  EnumUnit unit){
+		double feedrate = statusReport.getFeedrate();
+		if(!Double.isNaN(feedrate)){
 			Unit<Speed> speedUnit = SpeedUnit.MILLIMETRE_PER_MINUTE;
 			if(EnumUnit.INCHES.equals(unit)){
 				speedUnit = SpeedUnit.INCH_PER_MINUTE;	
 			}
-			return Speed.valueOf(feedrateReport.asBigDecimal().setScale(3, BigDecimal.ROUND_HALF_EVEN), speedUnit);
+			return Speed.valueOf(BigDecimal.valueOf(feedrate).setScale(3, BigDecimal.ROUND_HALF_EVEN), speedUnit);
 		}
 		return null;
 	}
@@ -474,12 +600,11 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return EnumCoordinateSystem
 	 * @throws GkException GkException 
 	 */	
-	protected CoordinateSystem findCoordinateSystem(JsonObject statusReport){
+	protected CoordinateSystem findCoordinateSystem(TinyGStatusReport statusReport){
 		CoordinateSystem coordinateSystem = null;
-		JsonValue coordReport = statusReport.get(TinyG.STATUS_REPORT_COORDINATES);
-		if(coordReport != null && coordReport.isNumber()){
-			int units = coordReport.asInt();
-			switch(units){
+		int coordinates = statusReport.getCoordinateSystem();
+		if(coordinates != TinyGStatusReport.NONE){
+			switch(coordinates){
 			case 0: coordinateSystem = CoordinateSystem.G53;
 			break;
 			case 1: coordinateSystem = CoordinateSystem.G54;
@@ -506,12 +631,11 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return EnumPlane
 	 * @throws GkException GkException 
 	 */	
-	protected EnumPlane findPlane(JsonObject statusReport) {
+	protected EnumPlane findPlane(TinyGStatusReport statusReport) {
 		EnumPlane enumPlane = null;
-		JsonValue coordReport = statusReport.get(TinyG.STATUS_REPORT_PLANE);
-		if(coordReport != null && coordReport.isNumber()){
-			int units = coordReport.asInt();
-			switch(units){
+		int plane = statusReport.getPlane();
+		if(plane != TinyGStatusReport.NONE){
+			switch(plane){
 			case 0: enumPlane = EnumPlane.XY_PLANE;
 			break;
 			case 1: enumPlane = EnumPlane.XZ_PLANE;
@@ -530,12 +654,11 @@ public abstract class AbstractTinyGCommunicator<C extends AbstractTinyGConfigura
 	 * @return EnumMotionMode
 	 * @throws GkException GkException 
 	 */	
-	protected EnumMotionMode findMotionMode(JsonObject statusReport) {
+	protected EnumMotionMode findMotionMode(TinyGStatusReport statusReport) {
 		EnumMotionMode enumMotionMode = null;
-		JsonValue coordReport = statusReport.get(TinyG.STATUS_REPORT_MOTION_MODE);
-		if(coordReport != null && coordReport.isNumber()){
-			int units = coordReport.asInt();
-			switch(units){
+		int motionMode = statusReport.getMotionMode();
+		if(motionMode != TinyGStatusReport.NONE){
+			switch(motionMode){
 			case 0: enumMotionMode = EnumMotionMode.RAPID;
 			break;
 			case 1: enumMotionMode = EnumMotionMode.FEEDRATE;
@@ -749,14 +749,33 @@ public abstract class AbstractTinyGControllerService<T extends ITinyGControllerS
 	 */
 	@Override
 	public void send(GCodeLine line) throws GkException {
-		String gcodeString = gcodeService.render(line);
-		if(StringUtils.isNotBlank(gcodeString)){
-			communicator.sendGCode(gcodeString);
+		send(line, renderLine(line));
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.controller.tinyg.commons.ITinyGControllerService#send(org.goko.core.gcode.element.GCodeLine, byte[])
+	 */
+	@Override
+	public void send(GCodeLine line, byte[] renderedLine) throws GkException {
+		if(renderedLine.length > 0){
+			communicator.sendGCode(renderedLine);
 		}else{						
 			getExecutor().confirmLineExecution(line);
 		}		
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.controller.tinyg.commons.ITinyGControllerService#renderLine(org.goko.core.gcode.element.GCodeLine)
+	 */
+	@Override
+	public byte[] renderLine(GCodeLine line) throws GkException {
+		String gcodeString = gcodeService.render(line);
+		if(StringUtils.isBlank(gcodeString)){
+			return new byte[0];
+		}
+		return gcodeString.getBytes();
+	}
+
 	/**
 	 * @return the executor
 	 */
@@ -11,6 +11,8 @@ import org.apache.commons.collections.CollectionUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.controller.bean.MachineState;
 import org.goko.core.execution.monitor.executor.AbstractStreamingExecutor;
+import org.goko.core.execution.monitor.executor.IGCodeLineRenderer;
+import org.goko.core.execution.monitor.executor.LookAheadLineRenderer;
 import org.goko.core.gcode.element.GCodeLine;
 import org.goko.core.gcode.element.IGCodeProvider;
 import org.goko.core.gcode.execution.ExecutionToken;
@@ -36,16 +38,24 @@ public class AbstractTinyGExecutor<T extends ITinyGControllerService<?>> extends
 	private T tinygService;
 	/** Required space in TinyG planner buffer to send a new command */
 	private int requiredBufferSpace = 5;
+	/** Renders the lines ahead of the streaming while waiting for space in the planner buffer */
+	private final LookAheadLineRenderer lineRenderer;
 
 	/**
 	 * Constructor
 	 * @param tinygService the underlying TinyG service
 	 */
-	public AbstractTinyGExecutor(T tinygService) {
+	public AbstractTinyGExecutor(final T tinygService) {
 		super();
 		this.tinygService = tinygService;		
 		this.pendingCommandCount = new AtomicInteger(0);
 		queue = new ConcurrentLinkedQueue<>();
+		this.lineRenderer = new LookAheadLineRenderer(new IGCodeLineRenderer() {
+			@Override
+			public byte[] render(GCodeLine line) throws GkException {
+				return tinygService.renderLine(line);
+			}
+		}, LookAheadLineRenderer.DEFAULT_DEPTH);
 	}
 
 	/** (inheritDoc)
@@ -56,6 +66,19 @@ public class AbstractTinyGExecutor<T extends ITinyGControllerService<?>> extends
 		return new ExecutionToken<ExecutionTokenState>(provider, ExecutionTokenState.NONE);
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.core.execution.monitor.executor.AbstractStreamingExecutor#executeToken(org.goko.core.gcode.execution.IExecutionToken)
+	 */
+	@Override
+	public void executeToken(IExecutionToken<ExecutionTokenState> token) throws GkException {
+		lineRenderer.start(token.getGCodeProvider());
+		try{
+			super.executeToken(token);
+		}finally{
+			lineRenderer.stop();
+		}
+	}
+
 	/** (inheritDoc)
 	 * @see org.goko.core.execution.monitor.executor.AbstractStreamingExecutor#send(org.goko.core.gcode.element.GCodeLine)
 	 */
@@ -64,7 +87,7 @@ public class AbstractTinyGExecutor<T extends ITinyGControllerService<?>> extends
 		pendingCommandCount.incrementAndGet();
 		queue.add(line);
 		getToken().setLineState(line.getId(), ExecutionTokenState.SENT);
-		tinygService.send(line);				
+		tinygService.send(line, lineRenderer.take(line));				
 	}
 
 	/** (inheritDoc)
@@ -92,10 +115,9 @@ public class AbstractTinyGExecutor<T extends ITinyGControllerService<?>> extends
 	 * @throws GkException
 	 */
 	public void confirmNextLineExecution() throws GkException{
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
 
-		if(CollectionUtils.isNotEmpty(lstLines)){
-			GCodeLine line = lstLines.get(0);
+		if(line != null){
 			//System.out.println("Confirming line "+line.getId());
 			confirmLineExecution(line);
 		}
@@ -117,8 +139,7 @@ public class AbstractTinyGExecutor<T extends ITinyGControllerService<?>> extends
 	 */
 	protected void markNextLineAsError() throws GkException{
 		pendingCommandCount.decrementAndGet();
-		List<GCodeLine> lstLines = getToken().getLineByState(ExecutionTokenState.SENT);
-		GCodeLine line = lstLines.get(0);
+		GCodeLine line = getToken().getFirstLineByState(ExecutionTokenState.SENT);
 		getToken().setLineState(line.getId(), ExecutionTokenState.ERROR);
 		getExecutionService().notifyCommandStateChanged(getToken(), line.getId());
 	}
@@ -223,6 +223,22 @@ public interface ITinyGControllerService<C extends AbstractTinyGConfiguration<C>
 	 * @throws GkException GkException
 	 */
 	void send(GCodeLine line) throws GkException;
+
+	/**
+	 * Sends the given GCode line, already rendered using {@link #renderLine(GCodeLine)}
+	 * @param line the line to send
+	 * @param renderedLine the rendered line, empty if the line has nothing to send
+	 * @throws GkException GkException
+	 */
+	void send(GCodeLine line, byte[] renderedLine) throws GkException;
+
+	/**
+	 * Renders the given GCode line as it is sent to the board, without the end line characters. Can be called from any thread
+	 * @param line the line to render
+	 * @return the bytes to send, empty if the line has nothing to send
+	 * @throws GkException GkException
+	 */
+	byte[] renderLine(GCodeLine line) throws GkException;
 	
 	/**
 	 * Sets the offset from machine origin for the given coordinate system 
@@ -0,0 +1,233 @@
+/*
+ *
+ *   Goko
+ *   Copyright (C) 2013  PsyKo
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.goko.controller.tinyg.commons.bean;
+
+import java.util.Arrays;
+
+/**
+ * Values of a TinyG/G2Core status report, read without building a JSON tree.
+ * TinyG only reports the values that changed : missing numbers are {@link Double#NaN}, missing codes are {@link #NONE}.
+ * The same instance is reused for every report, so it must not be kept once handled.
+ *
+ * @author PsyKo
+ */
+public class TinyGStatusReport {
+	/** Value of a missing code */
+	public static final int NONE = -1;
+	/** Index of the X axis in the positions */
+	public static final int X = 0;
+	/** Index of the Y axis in the positions */
+	public static final int Y = 1;
+	/** Index of the Z axis in the positions */
+	public static final int Z = 2;
+	/** Index of the A axis in the positions */
+	public static final int A = 3;
+	/** Work position (posx, posy, posz, posa) */
+	private double[] workPosition;
+	/** Machine position (mpox, mpoy, mpoz, mpoa) */
+	private double[] machinePosition;
+	/** Velocity (vel) */
+	private double velocity;
+	/** Feedrate (feed) */
+	private double feedrate;
+	/** Units code (unit) */
+	private int units;
+	/** Coordinate system code (coor) */
+	private int coordinateSystem;
+	/** Motion mode code (momo) */
+	private int motionMode;
+	/** Plane code (plan) */
+	private int plane;
+	/** Distance mode code (dist) */
+	private int distanceMode;
+	/** Machine state code (stat) */
+	private int state;
+
+	/**
+	 * Constructor
+	 */
+	public TinyGStatusReport() {
+		this.workPosition = new double[4];
+		this.machinePosition = new double[4];
+		clear();
+	}
+
+	/**
+	 * Marks all the values as missing
+	 */
+	public void clear(){
+		Arrays.fill(workPosition, Double.NaN);
+		Arrays.fill(machinePosition, Double.NaN);
+		velocity = Double.NaN;
+		feedrate = Double.NaN;
+		units = NONE;
+		coordinateSystem = NONE;
+		motionMode = NONE;
+		plane = NONE;
+		distanceMode = NONE;
+		state = NONE;
+	}
+
+	/**
+	 * Returns the reported work position of the given axis
+	 * @param axis the index of the axis
+	 * @return the position, {@link Double#NaN} if not reported
+	 */
+	public double getWorkPosition(int axis) {
+		return workPosition[axis];
+	}
+
+	/**
+	 * @param axis the index of the axis
+	 * @param position the work position to set
+	 */
+	public void setWorkPosition(int axis, double position) {
+		this.workPosition[axis] = position;
+	}
+
+	/**
+	 * Returns the reported machine position of the given axis
+	 * @param axis the index of the axis
+	 * @return the position, {@link Double#NaN} if not reported
+	 */
+	public double getMachinePosition(int axis) {
+		return machinePosition[axis];
+	}
+
+	/**
+	 * @param axis the index of the axis
+	 * @param position the machine position to set
+	 */
+	public void setMachinePosition(int axis, double position) {
+		this.machinePosition[axis] = position;
+	}
+
+	/**
+	 * @return the velocity
+	 */
+	public double getVelocity() {
+		return velocity;
+	}
+
+	/**
+	 * @param velocity the velocity to set
+	 */
+	public void setVelocity(double velocity) {
+		this.velocity = velocity;
+	}
+
+	/**
+	 * @return the feedrate
+	 */
+	public double getFeedrate() {
+		return feedrate;
+	}
+
+	/**
+	 * @param feedrate the feedrate to set
+	 */
+	public void setFeedrate(double feedrate) {
+		this.feedrate = feedrate;
+	}
+
+	/**
+	 * @return the units
+	 */
+	public int getUnits() {
+		return units;
+	}
+
+	/**
+	 * @param units the units to set
+	 */
+	public void setUnits(int units) {
+		this.units = units;
+	}
+
+	/**
+	 * @return the coordinateSystem
+	 */
+	public int getCoordinateSystem() {
+		return coordinateSystem;
+	}
+
+	/**
+	 * @param coordinateSystem the coordinateSystem to set
+	 */
+	public void setCoordinateSystem(int coordinateSystem) {
+		this.coordinateSystem = coordinateSystem;
+	}
+
+	/**
+	 * @return the motionMode
+	 */
+	public int getMotionMode() {
+		return motionMode;
+	}
+
+	/**
+	 * @param motionMode the motionMode to set
+	 */
+	public void setMotionMode(int motionMode) {
+		this.motionMode = motionMode;
+	}
+
+	/**
+	 * @return the plane
+	 */
+	public int getPlane() {
+		return plane;
+	}
+
+	/**
+	 * @param plane the plane to set
+	 */
+	public void setPlane(int plane) {
+		this.plane = plane;
+	}
+
+	/**
+	 * @return the distanceMode
+	 */
+	public int getDistanceMode() {
+		return distanceMode;
+	}
+
+	/**
+	 * @param distanceMode the distanceMode to set
+	 */
+	public void setDistanceMode(int distanceMode) {
+		this.distanceMode = distanceMode;
+	}
+
+	/**
+	 * @return the state
+	 */
+	public int getState() {
+		return state;
+	}
+
+	/**
+	 * @param state the state to set
+	 */
+	public void setState(int state) {
+		this.state = state;
+	}
+}
@@ -0,0 +1,148 @@
+package org.goko.tinyg.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.goko.controller.tinyg.commons.AbstractTinyGCommunicator;
+import org.goko.controller.tinyg.commons.ITinyGControllerService;
+import org.goko.controller.tinyg.commons.ITinyGStatus;
+import org.goko.controller.tinyg.commons.bean.TinyGStatusReport;
+import org.goko.controller.tinyg.controller.configuration.TinyGConfiguration;
+import org.goko.core.common.exception.GkException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.json.JsonObject;
+
+/**
+ * Test of the dispatch of the JSON lines received from TinyG to the handlers of the communicator
+ */
+public class TinyGJsonDispatchTest {
+	private RecordingCommunicator communicator;
+
+	@Before
+	public void setUp() throws Exception {
+		communicator = new RecordingCommunicator();
+	}
+
+	/**
+	 * Context : a line holding a response, a status report, a queue report and a footer
+	 * Result  : the handlers are called once the whole line is read, response first, in the order of the former tree based dispatch
+	 * @throws Exception
+	 */
+	@Test
+	public void testDispatchOrder() throws Exception{
+		receive("{\"qr\":28,\"sr\":{\"posx\":2.5,\"stat\":5},\"r\":{\"sr\":{\"posx\":1.000}},\"f\":[1,0,8]}\n");
+		assertEquals(Arrays.asList("status:0", "response:{\"sr\":{\"posx\":1.000}}", "sr:posx=1.0", "sr:posx=2.5,stat=5", "qr:28"), communicator.events);
+	}
+
+	/**
+	 * Context : a line holding an error report
+	 * Result  : the error report is handled after the other reports
+	 * @throws Exception
+	 */
+	@Test
+	public void testErrorReport() throws Exception{
+		receive("{\"er\":{\"fb\":78.02,\"st\":29,\"msg\":\"Generic EXCEPTION report\"},\"qr\":31}\n");
+		assertEquals(Arrays.asList("qr:31", "er:29"), communicator.events);
+	}
+
+	/**
+	 * Context : lines that are malformed after valid status and queue reports
+	 * Result  : no report is handled, the line is reported as malformed
+	 * @throws Exception
+	 */
+	@Test
+	public void testMalformedLine() throws Exception{
+		receive("{\"sr\":{\"posx\":2.5},\"qr\":28,\"r\":{\"a\":}}\n");
+		receive("{\"sr\":{\"posx\":2.5},\"qr\":28}}\n");
+		receive("{\"sr\":{\"posx\":2.5},\"qr\":28,}\n");
+		assertEquals(Arrays.asList("malformed", "malformed", "malformed"), communicator.events);
+
+		receive("{\"qr\":27}\n");
+		assertEquals("qr:27", communicator.events.get(3));
+	}
+
+	/**
+	 * Context : lines split across several reads, and non JSON lines
+	 * Result  : each complete line is dispatched once
+	 * @throws Exception
+	 */
+	@Test
+	public void testSplitLines() throws Exception{
+		receive("{\"qr\":2");
+		receive("8}\nok>\n{\"sr\":{\"posx\":-1");
+		receive(".5}}\n");
+		assertEquals(Arrays.asList("qr:28", "nonjson:ok>", "sr:posx=-1.5"), communicator.events);
+	}
+
+	/**
+	 * Simulates the reception of the given data
+	 * @param data the data
+	 * @throws GkException GkException
+	 */
+	private void receive(String data) throws GkException{
+		byte[] bytes = ("xx" + data).getBytes();
+		communicator.onDataReceived(bytes, 2, bytes.length - 2);
+	}
+
+	/**
+	 * Communicator recording the calls to its handlers
+	 */
+	private static class RecordingCommunicator extends AbstractTinyGCommunicator<TinyGConfiguration, ITinyGControllerService<TinyGConfiguration>>{
+		/** The recorded calls */
+		private final List<String> events = new ArrayList<String>();
+
+		@Override
+		protected ITinyGStatus getResponseStatus(final int statusCode) throws GkException {
+			events.add("status:" + statusCode);
+			return null;
+		}
+
+		@Override
+		protected void handleResponse(JsonObject responseBody, ITinyGStatus status) throws GkException {
+			events.add("response:" + responseBody);
+			if(responseBody.get("sr") != null){
+				handleStatusReport(readStatusReport(responseBody.get("sr")));
+			}
+		}
+
+		@Override
+		protected void handleStatusReport(TinyGStatusReport statusReport) throws GkException {
+			String event = "sr:posx=" + statusReport.getWorkPosition(TinyGStatusReport.X);
+			if(statusReport.getState() != TinyGStatusReport.NONE){
+				event += ",stat=" + statusReport.getState();
+			}
+			events.add(event);
+		}
+
+		@Override
+		protected void handleQueueReport(int availablePlannerBuffer) throws GkException {
+			events.add("qr:" + availablePlannerBuffer);
+		}
+
+		@Override
+		protected void handleErrorReport(JsonObject errorReportBody) throws GkException {
+			events.add("er:" + errorReportBody.get("st"));
+		}
+
+		@Override
+		protected void handleNonJsonData(String data) throws GkException {
+			events.add("nonjson:" + data);
+		}
+
+		@Override
+		protected void handleMalformedJson(String data) {
+			events.add("malformed");
+		}
+
+		@Override
+		protected void onConnected() throws GkException {}
+
+		@Override
+		protected void onDisconnected() throws GkException {}
+	}
+}
@@ -30,9 +30,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.goko.controller.tinyg.commons.AbstractTinyGCommunicator;
 import org.goko.controller.tinyg.commons.ITinyGStatus;
 import org.goko.controller.tinyg.commons.TinyG;
+import org.goko.controller.tinyg.commons.bean.TinyGStatusReport;
 import org.goko.controller.tinyg.controller.configuration.TinyGConfiguration;
 import org.goko.controller.tinyg.controller.configuration.TinyGConfigurationValue;
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkFunctionalException;
 import org.goko.core.common.measure.quantity.Angle;
@@ -53,7 +53,6 @@ import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
 import org.goko.core.log.GkLog;
 import org.goko.core.math.Tuple6b;
 
-import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 
@@ -79,7 +78,7 @@ public class TinyGCommunicator extends AbstractTinyGCommunicator<TinyGConfigurat
 	@Override
 	protected void onConnected() throws GkException {
 		getIncomingBuffer().clear();
-		getConnectionService().addInputDataListener(this);
+		getConnectionService().addInputByteListener(this);
 		ExecutorService executor = Executors.newSingleThreadExecutor();
 		executor.submit(new Runnable() {
 			
@@ -112,20 +111,18 @@ public class TinyGCommunicator extends AbstractTinyGCommunicator<TinyGConfigurat
 	 */
 	@Override
 	protected void onDisconnected() throws GkException {
-		getConnectionService().removeInputDataListener(this);
+		getConnectionService().removeInputByteListener(this);
 		getControllerService().setState(MachineState.UNDEFINED);
 		getControllerService().resetConfiguration();
 		getIncomingBuffer().clear();		
 	}
 	/**
-	 * Verify the response using the footer
-	 * @param jsonFooter the parsed response
+	 * Verify the response using the status code of the footer
+	 * @param statusCode the status code read in the footer
 	 * @throws GkException GkException
 	 */
-	protected ITinyGStatus getResponseFooter(JsonValue jsonFooter) throws GkException {
-		JsonArray footerArray = jsonFooter.asArray();
-		int statusCodeIntValue = footerArray.get(TinyGv097.FOOTER_STATUS_CODE_INDEX).asInt();
-		ITinyGStatus status = TinyGStatusCode.findEnum(statusCodeIntValue);
+	protected ITinyGStatus getResponseStatus(int statusCode) throws GkException {
+		ITinyGStatus status = TinyGStatusCode.findEnum(statusCode);
 		return status;
 	}
 	
@@ -141,10 +138,10 @@ public class TinyGCommunicator extends AbstractTinyGCommunicator<TinyGConfigurat
 				handleGCodeResponse(responseEnvelope.get(TinyGv097.GCODE_COMMAND), status);
 
 			}else if(StringUtils.equals(name, TinyGv097.STATUS_REPORT)){
-				handleStatusReport((JsonObject)responseEnvelope.get(TinyGv097.STATUS_REPORT));
+				handleStatusReport(readStatusReport(responseEnvelope.get(TinyGv097.STATUS_REPORT)));
 			
 			}else if(StringUtils.equals(name, TinyGv097.QUEUE_REPORT)){
-				handleQueueReport(responseEnvelope.get(TinyGv097.QUEUE_REPORT));
+				handleQueueReport(responseEnvelope.get(TinyGv097.QUEUE_REPORT).asInt());
 
 			}else if(StringUtils.equals(name, TinyGv097.LINE_REPORT)){
 		//		LOG.info("Skipping line report "+String.valueOf(responseEnvelope.get(name)));
@@ -195,8 +192,8 @@ public class TinyGCommunicator extends AbstractTinyGCommunicator<TinyGConfigurat
 		getControllerService().handleGCodeResponse(receivedCommand, status);
 	}
 
-	protected void handleQueueReport(JsonValue queueReport) throws GkException {
-		getControllerService().setAvailablePlannerBuffer(queueReport.asInt());
+	protected void handleQueueReport(int availablePlannerBuffer) throws GkException {
+		getControllerService().setAvailablePlannerBuffer(availablePlannerBuffer);
 	}
 
 	private void handleMessage(JsonValue message) throws GkException {
@@ -243,43 +240,39 @@ public class TinyGCommunicator extends AbstractTinyGCommunicator<TinyGConfigurat
 	
 	
 	/** (inheritDoc)
-	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#handleStatusReport(com.eclipsesource.json.JsonObject)
+	 * @see org.goko.controller.tinyg.commons.AbstractTinyGCommunicator#handleStatusReport(org.goko.controller.tinyg.commons.bean.TinyGStatusReport)
 	 */
 	@Override
-	protected void handleStatusReport(JsonObject statusReport) throws GkException {
-		if(statusReport.isObject()){
-			JsonObject 	statusReportObject = (JsonObject) statusReport;
-
-			EnumUnit 		 units 			= findUnits(statusReportObject);
-			Tuple6b 		 workPosition 	= findWorkPosition(statusReportObject, units);
-			MachineState 	 state 			= findState(statusReportObject);
-			EnumDistanceMode distanceMode 	= findDistanceMode(statusReportObject);			
-			Tuple6b 		 machinePosition= findMachinePosition(statusReportObject, units);
-			Speed 		 	 velocity 		= findVelocity(statusReportObject, units);
-			Speed 			 feedrate 		= findFeedrate(statusReportObject, units);
-			CoordinateSystem cs 			= findCoordinateSystem(statusReportObject);
-			EnumPlane 		 plane 			= findPlane(statusReportObject);
-			EnumMotionMode 	 motionMode 	= findMotionMode(statusReportObject);
-			
-			GCodeContext gcodeContext = new GCodeContext(getControllerService().getGCodeContext());
+	protected void handleStatusReport(TinyGStatusReport statusReport) throws GkException {
+		EnumUnit 		 units 			= findUnits(statusReport);
+		Tuple6b 		 workPosition 	= findWorkPosition(statusReport, units);
+		MachineState 	 state 			= findState(statusReport);
+		EnumDistanceMode distanceMode 	= findDistanceMode(statusReport);			
+		Tuple6b 		 machinePosition= findMachinePosition(statusReport, units);
+		Speed 		 	 velocity 		= findVelocity(statusReport, units);
+		Speed 			 feedrate 		= findFeedrate(statusReport, units);
+		CoordinateSystem cs 			= findCoordinateSystem(statusReport);
+		EnumPlane 		 plane 			= findPlane(statusReport);
+		EnumMotionMode 	 motionMode 	= findMotionMode(statusReport);
+		
+		GCodeContext gcodeContext = new GCodeContext(getControllerService().getGCodeContext());
 
-			gcodeContext.setPosition(workPosition);		
-			gcodeContext.setMachinePosition(machinePosition);
-			gcodeContext.setDistanceMode(distanceMode);
-			gcodeContext.setUnit(units);
-			gcodeContext.setCoordinateSystem(cs);
-			gcodeContext.setFeedrate(feedrate);
-			gcodeContext.setPlane(plane);
-			gcodeContext.setMotionMode(motionMode);
-			
-			if(state != null){
-				getControllerService().setState(state);
-			}
-			if(velocity != null){
-				getControllerService().setVelocity(velocity);
-			}
-			getControllerService().updateGCodeContext(gcodeContext);
+		gcodeContext.setPosition(workPosition);		
+		gcodeContext.setMachinePosition(machinePosition);
+		gcodeContext.setDistanceMode(distanceMode);
+		gcodeContext.setUnit(units);
+		gcodeContext.setCoordinateSystem(cs);
+		gcodeContext.setFeedrate(feedrate);
+		gcodeContext.setPlane(plane);
+		gcodeContext.setMotionMode(motionMode);
+		
+		if(state != null){
+			getControllerService().setState(state);
+		}
+		if(velocity != null){
+			getControllerService().setVelocity(velocity);
 		}
+		getControllerService().updateGCodeContext(gcodeContext);
 	}
 	
 	/** (inheritDoc)
@@ -313,10 +306,9 @@ public class TinyGCommunicator extends AbstractTinyGCommunicator<TinyGConfigurat
 	 * @param statusReport
 	 * @return
 	 */
-	private MachineState findState(JsonObject statusReport){
-		JsonValue statReport = statusReport.get(TinyGv097.STATUS_REPORT_STATE);
-		if(statReport != null && statReport.isNumber()){
-			return TinyGControllerUtility.getState(statReport.asInt());
+	private MachineState findState(TinyGStatusReport statusReport){
+		if(statusReport.getState() != TinyGStatusReport.NONE){
+			return TinyGControllerUtility.getState(statusReport.getState());
 		}
 		return null;
 	}
@@ -432,15 +424,15 @@ public class TinyGCommunicator extends AbstractTinyGCommunicator<TinyGConfigurat
 	 * @throws GkException GkException
 	 */
 	public void resetZero(List<String> axes) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList("G28.3");
+		StringBuilder command = new StringBuilder("G28.3");
 		if(CollectionUtils.isNotEmpty(axes)){
 			for (String axe : axes) {
-				lstBytes.addAll(GkUtils.toBytesList(axe+"0"));
+				command.append(axe).append("0");
 			}
 		}else{
-			lstBytes.addAll( GkUtils.toBytesList("X0Y0Z0"));
+			command.append("X0Y0Z0");
 		}
-		send(lstBytes, true);
+		send(command.toString(), true);
 	}
 	
 	/**
@@ -23,7 +23,6 @@ import org.goko.controller.tinyg.controller.configuration.TinyGConfiguration;
 import org.goko.controller.tinyg.controller.configuration.TinyGConfigurationValue;
 import org.goko.controller.tinyg.controller.prefs.TinyGPreferences;
 import org.goko.controller.tinyg.controller.topic.TinyGExecutionErrorTopic;
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.applicative.logging.ApplicativeLogEvent;
 import org.goko.core.common.applicative.logging.IApplicativeLogService;
 import org.goko.core.common.event.EventBrokerUtils;
@@ -247,7 +246,7 @@ public class TinyGControllerService extends AbstractTinyGControllerService<TinyG
 		if(TinyGPreferences.getInstance().isHomingEnabledAxisA()){
 			homingCommand += " A0";
 		}
-		getCommunicator().send(GkUtils.toBytesList(homingCommand), true);
+		getCommunicator().send(homingCommand, true);
 	}
 
 
@@ -292,7 +291,7 @@ public class TinyGControllerService extends AbstractTinyGControllerService<TinyG
 			probeUtility.cancelActiveProbing();
 			
 			// Probe active, let's hack over a TinyG bug
-			getCommunicator().sendImmediately(GkUtils.toBytesList(TinyGv097.FEED_HOLD), true);
+			getCommunicator().sendImmediately(TinyGv097.FEED_HOLD, true);
 			schedule().send(TinyGv097.QUEUE_FLUSH).whenState(MachineState.MOTION_HOLDING).timeout(10, TimeUnit.SECOND).begin();			
 		}else{
 			getCommunicator().stopMotion();
@@ -302,15 +301,15 @@ public class TinyGControllerService extends AbstractTinyGControllerService<TinyG
 	}
 
 	public void resetZero(List<String> axes) throws GkException{
-		List<Byte> lstBytes = GkUtils.toBytesList("G28.3");
+		StringBuilder command = new StringBuilder("G28.3");
 		if(CollectionUtils.isNotEmpty(axes)){
 			for (String axe : axes) {
-				lstBytes.addAll(GkUtils.toBytesList(axe+"0"));
+				command.append(axe).append("0");
 			}
 		}else{
-			lstBytes.addAll( GkUtils.toBytesList("X0Y0Z0"));
+			command.append("X0Y0Z0");
 		}
-		getCommunicator().send(lstBytes, true);
+		getCommunicator().send(command.toString(), true);
 	}
 
 	/** (inheritDoc)
@@ -612,7 +611,7 @@ public class TinyGControllerService extends AbstractTinyGControllerService<TinyG
 	 */
 	@Override
 	public void killAlarm() throws GkException {
-		getCommunicator().send(GkUtils.toBytesList("{\"clear\":\"\"}"), true);
+		getCommunicator().send("{\"clear\":\"\"}", true);
 	}
 
 	/** (inheritDoc)
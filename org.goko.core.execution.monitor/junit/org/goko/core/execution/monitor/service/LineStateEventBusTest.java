@@ -0,0 +1,302 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.execution.monitor.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.goko.core.common.exception.GkException;
+import org.goko.core.gcode.element.GCodeLine;
+import org.goko.core.gcode.element.IGCodeProvider;
+import org.goko.core.gcode.element.IGCodeProviderSource;
+import org.goko.core.gcode.execution.ExecutionToken;
+import org.goko.core.gcode.execution.ExecutionTokenState;
+import org.goko.core.gcode.service.IGCodeExecutionListener;
+import org.goko.core.gcode.service.IGCodeLineRangeExecutionListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LineStateEventBusTest {
+	/** The tested bus */
+	private LineStateEventBus bus;
+	/** The token holding the line states */
+	private ExecutionToken<ExecutionTokenState> token;
+	/** Listener notified line by line */
+	private RecordingListener lineListener;
+	/** Listener notified by range */
+	private RecordingRangeListener rangeListener;
+	/** The listeners given to the bus */
+	private List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listeners;
+
+	@Before
+	public void setUp() throws Exception{
+		bus = new LineStateEventBus(LineStateEventBus.DEFAULT_PERIOD);
+		token = new ExecutionToken<ExecutionTokenState>(new LineListProvider(0, 1, 2, 3, 4, 5), ExecutionTokenState.NONE);
+		lineListener = new RecordingListener();
+		rangeListener = new RecordingRangeListener();
+		listeners = new ArrayList<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>>();
+		listeners.add(lineListener);
+		listeners.add(rangeListener);
+	}
+
+	@After
+	public void tearDown(){
+		bus.dispose();
+	}
+
+	/**
+	 * The states of a line changed several times within a period are delivered once, with the last state, in the order of the lines
+	 * @throws Exception Exception
+	 */
+	@Test
+	public void testRepeatedStatesAreCoalesced() throws Exception{
+		// Holding the bus keeps the delivery thread from starting a batch until all the changes are posted
+		synchronized (bus) {
+			update(3, ExecutionTokenState.SENT);
+			update(1, ExecutionTokenState.SENT);
+			update(3, ExecutionTokenState.EXECUTED);
+			update(2, ExecutionTokenState.SENT);
+			update(1, ExecutionTokenState.EXECUTED);
+			update(3, ExecutionTokenState.CONFIRMED);
+			update(1, ExecutionTokenState.CONFIRMED);
+			update(2, ExecutionTokenState.CONFIRMED);
+		}
+		lineListener.await(3);
+		rangeListener.await(1);
+
+		assertEquals(Arrays.asList("1=CONFIRMED_STATE", "2=CONFIRMED_STATE", "3=CONFIRMED_STATE"), lineListener.getDeliveries());
+		assertEquals(Arrays.asList("1-3=CONFIRMED_STATE"), rangeListener.getDeliveries());
+	}
+
+	/**
+	 * Changes posted after a batch are delivered in a later batch, at least one period after the previous one
+	 * @throws Exception Exception
+	 */
+	@Test
+	public void testBatchesAreDeliveredInOrder() throws Exception{
+		synchronized (bus) {
+			update(1, ExecutionTokenState.SENT);
+			update(2, ExecutionTokenState.SENT);
+			update(1, ExecutionTokenState.EXECUTED);
+		}
+		lineListener.await(2);
+		rangeListener.await(2);
+		long firstBatch = System.currentTimeMillis();
+
+		synchronized (bus) {
+			update(2, ExecutionTokenState.EXECUTED);
+			update(4, ExecutionTokenState.SENT);
+			update(1, ExecutionTokenState.ERROR);
+			update(4, ExecutionTokenState.EXECUTED);
+		}
+		lineListener.await(3);
+		rangeListener.await(3);
+		long secondBatch = System.currentTimeMillis();
+
+		assertEquals(Arrays.asList("1=EXECUTED_STATE", "2=SENT_STATE",
+									"1=ERROR_STATE", "2=EXECUTED_STATE", "4=EXECUTED_STATE"), lineListener.getDeliveries());
+		assertEquals(Arrays.asList("1-1=EXECUTED_STATE", "2-2=SENT_STATE",
+									"1-1=ERROR_STATE", "2-2=EXECUTED_STATE", "4-4=EXECUTED_STATE"), rangeListener.getDeliveries());
+		// Small margin for the time spent between the start of the delivery and the notification of the listener
+		assertTrue(secondBatch - firstBatch >= LineStateEventBus.DEFAULT_PERIOD - 10);
+	}
+
+	/**
+	 * Flushing the bus delivers the pending changes on the calling thread
+	 * @throws Exception Exception
+	 */
+	@Test
+	public void testFlush() throws Exception{
+		synchronized (bus) {
+			update(5, ExecutionTokenState.SENT);
+			update(5, ExecutionTokenState.EXECUTED);
+			bus.flush();
+		}
+		assertEquals(Arrays.asList("5=EXECUTED_STATE"), lineListener.getDeliveries());
+		assertEquals(Arrays.asList("5-5=EXECUTED_STATE"), rangeListener.getDeliveries());
+	}
+
+	/**
+	 * Changes the state of a line in the token, and posts the change on the bus
+	 * @param idLine the id of the line
+	 * @param state the new state
+	 * @throws GkException GkException
+	 */
+	private void update(Integer idLine, ExecutionTokenState state) throws GkException{
+		token.setLineState(idLine, state);
+		bus.post(token, idLine, listeners);
+	}
+
+	/**
+	 * Listener recording the line states delivered line by line
+	 */
+	private static class RecordingListener implements IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>{
+		/** The deliveries */
+		private final List<String> deliveries = new ArrayList<String>();
+		/** Released once per delivery */
+		private final Semaphore delivered = new Semaphore(0);
+
+		/**
+		 * Records a delivery
+		 * @param delivery the delivery
+		 */
+		protected synchronized void record(String delivery){
+			deliveries.add(delivery);
+			delivered.release();
+		}
+
+		/**
+		 * Waits for the given number of deliveries
+		 * @param count the number of deliveries
+		 * @throws InterruptedException InterruptedException
+		 */
+		public void await(int count) throws InterruptedException{
+			assertTrue("Deliveries not received in time", delivered.tryAcquire(count, 1, TimeUnit.SECONDS));
+		}
+
+		/**
+		 * @return a copy of the deliveries
+		 */
+		public synchronized List<String> getDeliveries(){
+			return new ArrayList<String>(deliveries);
+		}
+
+		@Override
+		public void onLineStateChanged(ExecutionToken<ExecutionTokenState> token, Integer idLine) throws GkException {
+			record(idLine + "=" + token.getLineState(idLine));
+		}
+
+		@Override
+		public void onQueueExecutionStart() throws GkException {}
+
+		@Override
+		public void onExecutionStart(ExecutionToken<ExecutionTokenState> token) throws GkException {}
+
+		@Override
+		public void onExecutionCanceled(ExecutionToken<ExecutionTokenState> token) throws GkException {}
+
+		@Override
+		public void onExecutionPause(ExecutionToken<ExecutionTokenState> token) throws GkException {}
+
+		@Override
+		public void onExecutionResume(ExecutionToken<ExecutionTokenState> token) throws GkException {}
+
+		@Override
+		public void onExecutionComplete(ExecutionToken<ExecutionTokenState> token) throws GkException {}
+
+		@Override
+		public void onQueueExecutionComplete() throws GkException {}
+
+		@Override
+		public void onQueueExecutionCanceled() throws GkException {}
+	}
+
+	/**
+	 * Listener recording the line states delivered by range
+	 */
+	private static class RecordingRangeListener extends RecordingListener implements IGCodeLineRangeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>{
+
+		@Override
+		public void onLineStateRangeChanged(ExecutionToken<ExecutionTokenState> token, ExecutionTokenState state, int firstIdLine, int lastIdLine) throws GkException {
+			record(firstIdLine + "-" + lastIdLine + "=" + state);
+		}
+	}
+
+	/**
+	 * Simple provider holding lines with the given ids
+	 */
+	private static class LineListProvider implements IGCodeProvider{
+		private List<GCodeLine> lines;
+
+		LineListProvider(Integer... ids) {
+			lines = new ArrayList<GCodeLine>();
+			for (Integer id : ids) {
+				GCodeLine line = new GCodeLine();
+				line.setId(id);
+				lines.add(line);
+			}
+		}
+
+		@Override
+		public Integer getId() {
+			return 1;
+		}
+
+		@Override
+		public void setId(Integer id) {}
+
+		@Override
+		public String getCode() {
+			return "test";
+		}
+
+		@Override
+		public void setCode(String code) {}
+
+		@Override
+		public List<GCodeLine> getLines() throws GkException {
+			return lines;
+		}
+
+		@Override
+		public int getLinesCount() throws GkException {
+			return lines.size();
+		}
+
+		@Override
+		public GCodeLine getLine(Integer idLine) throws GkException {
+			for (GCodeLine line : lines) {
+				if(line.getId().equals(idLine)){
+					return line;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public GCodeLine getLineAtIndex(Integer indexLine) throws GkException {
+			return lines.get(indexLine);
+		}
+
+		@Override
+		public boolean isLocked() {
+			return false;
+		}
+
+		@Override
+		public void setLocked(boolean locked) {}
+
+		@Override
+		public void lock() {}
+
+		@Override
+		public void unlock() {}
+
+		@Override
+		public IGCodeProviderSource getSource() {
+			return null;
+		}
+	}
+}
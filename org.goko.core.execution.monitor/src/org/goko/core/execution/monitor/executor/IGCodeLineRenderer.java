@@ -0,0 +1,36 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.goko.core.execution.monitor.executor;
+
+import org.goko.core.common.exception.GkException;
+import org.goko.core.gcode.element.GCodeLine;
+
+/**
+ * Renders GCodeLine in the format written on the wire to a distant executor
+ *
+ * @author PsyKo
+ */
+public interface IGCodeLineRenderer {
+
+	/**
+	 * Renders the given line. Implementations must support being called from several threads.
+	 * @param line the line to render
+	 * @return the bytes to send for this line, without the end line characters
+	 * @throws GkException GkException
+	 */
+	byte[] render(GCodeLine line) throws GkException;
+}
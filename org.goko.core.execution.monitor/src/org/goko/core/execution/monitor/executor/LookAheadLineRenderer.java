@@ -0,0 +1,200 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.goko.core.execution.monitor.executor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.goko.core.common.exception.GkException;
+import org.goko.core.gcode.element.GCodeLine;
+import org.goko.core.gcode.element.IGCodeProvider;
+import org.goko.core.log.GkLog;
+
+/**
+ * Renders the lines of a provider ahead of the streaming, on a background thread, so that sending a line only
+ * requires a lookup of its already rendered bytes.
+ * <ul>
+ * <li>lines are expected to be taken in the order of the provider, starting with its first line</li>
+ * <li>at most <code>depth</code> lines are rendered ahead of the last taken line, the rendering thread waits for
+ * the streaming to catch up</li>
+ * <li>a line that is not rendered yet, for example at start or when rendering is stopped, is rendered on the calling
+ * thread, so the result does not depend on the rendering thread being ahead</li>
+ * </ul>
+ *
+ * @author PsyKo
+ */
+public class LookAheadLineRenderer {
+	/** LOG */
+	private static final GkLog LOG = GkLog.getLogger(LookAheadLineRenderer.class);
+	/** Default number of lines rendered ahead of the streaming */
+	public static final int DEFAULT_DEPTH = 128;
+	/** The renderer used for the lines */
+	private final IGCodeLineRenderer renderer;
+	/** Maximum number of lines rendered ahead of the streaming */
+	private final int depth;
+	/** The rendered lines not taken yet, by id of line */
+	private final Map<Integer, byte[]> renderedLines;
+	/** The rendering thread, <code>null</code> when stopped */
+	private Thread renderingThread;
+	/** Index of the next line to be taken */
+	private int takenIndex;
+
+	/**
+	 * Constructor
+	 * @param renderer the renderer used for the lines
+	 * @param depth maximum number of lines rendered ahead of the streaming
+	 */
+	public LookAheadLineRenderer(IGCodeLineRenderer renderer, int depth) {
+		this.renderer = renderer;
+		this.depth = depth;
+		this.renderedLines = new HashMap<Integer, byte[]>();
+	}
+
+	/**
+	 * Starts rendering the lines of the given provider from its first line. Any previous rendering is stopped
+	 * @param provider the provider to stream
+	 * @throws GkException GkException
+	 */
+	public void start(IGCodeProvider provider) throws GkException{
+		stop();
+		synchronized (this) {
+			takenIndex = 0;
+			renderingThread = new Thread(new RenderingTask(provider, provider.getLinesCount()), "execution-line-rendering");
+			renderingThread.setDaemon(true);
+			renderingThread.start();
+		}
+	}
+
+	/**
+	 * Stops the rendering and releases the rendered lines. Lines can still be rendered on the calling thread
+	 */
+	public void stop(){
+		Thread thread = null;
+		synchronized (this) {
+			thread = renderingThread;
+			renderingThread = null;
+			renderedLines.clear();
+			notifyAll();
+		}
+		if(thread != null){
+			thread.interrupt();
+		}
+	}
+
+	/**
+	 * Returns the rendered bytes of the next line to take, without taking it
+	 * @param line the next line
+	 * @return the bytes to send for this line
+	 * @throws GkException GkException
+	 */
+	public byte[] peek(GCodeLine line) throws GkException{
+		synchronized (this) {
+			byte[] bytes = renderedLines.get(line.getId());
+			if(bytes != null){
+				return bytes;
+			}
+		}
+		byte[] bytes = renderer.render(line);
+		synchronized (this) {
+			if(renderingThread != null){
+				renderedLines.put(line.getId(), bytes);
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Takes the rendered bytes of the next line, and lets the rendering thread move one line ahead
+	 * @param line the next line
+	 * @return the bytes to send for this line
+	 * @throws GkException GkException
+	 */
+	public byte[] take(GCodeLine line) throws GkException{
+		byte[] bytes = null;
+		synchronized (this) {
+			bytes = renderedLines.remove(line.getId());
+			takenIndex++;
+			notifyAll();
+		}
+		if(bytes == null){
+			bytes = renderer.render(line);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Renders the lines of a provider until the end of the provider or until stopped
+	 */
+	private class RenderingTask implements Runnable{
+		/** The provider to render */
+		private final IGCodeProvider provider;
+		/** The number of lines in the provider */
+		private final int lineCount;
+
+		/**
+		 * Constructor
+		 * @param provider the provider to render
+		 * @param lineCount the number of lines in the provider
+		 */
+		RenderingTask(IGCodeProvider provider, int lineCount) {
+			this.provider = provider;
+			this.lineCount = lineCount;
+		}
+
+		/** (inheritDoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			Thread current = Thread.currentThread();
+			int index = 0;
+			try{
+				while(index < lineCount){
+					synchronized (LookAheadLineRenderer.this) {
+						while(renderingThread == current && index - takenIndex >= depth){
+							LookAheadLineRenderer.this.wait();
+						}
+						if(renderingThread != current){
+							return;
+						}
+						// Lines already taken are rendered by the streaming thread
+						index = Math.max(index, takenIndex);
+					}
+					if(index >= lineCount){
+						return;
+					}
+					GCodeLine line = provider.getLineAtIndex(index);
+					byte[] bytes = renderer.render(line);
+					synchronized (LookAheadLineRenderer.this) {
+						if(renderingThread != current){
+							return;
+						}
+						if(index >= takenIndex){
+							renderedLines.put(line.getId(), bytes);
+						}
+					}
+					index++;
+				}
+			}catch(InterruptedException e){
+				// Rendering stopped
+			}catch(GkException e){
+				// Remaining lines will be rendered by the streaming thread
+				LOG.error(e);
+			}
+		}
+	}
+}
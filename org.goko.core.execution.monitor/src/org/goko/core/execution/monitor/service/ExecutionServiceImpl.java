@@ -73,6 +73,8 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	private IWorkspaceService workspaceService;
 	/** GCode provider repository */
 	private List<IGCodeProviderRepository> lstGCcodeRepository;
+	/** Delivers the line state changes away from the streaming thread */
+	private LineStateEventBus lineStateEventBus;
 	
 	/**
 	 * Constructor
@@ -91,6 +93,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 		
 		executionQueuelistenerList 	= new CopyOnWriteArrayList<IExecutionQueueListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>>();
 		lstGCcodeRepository = new CopyOnWriteArrayList<IGCodeProviderRepository>();
+		lineStateEventBus = new LineStateEventBus(LineStateEventBus.DEFAULT_PERIOD);
 	}
 
 	/** (inheritDoc)
@@ -114,6 +117,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void stopService() throws GkException {
+		lineStateEventBus.dispose();
 	}
 
 	
@@ -268,6 +272,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyExecutionStart(ExecutionToken<ExecutionTokenState> token) throws GkException {
+		lineStateEventBus.flush();
 		ExecutionQueueType queueType = executionQueueRunnable.getExecutionQueue().getType();
 		workspaceService.notifyWorkspaceEvent( ExecutionServiceWorkspaceEvent.getUpdateEvent(token) );
 		if(CollectionUtils.isNotEmpty(listenercache.get(queueType))){
@@ -282,6 +287,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyQueueExecutionStart(ExecutionQueueType queueType) throws GkException {
+		lineStateEventBus.flush();
 		if(CollectionUtils.isNotEmpty(listenercache.get(queueType))){
 			for (IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>> executionListener : listenercache.get(queueType)) {
 				executionListener.onQueueExecutionStart();
@@ -295,6 +301,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyQueueExecutionComplete(ExecutionQueueType queueType) throws GkException {
+		lineStateEventBus.flush();
 		if(CollectionUtils.isNotEmpty(listenercache.get(queueType))){
 			for (IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>> executionListener : listenercache.get(queueType)) {
 				executionListener.onQueueExecutionComplete();
@@ -310,6 +317,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyQueueExecutionCanceled(ExecutionQueueType queueType) throws GkException {
+		lineStateEventBus.flush();
 		if(CollectionUtils.isNotEmpty(listenercache.get(queueType))){
 			for (IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>> executionListener : listenercache.get(queueType)) {
 				executionListener.onQueueExecutionCanceled();
@@ -320,7 +328,8 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 		this.executionQueueRunnable = null;
 	}
 	
-	/** (inheritDoc)
+	/**
+	 * Line state changes are delivered in coalesced batches by the {@link LineStateEventBus}, so the listeners do not slow down the streaming
 	 * @see org.goko.core.gcode.service.IExecutionService#notifyCommandStateChanged(org.goko.core.gcode.execution.IExecutionToken.execution.IGCodeExecutionToken, java.lang.Integer)
 	 */
 	@Override
@@ -329,8 +338,12 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 		List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listenerList = listenercache.get(queueType);
 		//LOG.info("Executed line ["+idLine+"]");
 		if(CollectionUtils.isNotEmpty(listenerList)){
-			for (IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>> executionListener : listenerList) {
-				executionListener.onLineStateChanged(token, idLine);				
+			if(idLine != null && idLine >= 0){
+				lineStateEventBus.post(token, idLine, listenerList);
+			}else{
+				for (IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>> executionListener : listenerList) {
+					executionListener.onLineStateChanged(token, idLine);
+				}
 			}
 		}
 	}
@@ -340,6 +353,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyExecutionCanceled(ExecutionToken<ExecutionTokenState> token) throws GkException {
+		lineStateEventBus.flush();
 		ExecutionQueueType queueType = executionQueueRunnable.getExecutionQueue().getType();
 		List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listenerList = listenercache.get(queueType);
 		workspaceService.notifyWorkspaceEvent( ExecutionServiceWorkspaceEvent.getUpdateEvent(token) );
@@ -355,6 +369,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyExecutionPause(ExecutionToken<ExecutionTokenState> token) throws GkException {
+		lineStateEventBus.flush();
 		ExecutionQueueType queueType = executionQueueRunnable.getExecutionQueue().getType();
 		List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listenerList = listenercache.get(queueType);
 		workspaceService.notifyWorkspaceEvent( ExecutionServiceWorkspaceEvent.getUpdateEvent(token) );
@@ -370,6 +385,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyExecutionResume(ExecutionToken<ExecutionTokenState> token) throws GkException {
+		lineStateEventBus.flush();
 		ExecutionQueueType queueType = executionQueueRunnable.getExecutionQueue().getType();
 		List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listenerList = listenercache.get(queueType);
 		workspaceService.notifyWorkspaceEvent( ExecutionServiceWorkspaceEvent.getUpdateEvent(token) );
@@ -385,6 +401,7 @@ public class ExecutionServiceImpl extends AbstractGokoService implements IExecut
 	 */
 	@Override
 	public void notifyExecutionComplete(ExecutionToken<ExecutionTokenState> token) throws GkException {
+		lineStateEventBus.flush();
 		ExecutionQueueType queueType = executionQueueRunnable.getExecutionQueue().getType();
 		List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listenerList = listenercache.get(queueType);
 		workspaceService.notifyWorkspaceEvent( ExecutionServiceWorkspaceEvent.getUpdateEvent(token) );
@@ -0,0 +1,268 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.goko.core.execution.monitor.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.goko.core.common.exception.GkException;
+import org.goko.core.gcode.execution.ExecutionToken;
+import org.goko.core.gcode.execution.ExecutionTokenState;
+import org.goko.core.gcode.service.IGCodeExecutionListener;
+import org.goko.core.gcode.service.IGCodeLineRangeExecutionListener;
+import org.goko.core.log.GkLog;
+
+/**
+ * Delivers the line state changes to the execution listeners away from the streaming thread.
+ * The changes are collected by token and delivered in batches on a dedicated thread, at most once per period :
+ * <ul>
+ * <li>each changed line is delivered once per batch, with its state at delivery time. Intermediate states can be skipped,
+ * a line sent then executed during the same period is only seen executed</li>
+ * <li>consecutive lines in the same state are delivered as a single range to the {@link IGCodeLineRangeExecutionListener},
+ * and line by line to the other listeners</li>
+ * <li>batches are delivered in order and never concurrently, so a listener never receives a state older than the one of
+ * a previous batch for the same line</li>
+ * <li>the tokens of a batch are delivered in the order of their first change</li>
+ * </ul>
+ * The execution service flushes the pending changes on the calling thread before notifying the other execution events,
+ * so the listeners receive the line states of a token before the completion, cancellation or pause of its execution.
+ *
+ * @author PsyKo
+ */
+public class LineStateEventBus {
+	/** LOG */
+	private static final GkLog LOG = GkLog.getLogger(LineStateEventBus.class);
+	/** Default minimum delay between two batches, in milliseconds */
+	public static final long DEFAULT_PERIOD = 50;
+	/** Minimum delay between two batches, in milliseconds */
+	private final long period;
+	/** The changes waiting for delivery by token, in the order of their first change */
+	private final List<PendingLineStates> pendingStates;
+	/** Lock making sure the batches are delivered one at a time */
+	private final Object deliveryLock = new Object();
+	/** Scheduler of the deliveries */
+	private ScheduledExecutorService scheduler;
+	/** <code>true</code> if a delivery is scheduled */
+	private boolean deliveryScheduled;
+	/** Time of the latest scheduled delivery */
+	private long lastDelivery;
+	/** The scheduled delivery */
+	private final Runnable scheduledDelivery = new Runnable() {
+		/** (inheritDoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			synchronized (LineStateEventBus.this) {
+				deliveryScheduled = false;
+				lastDelivery = System.currentTimeMillis();
+			}
+			flush();
+		}
+	};
+
+	/**
+	 * Constructor
+	 * @param period the minimum delay between two batches, in milliseconds
+	 */
+	public LineStateEventBus(long period) {
+		this.period = period;
+		this.pendingStates = new ArrayList<PendingLineStates>();
+	}
+
+	/**
+	 * Registers a change of state of the given line. It is delivered with the next batch
+	 * @param token the execution token
+	 * @param idLine the id of the line
+	 * @param listeners the listeners to notify
+	 */
+	public synchronized void post(ExecutionToken<ExecutionTokenState> token, Integer idLine, List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listeners) {
+		PendingLineStates pending = findPendingLineStates(token);
+		if(pending == null){
+			pending = new PendingLineStates(token, listeners);
+			pendingStates.add(pending);
+		}
+		pending.lines.set(idLine);
+		if(!deliveryScheduled){
+			deliveryScheduled = true;
+			long delay = Math.max(0, lastDelivery + period - System.currentTimeMillis());
+			getScheduler().schedule(scheduledDelivery, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Returns the pending changes of the given token. Tokens of different queues can share the same id, so they are compared by identity
+	 * @param token the token
+	 * @return the pending changes, or <code>null</code> if none
+	 */
+	private PendingLineStates findPendingLineStates(ExecutionToken<ExecutionTokenState> token){
+		// The token being executed is usually the latest one
+		for (int i = pendingStates.size() - 1; i >= 0; i--) {
+			if(pendingStates.get(i).token == token){
+				return pendingStates.get(i);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Delivers the pending changes on the calling thread
+	 */
+	public void flush(){
+		synchronized (deliveryLock) {
+			List<PendingLineStates> batch = null;
+			synchronized (this) {
+				if(pendingStates.isEmpty()){
+					return;
+				}
+				batch = new ArrayList<PendingLineStates>(pendingStates);
+				pendingStates.clear();
+			}
+			for (PendingLineStates pending : batch) {
+				try {
+					deliver(pending);
+				} catch (GkException e) {
+					LOG.error(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Delivers the pending changes of a token, as ranges of consecutive lines in the same state
+	 * @param pending the pending changes
+	 * @throws GkException GkException
+	 */
+	private void deliver(PendingLineStates pending) throws GkException{
+		ExecutionToken<ExecutionTokenState> token = pending.token;
+		BitSet lines = pending.lines;
+		int first = lines.nextSetBit(0);
+		while(first >= 0){
+			ExecutionTokenState state = token.findLineState(first);
+			int last = first;
+			int next = lines.nextSetBit(first + 1);
+			while(next == last + 1 && ObjectUtils.equals(state, token.findLineState(next))){
+				last = next;
+				next = lines.nextSetBit(next + 1);
+			}
+			// Lines removed from the token are skipped
+			if(state != null){
+				deliver(pending.listeners, token, state, first, last);
+			}
+			first = next;
+		}
+	}
+
+	/**
+	 * Delivers a range of lines in the same state to the given listeners
+	 * @param listeners the listeners
+	 * @param token the execution token
+	 * @param state the state of the lines
+	 * @param first the id of the first line
+	 * @param last the id of the last line (inclusive)
+	 */
+	@SuppressWarnings("unchecked")
+	private void deliver(List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listeners, ExecutionToken<ExecutionTokenState> token, ExecutionTokenState state, int first, int last){
+		for (IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>> listener : listeners) {
+			try {
+				if(listener instanceof IGCodeLineRangeExecutionListener){
+					((IGCodeLineRangeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>) listener).onLineStateRangeChanged(token, state, first, last);
+				}else{
+					for (int idLine = first; idLine <= last; idLine++) {
+						listener.onLineStateChanged(token, idLine);
+					}
+				}
+			} catch (GkException e) {
+				// A failing listener should not prevent the others from being notified
+				LOG.error(e);
+			}
+		}
+	}
+
+	/**
+	 * Delivers the pending changes and stops the delivery thread
+	 */
+	public void dispose(){
+		flush();
+		synchronized (this) {
+			if(scheduler != null){
+				scheduler.shutdown();
+				scheduler = null;
+			}
+			deliveryScheduled = false;
+		}
+	}
+
+	/**
+	 * Returns the scheduler of the deliveries, created on first use
+	 * @return ScheduledExecutorService
+	 */
+	private ScheduledExecutorService getScheduler(){
+		if(scheduler == null){
+			scheduler = Executors.newSingleThreadScheduledExecutor(new DeliveryThreadFactory());
+		}
+		return scheduler;
+	}
+
+	/**
+	 * The changes of a token waiting for delivery
+	 */
+	private static class PendingLineStates{
+		/** The token */
+		private final ExecutionToken<ExecutionTokenState> token;
+		/** The listeners to notify */
+		private final List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listeners;
+		/** The ids of the changed lines */
+		private final BitSet lines;
+
+		/**
+		 * Constructor
+		 * @param token the token
+		 * @param listeners the listeners to notify
+		 */
+		PendingLineStates(ExecutionToken<ExecutionTokenState> token, List<IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>> listeners) {
+			this.token = token;
+			this.listeners = listeners;
+			this.lines = new BitSet();
+		}
+	}
+
+	/**
+	 * Creates the daemon delivery thread
+	 */
+	private static final class DeliveryThreadFactory implements ThreadFactory {
+		/** Thread counter */
+		private static final AtomicInteger number = new AtomicInteger(0);
+
+		/** (inheritDoc)
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, String.format("execution-line-state-%d", number.incrementAndGet()));
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
@@ -32,6 +32,7 @@ import org.goko.core.gcode.execution.IExecutionQueue;
 import org.goko.core.gcode.service.IExecutionQueueListener;
 import org.goko.core.gcode.service.IExecutionService;
 import org.goko.core.gcode.service.IGCodeExecutionListener;
+import org.goko.core.gcode.service.IGCodeLineRangeExecutionListener;
 import org.goko.core.gcode.service.IGCodeValidationService;
 import org.goko.core.log.GkLog;
 
@@ -41,7 +42,8 @@ import org.goko.core.log.GkLog;
  * @author Psyko
  */
 public class ExecutionPartController extends AbstractController<ExecutionPartModel> implements 	IGCodeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>,																								
-																								IExecutionQueueListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>{
+																								IExecutionQueueListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>,
+																								IGCodeLineRangeExecutionListener<ExecutionTokenState, ExecutionToken<ExecutionTokenState>>{
 	private static final GkLog LOG = GkLog.getLogger(ExecutionPartController.class);
 	/** The execution service */
 	@Inject
@@ -169,6 +171,15 @@ public class ExecutionPartController extends AbstractController<ExecutionPartMod
 		}
 		updateCompletedLineCount();
 	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.service.IGCodeLineRangeExecutionListener#onLineStateRangeChanged(org.goko.core.gcode.execution.IExecutionToken, org.goko.core.gcode.execution.IExecutionTokenState, int, int)
+	 */
+	@Override
+	public void onLineStateRangeChanged(ExecutionToken<ExecutionTokenState> token, ExecutionTokenState state, int firstIdLine, int lastIdLine) throws GkException {
+		// The model only displays counts, a single update covers the whole range
+		onLineStateChanged(token, firstIdLine);
+	}
 	
 	/**
 	 * Updates the total number of completed lines 
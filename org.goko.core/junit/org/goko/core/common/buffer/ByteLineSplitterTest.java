@@ -0,0 +1,132 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.common.buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test of the ByteLineSplitter
+ *
+ * @author PsyKo
+ */
+public class ByteLineSplitterTest {
+
+	/**
+	 * A line received in two reads is only returned once its delimiter is received
+	 */
+	@Test
+	public void testLineSplitAcrossTwoReads(){
+		ByteLineSplitter splitter = new ByteLineSplitter((byte) '\n');
+		splitter.append("<Idle,MPos:0.0".getBytes());
+		assertFalse(splitter.hasNext());
+		assertNull(splitter.nextLine());
+
+		splitter.append("00,0.000>\nok".getBytes());
+		assertTrue(splitter.hasNext());
+		assertEquals("<Idle,MPos:0.000,0.000>", splitter.nextLine());
+		assertFalse(splitter.hasNext());
+		assertEquals(2, splitter.size());
+
+		splitter.append("\n".getBytes());
+		assertEquals("ok", splitter.nextLine());
+		assertEquals(0, splitter.size());
+	}
+
+	/**
+	 * Lines ended by CRLF are split on the LF and keep their CR
+	 */
+	@Test
+	public void testCrLfEndings(){
+		ByteLineSplitter splitter = new ByteLineSplitter((byte) '\n');
+		splitter.append("ok\r\nerror:1\r".getBytes());
+		assertEquals("ok\r", splitter.nextLine());
+		assertFalse(splitter.hasNext());
+
+		splitter.append("\n".getBytes());
+		assertEquals("error:1\r", splitter.nextLine());
+		assertNull(splitter.nextLine());
+	}
+
+	/**
+	 * Consecutive delimiters produce empty lines
+	 */
+	@Test
+	public void testEmptyLine(){
+		ByteLineSplitter splitter = new ByteLineSplitter((byte) '\n');
+		splitter.append("\nok\n\n".getBytes());
+		assertEquals("", splitter.nextLine());
+		assertEquals("ok", splitter.nextLine());
+		assertEquals("", splitter.nextLine());
+		assertNull(splitter.nextLine());
+		assertEquals(0, splitter.size());
+	}
+
+	/**
+	 * Only the given part of the received buffer is appended
+	 */
+	@Test
+	public void testAppendWithOffset(){
+		ByteLineSplitter splitter = new ByteLineSplitter((byte) '\n');
+		byte[] data = "xxok\nyy".getBytes();
+		splitter.append(data, 2, 3);
+		assertEquals("ok", splitter.nextLine());
+		assertEquals(0, splitter.size());
+	}
+
+	/**
+	 * Lines wrapping around the end of the ring, and lines longer than the ring, are returned intact
+	 */
+	@Test
+	public void testWrapAroundAndGrowth(){
+		ByteLineSplitter splitter = new ByteLineSplitter((byte) '\n', 16);
+		splitter.append("0123456789\n".getBytes());
+		assertEquals("0123456789", splitter.nextLine());
+
+		// Starts at index 11 of the 16 bytes ring and wraps
+		splitter.append("abcdefghij\n".getBytes());
+		assertEquals("abcdefghij", splitter.nextLine());
+
+		StringBuilder longLine = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			longLine.append(i % 10);
+		}
+		splitter.append(longLine.toString().getBytes());
+		splitter.append("\nok\n".getBytes());
+		assertEquals(longLine.toString(), splitter.nextLine());
+		assertEquals("ok", splitter.nextLine());
+		assertNull(splitter.nextLine());
+	}
+
+	/**
+	 * Clearing the splitter discards the pending bytes
+	 */
+	@Test
+	public void testClear(){
+		ByteLineSplitter splitter = new ByteLineSplitter((byte) '\n');
+		splitter.append("partial".getBytes());
+		splitter.clear();
+		assertEquals(0, splitter.size());
+		splitter.append("ok\n".getBytes());
+		assertEquals("ok", splitter.nextLine());
+	}
+}
@@ -17,12 +17,15 @@
 
 package org.goko.core.common.measure;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
 
+import org.goko.core.common.measure.quantity.Angle;
 import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.common.measure.quantity.LengthUnit;
 import org.goko.core.common.measure.quantity.Quantity;
@@ -30,6 +33,8 @@ import org.goko.core.common.measure.quantity.Speed;
 import org.goko.core.common.measure.quantity.SpeedUnit;
 import org.goko.core.common.measure.quantity.Time;
 import org.goko.core.common.measure.quantity.TimeUnit;
+import org.goko.core.math.Tuple6b;
+import org.goko.core.math.Tuple6d;
 import org.junit.Test;
 
 public class MeasureTest {
@@ -149,4 +154,28 @@ public class MeasureTest {
 		assertNotAlmostEqual(Time.valueOf(1, TimeUnit.MINUTE), Time.valueOf(61, TimeUnit.SECOND));
 		assertNotAlmostEqual(Time.valueOf(1, TimeUnit.MINUTE), Time.valueOf(1, TimeUnit.SECOND));
 	}
+	
+	@Test
+	public void testDoubleValue(){
+		Length inch = Length.valueOf("1", LengthUnit.INCH);
+		
+		assertEquals(25.4, inch.doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+		assertEquals(inch.value(LengthUnit.METRE).doubleValue(), inch.doubleValue(LengthUnit.METRE), TOLERANCE);
+		assertAlmostEqual(Length.valueOf(inch.doubleValue(LengthUnit.MILLIMETRE), LengthUnit.MILLIMETRE), inch);
+	}
+	
+	@Test
+	public void testTuple6d(){
+		Tuple6b tuple = new Tuple6b(Length.valueOf("1", LengthUnit.INCH), Length.valueOf("-2", LengthUnit.MILLIMETRE), Length.ZERO, Angle.ZERO, null, Angle.ZERO);
+		Tuple6d min = new Tuple6d();
+		min.min(new Tuple6d(tuple));
+		
+		assertEquals(0, min.x, TOLERANCE);
+		assertEquals(-2, min.y, TOLERANCE);
+		assertEquals(0, min.b, TOLERANCE);
+		
+		Tuple6b result = new Tuple6d(tuple).toTuple6b();
+		assertAlmostEqual(result.getX(), tuple.getX());
+		assertNull(result.getB());
+	}
 }
@@ -0,0 +1,215 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.goko.core.common.exception.GkException;
+import org.goko.core.common.exception.GkTechnicalException;
+import org.goko.core.gcode.element.GCodeLine;
+import org.goko.core.gcode.element.IGCodeProvider;
+import org.goko.core.gcode.element.IGCodeProviderSource;
+import org.junit.Test;
+
+public class ExecutionTokenTest {
+
+	@Test
+	public void testConsecutiveIds() throws Exception{
+		assertLineStates(5, 6, 7, 8, 9);
+	}
+
+	@Test
+	public void testDenseIds() throws Exception{
+		assertLineStates(12, 10, 11, 15, 14);
+	}
+
+	@Test
+	public void testSparseIds() throws Exception{
+		assertLineStates(3, 1000, 42, 500000, 7);
+	}
+
+	@Test(expected=GkTechnicalException.class)
+	public void testUnknownLine() throws Exception{
+		ExecutionToken<ExecutionTokenState> token = new ExecutionToken<ExecutionTokenState>(new LineListProvider(12, 10, 11, 15, 14), ExecutionTokenState.NONE);
+		assertNull(token.findLineState(13));
+		assertNull(token.findLineState(9));
+		assertNull(token.findLineState(16));
+		token.setLineState(13, ExecutionTokenState.SENT);
+	}
+
+	@Test
+	public void testConcurrentFirstLineByState() throws Exception{
+		Integer[] ids = new Integer[200000];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = i;
+		}
+		LineListProvider provider = new LineListProvider(ids);
+		Random random = new Random(42);
+		for (int round = 0; round < 20; round++) {
+			// Only the last line is left in the state, the search has to scan all the lines
+			final ExecutionToken<ExecutionTokenState> token = new ExecutionToken<ExecutionTokenState>(provider, ExecutionTokenState.SENT);
+			for (int i = 0; i < ids.length - 1; i++) {
+				token.setLineState(ids[i], ExecutionTokenState.EXECUTED);
+			}
+			final AtomicBoolean started = new AtomicBoolean();
+			Thread reader = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try{
+						started.set(true);
+						token.getFirstLineByState(ExecutionTokenState.SENT);
+					}catch(GkException e){
+						throw new RuntimeException(e);
+					}
+				}
+			});
+			reader.start();
+			while(!started.get()){
+				Thread.yield();
+			}
+			// A line enters the state while the search is running, possibly behind it
+			long end = System.nanoTime() + random.nextInt(500000);
+			while(System.nanoTime() < end){
+				Thread.yield();
+			}
+			int index = random.nextInt(ids.length / 2);
+			token.setLineState(ids[index], ExecutionTokenState.SENT);
+			reader.join();
+
+			assertSame(provider.getLineAtIndex(index), token.getFirstLineByState(ExecutionTokenState.SENT));
+		}
+	}
+
+	/**
+	 * Runs lookups and state transitions on a token built from lines with the given ids, then make sure reset restores the initial state
+	 * @param ids the ids of the lines
+	 * @throws GkException GkException
+	 */
+	private void assertLineStates(Integer... ids) throws GkException{
+		LineListProvider provider = new LineListProvider(ids);
+		ExecutionToken<ExecutionTokenState> token = new ExecutionToken<ExecutionTokenState>(provider, ExecutionTokenState.NONE);
+
+		for (Integer id : ids) {
+			assertSame(ExecutionTokenState.NONE, token.getLineState(id));
+		}
+		assertEquals(ids.length, token.getLineCountByState(ExecutionTokenState.NONE));
+
+		token.setLineState(ids[1], ExecutionTokenState.SENT);
+		token.setLineState(ids[3], ExecutionTokenState.SENT);
+		token.setLineState(ids[1], ExecutionTokenState.EXECUTED);
+
+		assertSame(ExecutionTokenState.EXECUTED, token.getLineState(ids[1]));
+		assertSame(ExecutionTokenState.SENT, token.getLineState(ids[3]));
+		assertSame(ExecutionTokenState.NONE, token.getLineState(ids[0]));
+		assertEquals(ids.length - 2, token.getLineCountByState(ExecutionTokenState.NONE));
+		assertEquals(1, token.getLineCountByState(ExecutionTokenState.SENT));
+		assertSame(provider.getLineAtIndex(3), token.getFirstLineByState(ExecutionTokenState.SENT));
+		assertSame(provider.getLineAtIndex(1), token.getFirstLineByState(ExecutionTokenState.EXECUTED));
+
+		token.reset();
+		for (Integer id : ids) {
+			assertSame(ExecutionTokenState.NONE, token.getLineState(id));
+		}
+		assertEquals(ids.length, token.getLineCountByState(ExecutionTokenState.NONE));
+		assertEquals(0, token.getLineCountByState(ExecutionTokenState.SENT));
+		assertNull(token.getFirstLineByState(ExecutionTokenState.EXECUTED));
+	}
+
+	/**
+	 * Simple provider holding lines with the given ids
+	 */
+	private static class LineListProvider implements IGCodeProvider{
+		private List<GCodeLine> lines;
+
+		LineListProvider(Integer... ids) {
+			lines = new ArrayList<GCodeLine>();
+			for (Integer id : ids) {
+				GCodeLine line = new GCodeLine();
+				line.setId(id);
+				lines.add(line);
+			}
+		}
+
+		@Override
+		public Integer getId() {
+			return 1;
+		}
+
+		@Override
+		public void setId(Integer id) {}
+
+		@Override
+		public String getCode() {
+			return "test";
+		}
+
+		@Override
+		public void setCode(String code) {}
+
+		@Override
+		public List<GCodeLine> getLines() throws GkException {
+			return lines;
+		}
+
+		@Override
+		public int getLinesCount() throws GkException {
+			return lines.size();
+		}
+
+		@Override
+		public GCodeLine getLine(Integer idLine) throws GkException {
+			for (GCodeLine line : lines) {
+				if(line.getId().equals(idLine)){
+					return line;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public GCodeLine getLineAtIndex(Integer indexLine) throws GkException {
+			return lines.get(indexLine);
+		}
+
+		@Override
+		public boolean isLocked() {
+			return false;
+		}
+
+		@Override
+		public void setLocked(boolean locked) {}
+
+		@Override
+		public void lock() {}
+
+		@Override
+		public void unlock() {}
+
+		@Override
+		public IGCodeProviderSource getSource() {
+			return null;
+		}
+	}
+}
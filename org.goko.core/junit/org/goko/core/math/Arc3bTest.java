@@ -0,0 +1,141 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.math;
+
+import static org.junit.Assert.assertEquals;
+
+import org.goko.core.common.measure.quantity.AngleUnit;
+import org.goko.core.common.measure.quantity.LengthUnit;
+import org.junit.Test;
+
+public class Arc3bTest {
+	/** Coordinate comparison tolerance */
+	private static final double TOLERANCE = 0.000001;
+	/** Coordinate of the points at 45 degrees on a circle of radius 10 */
+	private static final double DIAGONAL = 10 * Math.sqrt(0.5);
+
+	/**
+	 * Creates an arc in the XY plane
+	 */
+	private Arc3b arc(double startX, double startY, double centerX, double centerY, double endX, double endY, boolean clockwise){
+		return new Arc3b(new Tuple6b(startX, startY, 0, LengthUnit.MILLIMETRE),
+						new Tuple6b(centerX, centerY, 0, LengthUnit.MILLIMETRE),
+						new Tuple6b(endX, endY, 0, LengthUnit.MILLIMETRE),
+						Arc3b.Z_AXIS, clockwise);
+	}
+
+	/**
+	 * Checks the bounds of the given arc in the XY plane
+	 */
+	private void assertBound(Arc3b arc, double minX, double minY, double maxX, double maxY){
+		BoundingTuple6b bound = arc.getBound();
+		assertEquals(minX, bound.getMin().getX().doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+		assertEquals(minY, bound.getMin().getY().doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+		assertEquals(maxX, bound.getMax().getX().doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+		assertEquals(maxY, bound.getMax().getY().doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+	}
+
+	/**
+	 * Checks the signed sweep angle of the given arc and that it ends on its end point
+	 */
+	private void assertSweep(Arc3b arc, double degrees){
+		assertEquals(degrees, arc.getAngle().doubleValue(AngleUnit.DEGREE_ANGLE), TOLERANCE);
+		Tuple6b end = arc.point(1);
+		assertEquals(arc.getEnd().getX().doubleValue(LengthUnit.MILLIMETRE), end.getX().doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+		assertEquals(arc.getEnd().getY().doubleValue(LengthUnit.MILLIMETRE), end.getY().doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+	}
+
+	/**
+	 * Context : clockwise quarter from the top to the right of the circle
+	 * Result  : no extremum is crossed, the bounds are the end points
+	 */
+	@Test
+	public void testClockwiseQuarter(){
+		Arc3b arc = arc(0, 10, 0, 0, 10, 0, true);
+		assertSweep(arc, -90);
+		assertBound(arc, 0, 0, 10, 10);
+	}
+
+	/**
+	 * Context : counterclockwise arc from the top to the right of the circle
+	 * Result  : the left and bottom extrema are crossed
+	 */
+	@Test
+	public void testCounterClockwiseThreeQuarters(){
+		Arc3b arc = arc(0, 10, 0, 0, 10, 0, false);
+		assertSweep(arc, 270);
+		assertBound(arc, -10, -10, 10, 10);
+	}
+
+	/**
+	 * Context : arcs crossing a single quadrant boundary, in both directions
+	 * Result  : only the crossed extremum extends the bounds
+	 */
+	@Test
+	public void testQuadrantCrossing(){
+		Arc3b ccw = arc(DIAGONAL, DIAGONAL, 0, 0, -DIAGONAL, DIAGONAL, false);
+		assertSweep(ccw, 90);
+		assertBound(ccw, -DIAGONAL, DIAGONAL, DIAGONAL, 10);
+
+		Arc3b cw = arc(DIAGONAL, -DIAGONAL, 0, 0, DIAGONAL, DIAGONAL, false);
+		assertSweep(cw, 90);
+		assertBound(cw, DIAGONAL, -DIAGONAL, 10, DIAGONAL);
+
+		Arc3b cwBottom = arc(DIAGONAL, -DIAGONAL, 0, 0, -DIAGONAL, -DIAGONAL, true);
+		assertSweep(cwBottom, -90);
+		assertBound(cwBottom, -DIAGONAL, -10, DIAGONAL, -DIAGONAL);
+	}
+
+	/**
+	 * Context : half circles from the right to the left of the circle
+	 * Result  : the clockwise one crosses the bottom, the counterclockwise one crosses the top
+	 */
+	@Test
+	public void testHalfCircles(){
+		assertBound(arc(10, 0, 0, 0, -10, 0, true), -10, -10, 10, 0);
+		assertBound(arc(10, 0, 0, 0, -10, 0, false), -10, 0, 10, 10);
+	}
+
+	/**
+	 * Context : the center is not at the origin
+	 * Result  : the extrema are relative to the center
+	 */
+	@Test
+	public void testOffsetCenter(){
+		Arc3b arc = arc(15, 5, 5, 5, 5, 15, false);
+		assertSweep(arc, 90);
+		assertBound(arc, 5, 5, 15, 15);
+		assertBound(arc(15, 5, 5, 5, 5, 15, true), -5, -5, 15, 15);
+	}
+
+	/**
+	 * Context : the end point is the start point
+	 * Result  : the arc is a full circle in both directions
+	 */
+	@Test
+	public void testFullCircles(){
+		Arc3b cw = arc(10, 0, 0, 0, 10, 0, true);
+		assertSweep(cw, -360);
+		assertBound(cw, -10, -10, 10, 10);
+		assertEquals(20 * Math.PI, cw.getLength().doubleValue(LengthUnit.MILLIMETRE), TOLERANCE);
+
+		Arc3b ccw = arc(0, -10, 0, 0, 0, -10, false);
+		assertSweep(ccw, 360);
+		assertBound(ccw, -10, -10, 10, 10);
+	}
+}
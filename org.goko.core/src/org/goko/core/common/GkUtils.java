@@ -53,6 +53,42 @@ public class GkUtils {
 		return lst;
 	}
 
+	public static List<Byte> toBytesList(byte[] arr, int offset, int length){
+		List<Byte> lst = new ArrayList<Byte>(length);
+		for(int i = offset; i < offset + length; i++) {
+			lst.add(Byte.valueOf(arr[i]));
+		}
+		return lst;
+	}
+
+	/**
+	 * Returns the bytes of the given strings, concatenated
+	 * @param strings the strings
+	 * @return a byte array
+	 */
+	public static byte[] toBytes(String... strings){
+		if(strings == null || strings.length == 0){
+			return new byte[0];
+		}
+		if(strings.length == 1){
+			return strings[0].getBytes();
+		}
+		StringBuilder builder = new StringBuilder();
+		for (String str : strings) {
+			builder.append(str);
+		}
+		return builder.toString().getBytes();
+	}
+
+	/**
+	 * Returns the given list of bytes as a primitive array
+	 * @param data the list of bytes
+	 * @return a byte array
+	 */
+	public static byte[] toBytes(List<Byte> data){
+		return ArrayUtils.toPrimitive(data.toArray(new Byte[data.size()]));
+	}
+
 	public static List<Byte> addBytesArray(List<Byte> lst, byte[] arr){
 		if(arr != null){
 			for(int i = 0; i < arr.length; i++) {
@@ -79,6 +115,13 @@ public class GkUtils {
 		}
 		return buffer.toString();
 	}
+	public static String toString(byte[] data, int offset, int length){
+		char[] chars = new char[length];
+		for(int i = 0; i < length; i++){
+			chars[i] = (char) data[offset + i];
+		}
+		return new String(chars);
+	}
 	public static String toString(List<Byte> data){
 		StringBuffer 	buffer = new StringBuffer(data.size());
 		byte[] 			byteArray = ArrayUtils.toPrimitive(data.toArray(new Byte[]{}));
@@ -23,6 +23,10 @@ import java.util.List;
 import org.apache.commons.lang3.ObjectUtils;
 import org.goko.core.log.GkLog;
 
+/**
+ * @deprecated use {@link ByteLineSplitter} which does not box the received bytes
+ */
+@Deprecated
 public class ByteCommandBuffer {
 	private static final GkLog LOG = GkLog.getLogger(ByteCommandBuffer.class);
 	private List<List<Byte>> stackedCommands;
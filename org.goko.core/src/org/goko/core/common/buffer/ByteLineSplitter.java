@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * 	This file is part of Goko.
+ *
+ *   Goko is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Goko is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package org.goko.core.common.buffer;
+
+import org.goko.core.common.GkUtils;
+
+/**
+ * Splits a stream of incoming bytes into lines, using a ring buffer of primitive bytes.
+ * Received chunks are copied once in the ring, and each line is decoded directly from the ring without
+ * intermediate list or array. The ring grows when a line longer than its capacity is received.
+ *
+ * @author PsyKo
+ */
+public class ByteLineSplitter {
+	/** Default capacity of the ring */
+	private static final int DEFAULT_CAPACITY = 1024;
+	/** The ring, its length is always a power of two */
+	private byte[] ring;
+	/** Mask used to wrap indexes in the ring */
+	private int mask;
+	/** Index of the first pending byte in the ring */
+	private int head;
+	/** Number of pending bytes in the ring */
+	private int size;
+	/** Number of pending bytes already scanned without finding a delimiter */
+	private int scanned;
+	/** Length of the next complete line including its delimiter, or -1 if no complete line was found yet */
+	private int nextLineLength;
+	/** The line delimiter */
+	private byte delimiter;
+
+	/**
+	 * Constructor
+	 * @param delimiter the line delimiter
+	 */
+	public ByteLineSplitter(byte delimiter) {
+		this(delimiter, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 * @param delimiter the line delimiter
+	 * @param initialCapacity the initial capacity of the ring
+	 */
+	public ByteLineSplitter(byte delimiter, int initialCapacity) {
+		this.delimiter = delimiter;
+		this.ring = new byte[capacityFor(initialCapacity)];
+		this.mask = ring.length - 1;
+		this.nextLineLength = -1;
+	}
+
+	/**
+	 * Appends the given bytes to the pending data
+	 * @param data the buffer holding the bytes
+	 * @param offset the index of the first byte to append
+	 * @param length the number of bytes to append
+	 */
+	public synchronized void append(byte[] data, int offset, int length){
+		ensureCapacity(size + length);
+		int tail = (head + size) & mask;
+		int firstPart = Math.min(length, ring.length - tail);
+		System.arraycopy(data, offset, ring, tail, firstPart);
+		System.arraycopy(data, offset + firstPart, ring, 0, length - firstPart);
+		size += length;
+	}
+
+	/**
+	 * Appends all the given bytes to the pending data
+	 * @param data the bytes to append
+	 */
+	public void append(byte[] data){
+		append(data, 0, data.length);
+	}
+
+	/**
+	 * Determines if a complete line is available
+	 * @return <code>true</code> if a line ended by the delimiter is available, <code>false</code> otherwise
+	 */
+	public synchronized boolean hasNext(){
+		return findNextLineLength() >= 0;
+	}
+
+	/**
+	 * Removes the next complete line from the pending data and returns it
+	 * @return the next line without its delimiter, or <code>null</code> if no complete line is available
+	 */
+	public synchronized String nextLine(){
+		int length = findNextLineLength();
+		if(length < 0){
+			return null;
+		}
+		int contentLength = length - 1;
+		String line;
+		int firstPart = Math.min(contentLength, ring.length - head);
+		if(firstPart == contentLength){
+			line = GkUtils.toString(ring, head, contentLength);
+		}else{
+			line = GkUtils.toString(ring, head, firstPart).concat(GkUtils.toString(ring, 0, contentLength - firstPart));
+		}
+		head = (head + length) & mask;
+		size -= length;
+		scanned = 0;
+		nextLineLength = -1;
+		return line;
+	}
+
+	/**
+	 * Discards all the pending data
+	 */
+	public synchronized void clear(){
+		head = 0;
+		size = 0;
+		scanned = 0;
+		nextLineLength = -1;
+	}
+
+	/**
+	 * @return the number of pending bytes
+	 */
+	public synchronized int size(){
+		return size;
+	}
+
+	/**
+	 * @return the delimiter
+	 */
+	public synchronized byte getDelimiter() {
+		return delimiter;
+	}
+
+	/**
+	 * @param delimiter the delimiter to set
+	 */
+	public synchronized void setDelimiter(byte delimiter) {
+		this.delimiter = delimiter;
+		this.scanned = 0;
+		this.nextLineLength = -1;
+	}
+
+	/**
+	 * Scans the pending bytes for the next delimiter, starting where the previous scan stopped
+	 * @return the length of the next line including its delimiter, or -1 if no complete line is available
+	 */
+	private int findNextLineLength(){
+		while(nextLineLength < 0 && scanned < size){
+			if(ring[(head + scanned) & mask] == delimiter){
+				nextLineLength = scanned + 1;
+			}
+			scanned++;
+		}
+		return nextLineLength;
+	}
+
+	/**
+	 * Makes sure the ring can hold the given number of bytes, keeping the pending bytes
+	 * @param capacity the required capacity
+	 */
+	private void ensureCapacity(int capacity){
+		if(capacity > ring.length){
+			byte[] newRing = new byte[capacityFor(capacity)];
+			int firstPart = Math.min(size, ring.length - head);
+			System.arraycopy(ring, head, newRing, 0, firstPart);
+			System.arraycopy(ring, 0, newRing, firstPart, size - firstPart);
+			ring = newRing;
+			mask = ring.length - 1;
+			head = 0;
+		}
+	}
+
+	/**
+	 * Returns the smallest power of two greater or equal to the given capacity
+	 * @param capacity the required capacity
+	 * @return the capacity of the ring
+	 */
+	private static int capacityFor(int capacity){
+		int result = 16;
+		while(result < capacity){
+			result <<= 1;
+		}
+		return result;
+	}
+}
@@ -16,23 +16,40 @@
  *******************************************************************************/
 package org.goko.core.common.event;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.goko.core.log.GkLog;
 
 /**
- * An event dispatcher using annotation
+ * An event dispatcher using annotation.
+ * The {@link EventListener} methods of a listener class are resolved once into a table of method handles by event type,
+ * so notifying a listener is a table lookup followed by direct calls.
  *
  * @author PsyKo
  *
  */
 public class EventDispatcher {
 	private static final GkLog LOG = GkLog.getLogger(EventDispatcher.class);
+	/** Type of the handles stored in the handler tables : (listener, event) -> void */
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	/** Empty list of handlers */
+	private static final MethodHandle[] NO_HANDLER = new MethodHandle[0];
+	/** Handler tables by listener class, built on first use */
+	private static final ClassValue<Map<Class<?>, MethodHandle[]>> HANDLER_TABLES = new ClassValue<Map<Class<?>, MethodHandle[]>>() {
+		@Override
+		protected Map<Class<?>, MethodHandle[]> computeValue(Class<?> type) {
+			return createHandlerTable(type);
+		}
+	};
 
 
 	/**
@@ -83,53 +100,81 @@ public class EventDispatcher {
 		}
 	}
 
+	/**
+	 * Determines if at least one registered listener handles the given type of event.
+	 * Allows subclasses to skip the creation of events nobody listens to
+	 * @param eventClass the type of event
+	 * @return <code>true</code> if a listener handles this type of event, <code>false</code> otherwise
+	 */
+	protected boolean hasListener(Class<? extends Event> eventClass){
+		for(Object obj : listenerList){
+			if(getHandlers(obj, eventClass).length > 0){
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Notify the given listener
 	 * @param obj the listener to notify
 	 */
 	private <T extends Event> void notifyListener(Object obj, T event) {
-		List<Method> methods = getListenerMethods(obj, event);
-
-		if(CollectionUtils.isNotEmpty(methods)){
-			for(Method method : methods){
-				try {
-					method.invoke(obj, event);
-				} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					LOG.error(e);
-				}
+		for(MethodHandle handler : getHandlers(obj, event.getClass())){
+			try {
+				handler.invokeExact(obj, (Object) event);
+			} catch (Throwable e) {
+				LOG.error(e);
 			}
 		}
-
 	}
+
 	/**
-	 * Return the methods capable of handling the event
-	 * @param obj the target object
-	 * @param event the event
-	 * @return a list of Method
+	 * Return the handlers of the given listener for the given type of event
+	 * @param obj the listener
+	 * @param eventClass the type of event
+	 * @return an array of MethodHandle, never <code>null</code>
 	 */
-	private <T extends Event> List<Method> getListenerMethods(Object obj, T event) {
-		Method[] methodsArray = obj.getClass().getMethods();
-		List<Method> selected = new ArrayList<Method>();
-
-		for(Method method : methodsArray){
-			if(canHandleEvent(method, event)){
-				selected.add(method);
-			}
+	private static MethodHandle[] getHandlers(Object obj, Class<?> eventClass){
+		MethodHandle[] handlers = HANDLER_TABLES.get(obj.getClass()).get(eventClass);
+		if(handlers == null){
+			return NO_HANDLER;
 		}
-		return selected;
+		return handlers;
 	}
 
 	/**
-	 * Check if the given method is registered as a listener for this event
-	 * @param method the method
-	 * @param event the event
-	 * @return a boolean value
+	 * Creates the handler table of the given listener class, using the public methods annotated with {@link EventListener}
+	 * @param type the listener class
+	 * @return a map of handlers by type of event
 	 */
-	private <T extends Event> boolean canHandleEvent(Method method, T event){
-		EventListener listenerAnnotation = method.getAnnotation(EventListener.class);
-		if(listenerAnnotation != null){
-			return event.getClass() == listenerAnnotation.value();
+	private static Map<Class<?>, MethodHandle[]> createHandlerTable(Class<?> type){
+		Map<Class<?>, List<MethodHandle>> handlersByEvent = new HashMap<Class<?>, List<MethodHandle>>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		for(Method method : type.getMethods()){
+			EventListener listenerAnnotation = method.getAnnotation(EventListener.class);
+			if(listenerAnnotation != null && method.getParameterTypes().length == 1){
+				try {
+					// Listener classes are not necessarily public
+					method.setAccessible(true);
+					MethodHandle handler = lookup.unreflect(method).asType(HANDLER_TYPE);
+					List<MethodHandle> handlers = handlersByEvent.get(listenerAnnotation.value());
+					if(handlers == null){
+						handlers = new ArrayList<MethodHandle>();
+						handlersByEvent.put(listenerAnnotation.value(), handlers);
+					}
+					handlers.add(handler);
+				} catch (IllegalAccessException | SecurityException e) {
+					LOG.error(e);
+				}
+			}
 		}
-		return false;
+
+		Map<Class<?>, MethodHandle[]> table = new HashMap<Class<?>, MethodHandle[]>();
+		for (Entry<Class<?>, List<MethodHandle>> entry : handlersByEvent.entrySet()) {
+			table.put(entry.getKey(), entry.getValue().toArray(new MethodHandle[entry.getValue().size()]));
+		}
+		return table;
 	}
 }
@@ -20,6 +20,8 @@ package org.goko.core.common.measure.quantity;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.goko.core.common.exception.GkException;
@@ -30,6 +32,8 @@ import org.goko.core.common.measure.units.Unit;
 
 
 public abstract class AbstractQuantity<Q extends Quantity<Q>> implements Quantity<Q> {
+	/** Cache of the factors used to convert double values, by source and target unit */
+	private static final Map<Unit<?>, Map<Unit<?>, Double>> DOUBLE_FACTORS = new ConcurrentHashMap<>();
 	private BigDecimal value;
 	private Unit<Q> unit;
 
@@ -101,7 +105,32 @@ public abstract class AbstractQuantity<Q extends Quantity<Q>> implements Quantit
 	 */
 	@Override
 	public double doubleValue(Unit<Q> unit) {
-		return value(unit).doubleValue();
+		if(unit == getUnit()){
+			return value.doubleValue();
+		}
+		// Avoid BigDecimal conversion chains, this is used by geometry hot loops
+		return value.doubleValue() * getDoubleFactor(getUnit(), unit);
+	}
+	
+	/**
+	 * Returns the factor to apply to a double value expressed in the source unit to convert it into the target unit.
+	 * Units converters are linear, so the factor is computed once using the BigDecimal converter and cached.
+	 * @param source the source unit
+	 * @param target the target unit
+	 * @return the conversion factor
+	 */
+	protected static <Q extends Quantity<Q>> double getDoubleFactor(Unit<Q> source, Unit<Q> target){
+		Map<Unit<?>, Double> sourceFactors = DOUBLE_FACTORS.get(source);
+		if(sourceFactors == null){
+			sourceFactors = new ConcurrentHashMap<>();
+			DOUBLE_FACTORS.put(source, sourceFactors);
+		}
+		Double factor = sourceFactors.get(target);
+		if(factor == null){
+			factor = source.getConverterTo(target).convert(BigDecimal.ONE).doubleValue();
+			sourceFactors.put(target, factor);
+		}
+		return factor;
 	}
 
 	/** (inheritDoc)
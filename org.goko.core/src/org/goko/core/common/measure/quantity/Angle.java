@@ -41,6 +41,10 @@ public class Angle extends AbstractQuantity<Angle>{
 		return new Angle(new BigDecimal(value), unit);
 	}
 	
+	public static Angle valueOf(double value, Unit<Angle> unit) {		
+		return new Angle(BigDecimal.valueOf(value), unit);
+	}
+	
 	public static Angle parse(String value) throws GkException {		
 		return Angle.ZERO.parse(value, AngleUnit.getAll());
 	}
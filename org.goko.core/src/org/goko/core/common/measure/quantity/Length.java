@@ -60,6 +60,10 @@ public class Length extends AbstractQuantity<Length> {
 		return new Length(new BigDecimal(value), unit);
 	}
 	
+	public static Length valueOf(double value, Unit<Length> unit) {		
+		return new Length(BigDecimal.valueOf(value), unit);
+	}
+	
 	public static Length parse(String value) throws GkException {		
 		return Length.ZERO.parse(value, LengthUnit.getAll());
 	}
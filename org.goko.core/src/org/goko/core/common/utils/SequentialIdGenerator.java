@@ -10,4 +10,15 @@ public class SequentialIdGenerator implements IIdGenerator{
 	public Integer getNextValue(){
 		return ++currentValue;
 	}
+
+	/**
+	 * Reserves a range of consecutive values
+	 * @param count the number of values
+	 * @return the first value of the range
+	 */
+	public Integer getNextValues(int count){
+		int first = currentValue + 1;
+		currentValue += count;
+		return first;
+	}
 }
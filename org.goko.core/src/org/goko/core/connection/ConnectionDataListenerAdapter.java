@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * 	This file is part of Goko.
+ *
+ *   Goko is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Goko is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package org.goko.core.connection;
+
+import java.lang.ref.WeakReference;
+
+import org.goko.core.common.GkUtils;
+import org.goko.core.common.exception.GkException;
+
+/**
+ * Adapter exposing an {@link IConnectionDataListener} as an {@link IConnectionByteListener}.
+ * The received and sent bytes are boxed into a list only for the wrapped listener.
+ * The adapter only keeps a weak reference to the wrapped listener, so connection services can keep the
+ * adapter as long as the listener itself is alive (see {@link java.util.WeakHashMap}).
+ *
+ * @author PsyKo
+ *
+ */
+public class ConnectionDataListenerAdapter implements IConnectionByteListener {
+	/** The wrapped listener */
+	private WeakReference<IConnectionDataListener> delegate;
+
+	/**
+	 * Constructor
+	 * @param delegate the wrapped listener
+	 */
+	public ConnectionDataListenerAdapter(IConnectionDataListener delegate) {
+		this.delegate = new WeakReference<IConnectionDataListener>(delegate);
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataReceived(byte[], int, int)
+	 */
+	@Override
+	public void onDataReceived(byte[] data, int offset, int length) throws GkException {
+		IConnectionDataListener listener = delegate.get();
+		if(listener != null){
+			listener.onDataReceived(GkUtils.toBytesList(data, offset, length));
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataSent(byte[], int, int)
+	 */
+	@Override
+	public void onDataSent(byte[] data, int offset, int length) throws GkException {
+		IConnectionDataListener listener = delegate.get();
+		if(listener != null){
+			listener.onDataSent(GkUtils.toBytesList(data, offset, length));
+		}
+	}
+
+	/**
+	 * @return the wrapped listener, or <code>null</code> if it was garbage collected
+	 */
+	public IConnectionDataListener getDelegate() {
+		return delegate.get();
+	}
+}
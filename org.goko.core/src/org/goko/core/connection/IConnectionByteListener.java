@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * 	This file is part of Goko.
+ *
+ *   Goko is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Goko is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package org.goko.core.connection;
+
+import org.goko.core.common.exception.GkException;
+
+/**
+ * Interface for connection data listeners working on primitive byte arrays.
+ * The given array is only valid for the duration of the call : it may be reused by the connection service,
+ * and must be copied by listeners that need to keep the data.
+ *
+ * @author PsyKo
+ *
+ */
+public interface IConnectionByteListener {
+
+	/**
+	 * Callback method
+	 * @param data the buffer holding the received data
+	 * @param offset the index of the first received byte in the buffer
+	 * @param length the number of received bytes
+	 * @throws GkException an exception
+	 */
+	void onDataReceived(byte[] data, int offset, int length) throws GkException;
+
+	/**
+	 * Callback method
+	 * @param data the buffer holding the sent data
+	 * @param offset the index of the first sent byte in the buffer
+	 * @param length the number of sent bytes
+	 * @throws GkException an exception
+	 */
+	void onDataSent(byte[] data, int offset, int length) throws GkException;
+}
@@ -24,8 +24,9 @@ import org.goko.core.common.exception.GkException;
  * Interface for connection data listeners
  * 
  * @author PsyKo
- *
+ * @deprecated use {@link IConnectionByteListener} which does not box the bytes
  */
+@Deprecated
 public interface IConnectionDataListener {
 	
 	/**
@@ -46,40 +46,93 @@ public interface IConnectionService extends IGokoService{
 	 * @param data the data to send
 	 * @param priority the priority level
 	 * @throws GkException an exception
+	 * @deprecated use {@link #send(byte[], DataPriority)}
 	 */
+	@Deprecated
 	void send(List<Byte> data, DataPriority priority) throws GkException;
 
 	/**
 	 * Sends the data using the Normal priority.
 	 * @param data the data to send
 	 * @throws GkException an exception
+	 * @deprecated use {@link #send(byte[])}
 	 */
+	@Deprecated
 	void send(List<Byte> data) throws GkException;
 
+	/**
+	 * Sends the data using the given priority.
+	 * The array is queued as is and must not be modified by the caller afterwards.
+	 * @param data the data to send
+	 * @param priority the priority level
+	 * @throws GkException an exception
+	 */
+	void send(byte[] data, DataPriority priority) throws GkException;
+
+	/**
+	 * Sends the data using the Normal priority.
+	 * The array is queued as is and must not be modified by the caller afterwards.
+	 * @param data the data to send
+	 * @throws GkException an exception
+	 */
+	void send(byte[] data) throws GkException;
+
 	/**
 	 * Register a listener for incoming data
 	 * @param listener the listener to register
 	 * @throws GkException an exception
+	 * @deprecated use {@link #addInputByteListener(IConnectionByteListener)}
 	 */
+	@Deprecated
 	void addInputDataListener(IConnectionDataListener listener) throws GkException;
 	/**
 	 * Remove a listener for incoming data
 	 * @param listener the listener to remove
 	 * @throws GkException an exception
+	 * @deprecated use {@link #removeInputByteListener(IConnectionByteListener)}
 	 */
+	@Deprecated
 	void removeInputDataListener(IConnectionDataListener listener) throws GkException;
 	/**
 	 * Register a listener for outgoing data
 	 * @param listener the listener to register
 	 * @throws GkException an exception
+	 * @deprecated use {@link #addOutputByteListener(IConnectionByteListener)}
 	 */
+	@Deprecated
 	void addOutputDataListener(IConnectionDataListener listener) throws GkException;
 	/**
 	 * Remove a listener for outgoing data
 	 * @param listener the listener to remove
 	 * @throws GkException an exception
+	 * @deprecated use {@link #removeOutputByteListener(IConnectionByteListener)}
 	 */
+	@Deprecated
 	void removeOutputDataListener(IConnectionDataListener listener) throws GkException;
+	/**
+	 * Register a primitive listener for incoming data
+	 * @param listener the listener to register
+	 * @throws GkException an exception
+	 */
+	void addInputByteListener(IConnectionByteListener listener) throws GkException;
+	/**
+	 * Remove a primitive listener for incoming data
+	 * @param listener the listener to remove
+	 * @throws GkException an exception
+	 */
+	void removeInputByteListener(IConnectionByteListener listener) throws GkException;
+	/**
+	 * Register a primitive listener for outgoing data
+	 * @param listener the listener to register
+	 * @throws GkException an exception
+	 */
+	void addOutputByteListener(IConnectionByteListener listener) throws GkException;
+	/**
+	 * Remove a primitive listener for outgoing data
+	 * @param listener the listener to remove
+	 * @throws GkException an exception
+	 */
+	void removeOutputByteListener(IConnectionByteListener listener) throws GkException;
 	/**
 	 * Register a listener for connection events
 	 * @param listener the listener to register
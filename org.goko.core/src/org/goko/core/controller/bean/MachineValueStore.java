@@ -153,8 +153,8 @@ public class MachineValueStore extends EventDispatcher{
 			MachineValue<T> typedValue = (MachineValue<T>) valueStore.get(id);
 			T oldValue = typedValue.getValue();
 			typedValue.setValue(value);
-			// Notify only if the value changed
-			if(!value.equals(oldValue)){
+			// Notify only if the value changed and someone listens
+			if(!value.equals(oldValue) && hasListener(MachineValueUpdateEvent.class)){
 				super.notifyListeners(new MachineValueUpdateEvent(typedValue.clone()));
 			}
 		}else{
@@ -17,11 +17,16 @@
 package org.goko.core.gcode.execution;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkTechnicalException;
 import org.goko.core.common.utils.AbstractIdBean;
@@ -30,17 +35,28 @@ import org.goko.core.gcode.element.IGCodeProvider;
 import org.goko.core.log.GkLog;
 
 /**
- * Implementation of a {@link IExecutionToken} for execution planner
+ * Implementation of a {@link IExecutionToken} for execution planner.
+ * The state of the lines is stored in an array indexed by the position of the line in the provider. Each state keeps
+ * a count of lines and the lowest index where a line in this state can be found, so transitions and lookups don't
+ * require any lock. Lines are streamed in order, so the first line found from this index is the oldest one.
  *
  * @author PsyKo
  *
  */
 public class ExecutionToken<T extends IExecutionTokenState> extends AbstractIdBean implements IExecutionToken<T> {
 	private static final GkLog LOG = GkLog.getLogger(ExecutionToken.class);
-	/** The map of state by line Id */
-	protected Map<Integer, T> mapExecutionStateById;
-	/** The map of lines id by state */
-	protected Map<T, List<Integer>> mapLineByExecutionState;
+	/** The state of each line, by index of the line in the provider */
+	private AtomicReferenceArray<T> lineStates;
+	/** The tracking data by state */
+	private ConcurrentMap<T, StateTracker> trackerByState;
+	/** Id of the first line when lines ids are consecutive, <code>null</code> otherwise */
+	private Integer firstLineId;
+	/** Lowest line id when lines ids are dense but not consecutive */
+	private int lowestLineId;
+	/** Index of the lines by offset from the lowest id when lines ids are dense but not consecutive, -1 for unused ids */
+	private int[] indexByIdOffset;
+	/** Index of the lines by id when lines ids are sparse */
+	private Map<Integer, Integer> indexById;
 	/** The current command index */
 	protected int currentIndex;	
 	/** Initial state of the lines */
@@ -70,22 +86,18 @@ public class ExecutionToken<T extends IExecutionTokenState> extends AbstractIdBe
 	 * @see org.goko.core.gcode.execution.IExecutionToken#setLineState(java.lang.Integer, org.goko.core.gcode.execution.IExecutionTokenState)
 	 */
 	@Override
-	public synchronized void setLineState(Integer idLine, T state) throws GkException {	
-		
-		if(!mapExecutionStateById.containsKey(idLine)){
+	public void setLineState(Integer idLine, T state) throws GkException {	
+		int index = getLineIndex(idLine);
+		if(index < 0){
 			throw new GkTechnicalException("GCodeLine ["+idLine+"] not found in execution token");
 		}
-		if(!mapLineByExecutionState.containsKey(state)){
-			mapLineByExecutionState.put(state, new ArrayList<Integer>());
-		}
-		// remove from previous state list
-		T oldState = findLineState(idLine);
+		StateTracker newTracker = getStateTracker(state);
+		T oldState = lineStates.getAndSet(index, state);
 		if(oldState != null){
-			mapLineByExecutionState.get(oldState).remove(idLine);
+			getStateTracker(oldState).count.decrementAndGet();
 		}
-		// Add to new state list
-		mapLineByExecutionState.get(state).add(idLine);
-		mapExecutionStateById.put(idLine, state);
+		newTracker.count.incrementAndGet();
+		newTracker.lowerFirstIndex(index);
 	}
 
 	/** (inheritDoc)
@@ -93,8 +105,9 @@ public class ExecutionToken<T extends IExecutionTokenState> extends AbstractIdBe
 	 */
 	@Override
 	public T getLineState(Integer idLine) throws GkException {
-		if(mapExecutionStateById.containsKey(idLine)){
-			return mapExecutionStateById.get(idLine);
+		T lineState = findLineState(idLine);
+		if(lineState != null){
+			return lineState;
 		}
 		throw new GkTechnicalException("GCodeLine ["+idLine+"] not found in execution token");
 	}
@@ -106,12 +119,60 @@ public class ExecutionToken<T extends IExecutionTokenState> extends AbstractIdBe
 	 * @throws GkException GkException
 	 */
 	public T findLineState(Integer idLine) throws GkException {
-		if(mapExecutionStateById.containsKey(idLine)){
-			return mapExecutionStateById.get(idLine);
+		int index = getLineIndex(idLine);
+		if(index >= 0){
+			return lineStates.get(index);
 		}
 		return null;
 	}
 
+	/**
+	 * Returns the index of the line with the given id
+	 * @param idLine the id of the line
+	 * @return the index of the line, or -1 if the line is not part of this token
+	 */
+	protected int getLineIndex(Integer idLine){
+		if(idLine == null){
+			return -1;
+		}
+		if(firstLineId != null){
+			int index = idLine - firstLineId;
+			if(index >= 0 && index < lineStates.length()){
+				return index;
+			}
+			return -1;
+		}
+		if(indexByIdOffset != null){
+			int offset = idLine - lowestLineId;
+			if(offset >= 0 && offset < indexByIdOffset.length){
+				return indexByIdOffset[offset];
+			}
+			return -1;
+		}
+		Integer index = indexById.get(idLine);
+		if(index != null){
+			return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the tracking data for the given state, creating it if required
+	 * @param state the state
+	 * @return the StateTracker
+	 */
+	private StateTracker getStateTracker(T state){
+		StateTracker tracker = trackerByState.get(state);
+		if(tracker == null){
+			tracker = new StateTracker(lineStates.length());
+			StateTracker existingTracker = trackerByState.putIfAbsent(state, tracker);
+			if(existingTracker != null){
+				tracker = existingTracker;
+			}
+		}
+		return tracker;
+	}
+
 	/** (inheritDoc)
 	 * @see org.goko.core.gcode.execution.IExecutionToken.execution.IGCodeExecutionToken#getNextCommand()
 	 */
@@ -150,27 +211,54 @@ public class ExecutionToken<T extends IExecutionTokenState> extends AbstractIdBe
 	 * @see org.goko.core.gcode.execution.IExecutionToken#getLineByState(org.goko.core.gcode.execution.IExecutionTokenState)
 	 */
 	@Override
-	public synchronized List<GCodeLine> getLineByState(T state) throws GkException {
+	public List<GCodeLine> getLineByState(T state) throws GkException {
 		List<GCodeLine> result = new ArrayList<GCodeLine>();
-		List<Integer> lstId = mapLineByExecutionState.get(state);
-		if(CollectionUtils.isNotEmpty(lstId)){
-			for (Integer idLine : lstId) {
-				result.add(getGCodeProvider().getLine(idLine));
+		StateTracker tracker = trackerByState.get(state);
+		if(tracker != null){
+			int expectedCount = tracker.count.get();
+			int index = tracker.getFirstIndex();
+			while(result.size() < expectedCount && index < lineStates.length()){
+				if(state.equals(lineStates.get(index))){
+					result.add(getGCodeProvider().getLineAtIndex(index));
+				}
+				index++;
 			}
 		}
 		return result;
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.execution.IExecutionToken#getFirstLineByState(org.goko.core.gcode.execution.IExecutionTokenState)
+	 */
+	@Override
+	public GCodeLine getFirstLineByState(T state) throws GkException {
+		StateTracker tracker = trackerByState.get(state);
+		if(tracker == null || tracker.count.get() <= 0){
+			return null;
+		}
+		long stampedIndex = tracker.firstIndex.get();
+		int index = StateTracker.getIndex(stampedIndex);
+		while(index < lineStates.length() && !state.equals(lineStates.get(index))){
+			index++;
+		}
+		// Skipped lines left the state, unless a line entered the state during the scan
+		tracker.advanceFirstIndex(stampedIndex, index);
+		if(index < lineStates.length()){
+			return getGCodeProvider().getLineAtIndex(index);
+		}
+		return null;
+	}
+
 	/** (inheritDoc)
 	 * @see org.goko.core.gcode.execution.IExecutionToken#getLineCountByState(org.goko.core.gcode.execution.IExecutionTokenState)
 	 */
 	@Override
 	public int getLineCountByState(T state) throws GkException {
-		int result = 0;
-		if(mapLineByExecutionState.containsKey(state)){
-			result = CollectionUtils.size(mapLineByExecutionState.get(state));
+		StateTracker tracker = trackerByState.get(state);
+		if(tracker != null){
+			return tracker.count.get();
 		}
-		return result;
+		return 0;
 	}
 	/**
 	 * Return the wrapped IGCodeProvider
@@ -186,20 +274,58 @@ public class ExecutionToken<T extends IExecutionTokenState> extends AbstractIdBe
 	 */
 	@Override
 	public void reset() throws GkException {
-		this.mapExecutionStateById 	= new HashMap<Integer, T>();
-		this.mapLineByExecutionState = new HashMap<T, List<Integer>>();
-		this.mapLineByExecutionState.put(initialState, new ArrayList<Integer>());
 		this.currentIndex = -1;
 		this.setState(ExecutionState.IDLE);
 				
 		IGCodeProvider provider = getGCodeProvider();
-		this.lineCount = CollectionUtils.size(provider.getLines());
-		if(CollectionUtils.isNotEmpty(provider.getLines())){
-			for (GCodeLine gCodeLine : provider.getLines()) {
-				this.mapLineByExecutionState.get(initialState).add(gCodeLine.getId());
-				this.mapExecutionStateById.put(gCodeLine.getId(), initialState);				
+		List<GCodeLine> lines = provider.getLines();
+		this.lineCount = lines == null ? 0 : lines.size();
+		this.lineStates = new AtomicReferenceArray<T>(lineCount);
+		this.trackerByState = new ConcurrentHashMap<T, StateTracker>();
+		this.firstLineId = null;
+		this.indexByIdOffset = null;
+		this.indexById = null;
+		
+		boolean consecutiveIds = lineCount > 0 && lines.get(0).getId() != null;
+		int lowestId = Integer.MAX_VALUE;
+		int highestId = Integer.MIN_VALUE;
+		for (int i = 0; i < lineCount; i++) {
+			this.lineStates.set(i, initialState);
+			Integer idLine = lines.get(i).getId();
+			if(idLine == null){
+				consecutiveIds = false;
+				continue;
+			}
+			consecutiveIds = consecutiveIds && idLine == lines.get(0).getId() + i;
+			lowestId = Math.min(lowestId, idLine);
+			highestId = Math.max(highestId, idLine);
+		}
+		if(consecutiveIds){
+			// Index is computed from the id
+			this.firstLineId = lowestId;
+		}else if(lowestId <= highestId && (long) highestId - lowestId < 2L * lineCount){
+			// Dense ids : index is stored by offset from the lowest id
+			this.lowestLineId = lowestId;
+			this.indexByIdOffset = new int[highestId - lowestId + 1];
+			Arrays.fill(indexByIdOffset, -1);
+			for (int i = 0; i < lineCount; i++) {
+				Integer idLine = lines.get(i).getId();
+				if(idLine != null){
+					indexByIdOffset[idLine - lowestId] = i;
+				}
+			}
+		}else{
+			this.indexById = new HashMap<Integer, Integer>();
+			for (int i = 0; i < lineCount; i++) {
+				Integer idLine = lines.get(i).getId();
+				if(idLine != null){
+					indexById.put(idLine, i);
+				}
 			}
 		}
+		StateTracker initialTracker = getStateTracker(initialState);
+		initialTracker.count.set(lineCount);
+		initialTracker.resetFirstIndex(0);
 	}
 
 	/**
@@ -233,4 +359,71 @@ public class ExecutionToken<T extends IExecutionTokenState> extends AbstractIdBe
 	public void setExecutionOrder(int executionOrder) {
 		this.executionOrder = executionOrder;
 	}
+
+	/**
+	 * Tracking data of the lines in a given state
+	 */
+	private static class StateTracker{
+		/** The number of lines in the state */
+		private final AtomicInteger count;
+		/** Index from which lines in the state should be searched, in the low 32 bits. Lines before this index are not in the state.
+		 * The high 32 bits count the lines entering the state, so that a search can't move the index past a line entering the state meanwhile */
+		private final AtomicLong firstIndex;
+
+		/**
+		 * Constructor
+		 * @param lineCount the number of lines in the token
+		 */
+		StateTracker(int lineCount) {
+			this.count = new AtomicInteger();
+			this.firstIndex = new AtomicLong(lineCount);
+		}
+
+		/**
+		 * @return the index from which lines in the state should be searched
+		 */
+		int getFirstIndex(){
+			return getIndex(firstIndex.get());
+		}
+
+		/**
+		 * Extracts the index from the stamped value of the first index
+		 * @param stampedIndex the stamped value
+		 * @return the index
+		 */
+		static int getIndex(long stampedIndex){
+			return (int) stampedIndex;
+		}
+
+		/**
+		 * Sets the first index, when no other thread uses the tracker
+		 * @param index the index
+		 */
+		void resetFirstIndex(int index){
+			firstIndex.set(index & 0xFFFFFFFFL);
+		}
+
+		/**
+		 * Moves the first index back to the given index if required. Always counts the line entering the state
+		 * @param index the index of a line entering the state
+		 */
+		void lowerFirstIndex(int index){
+			long current;
+			long updated;
+			do{
+				current = firstIndex.get();
+				long stamp = (current >>> 32) + 1;
+				updated = (stamp << 32) | (Math.min(index, getIndex(current)) & 0xFFFFFFFFL);
+			}while(!firstIndex.compareAndSet(current, updated));
+		}
+
+		/**
+		 * Moves the first index forward to the given index, unless a line entered the state since the given stamped value was read
+		 * @param expected the stamped value the search started from
+		 * @param index the index of the first line found in the state
+		 */
+		void advanceFirstIndex(long expected, int index){
+			firstIndex.compareAndSet(expected, (expected & 0xFFFFFFFF00000000L) | (index & 0xFFFFFFFFL));
+		}
+	}
 }
@@ -77,6 +77,14 @@ public interface IExecutionToken<T extends IExecutionTokenState> extends IIdBean
 	 */
 	List<GCodeLine> getLineByState(T state) throws GkException;
 	
+	/**
+	 * Returns the first line in the given state, without building the whole list of lines in this state
+	 * @param state the target state
+	 * @return the first GCodeLine in the given state, or <code>null</code> if no line is in this state
+	 * @throws GkException GkException
+	 */
+	GCodeLine getFirstLineByState(T state) throws GkException;
+	
 	/**
 	 * Returns the count of line in the given state 
 	 * @param state the target state 
@@ -0,0 +1,41 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.service;
+
+import org.goko.core.common.exception.GkException;
+import org.goko.core.gcode.execution.IExecutionToken;
+import org.goko.core.gcode.execution.IExecutionTokenState;
+
+/**
+ * Optional interface of the execution listeners receiving the line state changes as coalesced ranges instead of one call per line
+ *
+ * @author PsyKo
+ */
+public interface IGCodeLineRangeExecutionListener<S extends IExecutionTokenState, T extends IExecutionToken<S>> {
+
+	/**
+	 * Notifies a change of state of a range of consecutive lines
+	 * @param token the execution token
+	 * @param state the current state of all the lines of the range
+	 * @param firstIdLine the id of the first line of the range
+	 * @param lastIdLine the id of the last line of the range (inclusive)
+	 * @throws GkException GkException
+	 */
+	void onLineStateRangeChanged(T token, S state, int firstIdLine, int lastIdLine) throws GkException;
+
+}
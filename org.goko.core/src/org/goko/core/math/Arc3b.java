@@ -15,6 +15,8 @@ public class Arc3b {
 	public static final Vector3d X_AXIS = new  Vector3d(1,0,0);
 	public static final Vector3d Y_AXIS = new  Vector3d(0,1,0);
 	public static final Vector3d Z_AXIS = new  Vector3d(0,0,1);
+	/** Angle in radians under which the start and end points are considered identical, making a full circle */
+	private static final double FULL_CIRCLE_TOLERANCE = 1e-9;
 	private Tuple6b start;
 	private Tuple6b center;
 	private Tuple6b end;
@@ -76,22 +78,22 @@ public class Arc3b {
 		Vector3d v1 = new Vector3d(lStart.x - lCenter.x, lStart.y - lCenter.y, lStart.z - lCenter.z);
 		Vector3d v2 = new Vector3d(lEnd.x - lCenter.x, lEnd.y - lCenter.y, lEnd.z - lCenter.z);
 		
-		double smallestAngle = StrictMath.atan2(v1.y,v1.x) - StrictMath.atan2(v2.y,v2.x);
-		double angle = smallestAngle ;
-		// If smallestAngle < 0 then it is a counterclockwise angle.
-		if(smallestAngle < 0){
-			if(clockwise){ // The angle is CCW but the command is CCW
-				angle = - ( 2*Math.PI - Math.abs(smallestAngle) );  // In OpenGl when rotating, CW rotation = negative angle
-			}else{
-				angle = Math.abs(smallestAngle); // In OpenGl when rotating, CCW rotation = positive angle
+		// Counterclockwise angle from the start to the end, in [0, 2PI[
+		double ccwAngle = StrictMath.atan2(v2.y,v2.x) - StrictMath.atan2(v1.y,v1.x);
+		if(ccwAngle < 0){
+			ccwAngle += 2*Math.PI;
+		}
+		// Identical start and end points describe a full circle
+		if(ccwAngle < FULL_CIRCLE_TOLERANCE || ccwAngle > 2*Math.PI - FULL_CIRCLE_TOLERANCE){
+			ccwAngle = 2*Math.PI;
+		}
+		double angle = ccwAngle; // In OpenGl when rotating, CCW rotation = positive angle
+		if(clockwise){
+			angle = - ( 2*Math.PI - ccwAngle );  // In OpenGl when rotating, CW rotation = negative angle
+			if(angle == 0){
+				angle = - 2*Math.PI;
 			}
-		}else{			
-			if(clockwise){ // The angle is CW and we have a CW command
-				angle = - Math.abs(smallestAngle); // In OpenGl when rotating, CW rotation = negative angle
-			}else{ // The angle is CW but we want the CCW command
-				angle =  smallestAngle;//2*Math.PI - smallestAngle;
-			}
-		}	
+		}
 		this.angle = Angle.valueOf(BigDecimal.valueOf(angle), AngleUnit.RADIAN);
 	}
 	
@@ -146,9 +148,65 @@ public class Arc3b {
 		return new Tuple6b(res.x, res.y, res.z, unit);
 	}
 	
+	/**
+	 * Returns the exact bounds of the arc : the start and end points, and the extrema of the circle crossed by the arc
+	 * @return the bounds of the arc, without rotary axis
+	 */
 	public BoundingTuple6b getBound(){
-		
-		return null;		
+		Point3d min = new Point3d(Math.min(pStart.x, pEnd.x), Math.min(pStart.y, pEnd.y), Math.min(pStart.z, pEnd.z));
+		Point3d max = new Point3d(Math.max(pStart.x, pEnd.x), Math.max(pStart.y, pEnd.y), Math.max(pStart.z, pEnd.z));
+		// Radial and tangent directions at the start point, in the plane of the arc
+		Vector3d normal = new Vector3d(axis);
+		normal.normalize();
+		Vector3d radial = new Vector3d();
+		radial.sub(pStart, pCenter);
+		radial.scaleAdd(-normal.dot(radial), normal, radial);
+		double r = radial.length();
+		if(r > 0){
+			radial.scale(1 / r);
+			Vector3d tangent = new Vector3d();
+			tangent.cross(normal, radial);
+			double sweep = angle.doubleValue(AngleUnit.RADIAN);
+			double[] center = new double[3];
+			double[] radialComponents = new double[3];
+			double[] tangentComponents = new double[3];
+			double[] minComponents = new double[3];
+			double[] maxComponents = new double[3];
+			pCenter.get(center);
+			radial.get(radialComponents);
+			tangent.get(tangentComponents);
+			min.get(minComponents);
+			max.get(maxComponents);
+			for (int i = 0; i < 3; i++) {
+				// Along this axis, the circle is center + r * amplitude * cos(t - extremum)
+				double amplitude = Math.hypot(radialComponents[i], tangentComponents[i]);
+				if(amplitude > 0){
+					double extremum = Math.atan2(tangentComponents[i], radialComponents[i]);
+					if(isInSweep(extremum, sweep)){
+						maxComponents[i] = Math.max(maxComponents[i], center[i] + r * amplitude);
+					}
+					if(isInSweep(extremum + Math.PI, sweep)){
+						minComponents[i] = Math.min(minComponents[i], center[i] - r * amplitude);
+					}
+				}
+			}
+			min.set(minComponents);
+			max.set(maxComponents);
+		}
+		return new BoundingTuple6b(new Tuple6b(min.x, min.y, min.z, unit), new Tuple6b(max.x, max.y, max.z, unit));
+	}
+
+	/**
+	 * Determines if the given angle, measured from the start point, is crossed by the arc
+	 * @param value the angle in radians
+	 * @param sweep the signed angle of the arc in radians
+	 * @return <code>true</code> if the angle is between 0 and the sweep angle, modulo 2PI
+	 */
+	private static boolean isInSweep(double value, double sweep){
+		double turn = 2 * Math.PI;
+		double delta = sweep >= 0 ? value : -value;
+		delta = delta - turn * Math.floor(delta / turn);
+		return delta <= Math.abs(sweep);
 	}
 	
 	/**
@@ -0,0 +1,232 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.math;
+
+import javax.vecmath.Tuple3d;
+
+import org.goko.core.common.measure.quantity.Angle;
+import org.goko.core.common.measure.quantity.AngleUnit;
+import org.goko.core.common.measure.quantity.Length;
+import org.goko.core.common.measure.quantity.LengthUnit;
+import org.goko.core.common.measure.units.Unit;
+
+/**
+ * Mutable primitive companion of {@link Tuple6b}, used in loops where allocating quantities is too expensive.
+ * Lengths are stored in {@link #LENGTH_UNIT} and angles in {@link #ANGLE_UNIT}. A missing component
+ * (<code>null</code> in the Tuple6b) is stored as {@link Double#NaN} and ignored by min, max and add.
+ *
+ * @author PsyKo
+ */
+public class Tuple6d extends Tuple3d {
+	/** Unit of the x, y and z components */
+	public static final Unit<Length> LENGTH_UNIT = LengthUnit.MILLIMETRE;
+	/** Unit of the a, b and c components */
+	public static final Unit<Angle> ANGLE_UNIT = AngleUnit.DEGREE_ANGLE;
+	public double a;
+	public double b;
+	public double c;
+
+	public Tuple6d() {
+		super();
+		this.a = 0;
+		this.b = 0;
+		this.c = 0;
+	}
+
+	public Tuple6d(double x, double y, double z, double a, double b, double c) {
+		super(x,y,z);
+		this.a = a;
+		this.b = b;
+		this.c = c;
+	}
+
+	public Tuple6d(Tuple6d t) {
+		super(t);
+		this.a = t.a;
+		this.b = t.b;
+		this.c = t.c;
+	}
+
+	public Tuple6d(Tuple6b t) {
+		super();
+		set(t);
+	}
+
+	/**
+	 * Sets the value of this tuple to the value of the given tuple
+	 * @param t the tuple
+	 */
+	public void set(Tuple6d t){
+		super.set(t);
+		this.a = t.a;
+		this.b = t.b;
+		this.c = t.c;
+	}
+
+	/**
+	 * Sets the value of this tuple to the value of the given Tuple6b, converted in the units of this tuple
+	 * @param t the tuple
+	 */
+	public void set(Tuple6b t){
+		this.x = toDouble(t.getX());
+		this.y = toDouble(t.getY());
+		this.z = toDouble(t.getZ());
+		this.a = toDouble(t.getA());
+		this.b = toDouble(t.getB());
+		this.c = toDouble(t.getC());
+	}
+
+	/**
+	 * Creates a Tuple6b from this tuple
+	 * @return a new Tuple6b
+	 */
+	public Tuple6b toTuple6b(){
+		return new Tuple6b(toLength(x), toLength(y), toLength(z), toAngle(a), toAngle(b), toAngle(c));
+	}
+
+	public void add(Tuple6d t){
+		this.x = add(x, t.x);
+		this.y = add(y, t.y);
+		this.z = add(z, t.z);
+		this.a = add(a, t.a);
+		this.b = add(b, t.b);
+		this.c = add(c, t.c);
+	}
+
+	public void sub(Tuple6d t){
+		this.x = subtract(x, t.x);
+		this.y = subtract(y, t.y);
+		this.z = subtract(z, t.z);
+		this.a = subtract(a, t.a);
+		this.b = subtract(b, t.b);
+		this.c = subtract(c, t.c);
+	}
+
+	/**
+	 * Sets each component of this tuple to the minimum of itself and the matching component of the given tuple
+	 * @param t the tuple
+	 */
+	public void min(Tuple6d t){
+		this.x = min(x, t.x);
+		this.y = min(y, t.y);
+		this.z = min(z, t.z);
+		this.a = min(a, t.a);
+		this.b = min(b, t.b);
+		this.c = min(c, t.c);
+	}
+
+	/**
+	 * Sets each component of this tuple to the maximum of itself and the matching component of the given tuple
+	 * @param t the tuple
+	 */
+	public void max(Tuple6d t){
+		this.x = max(x, t.x);
+		this.y = max(y, t.y);
+		this.z = max(z, t.z);
+		this.a = max(a, t.a);
+		this.b = max(b, t.b);
+		this.c = max(c, t.c);
+	}
+
+	/**
+	 * Scales all the components of this tuple, {@link #scale(double)} only scales the linear components
+	 * @param s the scale factor
+	 */
+	public void scaleAll(double s){
+		super.scale(s);
+		this.a *= s;
+		this.b *= s;
+		this.c *= s;
+	}
+
+	/**
+	 * Returns the distance between the linear components of this tuple and the given one
+	 * @param t the tuple
+	 * @return the distance in {@link #LENGTH_UNIT}
+	 */
+	public double distance(Tuple6d t){
+		double dx = x - t.x;
+		double dy = y - t.y;
+		double dz = z - t.z;
+		return Math.sqrt(dx*dx + dy*dy + dz*dz);
+	}
+
+	private static double toDouble(Length length){
+		if(length == null){
+			return Double.NaN;
+		}
+		return length.doubleValue(LENGTH_UNIT);
+	}
+
+	private static double toDouble(Angle angle){
+		if(angle == null){
+			return Double.NaN;
+		}
+		return angle.doubleValue(ANGLE_UNIT);
+	}
+
+	private static Length toLength(double value){
+		if(Double.isNaN(value)){
+			return null;
+		}
+		return Length.valueOf(value, LENGTH_UNIT);
+	}
+
+	private static Angle toAngle(double value){
+		if(Double.isNaN(value)){
+			return null;
+		}
+		return Angle.valueOf(value, ANGLE_UNIT);
+	}
+
+	private static double add(double u, double v){
+		if(Double.isNaN(u)){
+			return v;
+		}else if(Double.isNaN(v)){
+			return u;
+		}
+		return u + v;
+	}
+
+	private static double subtract(double u, double v){
+		if(Double.isNaN(u)){
+			return v;
+		}else if(Double.isNaN(v)){
+			return u;
+		}
+		return u - v;
+	}
+
+	private static double min(double u, double v){
+		if(Double.isNaN(u)){
+			return v;
+		}else if(Double.isNaN(v)){
+			return u;
+		}
+		return Math.min(u, v);
+	}
+
+	private static double max(double u, double v){
+		if(Double.isNaN(u)){
+			return v;
+		}else if(Double.isNaN(v)){
+			return u;
+		}
+		return Math.max(u, v);
+	}
+}
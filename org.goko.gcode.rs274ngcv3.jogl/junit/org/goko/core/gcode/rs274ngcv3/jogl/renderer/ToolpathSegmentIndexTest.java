@@ -0,0 +1,358 @@
+/**
+ * 
+ */
+package org.goko.core.gcode.rs274ngcv3.jogl.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.FloatBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the picking of the ToolpathSegmentIndex with a brute force search over all the segments
+ */
+public class ToolpathSegmentIndexTest {
+	/** Number of vertices of the toolpath */
+	private static final int VERTICES_COUNT = 5000;
+	/** Number of vertices generated by each line */
+	private static final int VERTICES_PER_LINE = 7;
+	/** Number of tested positions per view */
+	private static final int PICK_COUNT = 400;
+	/** Pick tolerance in pixels */
+	private static final float TOLERANCE = 3;
+	/** Viewport */
+	private static final int[] VIEWPORT = new int[]{0, 0, 800, 600};
+	/** Vertices of the toolpath, as (x, y, z, w) */
+	private FloatBuffer vertices;
+	/** Vertices by line */
+	private Map<Integer, VerticesGroupByLine> groups;
+	/** Random generator with a fixed seed to replay failures */
+	private Random random;
+
+	@Before
+	public void setUp(){
+		random 	 = new Random(42);
+		vertices = FloatBuffer.allocate(VERTICES_COUNT * 4);
+		groups 	 = new HashMap<Integer, VerticesGroupByLine>();
+		float x = 50, y = 50, z = 0;
+		for (int i = 0; i < VERTICES_COUNT; i++) {
+			if(i % VERTICES_PER_LINE == 0){
+				VerticesGroupByLine group = new VerticesGroupByLine(i);
+				group.setLength(Math.min(VERTICES_PER_LINE, VERTICES_COUNT - i));
+				groups.put(i / VERTICES_PER_LINE + 1, group);
+			}
+			// Joints between two lines repeat the previous vertex
+			if(i % VERTICES_PER_LINE != 0){
+				x = clamp(x + random.nextFloat() * 10 - 5, 0, 100);
+				y = clamp(y + random.nextFloat() * 10 - 5, 0, 100);
+				z = clamp(z + random.nextFloat() * 2 - 1, -10, 0);
+			}
+			vertices.put(x).put(y).put(z).put(1);
+		}
+		vertices.rewind();
+	}
+
+	@Test
+	public void testPerspective(){
+		Camera camera = Camera.perspective(new float[]{50, -80, 90}, new float[]{50, 50, -5}, 45);
+		comparePicks(new ToolpathSegmentIndex(vertices, VERTICES_COUNT, groups, null), camera, null);
+	}
+
+	@Test
+	public void testOrthographic(){
+		Camera camera = Camera.orthographic(new float[]{50, 20, 100}, new float[]{50, 50, 0}, 70);
+		comparePicks(new ToolpathSegmentIndex(vertices, VERTICES_COUNT, groups, null), camera, null);
+	}
+
+	@Test
+	public void testInstances(){
+		float[] offsets = new float[]{0, 0, 0, 120, 0, 0, 0, 120, 0};
+		Camera camera = Camera.perspective(new float[]{110, -150, 250}, new float[]{110, 110, -5}, 45);
+		comparePicks(new ToolpathSegmentIndex(vertices, VERTICES_COUNT, groups, offsets), camera, offsets);
+	}
+
+	@Test
+	public void testEmptyToolpath(){
+		ToolpathSegmentIndex index = new ToolpathSegmentIndex(FloatBuffer.allocate(0), 0, new HashMap<Integer, VerticesGroupByLine>(), null);
+		Camera camera = Camera.perspective(new float[]{50, -80, 90}, new float[]{50, 50, -5}, 45);
+		assertNull(index.pick(camera.matrix, VIEWPORT, 400, 300, TOLERANCE));
+	}
+
+	@Test(expected=CancellationException.class)
+	public void testCanceledConstruction(){
+		new ToolpathSegmentIndex(vertices, VERTICES_COUNT, groups, null, new ICancellationCheck() {
+			@Override
+			public boolean isCanceled() {
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Picks positions spread over the viewport and positions on the projected vertices, and checks the index finds the same segment as the brute force search
+	 * @param index the tested index
+	 * @param camera the camera
+	 * @param offsets the offsets of the instances, or <code>null</code>
+	 */
+	private void comparePicks(ToolpathSegmentIndex index, Camera camera, float[] offsets){
+		int hits = 0;
+		for (int i = 0; i < PICK_COUNT; i++) {
+			float windowX, windowY;
+			if(i % 2 == 0){
+				windowX = random.nextFloat() * VIEWPORT[2];
+				windowY = random.nextFloat() * VIEWPORT[3];
+			}else{
+				// Close to a vertex, so a good share of the positions hit the toolpath
+				int vertex = random.nextInt(VERTICES_COUNT);
+				int instance = offsets == null ? 0 : random.nextInt(offsets.length / 3);
+				float[] window = camera.project(vertices.get(vertex * 4) + offset(offsets, instance, 0), vertices.get(vertex * 4 + 1) + offset(offsets, instance, 1), vertices.get(vertex * 4 + 2) + offset(offsets, instance, 2));
+				windowX = window[0] + random.nextFloat() * 4 - 2;
+				windowY = window[1] + random.nextFloat() * 4 - 2;
+			}
+			ToolpathPick expected = bruteForcePick(camera, offsets, windowX, windowY);
+			ToolpathPick actual = index.pick(camera.matrix, VIEWPORT, windowX, windowY, TOLERANCE);
+			String message = "Pick at ("+windowX+", "+windowY+")";
+			if(expected == null){
+				assertNull(message, actual);
+			}else{
+				hits++;
+				assertNotNull(message, actual);
+				if(actual.getSegment() != expected.getSegment() || actual.getInstance() != expected.getInstance()){
+					// Segments sharing the picked vertex are equally close
+					double[] ray = camera.ray(windowX, windowY);
+					assertEquals(message, rayDistance(camera, ray, offsets, expected.getInstance(), expected.getSegment(), windowX, windowY), rayDistance(camera, ray, offsets, actual.getInstance(), actual.getSegment(), windowX, windowY), 1e-3);
+				}else{
+					assertEquals(message, expected.getIdGCodeLine(), actual.getIdGCodeLine());
+				}
+			}
+		}
+		// Make sure the comparison is not only made of misses
+		assertEquals(true, hits > PICK_COUNT / 4);
+	}
+
+	/**
+	 * Tests every segment of every instance and keeps the one closest to the camera
+	 * @param camera the camera
+	 * @param offsets the offsets of the instances, or <code>null</code>
+	 * @param windowX x coordinate of the position in the window
+	 * @param windowY y coordinate of the position in the window
+	 * @return the closest segment under the position, or <code>null</code>
+	 */
+	private ToolpathPick bruteForcePick(Camera camera, float[] offsets, float windowX, float windowY){
+		ToolpathPick best = null;
+		double bestDistance = Double.MAX_VALUE;
+		double[] ray = camera.ray(windowX, windowY);
+		int instanceCount = offsets == null ? 1 : offsets.length / 3;
+		for (int instance = 0; instance < instanceCount; instance++) {
+			for (int segment = 0; segment < VERTICES_COUNT - 1; segment++) {
+				double distance = rayDistance(camera, ray, offsets, instance, segment, windowX, windowY);
+				if(distance < bestDistance){
+					bestDistance = distance;
+					best = new ToolpathPick(segment, lineOf(segment), instance, 0, 0, 0, 0);
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the distance from the camera to the point of the segment closest to the ray going through the window position
+	 * @param camera the camera
+	 * @param ray the ray through the position
+	 * @param offsets the offsets of the instances, or <code>null</code>
+	 * @param instance the instance
+	 * @param segment the segment
+	 * @param windowX x coordinate of the position in the window
+	 * @param windowY y coordinate of the position in the window
+	 * @return the distance, or Double.MAX_VALUE if the segment is not drawn within the tolerance of the position
+	 */
+	private double rayDistance(Camera camera, double[] ray, float[] offsets, int instance, int segment, float windowX, float windowY){
+		double ax = vertices.get(segment * 4) + offset(offsets, instance, 0);
+		double ay = vertices.get(segment * 4 + 1) + offset(offsets, instance, 1);
+		double az = vertices.get(segment * 4 + 2) + offset(offsets, instance, 2);
+		double ex = vertices.get(segment * 4 + 4) - vertices.get(segment * 4);
+		double ey = vertices.get(segment * 4 + 5) - vertices.get(segment * 4 + 1);
+		double ez = vertices.get(segment * 4 + 6) - vertices.get(segment * 4 + 2);
+		double length = ex * ex + ey * ey + ez * ez;
+		if(length == 0){
+			// Joints draw nothing
+			return Double.MAX_VALUE;
+		}
+		// The projected segment must pass near the position
+		float[] windowA = camera.project(ax, ay, az);
+		float[] windowB = camera.project(ax + ex, ay + ey, az + ez);
+		if(distanceToSegment(windowX, windowY, windowA, windowB) > TOLERANCE + 1){
+			return Double.MAX_VALUE;
+		}
+		// The distance to the ray is convex along the segment : ternary search of its minimum
+		double low = 0, high = 1;
+		for (int i = 0; i < 50; i++) {
+			double s1 = low + (high - low) / 3;
+			double s2 = high - (high - low) / 3;
+			if(distanceToRay(ray, ax + s1 * ex, ay + s1 * ey, az + s1 * ez) <= distanceToRay(ray, ax + s2 * ex, ay + s2 * ey, az + s2 * ez)){
+				high = s2;
+			}else{
+				low = s1;
+			}
+		}
+		double s = (low + high) / 2;
+		double px = ax + s * ex, py = ay + s * ey, pz = az + s * ez;
+		float[] window = camera.project(px, py, pz);
+		double dx = window[0] - windowX, dy = window[1] - windowY;
+		if(Math.sqrt(dx * dx + dy * dy) > TOLERANCE){
+			return Double.MAX_VALUE;
+		}
+		return (px - ray[0]) * ray[3] + (py - ray[1]) * ray[4] + (pz - ray[2]) * ray[5];
+	}
+
+	private static double distanceToRay(double[] ray, double x, double y, double z){
+		double wx = x - ray[0], wy = y - ray[1], wz = z - ray[2];
+		double t = wx * ray[3] + wy * ray[4] + wz * ray[5];
+		double dx = wx - t * ray[3], dy = wy - t * ray[4], dz = wz - t * ray[5];
+		return Math.sqrt(dx * dx + dy * dy + dz * dz);
+	}
+
+	private static double distanceToSegment(float x, float y, float[] a, float[] b){
+		double ex = b[0] - a[0], ey = b[1] - a[1];
+		double length = ex * ex + ey * ey;
+		double s = length == 0 ? 0 : Math.max(0, Math.min(1, ((x - a[0]) * ex + (y - a[1]) * ey) / length));
+		double dx = a[0] + s * ex - x, dy = a[1] + s * ey - y;
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	private Integer lineOf(int segment){
+		return segment / VERTICES_PER_LINE + 1;
+	}
+
+	private static float offset(float[] offsets, int instance, int axis){
+		return offsets == null ? 0 : offsets[3 * instance + axis];
+	}
+
+	private static float clamp(float value, float min, float max){
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * Simple camera building the projection * model view matrix and the rays, independently of the tested index
+	 */
+	static class Camera {
+		float[] eye;
+		/** Right, up and forward axis */
+		double[] right, up, forward;
+		/** Half extent of the near plane at distance 1 for perspective, half extent of the view for orthographic */
+		double halfWidth, halfHeight;
+		boolean perspective;
+		float[] matrix;
+
+		static Camera perspective(float[] eye, float[] target, double fovy){
+			Camera camera = new Camera(eye, target);
+			camera.perspective 	= true;
+			camera.halfHeight 	= Math.tan(Math.toRadians(fovy) / 2);
+			camera.halfWidth 	= camera.halfHeight * VIEWPORT[2] / VIEWPORT[3];
+			camera.buildMatrix();
+			return camera;
+		}
+
+		static Camera orthographic(float[] eye, float[] target, double halfHeight){
+			Camera camera = new Camera(eye, target);
+			camera.halfHeight 	= halfHeight;
+			camera.halfWidth 	= halfHeight * VIEWPORT[2] / VIEWPORT[3];
+			camera.buildMatrix();
+			return camera;
+		}
+
+		private Camera(float[] eye, float[] target){
+			this.eye 	 = eye;
+			this.forward = normalize(new double[]{target[0] - eye[0], target[1] - eye[1], target[2] - eye[2]});
+			this.right 	 = normalize(cross(forward, new double[]{0, 0, 1}));
+			this.up 	 = cross(right, forward);
+		}
+
+		/** Builds the OpenGL column major projection * view matrix, with near = 1 and far = 1000 */
+		private void buildMatrix(){
+			double near = 1, far = 1000;
+			double[] view = new double[16];
+			for (int i = 0; i < 3; i++) {
+				view[4 * i]	 	= right[i];
+				view[4 * i + 1] = up[i];
+				view[4 * i + 2] = -forward[i];
+			}
+			view[12] = -dot(right, eye);
+			view[13] = -dot(up, eye);
+			view[14] = dot(forward, eye);
+			view[15] = 1;
+			double[] projection = new double[16];
+			if(perspective){
+				projection[0]  = 1 / halfWidth;
+				projection[5]  = 1 / halfHeight;
+				projection[10] = -(far + near) / (far - near);
+				projection[11] = -1;
+				projection[14] = -2 * far * near / (far - near);
+			}else{
+				projection[0]  = 1 / halfWidth;
+				projection[5]  = 1 / halfHeight;
+				projection[10] = -2 / (far - near);
+				projection[14] = -(far + near) / (far - near);
+				projection[15] = 1;
+			}
+			matrix = new float[16];
+			for (int column = 0; column < 4; column++) {
+				for (int row = 0; row < 4; row++) {
+					double value = 0;
+					for (int k = 0; k < 4; k++) {
+						value += projection[4 * k + row] * view[4 * column + k];
+					}
+					matrix[4 * column + row] = (float) value;
+				}
+			}
+		}
+
+		/** @return the ray through the window position, as (origin, normalized direction) */
+		double[] ray(float windowX, float windowY){
+			double ndcX = 2 * (windowX - VIEWPORT[0]) / VIEWPORT[2] - 1;
+			double ndcY = 2 * (windowY - VIEWPORT[1]) / VIEWPORT[3] - 1;
+			double[] ray = new double[6];
+			for (int i = 0; i < 3; i++) {
+				if(perspective){
+					ray[i] 	   = eye[i];
+					ray[i + 3] = forward[i] + right[i] * ndcX * halfWidth + up[i] * ndcY * halfHeight;
+				}else{
+					ray[i] 	   = eye[i] + right[i] * ndcX * halfWidth + up[i] * ndcY * halfHeight;
+					ray[i + 3] = forward[i];
+				}
+			}
+			double[] direction = normalize(new double[]{ray[3], ray[4], ray[5]});
+			System.arraycopy(direction, 0, ray, 3, 3);
+			return ray;
+		}
+
+		/** @return the window position of the given point */
+		float[] project(double x, double y, double z){
+			double clipX = matrix[0] * x + matrix[4] * y + matrix[8]  * z + matrix[12];
+			double clipY = matrix[1] * x + matrix[5] * y + matrix[9]  * z + matrix[13];
+			double clipW = matrix[3] * x + matrix[7] * y + matrix[11] * z + matrix[15];
+			return new float[]{(float) (VIEWPORT[0] + (clipX / clipW + 1) * VIEWPORT[2] / 2), (float) (VIEWPORT[1] + (clipY / clipW + 1) * VIEWPORT[3] / 2)};
+		}
+
+		private static double dot(double[] a, float[] b){
+			return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+		}
+
+		private static double[] cross(double[] a, double[] b){
+			return new double[]{a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0]};
+		}
+
+		private static double[] normalize(double[] v){
+			double length = Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+			return new double[]{v[0] / length, v[1] / length, v[2] / length};
+		}
+	}
+}
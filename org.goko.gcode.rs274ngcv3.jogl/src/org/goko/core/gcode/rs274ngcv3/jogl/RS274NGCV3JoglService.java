@@ -27,6 +27,7 @@ import org.goko.core.gcode.rs274ngcv3.jogl.internal.BaseGCodeContextProvider;
 import org.goko.core.gcode.rs274ngcv3.jogl.internal.GCodeContextProviderLinkedList;
 import org.goko.core.gcode.rs274ngcv3.jogl.internal.LinkedGCodeContextProvider;
 import org.goko.core.gcode.rs274ngcv3.jogl.renderer.RS274GCodeRenderer;
+import org.goko.core.gcode.rs274ngcv3.jogl.renderer.ToolpathPick;
 import org.goko.core.gcode.rs274ngcv3.jogl.renderer.colorizer.AbstractInstructionColorizer;
 import org.goko.core.gcode.rs274ngcv3.jogl.renderer.colorizer.MotionModeColorizer;
 import org.goko.core.gcode.service.IExecutionQueueListener;
@@ -42,6 +43,8 @@ public class RS274NGCV3JoglService extends AbstractGokoService implements IGokoS
 	private static final GkLog LOG = GkLog.getLogger(RS274NGCV3JoglService.class);
 	/** ID of the service */
 	private static final String SERVICE_ID = "org.goko.core.gcode.rs274ngcv3.jogl.RS274NGCV3JoglService";
+	/** Maximum distance in pixels between the mouse and a picked toolpath */
+	private static final float PICK_PIXEL_TOLERANCE = 5;
 	/** The list of managed renderer */
 	private CacheByKey<IGCodeProvider, RS274GCodeRenderer> cacheRenderer;
 	/** The list of managed renderer */
@@ -118,9 +121,9 @@ public class RS274NGCV3JoglService extends AbstractGokoService implements IGokoS
 			BoundingTuple6b result = null;
 			for (RS274GCodeRenderer renderer : lstRenderer) {
 				if(renderer.getBounds() == null){  // Only update if bound is null
+					// Statistics are cached by the service until the provider is updated
 					IGCodeProvider provider = renderer.getGCodeProvider();
-					InstructionProvider instructionProvider = Activator.getRS274NGCService().getInstructions(gcodeContextProvider.getGCodeContext(), provider);
-					BoundingTuple6b bounds = Activator.getRS274NGCService().getBounds(gcodeContextProvider.getGCodeContext(), instructionProvider);
+					BoundingTuple6b bounds = Activator.getRS274NGCService().getStatistics(gcodeContextProvider.getGCodeContext(), provider).getBounds();
 					renderer.setBounds(bounds);				
 				}
 				if(result == null){
@@ -135,6 +138,29 @@ public class RS274NGCV3JoglService extends AbstractGokoService implements IGokoS
 		}
 	}
 
+	/**
+	 * Finds the G-code line drawn under the given position of the canvas. When several toolpaths are drawn under the position,
+	 * the closest to the camera is returned
+	 * @param x x coordinate of the position, in pixels from the left of the canvas
+	 * @param y y coordinate of the position, in pixels from the top of the canvas
+	 * @return the picked segment with its GCodeProvider and line, or <code>null</code> if no toolpath is drawn under the position
+	 * @throws GkException GkException
+	 */
+	public ToolpathPick pick(int x, int y) throws GkException{
+		List<RS274GCodeRenderer> lstRenderer = cacheRenderer.get();
+		lstRenderer.addAll(cacheRendererByExecutionToken.get());
+		ToolpathPick result = null;
+		for (RS274GCodeRenderer renderer : lstRenderer) {
+			if(renderer.isEnabled()){
+				ToolpathPick pick = renderer.pick(x, y, PICK_PIXEL_TOLERANCE);
+				if(pick != null && (result == null || pick.getDepth() < result.getDepth())){
+					result = pick;
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Creates the renderer for the given GCodeProvider
 	 * @param idGCodeProvider the id of the GCodeProvider
@@ -352,6 +378,8 @@ public class RS274NGCV3JoglService extends AbstractGokoService implements IGokoS
 			renderer.setGCodeContextProvider(lstContextProvider.getLast());
 			LinkedGCodeContextProvider contextProvider = new LinkedGCodeContextProvider(lstContextProvider.getLast(), token, rs274Service);
 			lstContextProvider.addLast(contextProvider);
+			// The execution state is displayed for each line of the expanded code
+			renderer.setInstancingEnabled(false);
 			renderer.updateGeometry();
 			updateContentBounds();
 		}catch(GkException e){
@@ -389,6 +417,7 @@ public class RS274NGCV3JoglService extends AbstractGokoService implements IGokoS
 				if(providerRenderer != null){
 					// Set the deleted token's renderer provider back to default
 					renderer.setGCodeContextProvider(gcodeContextProvider);
+					renderer.setInstancingEnabled(true);
 					renderer.updateGeometry();					
 				}else{
 					renderer.destroy();					
@@ -527,7 +556,10 @@ public class RS274NGCV3JoglService extends AbstractGokoService implements IGokoS
 				}
 			});
 		}
-		colorizer.initialize(context, instrProvs);
+		// Geometry builds running in background use the colorizer under its own lock
+		synchronized (colorizer) {
+			colorizer.initialize(context, instrProvs);
+		}
 	}
 	
 }
@@ -0,0 +1,34 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.rs274ngcv3.jogl.renderer;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cancellation check of a long running computation. The computation stops with a {@link CancellationException} once canceled
+ *
+ * @author PsyKo
+ */
+public interface ICancellationCheck {
+
+	/**
+	 * Determines if the computation should stop
+	 * @return <code>true</code> if the computation was canceled
+	 */
+	boolean isCanceled();
+}
@@ -51,6 +51,21 @@ public class InstructionGeometryFactory {
 		return getInstance().buildGeometry(context, instruction);
 	}
 	
+	/**
+	 * Builds the geometry for the given instruction directly into the given buffer
+	 * @param preContext the context before the instruction
+	 * @param postContext the context once the instruction is applied
+	 * @param instruction the instruction to build geometry for
+	 * @param buffer the target buffer
+	 * @throws GkException GkException
+	 */
+	public static void build(GCodeContext preContext, GCodeContext postContext, IInstruction instruction, ToolpathGeometryBuffer buffer) throws GkException{
+		AbstractInstructionGeometryBuilder<? extends AbstractInstruction> builder = getInstance().findBuilder(instruction);
+		if(builder != null){
+			builder.buildGeometry(preContext, postContext, instruction, buffer);
+		}
+	}
+
 	/**
 	 * Builds the geometry for the given instruction  
 	 * @param context the context 
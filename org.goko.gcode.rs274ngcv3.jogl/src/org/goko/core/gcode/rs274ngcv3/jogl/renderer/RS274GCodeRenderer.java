@@ -17,22 +17,28 @@
 
 package org.goko.core.gcode.rs274ngcv3.jogl.renderer;
 
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.media.opengl.GL;
 import javax.media.opengl.GL3;
-import javax.vecmath.Color4f;
-import javax.vecmath.Point3d;
 import javax.vecmath.Vector3f;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.AngleUnit;
+import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.common.utils.IIdBean;
 import org.goko.core.controller.IFourAxisControllerAdapter;
 import org.goko.core.controller.IGCodeContextProvider;
@@ -40,13 +46,19 @@ import org.goko.core.gcode.element.IGCodeProvider;
 import org.goko.core.gcode.element.IInstructionSetIterator;
 import org.goko.core.gcode.execution.ExecutionToken;
 import org.goko.core.gcode.execution.ExecutionTokenState;
+import org.goko.core.gcode.rs274ngcv3.context.EnumDistanceMode;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProviderInstances;
 import org.goko.core.gcode.rs274ngcv3.element.InstructionProvider;
+import org.goko.core.gcode.rs274ngcv3.element.InstructionType;
 import org.goko.core.gcode.rs274ngcv3.instruction.AbstractInstruction;
+import org.goko.core.gcode.rs274ngcv3.instruction.AbstractStraightInstruction;
 import org.goko.core.gcode.rs274ngcv3.jogl.internal.Activator;
 import org.goko.core.gcode.rs274ngcv3.jogl.renderer.colorizer.AbstractInstructionColorizer;
 import org.goko.core.gcode.service.IGCodeExecutionListener;
+import org.goko.core.gcode.service.IGCodeLineRangeExecutionListener;
 import org.goko.core.log.GkLog;
+import org.goko.core.math.Tuple6b;
 import org.goko.tools.viewer.jogl.preferences.JoglViewerPreference;
 import org.goko.tools.viewer.jogl.service.ICoreJoglRenderer;
 import org.goko.tools.viewer.jogl.service.JoglUtils;
@@ -55,6 +67,8 @@ import org.goko.tools.viewer.jogl.shaders.ShaderLoader;
 import org.goko.tools.viewer.jogl.utils.render.internal.AbstractLineRenderer;
 
 import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.math.FloatUtil;
+import com.jogamp.opengl.math.geom.AABBox;
 import com.jogamp.opengl.util.PMVMatrix;
 
 /**
@@ -64,28 +78,78 @@ import com.jogamp.opengl.util.PMVMatrix;
  */
 public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJoglRenderer, IIdBean,
 																		IGCodeExecutionListener<ExecutionTokenState,
+																		ExecutionToken<ExecutionTokenState>>,
+																		IGCodeLineRangeExecutionListener<ExecutionTokenState,
 																		ExecutionToken<ExecutionTokenState>>{
 	private static final GkLog LOG = GkLog.getLogger(RS274GCodeRenderer.class);
+	/** Number of instructions processed between two checks of the cancellation of a geometry build */
+	private static final int BUILD_CHECK_INTERVAL = 1024;
+	/** Worker pool building the geometry of all the G-code renderers away from the GL thread */
+	private static final ExecutorService GEOMETRY_BUILDER = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), new GeometryBuilderThreadFactory());
 	/** Internal ID */
 	private Integer id;
 	/** The  GCodeProvider*/
 	private IGCodeProvider gcodeProvider;
 	/** Command state layout */
 	private static final int STATE_LAYOUT = 2;
+	/** Instance offset layout */
+	private static final int INSTANCE_OFFSET_LAYOUT = 3;
+	/** Number of floats per vertex in the interleaved buffer : position and color */
+	private static final int INTERLEAVED_STRIDE = 8;
 	/** TEST : the map of vertices by ID */
 	private Map<Integer, VerticesGroupByLine> mapVerticesGroupByIdLine;	
-	/** Float buffer for command state */
-	private IntBuffer stateBuffer;
+	/** Byte buffer for command state, one byte per vertex */
+	private ByteBuffer stateBuffer;
+	/** Start index (inclusive) of the range of the state buffer modified since the last upload */
+	private int dirtyStateStart;
+	/** End index (exclusive) of the range of the state buffer modified since the last upload */
+	private int dirtyStateEnd;
 	/** The id of the state buffer object*/
 	private Integer stateBufferObject;
 	/** The 4 axis controller adapter that provides angle of the current stock*/
 	private IFourAxisControllerAdapter fourAxisControllerAdapter;
 	/** The GCode context supplier */
 	private IGCodeContextProvider<GCodeContext> gcodeContextProvider;
-	/** The map of stored states (in case line get executed before renderer is initialized) */
+	/** The map of stored states (in case line get executed before the geometry is built) */
 	private Map<Integer, ExecutionTokenState> storedStates;
+	/** <code>true</code> once a built geometry is swapped in, as opposed to the empty placeholder */
+	private boolean geometryInstalled;
+	/** The latest execution token of the rendered provider, used to restore the line states on geometry swap */
+	private ExecutionToken<ExecutionTokenState> executionToken;
 	/** Active command colorizer */
 	private AbstractInstructionColorizer colorizer;
+	/** Spatial chunks of the toolpath, used for culling and level of detail */
+	private ToolpathChunks chunks;
+	/** The id of the buffer object holding the decimated indices of the chunks */
+	private Integer decimatedIndicesBufferObject;
+	/** Complete projection * model view matrix of the current frame */
+	private final float[] viewProjectionMatrix = new float[16];
+	/** Model view * model matrix of the current frame */
+	private final float[] localModelViewMatrix = new float[16];
+	/** Horizontal scale factor of the projection matrix of the current frame */
+	private float projectionScale;
+	/** Temporary matrix */
+	private final float[] tmpMatrix = new float[16];
+	/** Current viewport */
+	private final int[] viewport = new int[4];
+	/** The latest requested geometry build */
+	private GeometryBuild currentBuild;
+	/** Geometry built in background, waiting to be swapped in on the GL thread */
+	private final AtomicReference<ToolpathGeometry> readyGeometry = new AtomicReference<ToolpathGeometry>();
+	/** Lock guarding the current build */
+	private final Object buildLock = new Object();
+	/** Allows to draw the copies of array modifiers as instances of the copied code instead of the expanded code */
+	private volatile boolean instancingEnabled = true;
+	/** The id of the buffer object holding the offset of each instance */
+	private Integer instanceBufferObject;
+	/** First vertex and number of vertices of the lead-in of each instance, drawn after the instances, or <code>null</code> */
+	private int[] leadIns;
+	/** The current geometry, used for picking */
+	private volatile ToolpathGeometry installedGeometry;
+	/** Complete projection * model view matrix of the latest drawn frame, used for picking */
+	private final float[] pickMatrix = new float[16];
+	/** Viewport of the latest drawn frame, used for picking */
+	private final int[] pickViewport = new int[4];
 	/**
 	 * Constructor
 	 * @param gcodeProvider the GCodeProvider to render
@@ -104,6 +168,7 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 	@Override
 	public void render(GL3 gl, PMVMatrix modelViewMatrix) throws GkException {
 		if(fourAxisControllerAdapter == null){
+			updateViewProjectionMatrix(modelViewMatrix);
 			super.render(gl, modelViewMatrix);
 		}else{
 			// We have to render using the 4th axis
@@ -114,52 +179,424 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 			}
 			Vector3f rotationAxis = JoglViewerPreference.getInstance().getRotaryAxisDirectionVector();
 			modelViewMatrix.glRotatef(-angle, rotationAxis.x, rotationAxis.y, rotationAxis.z);
+			updateViewProjectionMatrix(modelViewMatrix);
 			super.render(gl, modelViewMatrix);
 			modelViewMatrix.glRotatef(angle, rotationAxis.x, rotationAxis.y, rotationAxis.z);
 		}
 	}
+
+	/**
+	 * Computes the complete projection * model view * model matrix used to cull the chunks
+	 * @param matrix the current projection and model view matrix
+	 */
+	private void updateViewProjectionMatrix(PMVMatrix matrix){
+		copy(matrix.glGetMvMatrixf(), tmpMatrix);
+		copy(getModelMatrix().glGetMvMatrixf(), viewProjectionMatrix);
+		FloatUtil.multMatrixf(tmpMatrix, 0, viewProjectionMatrix, 0, localModelViewMatrix, 0);
+		copy(matrix.glGetPMatrixf(), tmpMatrix);
+		FloatUtil.multMatrixf(tmpMatrix, 0, localModelViewMatrix, 0, viewProjectionMatrix, 0);
+		projectionScale = tmpMatrix[0];
+	}
+
+	/**
+	 * Copies a matrix into the given array without moving the position of the source buffer, which is shared with the PMVMatrix
+	 * @param source the source matrix
+	 * @param target the target array
+	 */
+	private void copy(FloatBuffer source, float[] target){
+		for (int i = 0; i < target.length; i++) {
+			target[i] = source.get(source.position() + i);
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#performDraw(javax.media.opengl.GL3)
+	 */
+	@Override
+	protected void performDraw(GL3 gl) throws GkException {
+		gl.glGetIntegerv(GL.GL_VIEWPORT, viewport, 0);
+		// Keep the matrices of the displayed frame for the picking, which happens out of the GL thread
+		synchronized (pickMatrix) {
+			System.arraycopy(viewProjectionMatrix, 0, pickMatrix, 0, pickMatrix.length);
+			System.arraycopy(viewport, 0, pickViewport, 0, pickViewport.length);
+		}
+		if(chunks == null || decimatedIndicesBufferObject == null){
+			super.performDraw(gl);
+			return;
+		}
+		gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, decimatedIndicesBufferObject);
+		chunks.draw(gl, getRenderPrimitive(), viewProjectionMatrix, projectionScale, viewport[2]);
+		if(leadIns != null){
+			// The lead-ins are built at their final position : single instance at the origin
+			gl.glDisableVertexAttribArray(INSTANCE_OFFSET_LAYOUT);
+			gl.glVertexAttrib3f(INSTANCE_OFFSET_LAYOUT, 0, 0, 0);
+			for (int i = 0; i < leadIns.length; i += 2) {
+				if(leadIns[i + 1] > 0){
+					gl.glDrawArrays(getRenderPrimitive(), leadIns[i], leadIns[i + 1]);
+				}
+			}
+		}
+	}
 	
 	/** (inheritDoc)
 	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#buildGeometry()
 	 */
 	@Override
 	protected void buildGeometry() throws GkException {		
-		ArrayList<Point3d> lstVertices 	= new ArrayList<Point3d>();
-		ArrayList<Color4f> lstColors 	= new ArrayList<Color4f>();
-		
-		mapVerticesGroupByIdLine 	= new HashMap<Integer, VerticesGroupByLine>();
+		ToolpathGeometry geometry = readyGeometry.getAndSet(null);
+		boolean built = geometry != null;
+		if(geometry == null){
+			if(mapVerticesGroupByIdLine != null){
+				// The geometry was already swapped in, keep it
+				return;
+			}
+			// Nothing built yet : start with an empty toolpath and build the real one in background
+			geometry = new ToolpathGeometry(gcodeProvider, new ToolpathGeometryBuffer(0), new HashMap<Integer, VerticesGroupByLine>());
+			updateGeometry();
+		}
+		// Swap the new geometry in. The buffer objects are updated right after, in the same frame
+		ToolpathGeometryBuffer buffer = geometry.buffer;
+		setVerticesCount(buffer.getVerticesCount());
+		synchronized (this) {
+			mapVerticesGroupByIdLine = geometry.verticesGroups;
+			stateBuffer = Buffers.newDirectByteBuffer(getVerticesCount());
+			clearDirtyStateRange();
+			geometryInstalled = built;
+			if(geometryInstalled){
+				restoreLineStates();
+			}
+		}
+		setColorsBuffer(buffer.getColorsBuffer());
+		setVerticesBuffer(buffer.getVerticesBuffer());
+		// Interleaved in background with the geometry
+		setInterleavedBuffer(geometry.interleavedBuffer, INTERLEAVED_STRIDE);
+		chunks = geometry.chunks;
+		leadIns = geometry.leadIns;
+		installedGeometry = geometry;
+	}
+
+	/**
+	 * The interleaved buffer is built with the geometry, out of the GL thread, and set on swap
+	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#buildInterleavedBuffer()
+	 */
+	@Override
+	protected void buildInterleavedBuffer() {}
+
+	/**
+	 * Applies the line states received before the geometry was built, then the current states of the execution token
+	 * on the newly allocated state buffer
+	 * @throws GkException GkException
+	 */
+	private void restoreLineStates() throws GkException{
+		if(storedStates != null){
+			for (Integer storedLineId : storedStates.keySet()) {
+				updateStateBuffer(storedLineId, storedStates.get(storedLineId));
+			}
+			storedStates = null;
+		}
+		if(executionToken != null){
+			for (Integer idLine : mapVerticesGroupByIdLine.keySet()) {
+				ExecutionTokenState state = executionToken.findLineState(idLine);
+				if(state != null && state.getState() != ExecutionTokenState.NONE_STATE){
+					updateStateBuffer(idLine, state);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the G-code line drawn under the given position of the canvas, as displayed in the latest frame.
+	 * When the copies of array modifiers are drawn as instances, the picked line belongs to the copied provider
+	 * and the pick tells which copy was hit
+	 * @param x x coordinate of the position, in pixels from the left of the canvas
+	 * @param y y coordinate of the position, in pixels from the top of the canvas, as in mouse events
+	 * @param pixelTolerance the maximum distance between the position and the toolpath, in pixels
+	 * @return the picked segment, or <code>null</code> if the toolpath is not drawn under the given position
+	 */
+	public ToolpathPick pick(int x, int y, float pixelTolerance){
+		ToolpathGeometry geometry = installedGeometry;
+		if(geometry == null){
+			return null;
+		}
+		float[] matrix = new float[16];
+		int[] frameViewport = new int[4];
+		synchronized (pickMatrix) {
+			System.arraycopy(pickMatrix, 0, matrix, 0, matrix.length);
+			System.arraycopy(pickViewport, 0, frameViewport, 0, frameViewport.length);
+		}
+		// The window coordinates start at the bottom of the viewport
+		ToolpathPick pick = geometry.segmentIndex.pick(matrix, frameViewport, x, frameViewport[1] + frameViewport[3] - y, pixelTolerance);
+		if(pick != null){
+			// The ids of the lines are the ones of the provider the geometry was built from
+			pick.setGCodeProvider(geometry.renderedProvider);
+		}
+		return pick;
+	}
+
+	/**
+	 * Returns the bounds of the geometry of the given line, in the Jogl unit
+	 * @param idGCodeLine the id of the line
+	 * @return the bounds, or <code>null</code> if the line has no geometry
+	 */
+	public AABBox getLineBounds(Integer idGCodeLine){
+		ToolpathGeometry geometry = installedGeometry;
+		if(geometry == null){
+			return null;
+		}
+		return geometry.segmentIndex.getLineBounds(idGCodeLine);
+	}
+
+	/**
+	 * Computes the geometry of the toolpath. Called from the geometry builder pool
+	 * @param build the build, used to report progress and check cancellation
+	 * @param colorizer the colorizer to use
+	 * @param allowInstancing <code>true</code> to draw the copies of array modifiers as instances when possible
+	 * @return the geometry, or <code>null</code> if the build was canceled
+	 * @throws GkException GkException
+	 */
+	private ToolpathGeometry computeGeometry(GeometryBuild build, AbstractInstructionColorizer colorizer, boolean allowInstancing) throws GkException {		
+		Map<Integer, VerticesGroupByLine> verticesGroups = new HashMap<Integer, VerticesGroupByLine>();
 		
 		GCodeContext context = new GCodeContext(gcodeContextProvider.getGCodeContext());
-		
-		InstructionProvider instructionSet = Activator.getRS274NGCService().getInstructions(context, gcodeProvider);
+		// Draw the copies of array modifiers as instances of the copied code when possible
+		IGCodeProvider renderedProvider = gcodeProvider;
+		GCodeProviderInstances instances = null;
+		// The motions made until the code sets all the axes depend on the position each copy starts from : they are not instanced
+		List<AbstractInstruction> leadIn = null;
+		boolean[] leadInAxes = null;
+		GCodeContext startContext = null;
+		GCodeContext leadInEndContext = null;
+		if(allowInstancing && gcodeProvider.getId() != null){
+			instances = Activator.getRS274NGCService().findGCodeProviderInstances(gcodeProvider.getId());
+			if(instances != null){
+				renderedProvider = instances.getBaseProvider();
+				leadIn = new ArrayList<AbstractInstruction>();
+				leadInAxes = new boolean[3];
+				startContext = new GCodeContext(context);
+			}
+		}
+		InstructionProvider instructionSet = Activator.getRS274NGCService().getInstructions(context, renderedProvider);
 		
 		IInstructionSetIterator<GCodeContext, AbstractInstruction> iterator = Activator.getRS274NGCService().getIterator(instructionSet, context);		
 		colorizer.initialize(context, instructionSet);
+		// Most instructions are straight lines, producing 2 vertices each
+		int instructionCount = getInstructionCount(instructionSet);
+		ToolpathGeometryBuffer buffer = new ToolpathGeometryBuffer(2 * instructionCount);
+		// Snapshot of the context before each instruction, reused to avoid a full copy per instruction
+		GCodeContext preContext = new GCodeContext(context);
+		int processed = 0;
 		while(iterator.hasNext()){
-			GCodeContext preContext = new GCodeContext(iterator.getContext());
+			if(++processed % BUILD_CHECK_INTERVAL == 0 && build.isCanceled()){
+				return null;
+			}
+			preContext.set(iterator.getContext());
 			AbstractInstruction instruction = iterator.next();			
+			if(instances != null){
+				if(!isTranslatedByArray(preContext, instruction)){
+					// The copies are not translations of the copied code, draw the expanded code
+					return computeGeometry(build, colorizer, false);
+				}
+				if(leadInEndContext == null){
+					if(!addLeadInInstruction(leadIn, leadInAxes, instruction)){
+						return computeGeometry(build, colorizer, false);
+					}
+					if(leadInAxes[0] && leadInAxes[1] && leadInAxes[2]){
+						leadInEndContext = new GCodeContext(iterator.getContext());
+					}
+					continue;
+				}
+			}
 			// TEST : Make sure we have a complete start position for rendering. 
 			if(preContext.getX() != null && preContext.getY() != null && preContext.getZ() != null){
-				List<Point3d> 		vertices 	= InstructionGeometryFactory.build(preContext, instruction);
-				
-				addVerticesGroup(instruction.getIdGCodeLine(), lstVertices.size(), vertices);
-				lstVertices.addAll(vertices);
-				
-				// Let's generate the colors and update the bounds as well
-				Color4f color = colorizer.getColor(preContext, instruction);
-				for ( int i = 0; i < vertices.size(); i++) {
-					lstColors.add(color);				
-				}	
+				int startIndex = buffer.getVerticesCount();
+				InstructionGeometryFactory.build(preContext, iterator.getContext(), instruction, buffer);
+				int length = buffer.getVerticesCount() - startIndex;
+				addVerticesGroup(verticesGroups, instruction.getIdGCodeLine(), startIndex, length);
+				if(length > 0){
+					// Let's generate the colors and update the bounds as well
+					buffer.fillColors(colorizer.getColor(preContext, instruction));
+				}
 			}			
 		}
+		int instancedVerticesCount = buffer.getVerticesCount();
+		int[] leadInRanges = null;
+		if(instances != null){
+			// The end of a copy is only known when the code sets all the axes
+			if(leadInEndContext != null){
+				leadInRanges = buildLeadIns(leadIn, startContext, leadInEndContext, iterator.getContext(), instances.getOffsets(), colorizer, buffer, verticesGroups);
+			}
+			if(leadInRanges == null){
+				return computeGeometry(build, colorizer, false);
+			}
+		}
 		colorizer.conclude();
-		setVerticesCount(CollectionUtils.size(lstVertices));
-		
-		stateBuffer = IntBuffer.allocate(getVerticesCount());
-		stateBuffer.rewind();
-		
-		setColorsBuffer(JoglUtils.buildFloatBuffer4f(lstColors));
-		setVerticesBuffer(JoglUtils.buildFloatBuffer3d(lstVertices));		
+		if(build.isCanceled()){
+			return null;
+		}
+		try{
+			return new ToolpathGeometry(renderedProvider, buffer, verticesGroups, getInstanceOffsets(instances), instancedVerticesCount, leadInRanges, build);
+		}catch(CancellationException e){
+			return null;
+		}
+	}
+
+	/**
+	 * Adds an instruction to the lead-in of the copies, made of the instructions executed until the code sets all the axes
+	 * @param leadIn the instructions of the lead-in
+	 * @param leadInAxes the X, Y and Z axes set by the lead-in
+	 * @param instruction the instruction
+	 * @return <code>false</code> if the lead-in can't be replayed from the start of each copy
+	 */
+	private boolean addLeadInInstruction(List<AbstractInstruction> leadIn, boolean[] leadInAxes, AbstractInstruction instruction){
+		InstructionType type = instruction.getType();
+		if(type == InstructionType.STRAIGHT_FEED || type == InstructionType.STRAIGHT_TRAVERSE){
+			AbstractStraightInstruction straightInstruction = (AbstractStraightInstruction) instruction;
+			leadInAxes[0] |= straightInstruction.getX() != null;
+			leadInAxes[1] |= straightInstruction.getY() != null;
+			leadInAxes[2] |= straightInstruction.getZ() != null;
+		}else if(type == InstructionType.ARC_FEED || type == InstructionType.STRAIGHT_PROBE){
+			// The shape of the motion depends on the start position
+			return false;
+		}
+		leadIn.add(instruction);
+		return true;
+	}
+
+	/**
+	 * Builds the lead-in of each copy, after the instanced geometry. The first copy starts from the given start context, the
+	 * following ones start where the previous copy ends, and the lead-in motions are translated as the array modifiers do.
+	 * Once a lead-in is built, the copy continues as a translation of the copied code.
+	 * @param leadIn the instructions of the lead-in
+	 * @param startContext the context before the copied code
+	 * @param leadInEndContext the context at the end of the lead-in of the copied code
+	 * @param endContext the context at the end of the copied code
+	 * @param offsets the offset of each copy
+	 * @param colorizer the colorizer
+	 * @param buffer the target buffer
+	 * @param verticesGroups the vertices by line, completed with the lead-in of the first copy
+	 * @return the first vertex and the number of vertices of the lead-in of each copy, or <code>null</code> if a copy does not reach
+	 * the modal state of the copied code at the end of its lead-in
+	 * @throws GkException GkException
+	 */
+	private int[] buildLeadIns(List<AbstractInstruction> leadIn, GCodeContext startContext, GCodeContext leadInEndContext, GCodeContext endContext, List<Tuple6b> offsets,
+								AbstractInstructionColorizer colorizer, ToolpathGeometryBuffer buffer, Map<Integer, VerticesGroupByLine> verticesGroups) throws GkException{
+		int[] ranges = new int[2 * offsets.size()];
+		GCodeContext preContext = new GCodeContext(startContext);
+		for (int i = 0; i < offsets.size(); i++) {
+			Tuple6b offset = offsets.get(i);
+			GCodeContext copyContext = null;
+			if(i == 0){
+				copyContext = new GCodeContext(startContext);
+			}else{
+				// The copy starts where the previous copy ends
+				Tuple6b previousOffset = offsets.get(i - 1);
+				copyContext = new GCodeContext(endContext);
+				copyContext.setX(translate(endContext.getX(), previousOffset.getX()));
+				copyContext.setY(translate(endContext.getY(), previousOffset.getY()));
+				copyContext.setZ(translate(endContext.getZ(), previousOffset.getZ()));
+			}
+			ranges[2 * i] = buffer.getVerticesCount();
+			for (AbstractInstruction instruction : leadIn) {
+				AbstractInstruction copiedInstruction = instruction;
+				if(instruction.getType() == InstructionType.STRAIGHT_FEED || instruction.getType() == InstructionType.STRAIGHT_TRAVERSE){
+					AbstractStraightInstruction straightInstruction = (AbstractStraightInstruction) instruction.clone();
+					straightInstruction.setX(translate(straightInstruction.getX(), offset.getX()));
+					straightInstruction.setY(translate(straightInstruction.getY(), offset.getY()));
+					straightInstruction.setZ(translate(straightInstruction.getZ(), offset.getZ()));
+					copiedInstruction = straightInstruction;
+				}
+				preContext.set(copyContext);
+				Activator.getRS274NGCService().update(copyContext, copiedInstruction);
+				if(preContext.getX() != null && preContext.getY() != null && preContext.getZ() != null){
+					int startIndex = buffer.getVerticesCount();
+					InstructionGeometryFactory.build(preContext, copyContext, copiedInstruction, buffer);
+					int length = buffer.getVerticesCount() - startIndex;
+					if(i == 0){
+						addVerticesGroup(verticesGroups, instruction.getIdGCodeLine(), startIndex, length);
+					}
+					if(length > 0){
+						buffer.fillColors(colorizer.getColor(preContext, copiedInstruction));
+					}
+				}
+			}
+			ranges[2 * i + 1] = buffer.getVerticesCount() - ranges[2 * i];
+			if(!copyContext.isSameModalState(leadInEndContext)){
+				return null;
+			}
+		}
+		return ranges;
+	}
+
+	/**
+	 * Translates the given coordinate
+	 * @param value the coordinate, or <code>null</code> if it's not set
+	 * @param offset the offset, or <code>null</code>
+	 * @return the translated coordinate, or <code>null</code> if it's not set
+	 */
+	private Length translate(Length value, Length offset){
+		if(value == null || offset == null){
+			return value;
+		}
+		return value.add(offset);
+	}
+
+	/**
+	 * Determines if the given instruction is translated in the copies made by array modifiers, as absolute motions are
+	 * @param preContext the context before the instruction
+	 * @param instruction the instruction
+	 * @return <code>true</code> if the instruction can be drawn as instances
+	 */
+	private boolean isTranslatedByArray(GCodeContext preContext, AbstractInstruction instruction){
+		InstructionType type = instruction.getType();
+		if(type == InstructionType.STRAIGHT_PROBE){
+			return false;
+		}
+		if(type == InstructionType.STRAIGHT_FEED
+		|| type == InstructionType.STRAIGHT_TRAVERSE
+		|| type == InstructionType.ARC_FEED){
+			return preContext.getDistanceMode() == EnumDistanceMode.ABSOLUTE;
+		}
+		return true;
+	}
+
+	/**
+	 * Converts the offsets of the given instances in the rendering unit
+	 * @param instances the instances
+	 * @return the offsets as (x, y, z), or <code>null</code> if there is no instances
+	 */
+	private float[] getInstanceOffsets(GCodeProviderInstances instances){
+		if(instances == null){
+			return null;
+		}
+		List<Tuple6b> offsets = instances.getOffsets();
+		float[] result = new float[3 * offsets.size()];
+		for (int i = 0; i < offsets.size(); i++) {
+			Tuple6b offset = offsets.get(i);
+			result[3 * i] 	  = toJoglUnit(offset.getX());
+			result[3 * i + 1] = toJoglUnit(offset.getY());
+			result[3 * i + 2] = toJoglUnit(offset.getZ());
+		}
+		return result;
+	}
+
+	private float toJoglUnit(Length length){
+		if(length == null){
+			return 0;
+		}
+		return (float) length.doubleValue(JoglUtils.JOGL_UNIT);
+	}
+
+	/**
+	 * Returns the total number of instructions in the given provider
+	 * @param instructionSet the instruction provider
+	 * @return the number of instructions
+	 */
+	private int getInstructionCount(InstructionProvider instructionSet){
+		int count = 0;
+		for (int i = 0; i < instructionSet.size(); i++) {
+			count += instructionSet.get(i).size();
+		}
+		return count;
 	}
 
 	@Override
@@ -170,14 +607,15 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 	 * Add the given vertices to the group of vertices for this command 
 	 * @param idGCodeLine the id of the generating GCodeLine
 	 * @param startIndex the start index 
-	 * @param vertices the vertices array
+	 * @param length the number of added vertices
 	 */
-	private void addVerticesGroup(Integer idGCodeLine, int startIndex, List<Point3d> vertices) {
-		if(!mapVerticesGroupByIdLine.containsKey(idGCodeLine)){
-			mapVerticesGroupByIdLine.put(idGCodeLine, new VerticesGroupByLine(startIndex));
+	private void addVerticesGroup(Map<Integer, VerticesGroupByLine> verticesGroups, Integer idGCodeLine, int startIndex, int length) {
+		VerticesGroupByLine group = verticesGroups.get(idGCodeLine);
+		if(group == null){
+			group = new VerticesGroupByLine(startIndex);
+			verticesGroups.put(idGCodeLine, group);
 		}
-		VerticesGroupByLine group = mapVerticesGroupByIdLine.get(idGCodeLine);
-		group.setLength( group.getLength() + vertices.size());		
+		group.setLength( group.getLength() + length);		
 	}
 
 	/** (inheritDoc)
@@ -194,19 +632,100 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 	@Override
 	protected void performUpdateBufferObjects(GL3 gl) throws GkException {
 		super.performUpdateBufferObjects(gl);
+		uploadStateBuffer(gl);
+		setUpdateBuffer(false);
+	}
+
+	/**
+	 * Uploads the complete state buffer in the state buffer object
+	 * @param gl the GL
+	 */
+	private synchronized void uploadStateBuffer(GL3 gl){
 		stateBuffer.rewind();
 		gl.glBindBuffer(GL.GL_ARRAY_BUFFER, stateBufferObject);
-		gl.glBufferData(GL.GL_ARRAY_BUFFER, getVerticesCount()*Buffers.SIZEOF_FLOAT, stateBuffer, GL.GL_DYNAMIC_DRAW);
-		setUpdateBuffer(false);
+		gl.glBufferData(GL.GL_ARRAY_BUFFER, getVerticesCount(), stateBuffer, GL.GL_DYNAMIC_DRAW);
+		clearDirtyStateRange();
+	}
+
+	/**
+	 * Uploads the range of the state buffer modified since the last upload, if any.
+	 * The state buffer object has to be bound
+	 * @param gl the GL
+	 */
+	private synchronized void uploadDirtyStateRange(GL3 gl){
+		if(stateBuffer != null && dirtyStateStart < dirtyStateEnd){
+			ByteBuffer range = stateBuffer.duplicate();
+			range.limit(dirtyStateEnd);
+			range.position(dirtyStateStart);
+			gl.glBufferSubData(GL.GL_ARRAY_BUFFER, dirtyStateStart, dirtyStateEnd - dirtyStateStart, range);
+			clearDirtyStateRange();
+		}
+	}
+
+	/**
+	 * Extends the range of the state buffer to upload and requests a frame to display it
+	 * @param start the start index (inclusive)
+	 * @param end the end index (exclusive)
+	 */
+	private void markDirtyStateRange(int start, int end){
+		dirtyStateStart = Math.min(dirtyStateStart, start);
+		dirtyStateEnd 	= Math.max(dirtyStateEnd, end);
+		requestRender();
+	}
+
+	/**
+	 * Clears the range of the state buffer to upload
+	 */
+	private void clearDirtyStateRange(){
+		dirtyStateStart = Integer.MAX_VALUE;
+		dirtyStateEnd 	= 0;
 	}
 	
 	/**
-	 * (inheritDoc)
+	 * Requests a new geometry. The geometry is built in background while the current one keeps being rendered,
+	 * and a build still running for a previous request is canceled.
 	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#updateGeometry()
 	 */
-	public void updateGeometry() throws GkException {
-		super.updateGeometry();		
-	};
+	@Override
+	public void updateGeometry() {
+		GeometryBuild build = new GeometryBuild();
+		synchronized (buildLock) {
+			if(currentBuild != null){
+				currentBuild.cancel();
+			}
+			currentBuild = build;
+		}
+		GEOMETRY_BUILDER.execute(build);
+	}
+
+	/**
+	 * Cancels the geometry build in progress, if any. The current geometry is kept
+	 */
+	public void cancelGeometryBuild(){
+		synchronized (buildLock) {
+			if(currentBuild != null){
+				currentBuild.cancel();
+				currentBuild = null;
+			}
+		}
+	}
+
+	/**
+	 * Publishes a geometry built in background, and request the swap on the GL thread
+	 * @param build the build
+	 * @param geometry the built geometry
+	 * @throws GkException GkException
+	 */
+	private void publishGeometry(GeometryBuild build, ToolpathGeometry geometry) throws GkException{
+		synchronized (buildLock) {
+			if(build.isCanceled()){
+				return;
+			}
+			currentBuild = null;
+			readyGeometry.set(geometry);
+		}
+		super.updateGeometry();
+	}
 
 	/** (inheritDoc)
 	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#initializeAdditionalBufferObjects(javax.media.opengl.GL3)
@@ -220,10 +739,52 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 			this.stateBufferObject = vbo[0];
 		}
 		// Make sure we take everything
-		stateBuffer.rewind();
-		gl.glBindBuffer(GL.GL_ARRAY_BUFFER, stateBufferObject);
-		gl.glBufferData(GL.GL_ARRAY_BUFFER, getVerticesCount()*Buffers.SIZEOF_FLOAT, stateBuffer, GL.GL_DYNAMIC_DRAW);
+		uploadStateBuffer(gl);
 		gl.glEnableVertexAttribArray(STATE_LAYOUT);
+
+		// Initialize the decimated indices buffer object
+		if(chunks != null){
+			if(this.decimatedIndicesBufferObject == null){
+				int[] vbo = new int[1];
+				gl.glGenBuffers(1, vbo, 0);
+				this.decimatedIndicesBufferObject = vbo[0];
+			}
+			IntBuffer indices = chunks.getDecimatedIndices();
+			indices.rewind();
+			gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, decimatedIndicesBufferObject);
+			gl.glBufferData(GL.GL_ELEMENT_ARRAY_BUFFER, indices.limit() * Buffers.SIZEOF_INT, indices, GL.GL_STATIC_DRAW);
+		}
+
+		// Initialize the instance offsets buffer object
+		if(chunks != null && chunks.getInstanceOffsets() != null){
+			if(this.instanceBufferObject == null){
+				int[] vbo = new int[1];
+				gl.glGenBuffers(1, vbo, 0);
+				this.instanceBufferObject = vbo[0];
+			}
+			float[] offsets = chunks.getInstanceOffsets();
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, instanceBufferObject);
+			gl.glBufferData(GL.GL_ARRAY_BUFFER, offsets.length * Buffers.SIZEOF_FLOAT, Buffers.newDirectFloatBuffer(offsets), GL.GL_STATIC_DRAW);
+			gl.glVertexAttribPointer(INSTANCE_OFFSET_LAYOUT, 3, GL.GL_FLOAT, false, 0, 0);
+			gl.glVertexAttribDivisor(INSTANCE_OFFSET_LAYOUT, 1);
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#performDestroy(javax.media.opengl.GL3)
+	 */
+	@Override
+	public void performDestroy(GL3 gl) throws GkException {
+		cancelGeometryBuild();
+		if(isInitialized() && decimatedIndicesBufferObject != null){
+			gl.glDeleteBuffers(1, new int[]{decimatedIndicesBufferObject}, 0);
+			decimatedIndicesBufferObject = null;
+		}
+		if(isInitialized() && instanceBufferObject != null){
+			gl.glDeleteBuffers(1, new int[]{instanceBufferObject}, 0);
+			instanceBufferObject = null;
+		}
+		super.performDestroy(gl);
 	}
 
 	/** (inheritDoc)
@@ -233,7 +794,15 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 	protected void enableAdditionalVertexAttribArray(GL3 gl) throws GkException {
 		gl.glEnableVertexAttribArray(STATE_LAYOUT);
 		gl.glBindBuffer(GL.GL_ARRAY_BUFFER, stateBufferObject);
-		gl.glVertexAttribPointer(STATE_LAYOUT, 1, GL3.GL_FLOAT, false, 0, 0);
+		// Only send the states changed since the last frame
+		uploadDirtyStateRange(gl);
+		gl.glVertexAttribIPointer(STATE_LAYOUT, 1, GL.GL_UNSIGNED_BYTE, 0, 0);
+		if(chunks != null && chunks.getInstanceOffsets() != null){
+			gl.glEnableVertexAttribArray(INSTANCE_OFFSET_LAYOUT);
+		}else{
+			// Single instance at the origin
+			gl.glVertexAttrib3f(INSTANCE_OFFSET_LAYOUT, 0, 0, 0);
+		}
 	}
 	
 	/** (inheritDoc)
@@ -242,6 +811,7 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 	@Override
 	protected void disableAdditionalVertexAttribArray(GL3 gl) throws GkException {
 		gl.glDisableVertexAttribArray(STATE_LAYOUT);
+		gl.glDisableVertexAttribArray(INSTANCE_OFFSET_LAYOUT);
 	}
 
 	/**
@@ -258,13 +828,14 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 		this.id = id;
 	}
 
-	void reinitializeStateBuffer(){
+	synchronized void reinitializeStateBuffer(){
+		storedStates = null;
 		if(stateBuffer != null){
 			int capacity = stateBuffer.capacity();
 			for (int i = 0; i < capacity; i++){
-				stateBuffer.put(i, ExecutionTokenState.NONE_STATE);
+				stateBuffer.put(i, (byte) ExecutionTokenState.NONE_STATE);
 			}
-			update();
+			markDirtyStateRange(0, capacity);
 		}	
 	}
 	/** (inheritDoc)
@@ -273,6 +844,9 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 	@Override
 	public void onExecutionStart(ExecutionToken<ExecutionTokenState> token) throws GkException {
 		if(ObjectUtils.equals(token.getGCodeProvider(), gcodeProvider)){
+			synchronized(this){
+				executionToken = token;
+			}
 			reinitializeStateBuffer();
 		}
 	}
@@ -328,44 +902,58 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 	public void onLineStateChanged(ExecutionToken<ExecutionTokenState> token, Integer idLine) throws GkException {
 		if(ObjectUtils.equals(token.getGCodeProvider(), gcodeProvider)){
 			synchronized(this){
-				if(mapVerticesGroupByIdLine != null && stateBuffer != null){		
-					if(mapVerticesGroupByIdLine.containsKey(idLine)){
-						// Process stored states
-						if(storedStates != null){
-							for (Integer storedLineId : storedStates.keySet()) {
-								updateStateBuffer(storedLineId, storedStates.get(storedLineId));
-							}
-							storedStates.clear();
-							storedStates = null;
-						}
-						
-						// Process last received state						
-						ExecutionTokenState state = token.getLineState(idLine);
-						updateStateBuffer(idLine, state);
-					}	
-				}else{
-					// Renderer not initialized yet, we have to store received line
-					if(storedStates == null){
-						storedStates = new HashMap<>();
-					}					
-					storedStates.put(idLine, token.getLineState(idLine));
-					LOG.info("Storing state line change for line ["+idLine+"] before init");
+				executionToken = token;
+				updateLineState(idLine, token.getLineState(idLine));
+			}
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.service.IGCodeLineRangeExecutionListener#onLineStateRangeChanged(org.goko.core.gcode.execution.IExecutionToken, org.goko.core.gcode.execution.IExecutionTokenState, int, int)
+	 */
+	@Override
+	public void onLineStateRangeChanged(ExecutionToken<ExecutionTokenState> token, ExecutionTokenState state, int firstIdLine, int lastIdLine) throws GkException {
+		if(ObjectUtils.equals(token.getGCodeProvider(), gcodeProvider)){
+			synchronized(this){
+				executionToken = token;
+				for (int idLine = firstIdLine; idLine <= lastIdLine; idLine++) {
+					updateLineState(idLine, state);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Updates the state of the given line, or stores it if the geometry is not built yet
+	 * @param idLine the id of the line
+	 * @param state the new state of the line
+	 */
+	private void updateLineState(Integer idLine, ExecutionTokenState state){
+		if(geometryInstalled){
+			updateStateBuffer(idLine, state);
+		}else{
+			// Geometry not built yet (missing or empty placeholder), we have to store received line
+			if(storedStates == null){
+				storedStates = new HashMap<>();
+			}					
+			storedStates.put(idLine, state);
+			LOG.debug("Storing state line change for line ["+idLine+"] before init");
+		}
+	}
+
 	private void updateStateBuffer(Integer idLine, ExecutionTokenState state){
 		// Process last received state
 		VerticesGroupByLine group = mapVerticesGroupByIdLine.get(idLine);		
 		if(stateBuffer != null){
 			// Make sure the line created renderable items (an empty line, not creating instruction, will be skipped)			
 			if(group != null){
-				for (int i = group.getStartIndex(); i < group.getStartIndex() + group.getLength(); i++) {
-					stateBuffer.put(i, state.getState());
+				byte value = (byte) state.getState();
+				int end = group.getStartIndex() + group.getLength();
+				for (int i = group.getStartIndex(); i < end; i++) {
+					stateBuffer.put(i, value);
 				}
+				markDirtyStateRange(group.getStartIndex(), end);
 			}
-			update();
 		}
 	}
 	/**
@@ -389,6 +977,22 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 		return gcodeProvider;
 	}
 
+	/**
+	 * @return <code>true</code> if the copies of array modifiers can be drawn as instances
+	 */
+	public boolean isInstancingEnabled() {
+		return instancingEnabled;
+	}
+
+	/**
+	 * Enables or disables the drawing of the copies of array modifiers as instances of the copied code.
+	 * It has to be disabled when the execution state of each line of the expanded code is displayed. The geometry is not updated
+	 * @param instancingEnabled <code>true</code> to enable instancing
+	 */
+	public void setInstancingEnabled(boolean instancingEnabled) {
+		this.instancingEnabled = instancingEnabled;
+	}
+
 	/**
 	 * @return the colorizer
 	 */
@@ -403,6 +1007,119 @@ public class RS274GCodeRenderer extends AbstractLineRenderer implements ICoreJog
 		this.colorizer = colorizer;
 	}
 
+	/**
+	 * Geometry of the toolpath, ready to be swapped in
+	 */
+	private static class ToolpathGeometry{
+		/** The provider the geometry was built from, which gives the ids of the lines */
+		private final IGCodeProvider renderedProvider;
+		/** The vertices and colors */
+		private final ToolpathGeometryBuffer buffer;
+		/** The vertices and colors, interleaved for the upload */
+		private final FloatBuffer interleavedBuffer;
+		/** The vertices by line */
+		private final Map<Integer, VerticesGroupByLine> verticesGroups;
+		/** The spatial chunks */
+		private final ToolpathChunks chunks;
+		/** The spatial index of the segments */
+		private final ToolpathSegmentIndex segmentIndex;
+		/** First vertex and number of vertices of the lead-in of each instance, or <code>null</code> */
+		private final int[] leadIns;
+
+		/**
+		 * Constructor
+		 * @param renderedProvider the provider the geometry was built from
+		 * @param buffer the vertices and colors
+		 * @param verticesGroups the vertices by line
+		 */
+		ToolpathGeometry(IGCodeProvider renderedProvider, ToolpathGeometryBuffer buffer, Map<Integer, VerticesGroupByLine> verticesGroups) {
+			this(renderedProvider, buffer, verticesGroups, null, buffer.getVerticesCount(), null, null);
+		}
+
+		/**
+		 * Constructor
+		 * @param renderedProvider the provider the geometry was built from
+		 * @param buffer the vertices and colors
+		 * @param verticesGroups the vertices by line
+		 * @param instanceOffsets the offset of each drawn instance, or <code>null</code> for a single instance
+		 * @param instancedVerticesCount the number of vertices drawn for each instance, at the start of the buffer
+		 * @param leadIns first vertex and number of vertices of the lead-in of each instance, drawn once after the instances, or <code>null</code>
+		 * @param cancellation the cancellation check of the build, or <code>null</code>
+		 * @throws CancellationException if the build is canceled
+		 */
+		ToolpathGeometry(IGCodeProvider renderedProvider, ToolpathGeometryBuffer buffer, Map<Integer, VerticesGroupByLine> verticesGroups, float[] instanceOffsets, int instancedVerticesCount, int[] leadIns, ICancellationCheck cancellation) {
+			this.renderedProvider = renderedProvider;
+			this.buffer = buffer;
+			this.interleavedBuffer = buffer.createInterleavedBuffer();
+			this.verticesGroups = verticesGroups;
+			this.leadIns = leadIns;
+			this.chunks = new ToolpathChunks(buffer.getVerticesBuffer(), instancedVerticesCount, instanceOffsets, cancellation);
+			this.segmentIndex = new ToolpathSegmentIndex(buffer.getVerticesBuffer(), instancedVerticesCount, verticesGroups, instanceOffsets, cancellation);
+		}
+	}
+
+	/**
+	 * A geometry build running in the geometry builder pool
+	 */
+	private class GeometryBuild implements Runnable, ICancellationCheck{
+		/** Cancellation flag */
+		private volatile boolean canceled;
+
+		/** (inheritDoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				ToolpathGeometry geometry = null;
+				AbstractInstructionColorizer buildColorizer = colorizer;
+				// The colorizer is shared between the renderers and keeps state during a build
+				synchronized (buildColorizer) {
+					// A newer request may have been made while waiting for the colorizer
+					if(canceled){
+						return;
+					}
+					geometry = computeGeometry(this, buildColorizer, instancingEnabled);
+				}
+				if(geometry != null){
+					publishGeometry(this, geometry);
+				}
+			} catch (GkException e) {
+				LOG.error(e);
+			}
+		}
+
+		void cancel(){
+			this.canceled = true;
+		}
+
+		/** (inheritDoc)
+		 * @see org.goko.core.gcode.rs274ngcv3.jogl.renderer.ICancellationCheck#isCanceled()
+		 */
+		@Override
+		public boolean isCanceled(){
+			return canceled;
+		}
+	}
+
+	/**
+	 * Creates the daemon threads of the geometry builder pool
+	 */
+	private static final class GeometryBuilderThreadFactory implements ThreadFactory {
+		/** Thread counter */
+		private static final AtomicInteger number = new AtomicInteger(0);
+
+		/** (inheritDoc)
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, String.format("gcode-geometry-builder-%d", number.incrementAndGet()));
+			t.setDaemon(true);
+			t.setPriority(Thread.NORM_PRIORITY - 1);
+			return t;
+		}
+	}
 }
 
 /**
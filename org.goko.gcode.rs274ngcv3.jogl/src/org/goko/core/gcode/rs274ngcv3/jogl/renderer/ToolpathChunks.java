@@ -0,0 +1,352 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.rs274ngcv3.jogl.renderer;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.CancellationException;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL3;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.math.geom.AABBox;
+import com.jogamp.opengl.math.geom.Frustum;
+
+/**
+ * Splits the vertices of a toolpath line strip in chunks of consecutive vertices, each with its own bounds.
+ * A toolpath being a continuous path, consecutive vertices are spatially close, so the chunks can be culled
+ * against the view frustum. Each chunk also gets a decimated version (Douglas-Peucker) used when it only
+ * covers a few pixels on screen.
+ * The toolpath can also be drawn as several translated instances, in which case a chunk is culled only if all its instances are
+ * outside the view frustum and its level of detail is driven by its closest instance.
+ *
+ * @author PsyKo
+ */
+public class ToolpathChunks {
+	/** Number of vertices per chunk */
+	static final int CHUNK_SIZE = 4096;
+	/** Projected size in pixels under which a chunk is drawn with its decimated version */
+	static final float LOD_PIXEL_SIZE = 256;
+	/** Float components per vertex in the vertices buffer */
+	private static final int COMPONENTS = 4;
+	/** Chunk not drawn */
+	private static final int CULLED = 0;
+	/** Chunk drawn with all its vertices */
+	private static final int FULL = 1;
+	/** Chunk drawn with its decimated vertices */
+	private static final int DECIMATED = 2;
+	/** Total number of vertices */
+	private final int verticesCount;
+	/** Number of chunks */
+	private final int chunkCount;
+	/** Bounds of each chunk */
+	private final AABBox[] bounds;
+	/** Radius of the bounding sphere of each chunk */
+	private final float[] radius;
+	/** Offset of the decimated indices of each chunk in the indices buffer */
+	private final int[] decimatedOffset;
+	/** Number of decimated indices of each chunk */
+	private final int[] decimatedCount;
+	/** The decimated indices of all the chunks */
+	private final IntBuffer decimatedIndices;
+	/** Frustum used for culling */
+	private final Frustum frustum;
+	/** Offset of each instance, as (x, y, z), or <code>null</code> for a single instance at the origin */
+	private final float[] instanceOffsets;
+	/** Number of drawn instances */
+	private final int instanceCount;
+	/** Lowest offset of the instances on each axis */
+	private final float[] instanceLow;
+	/** Highest offset of the instances on each axis */
+	private final float[] instanceHigh;
+	/** Bounds of all the instances of the tested chunk */
+	private final AABBox instancesBox;
+
+	/**
+	 * Constructor
+	 * @param vertices the vertices buffer, as (x, y, z, w)
+	 * @param verticesCount the number of vertices
+	 */
+	public ToolpathChunks(FloatBuffer vertices, int verticesCount) {
+		this(vertices, verticesCount, null, null);
+	}
+
+	/**
+	 * Constructor
+	 * @param vertices the vertices buffer, as (x, y, z, w)
+	 * @param verticesCount the number of vertices
+	 * @param instanceOffsets the offset of each drawn instance, as (x, y, z), or <code>null</code> for a single instance at the origin
+	 * @param cancellation the cancellation check of the computation, checked for each chunk, or <code>null</code>
+	 * @throws CancellationException if the computation is canceled
+	 */
+	public ToolpathChunks(FloatBuffer vertices, int verticesCount, float[] instanceOffsets, ICancellationCheck cancellation) {
+		this.verticesCount 		= verticesCount;
+		this.instanceOffsets 	= instanceOffsets;
+		this.instanceCount 		= instanceOffsets == null ? 1 : instanceOffsets.length / 3;
+		this.instanceLow 		= new float[3];
+		this.instanceHigh 		= new float[3];
+		this.instancesBox 		= new AABBox();
+		if(instanceOffsets != null){
+			for (int axis = 0; axis < 3; axis++) {
+				instanceLow[axis]  = Float.MAX_VALUE;
+				instanceHigh[axis] = -Float.MAX_VALUE;
+				for (int i = 0; i < instanceCount; i++) {
+					instanceLow[axis]  = Math.min(instanceLow[axis], instanceOffsets[3 * i + axis]);
+					instanceHigh[axis] = Math.max(instanceHigh[axis], instanceOffsets[3 * i + axis]);
+				}
+			}
+		}
+		this.chunkCount 		= verticesCount < 2 ? 0 : (verticesCount - 2) / CHUNK_SIZE + 1;
+		this.bounds 			= new AABBox[chunkCount];
+		this.radius 			= new float[chunkCount];
+		this.decimatedOffset 	= new int[chunkCount];
+		this.decimatedCount 	= new int[chunkCount];
+		this.frustum 			= new Frustum();
+
+		IntBuffer indices = Buffers.newDirectIntBuffer(Math.max(1, verticesCount + chunkCount));
+		boolean[] keep = new boolean[CHUNK_SIZE + 1];
+		int[] stack = new int[2 * (CHUNK_SIZE + 1)];
+		for (int i = 0; i < chunkCount; i++) {
+			if(cancellation != null && cancellation.isCanceled()){
+				throw new CancellationException();
+			}
+			int first = getFirstVertex(i);
+			int last  = getLastVertex(i);
+			AABBox box = new AABBox();
+			for (int j = first; j <= last; j++) {
+				int index = j * COMPONENTS;
+				box.resize(vertices.get(index), vertices.get(index + 1), vertices.get(index + 2));
+			}
+			bounds[i] = box;
+			radius[i] = box.getSize() / 2;
+			// Decimate so that the error stays under a pixel as long as the chunk is smaller than LOD_PIXEL_SIZE on screen
+			decimate(vertices, first, last, box.getSize() / LOD_PIXEL_SIZE, keep, stack);
+			decimatedOffset[i] = indices.position();
+			for (int j = first; j <= last; j++) {
+				if(keep[j - first]){
+					indices.put(j);
+				}
+			}
+			decimatedCount[i] = indices.position() - decimatedOffset[i];
+		}
+		indices.flip();
+		this.decimatedIndices = indices;
+	}
+
+	/**
+	 * Draws the visible chunks. Consecutive chunks drawn the same way are merged in a single draw call
+	 * @param gl the GL
+	 * @param primitive the rendered primitive
+	 * @param viewProjectionMatrix the complete projection * model view matrix
+	 * @param projectionScale the horizontal scale factor of the projection matrix
+	 * @param viewportWidth the width of the viewport in pixels
+	 */
+	public void draw(GL3 gl, int primitive, float[] viewProjectionMatrix, float projectionScale, int viewportWidth){
+		frustum.updateByPMV(viewProjectionMatrix, 0);
+		int runMode 	= CULLED;
+		int runFirst 	= 0;
+		for (int i = 0; i < chunkCount; i++) {
+			int mode = getDrawMode(i, viewProjectionMatrix, projectionScale, viewportWidth);
+			if(mode != runMode){
+				drawRun(gl, primitive, runMode, runFirst, i - 1);
+				runMode  = mode;
+				runFirst = i;
+			}
+		}
+		drawRun(gl, primitive, runMode, runFirst, chunkCount - 1);
+	}
+
+	/**
+	 * Determines how the given chunk should be drawn
+	 * @param chunk the index of the chunk
+	 * @param viewProjectionMatrix the complete projection * model view matrix
+	 * @param projectionScale the horizontal scale factor of the projection matrix
+	 * @param viewportWidth the width of the viewport in pixels
+	 * @return CULLED, FULL or DECIMATED
+	 */
+	private int getDrawMode(int chunk, float[] viewProjectionMatrix, float projectionScale, int viewportWidth){
+		AABBox box = bounds[chunk];
+		if(instanceOffsets != null){
+			instancesBox.setSize(box.getMinX() + instanceLow[0], box.getMinY() + instanceLow[1], box.getMinZ() + instanceLow[2],
+								 box.getMaxX() + instanceHigh[0], box.getMaxY() + instanceHigh[1], box.getMaxZ() + instanceHigh[2]);
+			if(frustum.isAABBoxOutside(instancesBox)){
+				return CULLED;
+			}
+		}else if(frustum.isAABBoxOutside(box)){
+			return CULLED;
+		}
+		float[] center = box.getCenter();
+		float w = viewProjectionMatrix[3] * center[0] + viewProjectionMatrix[7] * center[1] + viewProjectionMatrix[11] * center[2] + viewProjectionMatrix[15];
+		if(instanceOffsets != null){
+			// Use the closest instance
+			float centerW = w;
+			for (int i = 0; i < instanceCount; i++) {
+				float dw = viewProjectionMatrix[3] * instanceOffsets[3 * i] + viewProjectionMatrix[7] * instanceOffsets[3 * i + 1] + viewProjectionMatrix[11] * instanceOffsets[3 * i + 2];
+				w = Math.min(w, centerW + dw);
+			}
+		}
+		if(w <= 0){
+			// The camera is inside or very close to the chunk
+			return FULL;
+		}
+		float pixelSize = radius[chunk] * Math.abs(projectionScale) * viewportWidth / w;
+		return pixelSize < LOD_PIXEL_SIZE ? DECIMATED : FULL;
+	}
+
+	/**
+	 * Draws a run of consecutive chunks drawn the same way
+	 * @param gl the GL
+	 * @param primitive the rendered primitive
+	 * @param mode the draw mode of the chunks
+	 * @param firstChunk the first chunk of the run
+	 * @param lastChunk the last chunk of the run (inclusive)
+	 */
+	private void drawRun(GL3 gl, int primitive, int mode, int firstChunk, int lastChunk){
+		if(lastChunk < firstChunk){
+			return;
+		}
+		if(mode == FULL){
+			int first = getFirstVertex(firstChunk);
+			if(instanceOffsets != null){
+				gl.glDrawArraysInstanced(primitive, first, getLastVertex(lastChunk) - first + 1, instanceCount);
+			}else{
+				gl.glDrawArrays(primitive, first, getLastVertex(lastChunk) - first + 1);
+			}
+		}else if(mode == DECIMATED){
+			int count = decimatedOffset[lastChunk] + decimatedCount[lastChunk] - decimatedOffset[firstChunk];
+			if(instanceOffsets != null){
+				gl.glDrawElementsInstanced(primitive, count, GL.GL_UNSIGNED_INT, (long) decimatedOffset[firstChunk] * Buffers.SIZEOF_INT, instanceCount);
+			}else{
+				gl.glDrawElements(primitive, count, GL.GL_UNSIGNED_INT, (long) decimatedOffset[firstChunk] * Buffers.SIZEOF_INT);
+			}
+		}
+	}
+
+	/**
+	 * Marks the vertices to keep between first and last (inclusive) so that the decimated polyline stays within the given tolerance
+	 * @param vertices the vertices buffer
+	 * @param first the first vertex
+	 * @param last the last vertex
+	 * @param tolerance the tolerance
+	 * @param keep the array receiving the kept flags, indexed from first
+	 * @param stack the work stack
+	 */
+	private void decimate(FloatBuffer vertices, int first, int last, float tolerance, boolean[] keep, int[] stack){
+		for (int i = 0; i <= last - first; i++) {
+			keep[i] = false;
+		}
+		keep[0] = true;
+		keep[last - first] = true;
+		double toleranceSquared = (double) tolerance * tolerance;
+		int top = 0;
+		stack[top++] = first;
+		stack[top++] = last;
+		while(top > 0){
+			int end 	= stack[--top];
+			int start 	= stack[--top];
+			double maxDistance = 0;
+			int farthest = -1;
+			for (int i = start + 1; i < end; i++) {
+				double distance = segmentDistanceSquared(vertices, i, start, end);
+				if(distance > maxDistance){
+					maxDistance = distance;
+					farthest 	= i;
+				}
+			}
+			if(farthest >= 0 && maxDistance > toleranceSquared){
+				keep[farthest - first] = true;
+				stack[top++] = start;
+				stack[top++] = farthest;
+				stack[top++] = farthest;
+				stack[top++] = end;
+			}
+		}
+	}
+
+	/**
+	 * Computes the squared distance between a vertex and a segment
+	 * @param vertices the vertices buffer
+	 * @param point the index of the vertex
+	 * @param start the index of the start vertex of the segment
+	 * @param end the index of the end vertex of the segment
+	 * @return the squared distance
+	 */
+	private static double segmentDistanceSquared(FloatBuffer vertices, int point, int start, int end){
+		int p = point * COMPONENTS;
+		int a = start * COMPONENTS;
+		int b = end * COMPONENTS;
+		double ax = vertices.get(a), ay = vertices.get(a + 1), az = vertices.get(a + 2);
+		double abx = vertices.get(b) - ax, aby = vertices.get(b + 1) - ay, abz = vertices.get(b + 2) - az;
+		double apx = vertices.get(p) - ax, apy = vertices.get(p + 1) - ay, apz = vertices.get(p + 2) - az;
+		double lengthSquared = abx * abx + aby * aby + abz * abz;
+		double t = 0;
+		if(lengthSquared > 0){
+			t = Math.max(0, Math.min(1, (apx * abx + apy * aby + apz * abz) / lengthSquared));
+		}
+		double dx = apx - t * abx;
+		double dy = apy - t * aby;
+		double dz = apz - t * abz;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * @param chunk the index of the chunk
+	 * @return the index of the first vertex of the given chunk
+	 */
+	private int getFirstVertex(int chunk){
+		return chunk * CHUNK_SIZE;
+	}
+
+	/**
+	 * Returns the index of the last vertex of the given chunk. It is also the first vertex of the next chunk, so the strip stays continuous
+	 * @param chunk the index of the chunk
+	 * @return the index of the last vertex of the given chunk
+	 */
+	private int getLastVertex(int chunk){
+		return Math.min((chunk + 1) * CHUNK_SIZE, verticesCount - 1);
+	}
+
+	/**
+	 * @return the decimated indices of all the chunks
+	 */
+	public IntBuffer getDecimatedIndices() {
+		return decimatedIndices;
+	}
+
+	/**
+	 * @return the offset of each instance, as (x, y, z), or <code>null</code> for a single instance at the origin
+	 */
+	public float[] getInstanceOffsets() {
+		return instanceOffsets;
+	}
+
+	/**
+	 * @return the number of drawn instances
+	 */
+	public int getInstanceCount() {
+		return instanceCount;
+	}
+
+	/**
+	 * @return the number of chunks
+	 */
+	public int getChunkCount() {
+		return chunkCount;
+	}
+}
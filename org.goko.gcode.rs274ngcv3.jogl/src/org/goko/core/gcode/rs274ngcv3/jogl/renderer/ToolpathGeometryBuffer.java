@@ -0,0 +1,176 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.rs274ngcv3.jogl.renderer;
+
+import java.nio.FloatBuffer;
+
+import javax.vecmath.Color4f;
+import javax.vecmath.Tuple3d;
+
+import com.jogamp.common.nio.Buffers;
+
+/**
+ * Growable pair of direct buffers receiving the vertices and colors of a toolpath as they are generated.
+ * Vertices are stored as (x, y, z, 1) and colors as (r, g, b, a), so both buffers can be handed to the
+ * renderer without any intermediate copy.
+ *
+ * @author PsyKo
+ */
+public class ToolpathGeometryBuffer {
+	/** Number of floats per vertex or color */
+	private static final int COMPONENTS = 4;
+	/** Minimum capacity in vertices */
+	private static final int MIN_CAPACITY = 64;
+	/** The vertices buffer */
+	private FloatBuffer vertices;
+	/** The colors buffer */
+	private FloatBuffer colors;
+	/** Number of vertices written */
+	private int verticesCount;
+	/** Number of vertices with a color */
+	private int colorsCount;
+
+	/**
+	 * Constructor
+	 * @param expectedVerticesCount the expected number of vertices, used to pre-size the buffers
+	 */
+	public ToolpathGeometryBuffer(int expectedVerticesCount) {
+		int capacity = Math.max(MIN_CAPACITY, expectedVerticesCount);
+		this.vertices = Buffers.newDirectFloatBuffer(capacity * COMPONENTS);
+		this.colors = Buffers.newDirectFloatBuffer(capacity * COMPONENTS);
+	}
+
+	/**
+	 * Appends a vertex
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 */
+	public void addVertex(double x, double y, double z){
+		ensureCapacity(verticesCount + 1);
+		int index = verticesCount * COMPONENTS;
+		vertices.put(index    , (float) x);
+		vertices.put(index + 1, (float) y);
+		vertices.put(index + 2, (float) z);
+		vertices.put(index + 3, 1f);
+		verticesCount++;
+	}
+
+	/**
+	 * Appends a vertex
+	 * @param point the point
+	 */
+	public void addVertex(Tuple3d point){
+		addVertex(point.x, point.y, point.z);
+	}
+
+	/**
+	 * Assigns the given color to all the vertices added since the last call
+	 * @param color the color
+	 */
+	public void fillColors(Color4f color){
+		for (int i = colorsCount; i < verticesCount; i++) {
+			int index = i * COMPONENTS;
+			colors.put(index    , color.x);
+			colors.put(index + 1, color.y);
+			colors.put(index + 2, color.z);
+			colors.put(index + 3, color.w);
+		}
+		colorsCount = verticesCount;
+	}
+
+	/**
+	 * Makes sure the buffers can hold the given number of vertices
+	 * @param count the number of vertices
+	 */
+	private void ensureCapacity(int count){
+		if(count * COMPONENTS > vertices.capacity()){
+			int capacity = Math.max(count, vertices.capacity() / COMPONENTS * 2);
+			vertices = grow(vertices, capacity * COMPONENTS);
+			colors = grow(colors, capacity * COMPONENTS);
+		}
+	}
+
+	/**
+	 * Creates a larger direct buffer holding the content of the given one
+	 * @param buffer the buffer to grow
+	 * @param capacity the new capacity
+	 * @return FloatBuffer
+	 */
+	private FloatBuffer grow(FloatBuffer buffer, int capacity){
+		FloatBuffer result = Buffers.newDirectFloatBuffer(capacity);
+		buffer.clear();
+		result.put(buffer);
+		result.rewind();
+		return result;
+	}
+
+	/**
+	 * @return the number of vertices written
+	 */
+	public int getVerticesCount() {
+		return verticesCount;
+	}
+
+	/**
+	 * Returns the vertices buffer, limited to the written vertices
+	 * @return FloatBuffer
+	 */
+	public FloatBuffer getVerticesBuffer() {
+		return view(vertices);
+	}
+
+	/**
+	 * Returns the colors buffer, limited to the written vertices
+	 * @return FloatBuffer
+	 */
+	public FloatBuffer getColorsBuffer() {
+		return view(colors);
+	}
+
+	/**
+	 * Creates a buffer interleaving the written vertices and their colors as (x, y, z, 1, r, g, b, a)
+	 * @return FloatBuffer
+	 */
+	public FloatBuffer createInterleavedBuffer() {
+		FloatBuffer result = Buffers.newDirectFloatBuffer(verticesCount * 2 * COMPONENTS);
+		int length = verticesCount * COMPONENTS;
+		for (int i = 0; i < length; i += COMPONENTS) {
+			for (int j = 0; j < COMPONENTS; j++) {
+				result.put(vertices.get(i + j));
+			}
+			for (int j = 0; j < COMPONENTS; j++) {
+				result.put(colors.get(i + j));
+			}
+		}
+		result.rewind();
+		return result;
+	}
+
+	/**
+	 * Creates a view of the given buffer limited to the written vertices, sharing its content
+	 * @param buffer the buffer
+	 * @return FloatBuffer
+	 */
+	private FloatBuffer view(FloatBuffer buffer){
+		FloatBuffer result = buffer.duplicate();
+		result.position(0);
+		result.limit(verticesCount * COMPONENTS);
+		return result;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.rs274ngcv3.jogl.renderer;
+
+import org.goko.core.gcode.element.IGCodeProvider;
+
+/**
+ * Result of the picking of a toolpath segment in the 3D view
+ *
+ * @author PsyKo
+ */
+public class ToolpathPick {
+	/** The provider of the picked toolpath */
+	private IGCodeProvider gcodeProvider;
+	/** Index of the picked segment */
+	private final int segment;
+	/** Id of the line that generated the picked segment, or <code>null</code> */
+	private final Integer idGCodeLine;
+	/** Index of the picked instance when the toolpath is drawn as several instances */
+	private final int instance;
+	/** Picked point, in the Jogl unit */
+	private final float x;
+	private final float y;
+	private final float z;
+	/** Window depth of the picked point, between 0 (near plane) and 1 (far plane) */
+	private final float depth;
+
+	/**
+	 * Constructor
+	 * @param segment index of the picked segment
+	 * @param idGCodeLine id of the line that generated the picked segment
+	 * @param instance index of the picked instance
+	 * @param x x coordinate of the picked point
+	 * @param y y coordinate of the picked point
+	 * @param z z coordinate of the picked point
+	 * @param depth window depth of the picked point
+	 */
+	public ToolpathPick(int segment, Integer idGCodeLine, int instance, float x, float y, float z, float depth) {
+		this.segment = segment;
+		this.idGCodeLine = idGCodeLine;
+		this.instance = instance;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.depth = depth;
+	}
+
+	/**
+	 * @return the gcodeProvider
+	 */
+	public IGCodeProvider getGCodeProvider() {
+		return gcodeProvider;
+	}
+
+	/**
+	 * @param gcodeProvider the gcodeProvider to set
+	 */
+	public void setGCodeProvider(IGCodeProvider gcodeProvider) {
+		this.gcodeProvider = gcodeProvider;
+	}
+
+	/**
+	 * @return the segment
+	 */
+	public int getSegment() {
+		return segment;
+	}
+
+	/**
+	 * @return the idGCodeLine
+	 */
+	public Integer getIdGCodeLine() {
+		return idGCodeLine;
+	}
+
+	/**
+	 * @return the instance
+	 */
+	public int getInstance() {
+		return instance;
+	}
+
+	/**
+	 * @return the x
+	 */
+	public float getX() {
+		return x;
+	}
+
+	/**
+	 * @return the y
+	 */
+	public float getY() {
+		return y;
+	}
+
+	/**
+	 * @return the z
+	 */
+	public float getZ() {
+		return z;
+	}
+
+	/**
+	 * @return the depth
+	 */
+	public float getDepth() {
+		return depth;
+	}
+}
@@ -0,0 +1,575 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.rs274ngcv3.jogl.renderer;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+
+import com.jogamp.opengl.math.geom.AABBox;
+
+/**
+ * Uniform grid spatial index of the segments of a toolpath line strip, used to find the G-code line under the mouse.
+ * Segment i joins the vertices i and i + 1. Each cell of the grid references the segments crossing it, stored as a
+ * single array of segment indices sorted by cell so the index stays compact for multi-million segments toolpaths.
+ * The index also maps the segments to the G-code lines that generated them, and the lines to their geometry.
+ *
+ * @author PsyKo
+ */
+public class ToolpathSegmentIndex {
+	/** Float components per vertex in the vertices buffer */
+	private static final int COMPONENTS = 4;
+	/** Targeted average number of segments per cell */
+	static final int SEGMENTS_PER_CELL = 2;
+	/** Maximum number of cells of the grid */
+	static final int MAX_CELLS = 1 << 21;
+	/** Maximum number of cells searched around the ray on each side. Beyond, the toolpath is only a few pixels large on screen */
+	static final int MAX_NEIGHBOURHOOD = 4;
+	/** Number of iterations between two checks of the cancellation of the construction */
+	private static final int CANCELLATION_CHECK_INTERVAL = 4096;
+	/** The vertices buffer, as (x, y, z, w) */
+	private final FloatBuffer vertices;
+	/** Number of segments */
+	private final int segmentCount;
+	/** Lowest corner of the grid */
+	private final float[] low;
+	/** Size of a cell */
+	private final float cellSize;
+	/** Number of cells on each axis */
+	private final int[] cellCounts;
+	/** Offset of the segments of each cell in cellSegments, with a last entry holding the total */
+	private final int[] cellStart;
+	/** The segments of all the cells, sorted by cell */
+	private final int[] cellSegments;
+	/** Stamp of the latest query having visited each cell */
+	private final int[] cellStamp;
+	/** Current query stamp */
+	private int stamp;
+	/** Offset of each instance, as (x, y, z), or <code>null</code> for a single instance at the origin */
+	private final float[] instanceOffsets;
+	/** The vertices by line */
+	private final Map<Integer, VerticesGroupByLine> verticesGroups;
+	/** First vertex of each group of vertices, sorted */
+	private final int[] groupStart;
+	/** Id of the line of each group of vertices, in the order of groupStart */
+	private final int[] groupLine;
+
+	/**
+	 * Constructor
+	 * @param vertices the vertices buffer, as (x, y, z, w)
+	 * @param verticesCount the number of vertices
+	 * @param verticesGroups the vertices by line
+	 * @param instanceOffsets the offset of each drawn instance, as (x, y, z), or <code>null</code> for a single instance at the origin
+	 */
+	public ToolpathSegmentIndex(FloatBuffer vertices, int verticesCount, Map<Integer, VerticesGroupByLine> verticesGroups, float[] instanceOffsets) {
+		this(vertices, verticesCount, verticesGroups, instanceOffsets, null);
+	}
+
+	/**
+	 * Constructor
+	 * @param vertices the vertices buffer, as (x, y, z, w)
+	 * @param verticesCount the number of vertices
+	 * @param verticesGroups the vertices by line
+	 * @param instanceOffsets the offset of each drawn instance, as (x, y, z), or <code>null</code> for a single instance at the origin
+	 * @param cancellation the cancellation check of the computation, checked every {@value #CANCELLATION_CHECK_INTERVAL} segments, or <code>null</code>
+	 * @throws CancellationException if the computation is canceled
+	 */
+	public ToolpathSegmentIndex(FloatBuffer vertices, int verticesCount, Map<Integer, VerticesGroupByLine> verticesGroups, float[] instanceOffsets, ICancellationCheck cancellation) {
+		this.vertices 			= vertices;
+		this.segmentCount 		= Math.max(0, verticesCount - 1);
+		this.instanceOffsets 	= instanceOffsets;
+		this.verticesGroups 	= verticesGroups;
+		this.low 				= new float[3];
+		this.cellCounts 		= new int[]{1, 1, 1};
+
+		// Bounds of the toolpath
+		float[] high = new float[3];
+		for (int axis = 0; axis < 3; axis++) {
+			low[axis]  = verticesCount > 0 ? Float.MAX_VALUE : 0;
+			high[axis] = verticesCount > 0 ? -Float.MAX_VALUE : 0;
+		}
+		for (int i = 0; i < verticesCount; i++) {
+			checkCanceled(cancellation, i);
+			for (int axis = 0; axis < 3; axis++) {
+				float value = vertices.get(i * COMPONENTS + axis);
+				low[axis]  = Math.min(low[axis], value);
+				high[axis] = Math.max(high[axis], value);
+			}
+		}
+		this.cellSize 	= computeCellSize(low, high, Math.min(MAX_CELLS, Math.max(1, segmentCount / SEGMENTS_PER_CELL)));
+		for (int axis = 0; axis < 3; axis++) {
+			cellCounts[axis] = getCellCount(high[axis] - low[axis], cellSize);
+		}
+		int totalCells 	= cellCounts[0] * cellCounts[1] * cellCounts[2];
+		this.cellStart 	= new int[totalCells + 1];
+		this.cellStamp 	= new int[totalCells];
+
+		// First pass counts the segments of each cell, the second one fills them
+		int[] lastSegment = new int[totalCells];
+		Arrays.fill(lastSegment, -1);
+		for (int i = 0; i < segmentCount; i++) {
+			checkCanceled(cancellation, i);
+			insertSegment(i, lastSegment, cellStart, null);
+		}
+		int total = 0;
+		for (int i = 0; i < totalCells; i++) {
+			int count = cellStart[i];
+			cellStart[i] = total;
+			total += count;
+		}
+		cellStart[totalCells] = total;
+		this.cellSegments = new int[total];
+		int[] fill = Arrays.copyOf(cellStart, totalCells);
+		Arrays.fill(lastSegment, -1);
+		for (int i = 0; i < segmentCount; i++) {
+			checkCanceled(cancellation, i);
+			insertSegment(i, lastSegment, fill, cellSegments);
+		}
+
+		// Sorted groups for the segment to line lookup
+		int groupCount = 0;
+		long[] sortedGroups = new long[verticesGroups.size()];
+		for (Entry<Integer, VerticesGroupByLine> entry : verticesGroups.entrySet()) {
+			if(entry.getKey() != null && entry.getValue().getLength() > 0){
+				sortedGroups[groupCount++] = ((long) entry.getValue().getStartIndex() << 32) | (entry.getKey() & 0xFFFFFFFFL);
+			}
+		}
+		Arrays.sort(sortedGroups, 0, groupCount);
+		this.groupStart = new int[groupCount];
+		this.groupLine 	= new int[groupCount];
+		for (int i = 0; i < groupCount; i++) {
+			groupStart[i] = (int) (sortedGroups[i] >>> 32);
+			groupLine[i]  = (int) sortedGroups[i];
+		}
+	}
+
+	/**
+	 * Stops the construction if it was canceled. The check is only made every {@value #CANCELLATION_CHECK_INTERVAL} iterations
+	 * @param cancellation the cancellation check, or <code>null</code>
+	 * @param iteration the current iteration
+	 * @throws CancellationException if the construction is canceled
+	 */
+	private static void checkCanceled(ICancellationCheck cancellation, int iteration){
+		if(cancellation != null && iteration % CANCELLATION_CHECK_INTERVAL == 0 && cancellation.isCanceled()){
+			throw new CancellationException();
+		}
+	}
+
+	/**
+	 * Computes the size of the cells so that the grid holds at most the given number of cells
+	 * @param low the lowest corner of the toolpath
+	 * @param high the highest corner of the toolpath
+	 * @param targetCells the targeted number of cells
+	 * @return the size of a cell
+	 */
+	private static float computeCellSize(float[] low, float[] high, int targetCells){
+		float size = Math.max(high[0] - low[0], Math.max(high[1] - low[1], high[2] - low[2]));
+		if(size <= 0){
+			return 1;
+		}
+		// Shrink the cells until the next step would exceed the target. Flat toolpaths keep a single layer of cells
+		for (int i = 0; i < 128; i++) {
+			float smaller = size * 0.8f;
+			long count = (long) getCellCount(high[0] - low[0], smaller) * getCellCount(high[1] - low[1], smaller) * getCellCount(high[2] - low[2], smaller);
+			if(count > targetCells){
+				break;
+			}
+			size = smaller;
+		}
+		return size;
+	}
+
+	/**
+	 * @param extent the extent of the toolpath on an axis
+	 * @param cellSize the size of a cell
+	 * @return the number of cells required on the axis
+	 */
+	private static int getCellCount(float extent, float cellSize){
+		return Math.max(1, (int) Math.ceil(extent / cellSize));
+	}
+
+	/**
+	 * Registers the given segment in the cells it crosses. The segment is split in pieces shorter than a cell, and each piece is
+	 * registered in the cells overlapped by its bounds
+	 * @param segment the index of the segment
+	 * @param lastSegment the last segment registered in each cell, used to skip duplicates
+	 * @param offsets the count of segments of each cell when target is <code>null</code>, the next free slot of each cell otherwise
+	 * @param target the array receiving the segments, or <code>null</code> to only count them
+	 */
+	private void insertSegment(int segment, int[] lastSegment, int[] offsets, int[] target){
+		int a = segment * COMPONENTS;
+		int b = a + COMPONENTS;
+		float ax = vertices.get(a), ay = vertices.get(a + 1), az = vertices.get(a + 2);
+		float dx = vertices.get(b) - ax, dy = vertices.get(b + 1) - ay, dz = vertices.get(b + 2) - az;
+		if(dx == 0 && dy == 0 && dz == 0){
+			// Joint between two instructions
+			return;
+		}
+		int pieces = Math.max(1, (int) Math.ceil(Math.sqrt(dx * dx + dy * dy + dz * dz) / cellSize));
+		for (int p = 0; p < pieces; p++) {
+			float t0 = (float) p / pieces;
+			float t1 = (float) (p + 1) / pieces;
+			int minX = getCell(Math.min(ax + t0 * dx, ax + t1 * dx), 0), maxX = getCell(Math.max(ax + t0 * dx, ax + t1 * dx), 0);
+			int minY = getCell(Math.min(ay + t0 * dy, ay + t1 * dy), 1), maxY = getCell(Math.max(ay + t0 * dy, ay + t1 * dy), 1);
+			int minZ = getCell(Math.min(az + t0 * dz, az + t1 * dz), 2), maxZ = getCell(Math.max(az + t0 * dz, az + t1 * dz), 2);
+			for (int z = minZ; z <= maxZ; z++) {
+				for (int y = minY; y <= maxY; y++) {
+					for (int x = minX; x <= maxX; x++) {
+						int cell = getCellIndex(x, y, z);
+						if(lastSegment[cell] != segment){
+							lastSegment[cell] = segment;
+							if(target == null){
+								offsets[cell]++;
+							}else{
+								target[offsets[cell]++] = segment;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the segment drawn under the given window position. The ray going through the position is marched from the front to the
+	 * back of the grid, and the segments of the cells around it are tested in window coordinates. The first segment closer than the
+	 * given tolerance is returned, each instance of the toolpath being tested.
+	 * @param viewProjectionMatrix the complete projection * model view matrix used to draw the toolpath
+	 * @param viewport the viewport (x, y, width, height)
+	 * @param windowX x coordinate of the position in the window, in pixels from the left
+	 * @param windowY y coordinate of the position in the window, in pixels from the bottom
+	 * @param pixelTolerance the maximum distance between the position and the segment, in pixels
+	 * @return the picked segment, or <code>null</code> if there is no segment under the given position
+	 */
+	public synchronized ToolpathPick pick(float[] viewProjectionMatrix, int[] viewport, float windowX, float windowY, float pixelTolerance){
+		double[] inverse = new double[16];
+		if(segmentCount == 0 || viewport[2] <= 0 || viewport[3] <= 0 || !invert(viewProjectionMatrix, inverse)){
+			return null;
+		}
+		double ndcX = 2 * (windowX - viewport[0]) / viewport[2] - 1;
+		double ndcY = 2 * (windowY - viewport[1]) / viewport[3] - 1;
+		double[] near = unproject(inverse, ndcX, ndcY, -1);
+		double[] far  = unproject(inverse, ndcX, ndcY, 1);
+		if(near == null || far == null){
+			return null;
+		}
+		double[] direction = new double[]{far[0] - near[0], far[1] - near[1], far[2] - near[2]};
+		double length = Math.sqrt(direction[0] * direction[0] + direction[1] * direction[1] + direction[2] * direction[2]);
+		if(length == 0){
+			return null;
+		}
+		for (int axis = 0; axis < 3; axis++) {
+			direction[axis] /= length;
+		}
+		// Size of a pixel in the toolpath space, per unit of clip w
+		float[] m = viewProjectionMatrix;
+		double scaleX = Math.sqrt(m[0] * m[0] + m[4] * m[4] + m[8] * m[8]) * viewport[2];
+		double scaleY = Math.sqrt(m[1] * m[1] + m[5] * m[5] + m[9] * m[9]) * viewport[3];
+		double pixelSize = 2 / Math.max(Double.MIN_VALUE, Math.min(scaleX, scaleY));
+
+		ToolpathPick best = null;
+		int instanceCount = instanceOffsets == null ? 1 : instanceOffsets.length / 3;
+		double[] origin = new double[3];
+		for (int i = 0; i < instanceCount; i++) {
+			for (int axis = 0; axis < 3; axis++) {
+				origin[axis] = near[axis] - (instanceOffsets == null ? 0 : instanceOffsets[3 * i + axis]);
+			}
+			ToolpathPick pick = pickInstance(i, origin, direction, pixelSize, viewProjectionMatrix, viewport, windowX, windowY, pixelTolerance);
+			if(pick != null && (best == null || pick.getDepth() < best.getDepth())){
+				best = pick;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the segment drawn under the given window position for one instance of the toolpath
+	 * @param instance the index of the instance
+	 * @param origin the origin of the ray, relative to the instance
+	 * @param direction the normalized direction of the ray
+	 * @param pixelSize the size of a pixel in the toolpath space, per unit of clip w
+	 * @param viewProjectionMatrix the complete projection * model view matrix
+	 * @param viewport the viewport
+	 * @param windowX x coordinate of the position in the window
+	 * @param windowY y coordinate of the position in the window
+	 * @param pixelTolerance the maximum distance between the position and the segment, in pixels
+	 * @return the picked segment or <code>null</code>
+	 */
+	private ToolpathPick pickInstance(int instance, double[] origin, double[] direction, double pixelSize, float[] viewProjectionMatrix, int[] viewport, float windowX, float windowY, float pixelTolerance){
+		double margin = MAX_NEIGHBOURHOOD * cellSize;
+		// Clip the ray to the grid, extended by the largest searched neighbourhood
+		double tMin = 0;
+		double tMax = Double.MAX_VALUE;
+		for (int axis = 0; axis < 3; axis++) {
+			double boxLow  = low[axis] - margin;
+			double boxHigh = low[axis] + cellCounts[axis] * cellSize + margin;
+			if(Math.abs(direction[axis]) < 1e-12){
+				if(origin[axis] < boxLow || origin[axis] > boxHigh){
+					return null;
+				}
+			}else{
+				double t0 = (boxLow - origin[axis]) / direction[axis];
+				double t1 = (boxHigh - origin[axis]) / direction[axis];
+				tMin = Math.max(tMin, Math.min(t0, t1));
+				tMax = Math.min(tMax, Math.max(t0, t1));
+			}
+		}
+		if(tMin > tMax){
+			return null;
+		}
+		float[] m = viewProjectionMatrix;
+		float[] offset = new float[3];
+		if(instanceOffsets != null){
+			offset[0] = instanceOffsets[3 * instance];
+			offset[1] = instanceOffsets[3 * instance + 1];
+			offset[2] = instanceOffsets[3 * instance + 2];
+		}
+		// Clip w along the ray, to derive the size of a pixel at each sample
+		double w0 = clipW(m, origin[0] + offset[0], origin[1] + offset[1], origin[2] + offset[2]);
+		double dw = m[3] * direction[0] + m[7] * direction[1] + m[11] * direction[2];
+
+		stamp++;
+		if(stamp == Integer.MAX_VALUE){
+			Arrays.fill(cellStamp, 0);
+			stamp = 1;
+		}
+		ToolpathPick best = null;
+		double bestT = Double.MAX_VALUE;
+		double[] result = new double[5];
+		// Samples are one cell apart, so every cell crossed by the ray is next to a sample
+		for (double t = tMin; t <= tMax + cellSize; t += cellSize) {
+			double radius = pixelTolerance * pixelSize * Math.max(0, w0 + t * dw);
+			int neighbourhood = Math.min(MAX_NEIGHBOURHOOD, Math.max(1, (int) Math.ceil(radius / cellSize + 0.5)));
+			// Farthest distance along the ray between the sample and a point of the searched cells
+			if(best != null && t - 2 * (neighbourhood + 1) * cellSize > bestT){
+				// Nothing closer to the camera remains
+				break;
+			}
+			int cx = getCell(origin[0] + t * direction[0], 0);
+			int cy = getCell(origin[1] + t * direction[1], 1);
+			int cz = getCell(origin[2] + t * direction[2], 2);
+			for (int z = Math.max(0, cz - neighbourhood); z <= Math.min(cellCounts[2] - 1, cz + neighbourhood); z++) {
+				for (int y = Math.max(0, cy - neighbourhood); y <= Math.min(cellCounts[1] - 1, cy + neighbourhood); y++) {
+					for (int x = Math.max(0, cx - neighbourhood); x <= Math.min(cellCounts[0] - 1, cx + neighbourhood); x++) {
+						int cell = getCellIndex(x, y, z);
+						if(cellStamp[cell] == stamp){
+							continue;
+						}
+						cellStamp[cell] = stamp;
+						for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+							int segment = cellSegments[i];
+							if(testSegment(segment, origin, direction, offset, m, viewport, windowX, windowY, pixelTolerance, result) && result[0] < bestT){
+								bestT = result[0];
+								best  = new ToolpathPick(segment, getIdGCodeLine(segment), instance, (float) result[1], (float) result[2], (float) result[3], (float) result[4]);
+							}
+						}
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Tests if the given segment is drawn under the given window position
+	 * @param segment the index of the segment
+	 * @param origin the origin of the ray, relative to the instance
+	 * @param direction the normalized direction of the ray
+	 * @param offset the offset of the instance
+	 * @param m the complete projection * model view matrix
+	 * @param viewport the viewport
+	 * @param windowX x coordinate of the position in the window
+	 * @param windowY y coordinate of the position in the window
+	 * @param pixelTolerance the maximum distance between the position and the segment, in pixels
+	 * @param result the array receiving the ray parameter of the closest point, its coordinates and its window depth
+	 * @return <code>true</code> if the segment is closer than the tolerance
+	 */
+	private boolean testSegment(int segment, double[] origin, double[] direction, float[] offset, float[] m, int[] viewport, float windowX, float windowY, float pixelTolerance, double[] result){
+		int a = segment * COMPONENTS;
+		int b = a + COMPONENTS;
+		double ax = vertices.get(a), ay = vertices.get(a + 1), az = vertices.get(a + 2);
+		double ex = vertices.get(b) - ax, ey = vertices.get(b + 1) - ay, ez = vertices.get(b + 2) - az;
+		double wx = origin[0] - ax, wy = origin[1] - ay, wz = origin[2] - az;
+		// Closest points between the ray and the segment
+		double dotDE = direction[0] * ex + direction[1] * ey + direction[2] * ez;
+		double dotEE = ex * ex + ey * ey + ez * ez;
+		double dotDW = direction[0] * wx + direction[1] * wy + direction[2] * wz;
+		double dotEW = ex * wx + ey * wy + ez * wz;
+		double denominator = dotEE - dotDE * dotDE;
+		double s = 0;
+		if(denominator > 1e-12 * dotEE){
+			s = (dotEW - dotDE * dotDW) / denominator;
+		}else if(dotEE > 0){
+			s = dotEW / dotEE;
+		}
+		s = Math.max(0, Math.min(1, s));
+		double px = ax + s * ex, py = ay + s * ey, pz = az + s * ez;
+		// Distance in the window
+		double x = px + offset[0], y = py + offset[1], z = pz + offset[2];
+		double clipW = clipW(m, x, y, z);
+		if(clipW <= 0){
+			return false;
+		}
+		double clipX = m[0] * x + m[4] * y + m[8]  * z + m[12];
+		double clipY = m[1] * x + m[5] * y + m[9]  * z + m[13];
+		double clipZ = m[2] * x + m[6] * y + m[10] * z + m[14];
+		double distanceX = viewport[0] + (clipX / clipW + 1) * viewport[2] / 2 - windowX;
+		double distanceY = viewport[1] + (clipY / clipW + 1) * viewport[3] / 2 - windowY;
+		if(distanceX * distanceX + distanceY * distanceY > pixelTolerance * pixelTolerance){
+			return false;
+		}
+		result[0] = (px - origin[0]) * direction[0] + (py - origin[1]) * direction[1] + (pz - origin[2]) * direction[2];
+		result[1] = x;
+		result[2] = y;
+		result[3] = z;
+		result[4] = (clipZ / clipW + 1) / 2;
+		return true;
+	}
+
+	/**
+	 * Returns the id of the line that generated the given segment
+	 * @param segment the index of the segment
+	 * @return the id of the line, or <code>null</code> if the segment does not belong to any line
+	 */
+	public Integer getIdGCodeLine(int segment){
+		int index = Arrays.binarySearch(groupStart, segment);
+		if(index < 0){
+			// Insertion point minus one is the group starting before the segment
+			index = -index - 2;
+		}
+		if(index < 0){
+			return null;
+		}
+		return groupLine[index];
+	}
+
+	/**
+	 * Returns the bounds of the geometry of the given line, for the first instance
+	 * @param idGCodeLine the id of the line
+	 * @return the bounds, or <code>null</code> if the line has no geometry
+	 */
+	public AABBox getLineBounds(Integer idGCodeLine){
+		VerticesGroupByLine group = verticesGroups.get(idGCodeLine);
+		if(group == null || group.getLength() == 0){
+			return null;
+		}
+		AABBox box = new AABBox();
+		int end = group.getStartIndex() + group.getLength();
+		for (int i = group.getStartIndex(); i < end; i++) {
+			int index = i * COMPONENTS;
+			box.resize(vertices.get(index), vertices.get(index + 1), vertices.get(index + 2));
+		}
+		return box;
+	}
+
+	/**
+	 * Returns the vertices of the given line. The segments of the line join consecutive vertices of the range
+	 * @param idGCodeLine the id of the line
+	 * @return the first vertex and the number of vertices, or <code>null</code> if the line has no geometry
+	 */
+	public int[] getLineVertices(Integer idGCodeLine){
+		VerticesGroupByLine group = verticesGroups.get(idGCodeLine);
+		if(group == null || group.getLength() == 0){
+			return null;
+		}
+		return new int[]{group.getStartIndex(), group.getLength()};
+	}
+
+	/**
+	 * @return the number of segments
+	 */
+	public int getSegmentCount() {
+		return segmentCount;
+	}
+
+	/**
+	 * Returns the cell containing the given coordinate on the given axis, clamped to the grid
+	 * @param value the coordinate
+	 * @param axis the axis
+	 * @return the index of the cell on the axis
+	 */
+	private int getCell(double value, int axis){
+		int cell = (int) Math.floor((value - low[axis]) / cellSize);
+		return Math.max(0, Math.min(cellCounts[axis] - 1, cell));
+	}
+
+	private int getCellIndex(int x, int y, int z){
+		return (z * cellCounts[1] + y) * cellCounts[0] + x;
+	}
+
+	private static double clipW(float[] m, double x, double y, double z){
+		return m[3] * x + m[7] * y + m[11] * z + m[15];
+	}
+
+	/**
+	 * Unprojects the given normalized device coordinates
+	 * @param inverse the inverse of the complete projection * model view matrix
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param z z coordinate
+	 * @return the point, or <code>null</code> if it is at infinity
+	 */
+	private static double[] unproject(double[] inverse, double x, double y, double z){
+		double w = inverse[3] * x + inverse[7] * y + inverse[11] * z + inverse[15];
+		if(w == 0){
+			return null;
+		}
+		return new double[]{(inverse[0] * x + inverse[4] * y + inverse[8]  * z + inverse[12]) / w,
+							(inverse[1] * x + inverse[5] * y + inverse[9]  * z + inverse[13]) / w,
+							(inverse[2] * x + inverse[6] * y + inverse[10] * z + inverse[14]) / w};
+	}
+
+	/**
+	 * Inverts the given column major matrix
+	 * @param matrix the matrix
+	 * @param inverse the array receiving the inverse
+	 * @return <code>false</code> if the matrix is not invertible
+	 */
+	private static boolean invert(float[] matrix, double[] inverse){
+		double[] m = new double[16];
+		for (int i = 0; i < 16; i++) {
+			m[i] = matrix[i];
+		}
+		inverse[0]  =  m[5] * m[10] * m[15] - m[5] * m[11] * m[14] - m[9] * m[6] * m[15] + m[9] * m[7] * m[14] + m[13] * m[6] * m[11] - m[13] * m[7] * m[10];
+		inverse[4]  = -m[4] * m[10] * m[15] + m[4] * m[11] * m[14] + m[8] * m[6] * m[15] - m[8] * m[7] * m[14] - m[12] * m[6] * m[11] + m[12] * m[7] * m[10];
+		inverse[8]  =  m[4] * m[9]  * m[15] - m[4] * m[11] * m[13] - m[8] * m[5] * m[15] + m[8] * m[7] * m[13] + m[12] * m[5] * m[11] - m[12] * m[7] * m[9];
+		inverse[12] = -m[4] * m[9]  * m[14] + m[4] * m[10] * m[13] + m[8] * m[5] * m[14] - m[8] * m[6] * m[13] - m[12] * m[5] * m[10] + m[12] * m[6] * m[9];
+		inverse[1]  = -m[1] * m[10] * m[15] + m[1] * m[11] * m[14] + m[9] * m[2] * m[15] - m[9] * m[3] * m[14] - m[13] * m[2] * m[11] + m[13] * m[3] * m[10];
+		inverse[5]  =  m[0] * m[10] * m[15] - m[0] * m[11] * m[14] - m[8] * m[2] * m[15] + m[8] * m[3] * m[14] + m[12] * m[2] * m[11] - m[12] * m[3] * m[10];
+		inverse[9]  = -m[0] * m[9]  * m[15] + m[0] * m[11] * m[13] + m[8] * m[1] * m[15] - m[8] * m[3] * m[13] - m[12] * m[1] * m[11] + m[12] * m[3] * m[9];
+		inverse[13] =  m[0] * m[9]  * m[14] - m[0] * m[10] * m[13] - m[8] * m[1] * m[14] + m[8] * m[2] * m[13] + m[12] * m[1] * m[10] - m[12] * m[2] * m[9];
+		inverse[2]  =  m[1] * m[6]  * m[15] - m[1] * m[7]  * m[14] - m[5] * m[2] * m[15] + m[5] * m[3] * m[14] + m[13] * m[2] * m[7]  - m[13] * m[3] * m[6];
+		inverse[6]  = -m[0] * m[6]  * m[15] + m[0] * m[7]  * m[14] + m[4] * m[2] * m[15] - m[4] * m[3] * m[14] - m[12] * m[2] * m[7]  + m[12] * m[3] * m[6];
+		inverse[10] =  m[0] * m[5]  * m[15] - m[0] * m[7]  * m[13] - m[4] * m[1] * m[15] + m[4] * m[3] * m[13] + m[12] * m[1] * m[7]  - m[12] * m[3] * m[5];
+		inverse[14] = -m[0] * m[5]  * m[14] + m[0] * m[6]  * m[13] + m[4] * m[1] * m[14] - m[4] * m[2] * m[13] - m[12] * m[1] * m[6]  + m[12] * m[2] * m[5];
+		inverse[3]  = -m[1] * m[6]  * m[11] + m[1] * m[7]  * m[10] + m[5] * m[2] * m[11] - m[5] * m[3] * m[10] - m[9]  * m[2] * m[7]  + m[9]  * m[3] * m[6];
+		inverse[7]  =  m[0] * m[6]  * m[11] - m[0] * m[7]  * m[10] - m[4] * m[2] * m[11] + m[4] * m[3] * m[10] + m[8]  * m[2] * m[7]  - m[8]  * m[3] * m[6];
+		inverse[11] = -m[0] * m[5]  * m[11] + m[0] * m[7]  * m[9]  + m[4] * m[1] * m[11] - m[4] * m[3] * m[9]  - m[8]  * m[1] * m[7]  + m[8]  * m[3] * m[5];
+		inverse[15] =  m[0] * m[5]  * m[10] - m[0] * m[6]  * m[9]  - m[4] * m[1] * m[10] + m[4] * m[2] * m[9]  + m[8]  * m[1] * m[6]  - m[8]  * m[2] * m[5];
+		double determinant = m[0] * inverse[0] + m[1] * inverse[4] + m[2] * inverse[8] + m[3] * inverse[12];
+		if(determinant == 0){
+			return false;
+		}
+		for (int i = 0; i < 16; i++) {
+			inverse[i] /= determinant;
+		}
+		return true;
+	}
+}
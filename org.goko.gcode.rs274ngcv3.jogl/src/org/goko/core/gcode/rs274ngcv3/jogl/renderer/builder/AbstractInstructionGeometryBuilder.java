@@ -9,6 +9,7 @@ import org.goko.core.common.exception.GkTechnicalException;
 import org.goko.core.gcode.element.IInstruction;
 import org.goko.core.gcode.element.IInstructionType;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
+import org.goko.core.gcode.rs274ngcv3.jogl.renderer.ToolpathGeometryBuffer;
 
 public abstract class AbstractInstructionGeometryBuilder<T extends IInstruction> {
 	/** The type of supported instruction */
@@ -57,6 +58,40 @@ public abstract class AbstractInstructionGeometryBuilder<T extends IInstruction>
 	 * @return the list of generated Point3d
 	 */
 	public abstract List<Point3d> buildInstructionGeometry(GCodeContext context, T instruction)  throws GkException;
+
+	/**
+	 * Builds the geometry for the given instruction directly into the given buffer
+	 * @param preContext the context before the instruction
+	 * @param postContext the context once the instruction is applied
+	 * @param instruction the instruction
+	 * @param buffer the target buffer
+	 * @throws GkException GkException
+	 */
+	public void buildGeometry(GCodeContext preContext, GCodeContext postContext, IInstruction instruction, ToolpathGeometryBuffer buffer) throws GkException{
+		if(type.equals( instruction.getType() )){
+			buildInstructionGeometry(preContext, postContext, ((T) instruction), buffer);
+		}else{
+			throw new GkTechnicalException("Incompatible instruction type...");
+		}
+	}
+
+	/**
+	 * Builds the geometry for the given instruction directly into the given buffer.
+	 * Default implementation goes through {@link #buildInstructionGeometry(GCodeContext, IInstruction)}, builders on the hot path should override it.
+	 * @param preContext the context before the instruction
+	 * @param postContext the context once the instruction is applied
+	 * @param instruction the instruction
+	 * @param buffer the target buffer
+	 * @throws GkException GkException
+	 */
+	protected void buildInstructionGeometry(GCodeContext preContext, GCodeContext postContext, T instruction, ToolpathGeometryBuffer buffer) throws GkException{
+		List<Point3d> vertices = buildInstructionGeometry(preContext, instruction);
+		if(vertices != null){
+			for (Point3d vertex : vertices) {
+				buffer.addVertex(vertex);
+			}
+		}
+	}
 		
 	/**
 	 * @return the type
@@ -10,9 +10,11 @@ import javax.vecmath.Vector3d;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Angle;
 import org.goko.core.common.measure.quantity.AngleUnit;
+import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.gcode.element.IInstructionType;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
 import org.goko.core.gcode.rs274ngcv3.instruction.AbstractStraightInstruction;
+import org.goko.core.gcode.rs274ngcv3.jogl.renderer.ToolpathGeometryBuffer;
 import org.goko.core.math.Tuple6b;
 import org.goko.tools.viewer.jogl.preferences.JoglViewerPreference;
 import org.goko.tools.viewer.jogl.service.JoglUtils;
@@ -56,6 +58,37 @@ public abstract class AbstractStraightGeometryBuilder<T extends AbstractStraight
 		return new ArrayList<Point3d>();
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.rs274ngcv3.jogl.renderer.builder.AbstractInstructionGeometryBuilder#buildInstructionGeometry(org.goko.core.gcode.rs274ngcv3.context.GCodeContext, org.goko.core.gcode.rs274ngcv3.context.GCodeContext, org.goko.core.gcode.element.IInstruction, org.goko.core.gcode.rs274ngcv3.jogl.renderer.ToolpathGeometryBuffer)
+	 */
+	@Override
+	protected void buildInstructionGeometry(GCodeContext preContext, GCodeContext postContext, T instruction, ToolpathGeometryBuffer buffer) throws GkException {
+		// The rotary rendering is rare enough to keep using the generic path
+		if(JoglViewerPreference.getInstance().isRotaryAxisEnabled()
+			|| postContext.getX() == null || postContext.getY() == null || postContext.getZ() == null){
+			super.buildInstructionGeometry(preContext, postContext, instruction, buffer);
+			return;
+		}
+		Tuple6b offset = preContext.getCoordinateSystemData(preContext.getCoordinateSystem());
+		double offsetX = toJoglValue(offset.getX());
+		double offsetY = toJoglValue(offset.getY());
+		double offsetZ = toJoglValue(offset.getZ());
+		buffer.addVertex(toJoglValue(preContext.getX()) + offsetX, toJoglValue(preContext.getY()) + offsetY, toJoglValue(preContext.getZ()) + offsetZ);
+		buffer.addVertex(toJoglValue(postContext.getX()) + offsetX, toJoglValue(postContext.getY()) + offsetY, toJoglValue(postContext.getZ()) + offsetZ);
+	}
+
+	/**
+	 * Converts the given length in the Jogl unit
+	 * @param length the length
+	 * @return the value in {@link JoglUtils#JOGL_UNIT}, 0 if the length is <code>null</code>
+	 */
+	private static double toJoglValue(Length length){
+		if(length == null){
+			return 0;
+		}
+		return length.doubleValue(JoglUtils.JOGL_UNIT);
+	}
+
 //verifier la prise en compte des coordinates systems dans toutes les commandes
 
 	private List<Point3d> renderLinearLine(GCodeContext context, T instruction) throws GkException {
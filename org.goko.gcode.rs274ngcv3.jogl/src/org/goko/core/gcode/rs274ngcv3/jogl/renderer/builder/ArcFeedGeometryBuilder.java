@@ -5,12 +5,14 @@ import java.util.List;
 
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
+import javax.vecmath.Vector3d;
 
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.AngleUnit;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
 import org.goko.core.gcode.rs274ngcv3.element.InstructionType;
 import org.goko.core.gcode.rs274ngcv3.instruction.ArcFeedInstruction;
+import org.goko.core.gcode.rs274ngcv3.jogl.renderer.ToolpathGeometryBuffer;
 import org.goko.core.gcode.rs274ngcv3.utils.InstructionUtils;
 import org.goko.core.math.Arc3b;
 import org.goko.core.math.Tuple6b;
@@ -18,6 +20,12 @@ import org.goko.tools.viewer.jogl.preferences.JoglViewerPreference;
 import org.goko.tools.viewer.jogl.service.JoglUtils;
 
 public class ArcFeedGeometryBuilder extends AbstractInstructionGeometryBuilder<ArcFeedInstruction>{
+	/** Maximum distance between the arc and its segments, in JOGL unit */
+	static final double CHORD_TOLERANCE = 0.005;
+	/** Maximum angle covered by a single segment, keeps tiny arcs round */
+	static final double MAX_SEGMENT_ANGLE = Math.PI / 8;
+	/** Maximum number of segments of a single arc */
+	static final int MAX_SEGMENT_COUNT = 4096;
 	
 	/**
 	 * Constructor
@@ -45,28 +53,59 @@ public class ArcFeedGeometryBuilder extends AbstractInstructionGeometryBuilder<A
 		}
 		
 		if(InstructionUtils.isValidArcFeedInstruction(context, instruction)){
-			Arc3b arc = InstructionUtils.getArc(context, instruction);
-			
-			int nbPoints = 8;
-			// Adaptive points count
-			double arcLength = arc.getLength().doubleValue(JoglUtils.JOGL_UNIT);
-			nbPoints =  2 + (int) (arcLength * 8 ); // At least 2 points
-	
-			for(float i = 0; i <= nbPoints; i++){
-				Tuple6b tuple = arc.point( i/nbPoints);
-				Point3d p = tuple.toPoint3d(JoglUtils.JOGL_UNIT);
-				if(settings.isRotaryAxisEnabled()){
+			ArcTessellation tessellation = new ArcTessellation(InstructionUtils.getArc(context, instruction));
+			for(int i = 0; i <= tessellation.segmentCount; i++){
+				Point3d p = new Point3d();
+				tessellation.point(i, p);
+				if(rotationMatrix != null){
 					p.sub(rotaryAxisOffset);
 					rotationMatrix.transform(p);
 					p.add(rotaryAxisOffset);
-					vertices.add(p);
-				}						
+				}
+				vertices.add(p);
 			}
 		}
 		
 		return vertices;
 	}	
 	
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.rs274ngcv3.jogl.renderer.builder.AbstractInstructionGeometryBuilder#buildInstructionGeometry(org.goko.core.gcode.rs274ngcv3.context.GCodeContext, org.goko.core.gcode.rs274ngcv3.context.GCodeContext, org.goko.core.gcode.element.IInstruction, org.goko.core.gcode.rs274ngcv3.jogl.renderer.ToolpathGeometryBuffer)
+	 */
+	@Override
+	protected void buildInstructionGeometry(GCodeContext preContext, GCodeContext postContext, ArcFeedInstruction instruction, ToolpathGeometryBuffer buffer) throws GkException {
+		// The rotary rendering is rare enough to keep using the generic path
+		if(JoglViewerPreference.getInstance().isRotaryAxisEnabled() && preContext.getA() != null){
+			super.buildInstructionGeometry(preContext, postContext, instruction, buffer);
+			return;
+		}
+		if(InstructionUtils.isValidArcFeedInstruction(preContext, instruction)){
+			ArcTessellation tessellation = new ArcTessellation(InstructionUtils.getArc(preContext, instruction));
+			Point3d p = new Point3d();
+			for(int i = 0; i <= tessellation.segmentCount; i++){
+				tessellation.point(i, p);
+				buffer.addVertex(p.x, p.y, p.z);
+			}
+		}
+	}
+	
+	/**
+	 * Computes the number of segments required to render an arc within the given chord tolerance
+	 * @param radius the radius of the arc
+	 * @param angle the angle of the arc in radians
+	 * @param tolerance the maximum distance between the arc and its segments
+	 * @return the number of segments, at least 1
+	 */
+	static int getSegmentCount(double radius, double angle, double tolerance){
+		double segmentAngle = MAX_SEGMENT_ANGLE;
+		if(radius > tolerance){
+			// The sagitta of a segment covering the angle a is r(1 - cos(a/2))
+			segmentAngle = Math.min(segmentAngle, 2 * Math.acos(1 - tolerance / radius));
+		}
+		int count = (int) Math.ceil(Math.abs(angle) / segmentAngle);
+		return Math.max(1, Math.min(count, MAX_SEGMENT_COUNT));
+	}
+	
 	private void rotateMatrix(Matrix4d matrix, double angleRadians){
 		JoglViewerPreference settings = JoglViewerPreference.getInstance();
 		switch(settings.getRotaryAxisDirection()){
@@ -79,4 +118,59 @@ public class ArcFeedGeometryBuilder extends AbstractInstructionGeometryBuilder<A
 			default:matrix.rotY( angleRadians );
 		}
 	}
+	
+	/**
+	 * Primitive description of an arc, evaluated at evenly spaced angles.
+	 * Same parametrization as {@link Arc3b#point(double)} : rotation of the start point around the axis, plus a linear motion along the axis (helix)
+	 */
+	private static class ArcTessellation{
+		/** Center of the arc */
+		private Point3d center;
+		/** Vector from the center to the start point */
+		private Vector3d radial;
+		/** Cross product of the axis and the radial vector */
+		private Vector3d tangent;
+		/** Component of the radial vector along the axis */
+		private Vector3d axial;
+		/** Motion along the axis from start to end */
+		private Vector3d helix;
+		/** Angle of the arc in radians */
+		private double angle;
+		/** Number of segments */
+		private int segmentCount;
+		
+		ArcTessellation(Arc3b arc){
+			Point3d start = arc.getStart().toPoint3d(JoglUtils.JOGL_UNIT);
+			Point3d end   = arc.getEnd().toPoint3d(JoglUtils.JOGL_UNIT);
+			Vector3d axis = new Vector3d(arc.getAxis());
+			axis.normalize();
+			center = arc.getCenter().toPoint3d(JoglUtils.JOGL_UNIT);
+			radial = new Vector3d();
+			radial.sub(start, center);
+			tangent = new Vector3d();
+			tangent.cross(axis, radial);
+			axial = new Vector3d(axis);
+			axial.scale(axis.dot(radial));
+			Vector3d delta = new Vector3d();
+			delta.sub(end, start);
+			helix = new Vector3d(axis);
+			helix.scale(axis.dot(delta));
+			angle = arc.getAngle().doubleValue(AngleUnit.RADIAN);
+			segmentCount = getSegmentCount(center.distance(start), angle, CHORD_TOLERANCE);
+		}
+		
+		/**
+		 * Computes the point at the end of the given segment (Rodrigues' rotation formula)
+		 * @param index the index of the segment, 0 for the start point
+		 * @param result the point to update
+		 */
+		void point(int index, Point3d result){
+			double ratio = (double) index / segmentCount;
+			double cos = Math.cos(angle * ratio);
+			double sin = Math.sin(angle * ratio);
+			result.x = center.x + radial.x * cos + tangent.x * sin + axial.x * (1 - cos) + helix.x * ratio;
+			result.y = center.y + radial.y * cos + tangent.y * sin + axial.y * (1 - cos) + helix.y * ratio;
+			result.z = center.z + radial.z * cos + tangent.z * sin + axial.z * (1 - cos) + helix.z * ratio;
+		}
+	}
 }
@@ -66,7 +66,6 @@ public class FeedrateColorizer extends AbstractInstructionColorizer {
 		}
 		
 		while(iterator.hasNext()){
-			GCodeContext preContext = new GCodeContext(iterator.getContext());
 			AbstractInstruction instruction = iterator.next();			
 			if(instruction.getType() == InstructionType.SET_FEED_RATE){
 				SetFeedRateInstruction instr = (SetFeedRateInstruction) instruction;
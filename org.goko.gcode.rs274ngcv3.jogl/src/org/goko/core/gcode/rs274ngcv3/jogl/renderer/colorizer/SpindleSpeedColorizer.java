@@ -86,7 +86,6 @@ public class SpindleSpeedColorizer extends AbstractInstructionColorizer {
 		
 		
 		while(iterator.hasNext()){
-			GCodeContext preContext = new GCodeContext(iterator.getContext());
 			AbstractInstruction instruction = iterator.next();			
 			if(instruction.getType() == InstructionType.SET_SPINDLE_SPEED){
 				SetSpindleSpeedInstruction instr = (SetSpindleSpeedInstruction) instruction;
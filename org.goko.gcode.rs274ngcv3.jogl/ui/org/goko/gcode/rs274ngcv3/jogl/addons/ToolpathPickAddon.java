@@ -0,0 +1,35 @@
+/**
+ * 
+ */
+package org.goko.gcode.rs274ngcv3.jogl.addons;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.di.UIEventTopic;
+import org.eclipse.swt.graphics.Point;
+import org.goko.core.common.exception.GkException;
+import org.goko.core.gcode.rs274ngcv3.jogl.RS274NGCV3JoglService;
+import org.goko.core.gcode.rs274ngcv3.jogl.renderer.ToolpathPick;
+import org.goko.gcode.rs274ngcv3.ui.workspace.GCodeLineSelection;
+import org.goko.tools.viewer.jogl.service.JoglViewerTopic;
+
+/**
+ * Selects the line of the toolpath double clicked in the 3D viewer
+ *
+ * @author PsyKo
+ */
+@Singleton
+public class ToolpathPickAddon {
+
+	@Inject
+	@Optional
+	private void subscribeCanvasDoubleClick(RS274NGCV3JoglService joglService, IEventBroker eventBroker, @UIEventTopic(JoglViewerTopic.TOPIC_CANVAS_DOUBLE_CLICK) Point position) throws GkException {
+		ToolpathPick pick = joglService.pick(position.x, position.y);
+		if(pick != null && pick.getIdGCodeLine() != null){
+			eventBroker.post(GCodeLineSelection.TOPIC_SELECT_LINE, new GCodeLineSelection(pick.getGCodeProvider(), pick.getIdGCodeLine(), pick.getInstance()));
+		}
+	}
+}
@@ -7,6 +7,7 @@ import org.eclipse.e4.core.di.annotations.CanExecute;
 import org.eclipse.e4.core.di.annotations.Execute;
 import org.goko.core.gcode.rs274ngcv3.jogl.RS274NGCV3JoglService;
 import org.goko.core.gcode.rs274ngcv3.jogl.renderer.colorizer.AbstractInstructionColorizer;
+import org.goko.tools.viewer.jogl.service.IJoglViewerService;
 import org.goko.tools.viewer.jogl.utils.overlay.IOverlayRenderer;
 
 /**
@@ -22,12 +23,13 @@ public class ColorizerOverlayVisibilityHandler {
 
 
 	@Execute
-	public void execute(RS274NGCV3JoglService service){
+	public void execute(RS274NGCV3JoglService service, IJoglViewerService viewerService){
 		AbstractInstructionColorizer colorizer = service.getColorizer();
 		if(colorizer != null){
 			IOverlayRenderer overlay = colorizer.getOverlay();
 			if(overlay != null){
 				overlay.setOverlayEnabled( ! overlay.isOverlayEnabled() );
+				viewerService.requestRender();
 			}
 		}
 	}
@@ -0,0 +1,61 @@
+package org.goko.gcode.rs274ngcv3.ui.workspace;
+
+import org.goko.core.gcode.element.IGCodeProvider;
+
+/**
+ * Selection of a line of a GCodeProvider, for example a line picked in the 3D viewer
+ *
+ * @author PsyKo
+ */
+public class GCodeLineSelection {
+	/** Requests the selection of a line in the opened editors. The data is the GCodeLineSelection */
+	public static final String TOPIC_SELECT_LINE = "topic/gcode/line/select";
+	/** The provider of the line */
+	private final IGCodeProvider gcodeProvider;
+	/** The id of the selected line */
+	private final Integer idGCodeLine;
+	/** Index of the selected copy when the provider is copied by array modifiers, 0 for the original code */
+	private final int instance;
+
+	/**
+	 * Constructor
+	 * @param gcodeProvider the provider of the line
+	 * @param idGCodeLine the id of the selected line
+	 */
+	public GCodeLineSelection(IGCodeProvider gcodeProvider, Integer idGCodeLine) {
+		this(gcodeProvider, idGCodeLine, 0);
+	}
+
+	/**
+	 * Constructor
+	 * @param gcodeProvider the provider of the line
+	 * @param idGCodeLine the id of the selected line
+	 * @param instance index of the selected copy, 0 for the original code
+	 */
+	public GCodeLineSelection(IGCodeProvider gcodeProvider, Integer idGCodeLine, int instance) {
+		this.gcodeProvider = gcodeProvider;
+		this.idGCodeLine = idGCodeLine;
+		this.instance = instance;
+	}
+
+	/**
+	 * @return the gcodeProvider
+	 */
+	public IGCodeProvider getGCodeProvider() {
+		return gcodeProvider;
+	}
+
+	/**
+	 * @return the idGCodeLine
+	 */
+	public Integer getIdGCodeLine() {
+		return idGCodeLine;
+	}
+
+	/**
+	 * @return the instance
+	 */
+	public int getInstance() {
+		return instance;
+	}
+}
@@ -84,6 +84,7 @@ public class RS274WorkspaceService extends AbstractGokoService implements IRS274
 		GCodePreference.getInstance().addPropertyChangeListener(this);
 		initModifierUiProvider();		
 		updateRenderingFormat();
+		updateParsingOptions();
 	}
 
 	/**
@@ -278,6 +279,7 @@ public class RS274WorkspaceService extends AbstractGokoService implements IRS274
 	public void propertyChange(PropertyChangeEvent event) {
 		updateRenderingFormat();
 		updateValidationService();
+		updateParsingOptions();
 	}
 
 	/**
@@ -290,6 +292,13 @@ public class RS274WorkspaceService extends AbstractGokoService implements IRS274
 				GCodePreference.getInstance().getDecimalDigitCount());
 		gcodeService.setRenderingFormat(format);
 	}
+	
+	/**
+	 * Update the parsing options using preferences
+	 */
+	private void updateParsingOptions(){
+		gcodeService.setParallelParsingEnabled(GCodePreference.getInstance().isParallelParsingEnabled());
+	}
 
 	/**
 	 * Update values of the validation service 
@@ -31,6 +31,8 @@ public class GCodePreference extends GkPreference{
 	public static final String ARC_TOLERANCE_CHECK_ENABLED	 	= "gcode.testArcTolerance.enabled";
 	public static final String ARC_TOLERANCE_THRESHOLD		 	= "gcode.testArcTolerance.threshold";
 	
+	public static final String PARALLEL_PARSING_ENABLED	 	= "gcode.parallelParsing.enabled";
+	
 	/**
 	 * Constructor
 	 */
@@ -101,4 +103,12 @@ public class GCodePreference extends GkPreference{
 			return Length.valueOf("0.002", LengthUnit.MILLIMETRE);
 		}
 	}
+	
+	/**
+	 * Returns the state of the parallel parsing of GCode files
+	 * @return <code>true</code> if files are parsed on several threads, <code>false</code> otherwise
+	 */
+	public boolean isParallelParsingEnabled(){
+		return getBoolean(PARALLEL_PARSING_ENABLED);
+	}
 }
@@ -27,6 +27,7 @@ public class RenderingFormatPreferenceInitializer extends GkPreferenceInitialize
 		prefs.setDefault(GCodePreference.DECIMAL_DIGIT_COUNT, 5);
 		prefs.setDefault(GCodePreference.ARC_TOLERANCE_CHECK_ENABLED, true);
 		prefs.setDefault(GCodePreference.ARC_TOLERANCE_THRESHOLD, Length.valueOf("0.002", LengthUnit.MILLIMETRE));
+		prefs.setDefault(GCodePreference.PARALLEL_PARSING_ENABLED, true);
 	}
 
 }
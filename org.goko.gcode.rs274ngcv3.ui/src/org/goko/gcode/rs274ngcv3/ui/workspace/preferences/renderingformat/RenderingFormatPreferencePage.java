@@ -83,9 +83,14 @@ public class RenderingFormatPreferencePage extends GkFieldEditorPreferencesPage
 		arcToleranceThresholdFieldEditor.setPreferenceName(GCodePreference.ARC_TOLERANCE_THRESHOLD);
 		arcToleranceThresholdFieldEditor.setUnit(GokoPreference.getInstance().getLengthUnit());
 		
+		BooleanFieldEditor parallelParsingFieldEditor = new BooleanFieldEditor(grpGcodeOptions, SWT.NONE);
+		parallelParsingFieldEditor.setLabel("Parse files on multiple threads");
+		parallelParsingFieldEditor.setPreferenceName(GCodePreference.PARALLEL_PARSING_ENABLED);
+		
 		// Add length editor first, otherwise the boolean editor (which dictates length field state) will trigger an event, and length field will not have any preference store, throwing an NPE
 		addField(arcToleranceThresholdFieldEditor);
-		addField(arcToleranceCheckEnabledFieldEditor);		
+		addField(arcToleranceCheckEnabledFieldEditor);
+		addField(parallelParsingFieldEditor);
 	}
 	
 	@Inject	
@@ -0,0 +1,81 @@
+/**
+ *
+ */
+package org.goko.gcode.rs274ngcv3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import org.goko.core.common.exception.GkFunctionalException;
+import org.goko.core.gcode.rs274ngcv3.parser.GCodeLexer;
+import org.goko.core.gcode.rs274ngcv3.parser.GCodeToken;
+import org.goko.core.gcode.rs274ngcv3.parser.GCodeTokenStream;
+import org.goko.core.gcode.rs274ngcv3.parser.GCodeTokenType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the GCode lexer
+ */
+public class GCodeLexerTest {
+	/** Tested lexer */
+	private GCodeLexer lexer;
+
+	@Before
+	public void setUp(){
+		lexer = new GCodeLexer();
+	}
+
+	@Test
+	public void testTokenizeLine() throws Exception{
+		List<GCodeToken> tokens = lexer.tokenize("n12G90 X-.5 Y+3. (comment) ; end", 4);
+		assertEquals(6, tokens.size());
+		assertToken(tokens.get(0), GCodeTokenType.LINE_NUMBER, "n12", 0);
+		assertToken(tokens.get(1), GCodeTokenType.WORD, "G90", 3);
+		assertToken(tokens.get(2), GCodeTokenType.WORD, "X-.5", 7);
+		assertToken(tokens.get(3), GCodeTokenType.WORD, "Y+3.", 12);
+		assertToken(tokens.get(4), GCodeTokenType.MULTILINE_COMMENT, "(comment)", 17);
+		assertToken(tokens.get(5), GCodeTokenType.SIMPLE_COMMENT, "; end", 27);
+		assertEquals(4, tokens.get(0).getLine());
+	}
+
+	@Test
+	public void testTokenizePercent() throws Exception{
+		List<GCodeToken> tokens = lexer.tokenize(" % ", 0);
+		assertEquals(1, tokens.size());
+		assertToken(tokens.get(0), GCodeTokenType.PERCENT, "%", 1);
+	}
+
+	@Test(expected=GkFunctionalException.class)
+	public void testUnexpectedCharacter() throws Exception{
+		lexer.tokenize("G1 X.", 0);
+	}
+
+	@Test(expected=GkFunctionalException.class)
+	public void testUnterminatedComment() throws Exception{
+		lexer.tokenize("G1 (comment", 0);
+	}
+
+	@Test
+	public void testTokenStream() throws Exception{
+		GCodeTokenStream stream = lexer.createTokenStream(new ByteArrayInputStream("G0 X1\r\nG1 Y2\n\nM30".getBytes()));
+		assertEquals(2, stream.nextLine().size());
+		assertEquals(2, stream.nextLine().size());
+		assertEquals(0, stream.nextLine().size());
+		List<GCodeToken> tokens = stream.nextLine();
+		assertToken(tokens.get(0), GCodeTokenType.WORD, "M30", 0);
+		assertEquals(3, tokens.get(0).getLine());
+		assertEquals(3, stream.getLineNumber());
+		assertNull(stream.nextLine());
+		stream.close();
+	}
+
+	private void assertToken(GCodeToken token, GCodeTokenType type, String value, int column){
+		assertEquals(type, token.getType());
+		assertEquals(value, token.getValue());
+		assertEquals(column, token.getColumn());
+	}
+}
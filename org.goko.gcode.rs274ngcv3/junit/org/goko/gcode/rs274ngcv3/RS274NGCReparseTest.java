@@ -0,0 +1,142 @@
+/**
+ * 
+ */
+package org.goko.gcode.rs274ngcv3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.goko.core.gcode.element.GCodeLine;
+import org.goko.core.gcode.element.GCodeWord;
+import org.goko.core.gcode.rs274ngcv3.RS274NGCServiceImpl;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProvider;
+import org.goko.core.gcode.rs274ngcv3.element.source.StringGCodeSource;
+import org.goko.gcode.rs274ngcv3.assertion.AssertGCodeLine;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the partial reparse of a modified source
+ */
+public class RS274NGCReparseTest {
+	/** Original content */
+	private static final String ORIGINAL = "G90\nG0X0Y0\nG1X10F100\nG1Y10\nG1X0\nG1Y0\nG0Z5";
+	/** Tested service */
+	private RS274NGCServiceImpl service;
+	
+	@Before
+	public void setUp(){
+		service = new RS274NGCServiceImpl();
+	}
+	
+	@Test
+	public void testEditHead() throws Exception{
+		GCodeProvider provider = reparse("G91\nG0X0Y0\nG1X10F100\nG1Y10\nG1X0\nG1Y0\nG0Z5");
+		
+		assertReused(provider, false, true, true, true, true, true, true);
+	}
+	
+	@Test
+	public void testEditMiddle() throws Exception{
+		// One line changed and one line inserted
+		GCodeProvider provider = reparse("G90\nG0X0Y0\nG1X10F100\nG1Y20\nG1X5Y15\nG1X0\nG1Y0\nG0Z5");
+		
+		assertReused(provider, true, true, true, false, false, true, true, true);
+		assertEquals(5, provider.getLineAtIndex(5).getLocation().getLine());
+	}
+	
+	@Test
+	public void testEditTail() throws Exception{
+		// Last line removed and another one changed
+		GCodeProvider provider = reparse("G90\nG0X0Y0\nG1X10F100\nG1Y10\nG1X0\nG1Y5");
+		
+		assertReused(provider, true, true, true, true, true, false);
+	}
+	
+	@Test
+	public void testUnchanged() throws Exception{
+		GCodeProvider provider = new GCodeProvider();
+		
+		assertFalse(service.reparseProvider(new StringGCodeSource(ORIGINAL), createPrevious(), provider, null));
+		assertEquals(0, provider.getLinesCount());
+	}
+	
+	/**
+	 * Creates the previous version of the provider. Its lines are numbered, but its hashes are the ones of the original content :
+	 * the lines copied from the previous version can be told apart from the reparsed ones by their line number word
+	 * @return the GCodeProvider
+	 * @throws Exception Exception
+	 */
+	private GCodeProvider createPrevious() throws Exception{
+		String[] lines = ORIGINAL.split("\n");
+		StringBuilder numbered = new StringBuilder();
+		for (int i = 0; i < lines.length; i++) {
+			numbered.append("N").append(i + 1).append(lines[i]).append("\n");
+		}
+		GCodeProvider previous = parse(numbered.toString());
+		previous.setSourceLineHashes(parse(ORIGINAL).getSourceLineHashes());
+		return previous;
+	}
+	
+	/**
+	 * Parse the given content
+	 * @param content the content
+	 * @return the GCodeProvider
+	 * @throws Exception Exception
+	 */
+	private GCodeProvider parse(String content) throws Exception{
+		return (GCodeProvider) service.parse(new StringGCodeSource(content), null);
+	}
+	
+	/**
+	 * Reparse the given content using the previous provider, and make sure the result matches a complete parse of the content,
+	 * apart from the line numbers of the reused lines. Ids follow the position of the lines, as in a complete parse
+	 * @param content the new content
+	 * @return the reparsed provider
+	 * @throws Exception Exception
+	 */
+	private GCodeProvider reparse(String content) throws Exception{
+		GCodeProvider provider = new GCodeProvider();
+		assertTrue(service.reparseProvider(new StringGCodeSource(content), createPrevious(), provider, null));
+		
+		GCodeProvider expected = parse(content);
+		assertEquals(expected.getLinesCount(), provider.getLinesCount());
+		for (int i = 0; i < expected.getLinesCount(); i++) {
+			GCodeLine expectedLine = expected.getLineAtIndex(i);
+			GCodeLine line = provider.getLineAtIndex(i);
+			List<GCodeWord> words = new ArrayList<GCodeWord>(expectedLine.getWords());
+			for (GCodeWord word : line.getWords()) {
+				if(StringUtils.equals(word.getLetter(), "N")){
+					words.add(0, word);
+				}
+			}
+			AssertGCodeLine.assertExactWords(line, words.toArray(new GCodeWord[words.size()]));
+			assertEquals(expectedLine.getLocation().getLine(), line.getLocation().getLine());
+			assertEquals(expectedLine.getId(), line.getId());
+			assertEquals(line.getId(), provider.getLine(line.getId()).getId());
+		}
+		return provider;
+	}
+	
+	/**
+	 * Make sure each line of the provider was either reused from the previous version or reparsed
+	 * @param provider the reparsed provider
+	 * @param reused for each line, <code>true</code> if it should have been reused
+	 * @throws Exception Exception
+	 */
+	private void assertReused(GCodeProvider provider, boolean... reused) throws Exception{
+		assertEquals(reused.length, provider.getLinesCount());
+		for (int i = 0; i < reused.length; i++) {
+			boolean numbered = false;
+			for (GCodeWord word : provider.getLineAtIndex(i).getWords()) {
+				numbered |= StringUtils.equals(word.getLetter(), "N");
+			}
+			assertEquals("Line "+i, reused[i], numbered);
+		}
+	}
+}
@@ -3,10 +3,13 @@
  */
 package org.goko.gcode.rs274ngcv3;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
 
+import org.goko.core.common.exception.GkFunctionalException;
 import org.goko.core.common.measure.quantity.Angle;
 import org.goko.core.common.measure.quantity.AngleUnit;
 import org.goko.core.common.measure.quantity.Length;
@@ -908,4 +911,33 @@ public class RS274NGCServiceTest {
 		AssertInstructionProvider.assertContainsInstructionSet(instructionProvider, set);
 	}
 	
+	@Test
+	public void testParallelParsingSyntaxError() throws Exception{
+		String input = "G0X0Y0\nG1X10#Y2\nG1X20";
+		GkFunctionalException sequentialError = parseError(input, false);
+		GkFunctionalException parallelError = parseError(input, true);
+		
+		assertEquals("GCO-101", sequentialError.getKey());
+		assertEquals(sequentialError.getKey(), parallelError.getKey());
+		assertArrayEquals(sequentialError.getArguments(), parallelError.getArguments());
+	}
+	
+	/**
+	 * Parse the given input and return the raised functional exception
+	 * @param input the input to parse
+	 * @param parallel parallel parsing enabled or not
+	 * @return the raised GkFunctionalException
+	 * @throws Exception Exception
+	 */
+	private GkFunctionalException parseError(String input, boolean parallel) throws Exception{
+		service.setParallelParsingEnabled(parallel);
+		try{
+			service.parse(input);
+		}catch(GkFunctionalException e){
+			return e;
+		}
+		fail("GkFunctionalException expected");
+		return null;
+	}
+	
 }
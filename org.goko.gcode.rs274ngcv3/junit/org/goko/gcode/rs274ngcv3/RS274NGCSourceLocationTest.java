@@ -0,0 +1,116 @@
+/**
+ *
+ */
+package org.goko.gcode.rs274ngcv3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.goko.core.common.measure.quantity.Length;
+import org.goko.core.common.measure.quantity.LengthUnit;
+import org.goko.core.common.utils.Location;
+import org.goko.core.gcode.element.GCodeLine;
+import org.goko.core.gcode.element.IGCodeProvider;
+import org.goko.core.gcode.rs274ngcv3.RS274NGCServiceImpl;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProviderInstances;
+import org.goko.core.gcode.rs274ngcv3.element.source.StringGCodeSource;
+import org.goko.core.gcode.rs274ngcv3.modifier.array.ArrayModifier;
+import org.goko.core.gcode.rs274ngcv3.modifier.translate.TranslateModifier;
+import org.goko.core.math.Tuple6b;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the location in the source of the lines of a provider with modifiers, as used to select a line picked in the viewer
+ */
+public class RS274NGCSourceLocationTest {
+	/** Content of the provider */
+	private static final String CONTENT = "G90\nG0X0Y0\nG1X10F100\nG1Y10\nG1X0\nG1Y0";
+	/** Tested service */
+	private RS274NGCServiceImpl service;
+	/** The provider */
+	private IGCodeProvider provider;
+
+	@Before
+	public void setUp() throws Exception{
+		service = new RS274NGCServiceImpl();
+		provider = service.parse(new StringGCodeSource(CONTENT), null);
+		provider.setCode("test");
+		service.addGCodeProvider(provider);
+	}
+
+	@Test
+	public void testWithoutModifier() throws Exception{
+		IGCodeProvider stackedProvider = service.getGCodeProvider(provider.getId());
+		GCodeLine line = stackedProvider.getLineAtIndex(3);
+
+		Location location = service.findSourceLocation(stackedProvider, line.getId());
+		assertNotNull(location);
+		assertEquals(3, location.getLine());
+	}
+
+	@Test
+	public void testArrayModifier() throws Exception{
+		addArrayModifier();
+
+		// The copies are drawn as instances of the parsed provider, so the picked lines have a location
+		GCodeProviderInstances instances = service.findGCodeProviderInstances(provider.getId());
+		assertNotNull(instances);
+		assertEquals(3, instances.getOffsets().size());
+		GCodeLine line = instances.getBaseProvider().getLineAtIndex(4);
+		assertEquals(4, service.findSourceLocation(instances.getBaseProvider(), line.getId()).getLine());
+
+		// The lines of the expanded code are rebuilt and can't be found in the source
+		IGCodeProvider stackedProvider = service.getGCodeProvider(provider.getId());
+		assertTrue(stackedProvider.getLinesCount() > 2 * provider.getLinesCount());
+		assertNull(service.findSourceLocation(stackedProvider, stackedProvider.getLineAtIndex(4).getId()));
+	}
+
+	@Test
+	public void testArrayOverTranslateModifier() throws Exception{
+		TranslateModifier translate = new TranslateModifier();
+		translate.setIdGCodeProvider(provider.getId());
+		translate.setTranslationX(Length.valueOf(5, LengthUnit.MILLIMETRE));
+		service.addModifier(translate);
+		addArrayModifier();
+
+		// The copied provider is the one rebuilt by the translation
+		GCodeProviderInstances instances = service.findGCodeProviderInstances(provider.getId());
+		assertNotNull(instances);
+		IGCodeProvider baseProvider = instances.getBaseProvider();
+		assertNull(service.findSourceLocation(baseProvider, baseProvider.getLineAtIndex(2).getId()));
+	}
+
+	@Test
+	public void testDisabledModifier() throws Exception{
+		ArrayModifier modifier = addArrayModifier();
+		modifier.setEnabled(false);
+		service.updateModifier(modifier);
+
+		assertNull(service.findGCodeProviderInstances(provider.getId()));
+		IGCodeProvider stackedProvider = service.getGCodeProvider(provider.getId());
+		assertEquals(provider.getLinesCount(), stackedProvider.getLinesCount());
+		assertEquals(2, service.findSourceLocation(stackedProvider, stackedProvider.getLineAtIndex(2).getId()).getLine());
+	}
+
+	@Test
+	public void testNoLine() throws Exception{
+		assertNull(service.findSourceLocation(service.getGCodeProvider(provider.getId()), null));
+	}
+
+	/**
+	 * Adds an array modifier making 2 copies of the provider
+	 * @return the modifier
+	 * @throws Exception Exception
+	 */
+	private ArrayModifier addArrayModifier() throws Exception{
+		ArrayModifier modifier = new ArrayModifier();
+		modifier.setIdGCodeProvider(provider.getId());
+		modifier.setCount(2);
+		modifier.setOffset(new Tuple6b(Length.valueOf(20, LengthUnit.MILLIMETRE), Length.ZERO, Length.ZERO));
+		service.addModifier(modifier);
+		return modifier;
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ *
+ */
+package org.goko.gcode.rs274ngcv3;
+
+import static org.junit.Assert.assertEquals;
+
+import org.goko.core.common.measure.quantity.Length;
+import org.goko.core.common.measure.quantity.LengthUnit;
+import org.goko.core.gcode.element.IGCodeProvider;
+import org.goko.core.gcode.rs274ngcv3.RS274NGCServiceImpl;
+import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProviderStatistics;
+import org.goko.core.gcode.rs274ngcv3.element.source.StringGCodeSource;
+import org.goko.core.math.BoundingTuple6b;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the cached statistics of a provider when the start position changes
+ */
+public class RS274NGCStatisticsTest {
+	/** Tested service */
+	private RS274NGCServiceImpl service;
+
+	@Before
+	public void setUp() throws Exception{
+		service = new RS274NGCServiceImpl();
+	}
+
+	@Test
+	public void testFirstMoveOmittingAxes() throws Exception{
+		IGCodeProvider provider = addProvider("G90\nG1X0F100\nG1X10Y10Z0\nG91\nG1X5");
+
+		assertBounds(getStatistics(provider, 0, 0, 0), 0, 0, 0, 15, 10, 0);
+		// The first points keep the Y and Z of the start position
+		assertBounds(getStatistics(provider, 50, -20, 3), 0, -20, 0, 50, 10, 3);
+		assertBounds(getStatistics(provider, 0, 0, 0), 0, 0, 0, 15, 10, 0);
+	}
+
+	@Test
+	public void testRelativeFirstMoves() throws Exception{
+		IGCodeProvider provider = addProvider("G91\nG1X5Y5Z-1F100\nG90\nG1X0Y0Z0");
+
+		assertBounds(getStatistics(provider, 10, 10, 10), 0, 0, 0, 15, 15, 10);
+		assertBounds(getStatistics(provider, -10, 0, 0), -10, 0, -1, 0, 5, 0);
+	}
+
+	@Test
+	public void testArcFromStartPosition() throws Exception{
+		IGCodeProvider provider = addProvider("G90\nG2X10Y0I5J0F100\nG1X0Y0Z0");
+
+		GCodeProviderStatistics statistics = getStatistics(provider, 0, 0, 5);
+		assertBounds(statistics, 0, 0, 0, 10, 5, 5);
+		assertEquals(1, statistics.getArcFeedCount());
+		assertBounds(getStatistics(provider, 0, 0, 8), 0, 0, 0, 10, 5, 8);
+	}
+
+	@Test
+	public void testCountsAndLengths() throws Exception{
+		IGCodeProvider provider = addProvider("G90\nG0X0Y0Z0\nG1X10F100\nG1Y10\nG0X0Y0");
+
+		GCodeProviderStatistics statistics = getStatistics(provider, 0, 0, 0);
+		assertEquals(2, statistics.getStraightTraverseCount());
+		assertEquals(2, statistics.getStraightFeedCount());
+		assertEquals(20, statistics.getFeedLength().doubleValue(LengthUnit.MILLIMETRE), 1e-9);
+		// Cached statistics are translated to the new start position
+		statistics = getStatistics(provider, -5, 0, 0);
+		assertEquals(2, statistics.getStraightFeedCount());
+		assertBounds(statistics, -5, 0, 0, 10, 10, 0);
+	}
+
+	/**
+	 * Parses the given content and adds it to the repository
+	 * @param content the content
+	 * @return the provider
+	 * @throws Exception Exception
+	 */
+	private IGCodeProvider addProvider(String content) throws Exception{
+		IGCodeProvider provider = service.parse(new StringGCodeSource(content), null);
+		provider.setCode("test");
+		service.addGCodeProvider(provider);
+		return service.getGCodeProvider(provider.getId());
+	}
+
+	/**
+	 * Returns the statistics of the given provider from the given start position
+	 * @param provider the provider
+	 * @param x the start X
+	 * @param y the start Y
+	 * @param z the start Z
+	 * @return the statistics
+	 * @throws Exception Exception
+	 */
+	private GCodeProviderStatistics getStatistics(IGCodeProvider provider, double x, double y, double z) throws Exception{
+		GCodeContext context = new GCodeContext();
+		context.setX(Length.valueOf(x, LengthUnit.MILLIMETRE));
+		context.setY(Length.valueOf(y, LengthUnit.MILLIMETRE));
+		context.setZ(Length.valueOf(z, LengthUnit.MILLIMETRE));
+		return service.getStatistics(context, provider);
+	}
+
+	private void assertBounds(GCodeProviderStatistics statistics, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		BoundingTuple6b bounds = statistics.getBounds();
+		assertEquals(minX, bounds.getMin().getX().doubleValue(LengthUnit.MILLIMETRE), 1e-9);
+		assertEquals(minY, bounds.getMin().getY().doubleValue(LengthUnit.MILLIMETRE), 1e-9);
+		assertEquals(minZ, bounds.getMin().getZ().doubleValue(LengthUnit.MILLIMETRE), 1e-9);
+		assertEquals(maxX, bounds.getMax().getX().doubleValue(LengthUnit.MILLIMETRE), 1e-9);
+		assertEquals(maxY, bounds.getMax().getY().doubleValue(LengthUnit.MILLIMETRE), 1e-9);
+		assertEquals(maxZ, bounds.getMax().getZ().doubleValue(LengthUnit.MILLIMETRE), 1e-9);
+	}
+}
@@ -4,10 +4,13 @@ import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.goko.core.common.exception.GkException;
+import org.goko.core.common.utils.Location;
 import org.goko.core.gcode.element.GCodeLine;
 import org.goko.core.gcode.element.IGCodeProvider;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
 import org.goko.core.gcode.rs274ngcv3.element.GCodeProvider;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProviderInstances;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProviderStatistics;
 import org.goko.core.gcode.rs274ngcv3.element.IModifier;
 import org.goko.core.gcode.rs274ngcv3.element.InstructionProvider;
 import org.goko.core.gcode.rs274ngcv3.element.InstructionSet;
@@ -34,6 +37,25 @@ public interface IRS274NGCService extends IGCodeService<AbstractInstruction, GCo
 
 	BoundingTuple6b getBounds(GCodeContext context, InstructionProvider instructionProvider) throws GkException;
 
+	/**
+	 * Returns the statistics of the given provider evaluated from the given context : bounds including arcs, motion counts and lengths.
+	 * They are cached until the provider or its modifiers are updated, or requested from a different context
+	 * @param context the context to evaluate the provider from
+	 * @param provider the provider
+	 * @return the statistics
+	 * @throws GkException GkException
+	 */
+	GCodeProviderStatistics getStatistics(GCodeContext context, IGCodeProvider provider) throws GkException;
+
+	/**
+	 * Computes the statistics of the given instructions evaluated from the given context, without caching
+	 * @param context the context to evaluate the instructions from
+	 * @param instructionProvider the instructions
+	 * @return the statistics
+	 * @throws GkException GkException
+	 */
+	GCodeProviderStatistics getStatistics(GCodeContext context, InstructionProvider instructionProvider) throws GkException;
+
 	IModifier<GCodeProvider> getModifier(Integer id) throws GkException;
 	
 	IModifier<GCodeProvider> findModifier(Integer id) throws GkException;
@@ -57,4 +79,29 @@ public interface IRS274NGCService extends IGCodeService<AbstractInstruction, GCo
 	String render(GCodeLine line, RenderingFormat format) throws GkException;
 	
 	void setRenderingFormat(RenderingFormat format);
+	
+	/**
+	 * Enables or disables the parsing of files in chunks on several threads
+	 * @param enabled <code>true</code> to enable parallel parsing
+	 */
+	void setParallelParsingEnabled(boolean enabled);
+
+	/**
+	 * Returns the given provider as copies of a base provider when the top of its modifier stack only contains array modifiers.
+	 * This allows a viewer to draw the base provider once per copy instead of the expanded code
+	 * @param idGCodeProvider the id of the provider
+	 * @return the instances, or <code>null</code> if the provider is not the result of array modifiers
+	 * @throws GkException GkException
+	 */
+	GCodeProviderInstances findGCodeProviderInstances(Integer idGCodeProvider) throws GkException;
+
+	/**
+	 * Returns the location in the source of the given line. The lines rebuilt by an enabled modifier don't come from the source
+	 * and have no location : only the lines of the base provider of array instances, or of a provider without enabled modifier, have one
+	 * @param provider the provider of the line, for example the base provider of GCodeProviderInstances
+	 * @param idGCodeLine the id of the line
+	 * @return the location, or <code>null</code> if the line was not read from the source
+	 * @throws GkException GkException
+	 */
+	Location findSourceLocation(IGCodeProvider provider, Integer idGCodeLine) throws GkException;
 }
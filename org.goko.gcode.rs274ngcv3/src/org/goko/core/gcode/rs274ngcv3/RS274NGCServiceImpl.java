@@ -3,11 +3,22 @@ package org.goko.core.gcode.rs274ngcv3;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.vecmath.Vector3d;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
@@ -17,6 +28,7 @@ import org.eclipse.core.runtime.SubMonitor;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkFunctionalException;
 import org.goko.core.common.exception.GkTechnicalException;
+import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.common.service.AbstractGokoService;
 import org.goko.core.common.utils.CacheByCode;
 import org.goko.core.common.utils.CacheById;
@@ -29,32 +41,44 @@ import org.goko.core.gcode.element.IGCodeProvider;
 import org.goko.core.gcode.element.IGCodeProviderSource;
 import org.goko.core.gcode.element.IGCodeProviderSourceListener;
 import org.goko.core.gcode.element.IInstructionProvider;
+import org.goko.core.gcode.rs274ngcv3.context.EnumDistanceMode;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeLineStorage;
 import org.goko.core.gcode.rs274ngcv3.element.GCodeProvider;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProviderInstances;
+import org.goko.core.gcode.rs274ngcv3.element.GCodeProviderStatistics;
 import org.goko.core.gcode.rs274ngcv3.element.IModifier;
 import org.goko.core.gcode.rs274ngcv3.element.IStackableGCodeProvider;
 import org.goko.core.gcode.rs274ngcv3.element.InstructionIterator;
 import org.goko.core.gcode.rs274ngcv3.element.InstructionProvider;
 import org.goko.core.gcode.rs274ngcv3.element.InstructionSet;
+import org.goko.core.gcode.rs274ngcv3.element.InstructionType;
 import org.goko.core.gcode.rs274ngcv3.element.StackableGCodeProviderModifier;
 import org.goko.core.gcode.rs274ngcv3.element.StackableGCodeProviderRoot;
 import org.goko.core.gcode.rs274ngcv3.element.source.StringGCodeSource;
 import org.goko.core.gcode.rs274ngcv3.instruction.AbstractInstruction;
+import org.goko.core.gcode.rs274ngcv3.instruction.AbstractStraightInstruction;
+import org.goko.core.gcode.rs274ngcv3.instruction.ArcFeedInstruction;
 import org.goko.core.gcode.rs274ngcv3.instruction.InstructionFactory;
 import org.goko.core.gcode.rs274ngcv3.modifier.AbstractModifier;
 import org.goko.core.gcode.rs274ngcv3.modifier.IModifierListener;
 import org.goko.core.gcode.rs274ngcv3.modifier.ModifierSorter;
 import org.goko.core.gcode.rs274ngcv3.modifier.ModifierSorter.EnumModifierSortType;
+import org.goko.core.gcode.rs274ngcv3.modifier.array.ArrayModifier;
 import org.goko.core.gcode.rs274ngcv3.parser.GCodeLexer;
 import org.goko.core.gcode.rs274ngcv3.parser.GCodeToken;
+import org.goko.core.gcode.rs274ngcv3.parser.GCodeTokenStream;
 import org.goko.core.gcode.rs274ngcv3.parser.GCodeTokenType;
 import org.goko.core.gcode.rs274ngcv3.parser.ModalGroup;
+import org.goko.core.gcode.rs274ngcv3.utils.InstructionUtils;
 import org.goko.core.gcode.service.GCodeProviderDeleteEvent;
 import org.goko.core.gcode.service.IGCodeProviderDeleteVetoableListener;
 import org.goko.core.gcode.service.IGCodeProviderRepositoryListener;
 import org.goko.core.log.GkLog;
+import org.goko.core.math.Arc3b;
 import org.goko.core.math.BoundingTuple6b;
 import org.goko.core.math.Tuple6b;
+import org.goko.core.math.Tuple6d;
 
 import PriorizedListener.PriorizedListenerList;
 
@@ -63,6 +87,12 @@ import PriorizedListener.PriorizedListenerList;
  */
 public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NGCService{
 	private static final GkLog LOG = GkLog.getLogger(RS274NGCServiceImpl.class);
+	/** Amount of work remaining reported to the progress monitor while reading a file of unknown length */
+	private static final int PARSE_PROGRESS_WORK = 1000;
+	/** Number of lines in a chunk parsed by a single task when parallel parsing is enabled */
+	private static final int PARSE_CHUNK_SIZE = 4096;
+	/** Initial capacity of the arrays holding per line data while reading a file */
+	private static final int INITIAL_LINE_CAPACITY = 1024;
 	/** The list of listener */
 	private PriorizedListenerList<IGCodeProviderRepositoryListener> listenerList;
 	/** The list of modifier listener */
@@ -83,6 +113,12 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 	private boolean gcodeProviderUdateNotificationEnabled;
 	/** The active rendering format */
 	private RenderingFormat renderingFormat;
+	/** Enables the tokenization of files in chunks on several threads */
+	private boolean parallelParsingEnabled;
+	/** The cache of statistics, by id of provider */
+	private Map<Integer, StatisticsCacheEntry> cacheStatistics;
+	/** The pool used for parallel parsing */
+	private ForkJoinPool parsingPool;
 	
 	/** Constructor */
 	public RS274NGCServiceImpl() {
@@ -93,9 +129,11 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 		this.cacheStackedProviders = new CacheById<>();
 		this.cacheStackedProvidersByCode = new UniqueCacheByCode<>();
 		this.cacheModifiers = new CacheById<>(new SequentialIdGenerator());
+		this.cacheStatistics = new ConcurrentHashMap<>();
 		this.gcodeProviderUdateNotificationEnabled = true;
 		this.gcodeProviderDeleteListenerList = new CopyOnWriteArrayList<>();
 		this.renderingFormat = RenderingFormat.COMPLETE;
+		this.parallelParsingEnabled = true;
 	}
 
 	/** (inheritDoc)
@@ -121,7 +159,12 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 	 */
 	@Override
 	public void stopService() throws GkException {
-		
+		synchronized (this) {
+			if(parsingPool != null){
+				parsingPool.shutdownNow();
+				parsingPool = null;
+			}
+		}
 	}
 	
 	/** (inheritDoc)
@@ -136,10 +179,20 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 		provider.setSource(root.getSource());
 		provider.setCode(root.getCode());
 		
-		parseProvider(provider.getSource(), provider, monitor);
+		IGCodeProvider previousProvider = root.getWrappedProvider();
+		if(previousProvider instanceof GCodeProvider && ((GCodeProvider) previousProvider).getSourceLineHashes() != null){
+			// Only parse the lines that changed since the previous version
+			boolean changed = reparseProvider(provider.getSource(), (GCodeProvider) previousProvider, provider, monitor);
+			if(!changed){
+				LOG.info("Provider ["+root.getCode()+"] - source content unchanged, skipping reload");
+				return;
+			}
+		}else{
+			parseProvider(provider.getSource(), provider, monitor);
+		}
 		root.setParent(provider);
 		root.setModificationDate(new Date());
-		// Force to update the modifiers stack
+		// Force to update the modifiers stack. Modifiers work on the whole provider, they are all applied again
 		cacheStackedProviders.get(idGCodeProvider).update();
 		notifyGCodeProviderUpdate(getGCodeProvider(idGCodeProvider));
 	}
@@ -158,31 +211,63 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 		provider.clear();
 		provider.setSource(source);		
 		GCodeLexer lexer = new GCodeLexer();
-		List<List<GCodeToken>> tokens = new ArrayList<>();
-		
-		try(InputStream stream = source.openInputStream()){
-			 tokens = lexer.tokenize(stream);
-		} catch (IOException e) {
-			throw new GkTechnicalException(e);
-		}
+		long[] hashes = new long[INITIAL_LINE_CAPACITY];
+		int lineCount = 0;
+		boolean parallel = isParallelParsingEnabled();
+		// Chunks submitted to the parsing pool, in the order of the file
+		Deque<Future<GCodeLineStorage>> pendingChunks = new ArrayDeque<>();
+		String[] chunk = null;
+		int chunkSize = 0;
+		int chunkStart = 0;
 		
 		SubMonitor subMonitor = null;
 		if(monitor != null){
-			subMonitor = SubMonitor.convert(monitor,"Reading file", tokens.size());
-		}
-		int l = 0;
-		for (List<GCodeToken> lstToken : tokens) {
-			verifyModality(lstToken);
-			GCodeLine line = buildLine(lstToken);
-			line.setLocation(new Location(l, 0));
-			l++;
-			if(line != null){
-				provider.addLine(line);
+			subMonitor = SubMonitor.convert(monitor,"Reading file", PARSE_PROGRESS_WORK);
+		}
+		// Lines are tokenized on the fly, the whole token list of the file is never kept in memory
+		try(InputStream stream = source.openInputStream();
+			GCodeTokenStream tokenStream = lexer.createTokenStream(stream)){
+			String sourceLine = tokenStream.nextSourceLine();
+			while(sourceLine != null){
+				hashes = ensureCapacity(hashes, lineCount + 1);
+				hashes[lineCount] = GCodeTokenStream.hash(sourceLine);
+				lineCount++;
+				if(parallel){
+					if(chunk == null){
+						chunk = new String[PARSE_CHUNK_SIZE];
+						chunkSize = 0;
+						chunkStart = tokenStream.getLineNumber();
+					}
+					chunk[chunkSize++] = sourceLine;
+					if(chunkSize == PARSE_CHUNK_SIZE){
+						submitChunk(provider, pendingChunks, new ParsingChunk(lexer, chunk, chunkSize, chunkStart));
+						chunk = null;
+					}
+				}else{
+					addParsedLine(provider, lexer.tokenize(sourceLine, tokenStream.getLineNumber()), tokenStream.getLineNumber());
+				}
+				if(subMonitor != null){
+					// The line count is unknown : keep reporting a fraction of the remaining work
+					subMonitor.setWorkRemaining(PARSE_PROGRESS_WORK);
+					subMonitor.worked(1);
+				}
+				sourceLine = tokenStream.nextSourceLine();
 			}
-			if(subMonitor != null){
-				subMonitor.worked(1);
+			if(chunk != null){
+				submitChunk(provider, pendingChunks, new ParsingChunk(lexer, chunk, chunkSize, chunkStart));
+			}
+			while(!pendingChunks.isEmpty()){
+				appendChunk(provider, pendingChunks.poll());
+			}
+		} catch (IOException e) {
+			throw new GkTechnicalException(e);
+		} finally {
+			// Only remains if parsing failed
+			for (Future<GCodeLineStorage> pendingChunk : pendingChunks) {
+				pendingChunk.cancel(true);
 			}
 		}
+		provider.setSourceLineHashes(Arrays.copyOf(hashes, lineCount));
 		if(subMonitor != null){
 			subMonitor.done();
 		}
@@ -196,6 +281,224 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 		}
 	}
 	
+	/**
+	 * Parse the given source into the target provider, reusing the lines of a previous version of the same source.
+	 * The new source is read once : each line is hashed and compared to the previous hashes. Only the lines between the
+	 * common leading and trailing lines are tokenized, the other ones are copied from the previous provider.
+	 * Lines are kept in memory from the first changed line, since the common trailing lines are only known once the whole source is read.
+	 * <p>
+	 * Lines are compared by their 64 bits hash only, the text of the previous version is not kept. Two different lines at the same position
+	 * with the same hash would be considered unchanged : the probability of such a collision is about 2^-64 per line, which is accepted here.
+	 * </p>
+	 * <p>
+	 * The whole provider is still verified by building its instructions, since a changed line can alter the modal state used by all the following lines.
+	 * </p>
+	 * @param source the source to parse
+	 * @param previous the provider parsed from the previous version of the source
+	 * @param provider the target provider
+	 * @param monitor the progress monitor
+	 * @return <code>true</code> if the content of the source changed, <code>false</code> otherwise. The target provider is left untouched if nothing changed
+	 * @throws GkException GkException
+	 */
+	public boolean reparseProvider(IGCodeProviderSource source, GCodeProvider previous, GCodeProvider provider, IProgressMonitor monitor) throws GkException {
+		long[] previousHashes = previous.getSourceLineHashes();
+		int previousCount = previousHashes.length;
+		long[] hashes = new long[Math.max(previousCount, 1)];
+		int count = 0;
+		// Unchanged leading lines
+		int prefix = 0;
+		// Source lines from the first changed line
+		List<String> changedLines = new ArrayList<String>();
+		
+		SubMonitor subMonitor = null;
+		if(monitor != null){
+			subMonitor = SubMonitor.convert(monitor,"Reading file", PARSE_PROGRESS_WORK);
+		}
+		GCodeLexer lexer = new GCodeLexer();
+		try(InputStream stream = source.openInputStream();
+			GCodeTokenStream tokenStream = lexer.createTokenStream(stream)){
+			String sourceLine = tokenStream.nextSourceLine();
+			while(sourceLine != null){
+				hashes = ensureCapacity(hashes, count + 1);
+				hashes[count] = GCodeTokenStream.hash(sourceLine);
+				if(prefix == count && count < previousCount && hashes[count] == previousHashes[count]){
+					prefix++;
+				}else{
+					changedLines.add(sourceLine);
+				}
+				count++;
+				sourceLine = tokenStream.nextSourceLine();
+			}
+		} catch (IOException e) {
+			throw new GkTechnicalException(e);
+		}
+		// Unchanged trailing lines
+		int commonCount = Math.min(count, previousCount);
+		int suffix = 0;
+		while(suffix < commonCount - prefix && hashes[count - 1 - suffix] == previousHashes[previousCount - 1 - suffix]){
+			suffix++;
+		}
+		if(prefix == count && count == previousCount){
+			return false;
+		}
+		LOG.info("Provider ["+previous.getCode()+"] - reparsing lines "+prefix+" to "+(count - suffix)+" out of "+count);
+		provider.clear();
+		provider.setSource(source);
+		provider.addLines(previous, 0, prefix, 0);
+		if(subMonitor != null){
+			subMonitor.setWorkRemaining(count - suffix - prefix);
+		}
+		for (int lineIndex = prefix; lineIndex < count - suffix; lineIndex++) {
+			addParsedLine(provider, lexer.tokenize(changedLines.get(lineIndex - prefix), lineIndex), lineIndex);
+			if(subMonitor != null){
+				subMonitor.worked(1);
+			}
+		}
+		// Trailing lines are moved by the number of added or removed lines
+		provider.addLines(previous, previousCount - suffix, previousCount, count - previousCount);
+		provider.setSourceLineHashes(Arrays.copyOf(hashes, count));
+		if(subMonitor != null){
+			subMonitor.done();
+		}
+		// Kept on purpose : the instructions of the unchanged lines depend on the modal state set by the changed ones
+		getInstructions(new GCodeContext(), provider);
+		return true;
+	}
+	
+	/**
+	 * Make sure the given array can hold the given number of elements
+	 * @param array the array
+	 * @param capacity the required capacity
+	 * @return the given array, or a larger copy of it
+	 */
+	private long[] ensureCapacity(long[] array, int capacity){
+		if(capacity > array.length){
+			return Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+		}
+		return array;
+	}
+	
+	/**
+	 * Verify and add the line built from the given tokens at the end of the provider
+	 * @param provider the target provider
+	 * @param lstToken the tokens of the line
+	 * @param lineIndex the index of the line in the source
+	 * @throws GkException GkException
+	 */
+	private void addParsedLine(GCodeProvider provider, List<GCodeToken> lstToken, int lineIndex) throws GkException{
+		provider.addLine(createParsedLine(lstToken, lineIndex));
+	}
+	
+	/**
+	 * Verify and build the line from the given tokens
+	 * @param lstToken the tokens of the line
+	 * @param lineIndex the index of the line in the source
+	 * @return the GCodeLine
+	 * @throws GkException GkException
+	 */
+	private GCodeLine createParsedLine(List<GCodeToken> lstToken, int lineIndex) throws GkException{
+		verifyModality(lstToken);
+		GCodeLine line = buildLine(lstToken);
+		line.setLocation(new Location(lineIndex, 0));
+		return line;
+	}
+	
+	/**
+	 * Submit a chunk of lines to the parsing pool. If too many chunks are pending, the oldest ones are
+	 * appended to the provider first, so the amount of lines held in memory stays bounded
+	 * @param provider the target provider
+	 * @param pendingChunks the pending chunks
+	 * @param chunk the chunk to submit
+	 * @throws GkException GkException
+	 */
+	private void submitChunk(GCodeProvider provider, Deque<Future<GCodeLineStorage>> pendingChunks, ParsingChunk chunk) throws GkException{
+		ForkJoinPool pool = getParsingPool();
+		while(pendingChunks.size() >= pool.getParallelism() * 2){
+			appendChunk(provider, pendingChunks.poll());
+		}
+		pendingChunks.add(pool.submit(chunk));
+	}
+	
+	/**
+	 * Wait for the given chunk to be parsed and append its lines to the provider
+	 * @param provider the target provider
+	 * @param pendingChunk the parsed chunk
+	 * @throws GkException GkException
+	 */
+	private void appendChunk(GCodeProvider provider, Future<GCodeLineStorage> pendingChunk) throws GkException{
+		GCodeLineStorage storage = null;
+		try {
+			storage = pendingChunk.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GkTechnicalException(e);
+		} catch (ExecutionException e) {
+			// The ForkJoinPool wraps checked exceptions thrown by the task : look for the original one in the cause chain
+			Throwable cause = e.getCause();
+			while(cause != null){
+				if(cause instanceof GkException){
+					throw (GkException) cause;
+				}
+				cause = cause.getCause();
+			}
+			throw new GkTechnicalException(e.getCause());
+		}
+		provider.addLines(storage, 0, storage.size(), 0);
+	}
+	
+	/**
+	 * Returns the pool used for parallel parsing, creating it if required
+	 * @return the ForkJoinPool
+	 */
+	private synchronized ForkJoinPool getParsingPool(){
+		if(parsingPool == null){
+			parsingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return parsingPool;
+	}
+	
+	/**
+	 * Task in charge of tokenizing and building a chunk of lines.
+	 * Lines are independent at this stage, the modal state is resolved later by a sequential pass on the instructions
+	 */
+	private class ParsingChunk implements Callable<GCodeLineStorage>{
+		/** The lexer */
+		private GCodeLexer lexer;
+		/** The lines of the chunk */
+		private String[] lines;
+		/** The number of lines in the chunk */
+		private int size;
+		/** The index of the first line of the chunk in the source */
+		private int firstLineIndex;
+		
+		/**
+		 * Constructor
+		 * @param lexer the lexer
+		 * @param lines the lines of the chunk
+		 * @param size the number of lines in the chunk
+		 * @param firstLineIndex the index of the first line of the chunk in the source
+		 */
+		ParsingChunk(GCodeLexer lexer, String[] lines, int size, int firstLineIndex) {
+			this.lexer = lexer;
+			this.lines = lines;
+			this.size = size;
+			this.firstLineIndex = firstLineIndex;
+		}
+
+		/** (inheritDoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public GCodeLineStorage call() throws GkException {
+			GCodeLineStorage storage = new GCodeLineStorage();
+			for (int i = 0; i < size; i++) {
+				int lineIndex = firstLineIndex + i;
+				storage.add(createParsedLine(lexer.tokenize(lines[i], lineIndex), lineIndex));
+			}
+			return storage;
+		}
+	}
+	
 	/** (inheritDoc)
 	 * @see org.goko.core.gcode.rs274ngcv3.IRS274NGCService#parse(java.lang.String)
 	 */
@@ -456,32 +759,226 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 	 */
 	@Override
 	public BoundingTuple6b getBounds(GCodeContext context, InstructionProvider instructionProvider) throws GkException {
-		Tuple6b min = new Tuple6b();
-		Tuple6b max = new Tuple6b();
+		return getStatistics(context, instructionProvider).getBounds();
+	}
 
-		GCodeContext preContext = new GCodeContext(context);
-		InstructionIterator iterator = getIterator(instructionProvider, preContext);
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.rs274ngcv3.IRS274NGCService#getStatistics(org.goko.core.gcode.rs274ngcv3.context.GCodeContext, org.goko.core.gcode.element.IGCodeProvider)
+	 */
+	@Override
+	public GCodeProviderStatistics getStatistics(GCodeContext context, IGCodeProvider provider) throws GkException {
+		IStackableGCodeProvider stackedProvider = null;
+		if(provider.getId() != null){
+			stackedProvider = cacheStackedProviders.find(provider.getId());
+		}
+		if(stackedProvider == null){
+			// Not a provider of this repository, nothing to cache
+			return getStatistics(context, getInstructions(context, provider));
+		}
+		Tuple6d startPoint = getStartPoint(context);
+		StatisticsCacheEntry entry = cacheStatistics.get(provider.getId());
+		if(entry != null && entry.isValid(stackedProvider, context, startPoint)){
+			return entry.getStatistics(startPoint);
+		}
+		entry = new StatisticsCacheEntry(stackedProvider, context, startPoint);
+		computeStatistics(context, getInstructions(context, provider), entry);
+		cacheStatistics.put(provider.getId(), entry);
+		return entry.getStatistics(startPoint);
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.rs274ngcv3.IRS274NGCService#getStatistics(org.goko.core.gcode.rs274ngcv3.context.GCodeContext, org.goko.core.gcode.rs274ngcv3.element.InstructionProvider)
+	 */
+	@Override
+	public GCodeProviderStatistics getStatistics(GCodeContext context, InstructionProvider instructionProvider) throws GkException {
+		Tuple6d startPoint = getStartPoint(context);
+		StatisticsCacheEntry entry = new StatisticsCacheEntry(null, context, startPoint);
+		computeStatistics(context, instructionProvider, entry);
+		return entry.getStatistics(startPoint);
+	}
 
+	/**
+	 * Returns the start point of the statistics : the position of the given context in the active coordinate system.
+	 * Unknown coordinates are NaN
+	 * @param context the context
+	 * @return the start point
+	 * @throws GkException GkException
+	 */
+	private Tuple6d getStartPoint(GCodeContext context) throws GkException{
+		Tuple6d start = new Tuple6d();
+		Tuple6d offset = new Tuple6d();
+		start.set(context.getPosition());
+		offset.set(context.getActiveCoordinateSystemData());
+		start.x += offset.x;
+		start.y += offset.y;
+		start.z += offset.z;
+		return start;
+	}
+
+	/**
+	 * Computes the statistics of the given instructions in the given entry. Until the code sets an axis in absolute distance mode,
+	 * the points on this axis only depend on the start point : their bounds are kept relative to it, so that the entry can be
+	 * translated to another start point
+	 * @param context the start context
+	 * @param instructionProvider the instructions
+	 * @param entry the entry to fill
+	 * @throws GkException GkException
+	 */
+	private void computeStatistics(GCodeContext context, InstructionProvider instructionProvider, StatisticsCacheEntry entry) throws GkException {
+		// Statistics are computed on primitives, quantities are only created for the result
+		Tuple6d min = new Tuple6d();
+		Tuple6d max = new Tuple6d();
+		Tuple6d relativeMin = new Tuple6d(Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+		Tuple6d relativeMax = new Tuple6d(relativeMin);
+		Tuple6d start = new Tuple6d();
+		Tuple6d endpoint = new Tuple6d();
+		Tuple6d absolutePoint = new Tuple6d();
+		Tuple6d relativePoint = new Tuple6d();
+		Tuple6d offset = new Tuple6d();
+		Tuple6d arcBound = new Tuple6d();
+		int straightTraverseCount = 0;
+		int straightFeedCount = 0;
+		int arcFeedCount = 0;
+		double rapidLength = 0;
+		double feedLength = 0;
+		boolean[] setAxes = new boolean[6];
+		boolean allAxesSet = false;
+		boolean translatable = true;
+
+		// Unknown coordinates of the start position stay unknown (NaN)
+		Tuple6d startPoint = entry.getStartPoint();
+		start.set(startPoint);
+
+		InstructionIterator iterator = getIterator(instructionProvider, context);
+		GCodeContext preContext = new GCodeContext(context);
 		while (iterator.hasNext()) {
-			preContext = new GCodeContext(iterator.getContext());
+			preContext.set(iterator.getContext());
 			AbstractInstruction instruction = iterator.next();
-			Tuple6b endpoint = iterator.getContext().getPosition().add(preContext.getActiveCoordinateSystemData());//new Tuple6b(straightInstruction.getX(),straightInstruction.getY(),straightInstruction.getZ(),straightInstruction.getA(),straightInstruction.getB(),straightInstruction.getC());
-			min = min.min(endpoint);
-			max = max.max(endpoint);
-//			FIXME : add bound support for Arcs
-//			if(instruction.getType() == InstructionType.STRAIGHT_TRAVERSE
-//			|| instruction.getType() == InstructionType.STRAIGHT_FEED){
-//				//AbstractStraightInstruction straightInstruction = (AbstractStraightInstruction) instruction;
-//				Tuple6b endpoint = iterator.getContext().getPosition();//new Tuple6b(straightInstruction.getX(),straightInstruction.getY(),straightInstruction.getZ(),straightInstruction.getA(),straightInstruction.getB(),straightInstruction.getC());
-//				min = min.min(endpoint);
-//				max = max.max(endpoint);
-//			}else if(instruction.getType() == InstructionType.ARC_FEED){
-//				ArcFeedInstruction arcfeedInstruction = (ArcFeedInstruction) instruction;
-//				
-//			}
+			endpoint.set(iterator.getContext().getPosition());
+			offset.set(preContext.getActiveCoordinateSystemData());
+			endpoint.add(offset);
+			InstructionType type = instruction.getType();
+			if(allAxesSet){
+				min.min(endpoint);
+				max.max(endpoint);
+			}else{
+				if(type == InstructionType.ARC_FEED){
+					// The shape of the arc depends on its start point
+					translatable = false;
+				}
+				allAxesSet = markSetAxes(setAxes, preContext, instruction);
+				for (int axis = 0; axis < setAxes.length; axis++) {
+					double value = getComponent(endpoint, axis);
+					if(setAxes[axis]){
+						setComponent(absolutePoint, axis, value);
+						setComponent(relativePoint, axis, Double.NaN);
+					}else{
+						setComponent(absolutePoint, axis, Double.NaN);
+						setComponent(relativePoint, axis, value - getComponent(startPoint, axis));
+					}
+				}
+				min.min(absolutePoint);
+				max.max(absolutePoint);
+				relativeMin.min(relativePoint);
+				relativeMax.max(relativePoint);
+			}
+
+			if(type == InstructionType.STRAIGHT_TRAVERSE){
+				straightTraverseCount++;
+				rapidLength += getLength(start, endpoint);
+			}else if(type == InstructionType.STRAIGHT_FEED){
+				straightFeedCount++;
+				feedLength += getLength(start, endpoint);
+			}else if(type == InstructionType.ARC_FEED){
+				arcFeedCount++;
+				Arc3b arc = InstructionUtils.getArc(preContext, (ArcFeedInstruction) instruction);
+				BoundingTuple6b bounds = arc.getBound();
+				arcBound.set(bounds.getMin());
+				min.min(arcBound);
+				arcBound.set(bounds.getMax());
+				max.max(arcBound);
+				// Helical length : planar length and motion along the axis of the arc
+				double planarLength = arc.getLength().doubleValue(Tuple6d.LENGTH_UNIT);
+				Vector3d axis = arc.getAxis();
+				double axialLength = (endpoint.x - start.x) * axis.x + (endpoint.y - start.y) * axis.y + (endpoint.z - start.z) * axis.z;
+				if(Double.isNaN(axialLength)){
+					axialLength = 0;
+				}
+				feedLength += Math.sqrt(planarLength * planarLength + axialLength * axialLength);
+			}
+			start.set(endpoint);
 		}
 
-		return new BoundingTuple6b(min, max);
+		entry.setBounds(min, max, relativeMin, relativeMax, translatable);
+		entry.setStatistics(new GCodeProviderStatistics(entry.getBounds(startPoint),
+											straightTraverseCount,
+											straightFeedCount,
+											arcFeedCount,
+											Length.valueOf(rapidLength, Tuple6d.LENGTH_UNIT),
+											Length.valueOf(feedLength, Tuple6d.LENGTH_UNIT)));
+	}
+
+	/**
+	 * Marks the axes set by the given instruction, which are the axes specified by a motion in absolute distance mode
+	 * @param setAxes the X, Y, Z, A, B and C axes set so far
+	 * @param preContext the context before the instruction
+	 * @param instruction the instruction
+	 * @return <code>true</code> if all the axes are set
+	 */
+	private static boolean markSetAxes(boolean[] setAxes, GCodeContext preContext, AbstractInstruction instruction){
+		if(preContext.getDistanceMode() == EnumDistanceMode.ABSOLUTE){
+			InstructionType type = instruction.getType();
+			if(type == InstructionType.STRAIGHT_TRAVERSE || type == InstructionType.STRAIGHT_FEED || type == InstructionType.STRAIGHT_PROBE){
+				AbstractStraightInstruction straight = (AbstractStraightInstruction) instruction;
+				markSetAxes(setAxes, straight.getX(), straight.getY(), straight.getZ(), straight.getA(), straight.getB(), straight.getC());
+			}else if(type == InstructionType.ARC_FEED){
+				ArcFeedInstruction arc = (ArcFeedInstruction) instruction;
+				markSetAxes(setAxes, arc.getX(), arc.getY(), arc.getZ(), arc.getA(), arc.getB(), arc.getC());
+			}
+		}
+		return setAxes[0] && setAxes[1] && setAxes[2] && setAxes[3] && setAxes[4] && setAxes[5];
+	}
+
+	private static void markSetAxes(boolean[] setAxes, Object... coordinates){
+		for (int axis = 0; axis < coordinates.length; axis++) {
+			setAxes[axis] |= coordinates[axis] != null;
+		}
+	}
+
+	private static double getComponent(Tuple6d tuple, int axis){
+		switch (axis) {
+		case 0: return tuple.x;
+		case 1: return tuple.y;
+		case 2: return tuple.z;
+		case 3: return tuple.a;
+		case 4: return tuple.b;
+		default: return tuple.c;
+		}
+	}
+
+	private static void setComponent(Tuple6d tuple, int axis, double value){
+		switch (axis) {
+		case 0: tuple.x = value; break;
+		case 1: tuple.y = value; break;
+		case 2: tuple.z = value; break;
+		case 3: tuple.a = value; break;
+		case 4: tuple.b = value; break;
+		default: tuple.c = value; break;
+		}
+	}
+
+	/**
+	 * Returns the length of a straight motion
+	 * @param start the start point
+	 * @param end the end point
+	 * @return the length, or 0 if the start point is not known
+	 */
+	private static double getLength(Tuple6d start, Tuple6d end){
+		double length = start.distance(end);
+		if(Double.isNaN(length)){
+			return 0;
+		}
+		return length;
 	}
 
 	/** (inheritDoc)
@@ -566,6 +1063,7 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 			provider = cacheStackedProviders.get(id);
 			cacheStackedProviders.remove(id);
 			cacheStackedProvidersByCode.remove(provider.getCode()); 
+			cacheStatistics.remove(id);
 			provider.getSource().delete();
 			
 			// Notifies after listeners
@@ -984,6 +1482,9 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 	 * @throws GkException GkException
 	 */
 	protected void notifyGCodeProviderUpdate(IGCodeProvider provider) throws GkException {
+		if(provider.getId() != null){
+			cacheStatistics.remove(provider.getId());
+		}
 		if(isGcodeProviderUdateNotificationEnabled()){
 			for (IGCodeProviderRepositoryListener listener : listenerList.getListeners()) {
 				try{
@@ -1187,5 +1688,198 @@ public class RS274NGCServiceImpl extends AbstractGokoService implements IRS274NG
 	public void setRenderingFormat(RenderingFormat renderingFormat) {
 		this.renderingFormat = renderingFormat;	
 	}
+
+	/**
+	 * @return <code>true</code> if files are tokenized in chunks on several threads, <code>false</code> otherwise
+	 */
+	public boolean isParallelParsingEnabled() {
+		return parallelParsingEnabled;
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.rs274ngcv3.IRS274NGCService#setParallelParsingEnabled(boolean)
+	 */
+	@Override
+	public void setParallelParsingEnabled(boolean parallelParsingEnabled) {
+		this.parallelParsingEnabled = parallelParsingEnabled;
+	}
+
+	/**
+	 * Statistics of a provider, with the state they were computed from
+	 */
+	private static class StatisticsCacheEntry{
+		/** The top of the modifier stack of the provider, or <code>null</code> if the entry is not cached */
+		private final IStackableGCodeProvider stackedProvider;
+		/** The modification date of the stack */
+		private final Date modificationDate;
+		/** The context the statistics were computed from */
+		private final GCodeContext context;
+		/** The start point the statistics were computed from */
+		private final Tuple6d startPoint;
+		/** The bounds of the points that don't depend on the start point */
+		private Tuple6d min;
+		private Tuple6d max;
+		/** The bounds of the points that only depend on the start point, relative to it */
+		private Tuple6d relativeMin;
+		private Tuple6d relativeMax;
+		/** <code>true</code> if the bounds follow a translation of the start point */
+		private boolean translatable;
+		/** The statistics */
+		private GCodeProviderStatistics statistics;
+
+		/**
+		 * Constructor
+		 * @param stackedProvider the top of the modifier stack of the provider, or <code>null</code> if the entry is not cached
+		 * @param context the context the statistics are computed from
+		 * @param startPoint the start point the statistics are computed from
+		 */
+		StatisticsCacheEntry(IStackableGCodeProvider stackedProvider, GCodeContext context, Tuple6d startPoint) {
+			this.stackedProvider = stackedProvider;
+			this.modificationDate = stackedProvider != null ? stackedProvider.getModificationDate() : null;
+			this.context = new GCodeContext(context);
+			this.startPoint = new Tuple6d(startPoint);
+		}
+
+		/**
+		 * Determines if the statistics are still valid for the given stack and context. The modal state of the context is compared.
+		 * The start point only has to be the same when the bounds can't be translated, or when one of its coordinates became known
+		 * or unknown. The rapid and feed lengths are not recomputed when the machine moves, although the length of the motions
+		 * leaving the start point depends on it
+		 * @param currentStackedProvider the current top of the modifier stack of the provider
+		 * @param currentContext the requested context
+		 * @param currentStartPoint the requested start point
+		 * @return <code>true</code> if the statistics can be reused
+		 */
+		boolean isValid(IStackableGCodeProvider currentStackedProvider, GCodeContext currentContext, Tuple6d currentStartPoint){
+			if(stackedProvider != currentStackedProvider
+				|| !ObjectUtils.equals(modificationDate, currentStackedProvider.getModificationDate())
+				|| !context.isSameModalState(currentContext)){
+				return false;
+			}
+			for (int axis = 0; axis < 6; axis++) {
+				double value = getComponent(startPoint, axis);
+				double currentValue = getComponent(currentStartPoint, axis);
+				if(translatable ? Double.isNaN(value) != Double.isNaN(currentValue) : Double.compare(value, currentValue) != 0){
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Sets the bounds of the points
+		 * @param min the minimum of the points that don't depend on the start point
+		 * @param max the maximum of the points that don't depend on the start point
+		 * @param relativeMin the minimum of the points that only depend on the start point, relative to it
+		 * @param relativeMax the maximum of the points that only depend on the start point, relative to it
+		 * @param translatable <code>true</code> if the bounds follow a translation of the start point
+		 */
+		void setBounds(Tuple6d min, Tuple6d max, Tuple6d relativeMin, Tuple6d relativeMax, boolean translatable){
+			this.min = min;
+			this.max = max;
+			this.relativeMin = relativeMin;
+			this.relativeMax = relativeMax;
+			this.translatable = translatable;
+		}
+
+		/**
+		 * Returns the bounds of the points for the given start point
+		 * @param currentStartPoint the start point
+		 * @return the bounds
+		 */
+		BoundingTuple6b getBounds(Tuple6d currentStartPoint){
+			Tuple6d currentMin = new Tuple6d(min);
+			Tuple6d currentMax = new Tuple6d(max);
+			Tuple6d point = new Tuple6d();
+			for (int axis = 0; axis < 6; axis++) {
+				setComponent(point, axis, getComponent(currentStartPoint, axis) + getComponent(relativeMin, axis));
+			}
+			currentMin.min(point);
+			for (int axis = 0; axis < 6; axis++) {
+				setComponent(point, axis, getComponent(currentStartPoint, axis) + getComponent(relativeMax, axis));
+			}
+			currentMax.max(point);
+			return new BoundingTuple6b(currentMin.toTuple6b(), currentMax.toTuple6b());
+		}
+
+		Tuple6d getStartPoint() {
+			return startPoint;
+		}
+
+		/**
+		 * Returns the statistics for the given start point
+		 * @param currentStartPoint the start point
+		 * @return the statistics
+		 */
+		GCodeProviderStatistics getStatistics(Tuple6d currentStartPoint) {
+			if(!translatable){
+				return statistics;
+			}
+			return new GCodeProviderStatistics(getBounds(currentStartPoint),
+												statistics.getStraightTraverseCount(),
+												statistics.getStraightFeedCount(),
+												statistics.getArcFeedCount(),
+												statistics.getRapidLength(),
+												statistics.getFeedLength());
+		}
+
+		void setStatistics(GCodeProviderStatistics statistics) {
+			this.statistics = statistics;
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.rs274ngcv3.IRS274NGCService#findGCodeProviderInstances(java.lang.Integer)
+	 */
+	@Override
+	public GCodeProviderInstances findGCodeProviderInstances(Integer idGCodeProvider) throws GkException {
+		IStackableGCodeProvider stackedProvider = cacheStackedProviders.get(idGCodeProvider);
+		List<Tuple6b> lstOffsets = null;
+		// Walk down the stack as long as the modifiers are disabled or translation only arrays
+		while(stackedProvider.getParent() != null && stackedProvider.getIdModifier() != null){
+			IModifier<GCodeProvider> modifier = getModifier(stackedProvider.getIdModifier());
+			if(modifier.isEnabled() && modifier.isConfigured()){
+				if(!(modifier instanceof ArrayModifier) || !((ArrayModifier) modifier).isTranslationOnly()){
+					break;
+				}
+				lstOffsets = combineOffsets(lstOffsets, ((ArrayModifier) modifier).getInstanceOffsets());
+			}
+			stackedProvider = stackedProvider.getParent();
+		}
+		if(lstOffsets == null){
+			return null;
+		}
+		return new GCodeProviderInstances(stackedProvider, lstOffsets);
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.gcode.rs274ngcv3.IRS274NGCService#findSourceLocation(org.goko.core.gcode.element.IGCodeProvider, java.lang.Integer)
+	 */
+	@Override
+	public Location findSourceLocation(IGCodeProvider provider, Integer idGCodeLine) throws GkException {
+		if(idGCodeLine == null){
+			return null;
+		}
+		return provider.getLine(idGCodeLine).getLocation();
+	}
+
+	/**
+	 * Combines the offsets of two stacked array modifiers : each copy of the first one is copied by the second one
+	 * @param lstOffsets the offsets of the first modifier, or <code>null</code> if there is none
+	 * @param lstModifierOffsets the offsets of the second modifier
+	 * @return the combined offsets
+	 */
+	private List<Tuple6b> combineOffsets(List<Tuple6b> lstOffsets, List<Tuple6b> lstModifierOffsets){
+		if(lstOffsets == null){
+			return lstModifierOffsets;
+		}
+		List<Tuple6b> result = new ArrayList<Tuple6b>(lstOffsets.size() * lstModifierOffsets.size());
+		for (Tuple6b offset : lstOffsets) {
+			for (Tuple6b modifierOffset : lstModifierOffsets) {
+				result.add(offset.add(modifierOffset));
+			}
+		}
+		return result;
+	}
 }
 
@@ -4,6 +4,8 @@ import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.commons.lang3.ObjectUtils;
+
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.Units;
 import org.goko.core.common.measure.quantity.Angle;
@@ -193,6 +195,58 @@ public class GCodeContext implements IGCodeContext{
 
 	// _______________________ END OF CONSTRUCTORS DEFINITION _______________________
 
+	/**
+	 * Sets this context to the state of the given context, without allocating anything.
+	 * Unlike the copy constructor, the origin offset and the coordinate systems offsets are shared with the given context,
+	 * so this is meant for snapshots taken in tight loops where the offsets are only replaced, never modified in place.
+	 * @param context the context to copy
+	 */
+	public void set(GCodeContext context) {
+		this.motionMode = context.motionMode;
+		this.distanceMode = context.distanceMode;
+		this.plane = context.plane;
+		this.unit = context.unit;
+		this.activeToolNumber = context.activeToolNumber;
+		this.selectedToolNumber = context.selectedToolNumber;
+		this.coordinateSystem = context.coordinateSystem;
+		this.spindleMode = context.spindleMode;
+		this.spindleSpeed = context.spindleSpeed;
+		this.feedrate = context.feedrate;
+		this.originOffset = context.originOffset;
+		this.originOffsetActive = context.originOffsetActive;
+		this.motionControl = context.motionControl;
+		this.x = context.x;
+		this.y = context.y;
+		this.z = context.z;
+		this.a = context.a;
+		this.b = context.b;
+		this.c = context.c;
+		this.machineX = context.machineX;
+		this.machineY = context.machineY;
+		this.machineZ = context.machineZ;
+		this.machineA = context.machineA;
+		this.machineB = context.machineB;
+		this.machineC = context.machineC;
+		this.coordinateSystemData.putAll(context.coordinateSystemData);
+	}
+
+	/**
+	 * Determines if this context and the given one have the same modal state : the motion mode, the distance mode,
+	 * the plane, the unit and the offsets. The position is not compared
+	 * @param context the context to compare
+	 * @return <code>true</code> if the contexts have the same modal state
+	 */
+	public boolean isSameModalState(GCodeContext context) {
+		return motionMode == context.motionMode
+			&& distanceMode == context.distanceMode
+			&& plane == context.plane
+			&& unit == context.unit
+			&& originOffsetActive == context.originOffsetActive
+			&& ObjectUtils.equals(coordinateSystem, context.coordinateSystem)
+			&& ObjectUtils.equals(originOffset, context.originOffset)
+			&& coordinateSystemData.equals(context.coordinateSystemData);
+	}
+
 
 	private void initCoordinateSystemData() {
 		this.coordinateSystemData.put(CoordinateSystem.G53, new Tuple6b(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, Units.MILLIMETRE));
@@ -0,0 +1,390 @@
+/*******************************************************************************
+ * 	This file is part of Goko.
+ *
+ *   Goko is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Goko is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package org.goko.core.gcode.rs274ngcv3.element;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.goko.core.common.utils.Location;
+import org.goko.core.gcode.element.GCodeLine;
+import org.goko.core.gcode.element.GCodeWord;
+
+/**
+ * Columnar storage of GCode lines.
+ * Words are stored in primitive arrays : one letter byte, one scaled long value and its scale per word.
+ * Values that can't be rebuilt exactly from their scaled form (comments, leading zeros, explicit sign...)
+ * are stored in a pool of shared strings.
+ * Lines only keep the offset of their first word and their location in the source.
+ *
+ * @author PsyKo
+ */
+public class GCodeLineStorage {
+	/** Initial capacity of the arrays */
+	private static final int INITIAL_CAPACITY = 16;
+	/** Scale used to mark a value stored in the string pool */
+	private static final byte POOLED_VALUE = -1;
+	/** Maximum number of digits of a value stored as a scaled long */
+	private static final int MAX_DIGITS = 18;
+	/** Value used for lines without location */
+	private static final int NO_LOCATION = -1;
+	/** Powers of ten used to convert scaled values */
+	private static final double[] POWERS_OF_TEN = new double[MAX_DIGITS + 1];
+	static{
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+	/** Number of lines */
+	private int lineCount;
+	/** Index of the first word of each line. Contains lineCount + 1 entries */
+	private int[] lineWordOffsets;
+	/** Line of the location of each line in the source */
+	private int[] locationLines;
+	/** Column of the location of each line in the source */
+	private int[] locationColumns;
+	/** Number of words */
+	private int wordCount;
+	/** Letter of each word */
+	private byte[] wordLetters;
+	/** Scaled value of each word, or index in the pool for pooled values */
+	private long[] wordValues;
+	/** Scale of each word value, or POOLED_VALUE */
+	private byte[] wordScales;
+	/** The pool of values that can't be stored as scaled longs */
+	private List<String> pool;
+	/** Index of the values in the pool */
+	private Map<String, Integer> poolIndex;
+
+	/**
+	 * Constructor
+	 */
+	public GCodeLineStorage() {
+		clear();
+	}
+
+	/**
+	 * Removes all the lines
+	 */
+	public void clear(){
+		lineCount = 0;
+		lineWordOffsets = new int[INITIAL_CAPACITY + 1];
+		locationLines = new int[INITIAL_CAPACITY];
+		locationColumns = new int[INITIAL_CAPACITY];
+		wordCount = 0;
+		wordLetters = new byte[INITIAL_CAPACITY];
+		wordValues = new long[INITIAL_CAPACITY];
+		wordScales = new byte[INITIAL_CAPACITY];
+		pool = new ArrayList<String>();
+		poolIndex = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Appends the content of the given line
+	 * @param line the line to add
+	 */
+	public void add(GCodeLine line){
+		ensureLineCapacity(lineCount + 1);
+		List<GCodeWord> words = line.getWords();
+		ensureWordCapacity(wordCount + words.size());
+		for (GCodeWord word : words) {
+			addWord(word);
+		}
+		Location location = line.getLocation();
+		if(location != null){
+			locationLines[lineCount] = location.getLine();
+			locationColumns[lineCount] = location.getColumn();
+		}else{
+			locationLines[lineCount] = NO_LOCATION;
+			locationColumns[lineCount] = NO_LOCATION;
+		}
+		lineCount++;
+		lineWordOffsets[lineCount] = wordCount;
+	}
+
+	/**
+	 * Appends a range of lines of another storage, without building intermediate GCodeLine
+	 * @param source the source storage
+	 * @param from the index of the first line to copy (inclusive)
+	 * @param to the index of the last line to copy (exclusive)
+	 * @param locationOffset offset applied to the location line of the copied lines
+	 */
+	public void addAll(GCodeLineStorage source, int from, int to, int locationOffset){
+		if(to <= from){
+			return;
+		}
+		int firstWord = source.lineWordOffsets[from];
+		int lastWord = source.lineWordOffsets[to];
+		ensureLineCapacity(lineCount + to - from);
+		ensureWordCapacity(wordCount + lastWord - firstWord);
+		for (int i = firstWord; i < lastWord; i++) {
+			wordLetters[wordCount] = source.wordLetters[i];
+			if(source.wordScales[i] == POOLED_VALUE){
+				addPooledValue(wordCount, source.pool.get((int) source.wordValues[i]));
+			}else{
+				wordValues[wordCount] = source.wordValues[i];
+				wordScales[wordCount] = source.wordScales[i];
+			}
+			wordCount++;
+		}
+		int wordOffset = lineWordOffsets[lineCount] - firstWord;
+		for (int i = from; i < to; i++) {
+			if(source.locationLines[i] != NO_LOCATION){
+				locationLines[lineCount] = source.locationLines[i] + locationOffset;
+			}else{
+				locationLines[lineCount] = NO_LOCATION;
+			}
+			locationColumns[lineCount] = source.locationColumns[i];
+			lineCount++;
+			lineWordOffsets[lineCount] = source.lineWordOffsets[i + 1] + wordOffset;
+		}
+	}
+
+	/**
+	 * Build a new GCodeLine from the stored content
+	 * @param index the index of the line
+	 * @return a new GCodeLine. Modifications on the returned line are not reflected in this storage
+	 */
+	public GCodeLine get(int index){
+		GCodeLine line = new GCodeLine();
+		int start = lineWordOffsets[index];
+		int end = lineWordOffsets[index + 1];
+		List<GCodeWord> words = new ArrayList<GCodeWord>(end - start);
+		for (int i = start; i < end; i++) {
+			words.add(new GCodeWord(String.valueOf((char) wordLetters[i]), getWordValue(i)));
+		}
+		line.setWords(words);
+		line.setLineNumber(index);
+		if(locationLines[index] != NO_LOCATION){
+			line.setLocation(new Location(locationLines[index], locationColumns[index]));
+		}
+		return line;
+	}
+
+	/**
+	 * @return the number of lines
+	 */
+	public int size(){
+		return lineCount;
+	}
+
+	/**
+	 * Returns the index of the first word of the given line
+	 * @param index the index of the line
+	 * @return an index usable in {@link #getWordLetter(int)}, {@link #getWordValue(int)} and {@link #getWordDoubleValue(int)}
+	 */
+	public int getFirstWordIndex(int index){
+		return lineWordOffsets[index];
+	}
+
+	/**
+	 * Returns the number of words in the given line
+	 * @param index the index of the line
+	 * @return the number of words
+	 */
+	public int getWordCount(int index){
+		return lineWordOffsets[index + 1] - lineWordOffsets[index];
+	}
+
+	/**
+	 * Returns the letter of the word at the given index
+	 * @param wordIndex the index of the word
+	 * @return the letter
+	 */
+	public char getWordLetter(int wordIndex){
+		return (char) wordLetters[wordIndex];
+	}
+
+	/**
+	 * Determines if the value of the word at the given index is numeric
+	 * @param wordIndex the index of the word
+	 * @return <code>true</code> if the value is stored as a number, <code>false</code> otherwise
+	 */
+	public boolean isNumericWord(int wordIndex){
+		return wordScales[wordIndex] != POOLED_VALUE;
+	}
+
+	/**
+	 * Returns the value of the word at the given index as a double, without creating any object
+	 * @param wordIndex the index of the word
+	 * @return the value of the word
+	 * @throws NumberFormatException if the value is not numeric and can't be parsed
+	 */
+	public double getWordDoubleValue(int wordIndex){
+		byte scale = wordScales[wordIndex];
+		if(scale == POOLED_VALUE){
+			return Double.parseDouble(pool.get((int) wordValues[wordIndex]));
+		}
+		return wordValues[wordIndex] / POWERS_OF_TEN[scale];
+	}
+
+	/**
+	 * Returns the value of the word at the given index, as it was added
+	 * @param wordIndex the index of the word
+	 * @return the value of the word
+	 */
+	public String getWordValue(int wordIndex){
+		byte scale = wordScales[wordIndex];
+		if(scale == POOLED_VALUE){
+			return pool.get((int) wordValues[wordIndex]);
+		}
+		return format(wordValues[wordIndex], scale);
+	}
+
+	/**
+	 * Stores the given word
+	 * @param word the word
+	 */
+	private void addWord(GCodeWord word){
+		String letter = word.getLetter();
+		String value = word.getValue();
+		wordLetters[wordCount] = (byte) letter.charAt(0);
+		if(!encode(wordCount, value)){
+			addPooledValue(wordCount, value);
+		}
+		wordCount++;
+	}
+
+	/**
+	 * Stores the given value in the pool and references it from the given word
+	 * @param wordIndex the index of the word
+	 * @param value the value
+	 */
+	private void addPooledValue(int wordIndex, String value){
+		Integer indexInPool = poolIndex.get(value);
+		if(indexInPool == null){
+			indexInPool = pool.size();
+			pool.add(value);
+			poolIndex.put(value, indexInPool);
+		}
+		wordValues[wordIndex] = indexInPool;
+		wordScales[wordIndex] = POOLED_VALUE;
+	}
+
+	/**
+	 * Tries to store the given value as a scaled long. Only values whose canonical form is exactly the
+	 * given string are encoded, so the original string can always be rebuilt.
+	 * @param wordIndex the index of the word
+	 * @param value the value
+	 * @return <code>true</code> if the value was stored, <code>false</code> otherwise
+	 */
+	private boolean encode(int wordIndex, String value){
+		if(value == null){
+			return false;
+		}
+		int length = value.length();
+		int index = 0;
+		boolean negative = false;
+		if(index < length && value.charAt(index) == '-'){
+			negative = true;
+			index++;
+		}
+		int integerStart = index;
+		long unscaled = 0;
+		int digits = 0;
+		while(index < length && isDigit(value.charAt(index))){
+			unscaled = unscaled * 10 + (value.charAt(index) - '0');
+			digits++;
+			index++;
+		}
+		int integerDigits = index - integerStart;
+		// Integer part is mandatory, and can't have leading zeros
+		if(integerDigits == 0 || (integerDigits > 1 && value.charAt(integerStart) == '0')){
+			return false;
+		}
+		int scale = 0;
+		if(index < length && value.charAt(index) == '.'){
+			index++;
+			while(index < length && isDigit(value.charAt(index))){
+				unscaled = unscaled * 10 + (value.charAt(index) - '0');
+				digits++;
+				scale++;
+				index++;
+			}
+			if(scale == 0){
+				return false;
+			}
+		}
+		if(index != length || digits > MAX_DIGITS || (negative && unscaled == 0)){
+			return false;
+		}
+		wordValues[wordIndex] = negative ? -unscaled : unscaled;
+		wordScales[wordIndex] = (byte) scale;
+		return true;
+	}
+
+	/**
+	 * Format a scaled value
+	 * @param unscaled the unscaled value
+	 * @param scale the scale
+	 * @return the String representation
+	 */
+	private String format(long unscaled, int scale){
+		String digits = String.valueOf(Math.abs(unscaled));
+		if(scale == 0){
+			return unscaled < 0 ? "-" + digits : digits;
+		}
+		StringBuilder builder = new StringBuilder(digits.length() + 3);
+		if(unscaled < 0){
+			builder.append('-');
+		}
+		int integerDigits = digits.length() - scale;
+		if(integerDigits <= 0){
+			builder.append('0').append('.');
+			for (int i = integerDigits; i < 0; i++) {
+				builder.append('0');
+			}
+			builder.append(digits);
+		}else{
+			builder.append(digits, 0, integerDigits).append('.').append(digits, integerDigits, digits.length());
+		}
+		return builder.toString();
+	}
+
+	private boolean isDigit(char c){
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Make sure the line arrays can hold the given number of lines
+	 * @param capacity the required capacity
+	 */
+	private void ensureLineCapacity(int capacity){
+		if(capacity > locationLines.length){
+			int newCapacity = Math.max(capacity, locationLines.length + (locationLines.length >> 1));
+			locationLines = Arrays.copyOf(locationLines, newCapacity);
+			locationColumns = Arrays.copyOf(locationColumns, newCapacity);
+			lineWordOffsets = Arrays.copyOf(lineWordOffsets, newCapacity + 1);
+		}
+	}
+
+	/**
+	 * Make sure the word arrays can hold the given number of words
+	 * @param capacity the required capacity
+	 */
+	private void ensureWordCapacity(int capacity){
+		if(capacity > wordLetters.length){
+			int newCapacity = Math.max(capacity, wordLetters.length + (wordLetters.length >> 1));
+			wordLetters = Arrays.copyOf(wordLetters, newCapacity);
+			wordValues = Arrays.copyOf(wordValues, newCapacity);
+			wordScales = Arrays.copyOf(wordScales, newCapacity);
+		}
+	}
+}
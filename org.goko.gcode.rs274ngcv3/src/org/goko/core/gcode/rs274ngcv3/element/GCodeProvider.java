@@ -1,11 +1,12 @@
 package org.goko.core.gcode.rs274ngcv3.element;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Date;
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.goko.core.common.exception.GkException;
-import org.goko.core.common.utils.CacheById;
+import org.goko.core.common.exception.GkTechnicalException;
 import org.goko.core.common.utils.SequentialIdGenerator;
 import org.goko.core.gcode.element.GCodeLine;
 import org.goko.core.gcode.element.IGCodeProvider;
@@ -18,10 +19,14 @@ public class GCodeProvider implements IGCodeProvider {
 	private Integer id;
 	/** The code of this provider*/
 	private String code;
-	/** The lines in this provider */
-	protected CacheById<GCodeLine> cacheLines;
-	/** The id of the line in the order of the file */
-	protected List<Integer> linesSequence;
+	/** The lines in this provider, in the order of the file */
+	protected GCodeLineStorage lines;
+	/** The generator of line ids */
+	private SequentialIdGenerator lineIdGenerator;
+	/** The id of the first line. Ids of the lines are consecutive */
+	private int firstLineId;
+	/** Hash of each line of the source this provider was parsed from, if any */
+	private long[] sourceLineHashes;
 	/** The latest modification date */
 	private Date modificationDate;
 	/** Locked state */
@@ -31,18 +36,19 @@ public class GCodeProvider implements IGCodeProvider {
 	
 	/** Constructor */
 	public GCodeProvider() {
-		this.cacheLines 	= new CacheById<GCodeLine>(new SequentialIdGenerator());
-		this.linesSequence 	= new ArrayList<Integer>();
+		this.lines 			= new GCodeLineStorage();
+		this.lineIdGenerator = new SequentialIdGenerator();
 		this.modificationDate = new Date();
 		this.source = new DefaultGCodeProviderSource();
 	}
 
 	/** (inheritDoc)
+	 * The returned list is a read only view : lines are built on demand from the packed storage
 	 * @see org.goko.core.gcode.element.IGCodeProvider#getLines()
 	 */
 	@Override
 	public List<GCodeLine> getLines() throws GkException {
-		return cacheLines.get(linesSequence);
+		return new GCodeLineList(lines.size());
 	}
 
 	/** (inheritDoc)
@@ -50,7 +56,7 @@ public class GCodeProvider implements IGCodeProvider {
 	 */
 	@Override
 	public int getLinesCount() throws GkException {
-		return cacheLines.size();
+		return lines.size();
 	}
 
 	/**
@@ -59,10 +65,45 @@ public class GCodeProvider implements IGCodeProvider {
 	 * @throws GkException GkException
 	 */
 	public void addLine(GCodeLine line) throws GkException{
-		line.setLineNumber(cacheLines.size());
-		line.setId(null); // Let's force the generation of a new id 
-		cacheLines.add(line);
-		linesSequence.add(line.getId());
+		line.setLineNumber(lines.size());
+		// Let's force the generation of a new id
+		line.setId(lineIdGenerator.getNextValue());
+		if(lines.size() == 0){
+			firstLineId = line.getId();
+		}
+		lines.add(line);
+	}
+
+	/**
+	 * Add a range of lines of the given provider at the end of this provider
+	 * @param source the source provider
+	 * @param from the index of the first line to copy (inclusive)
+	 * @param to the index of the last line to copy (exclusive)
+	 * @param locationOffset offset applied to the location line of the copied lines
+	 * @throws GkException GkException
+	 */
+	public void addLines(GCodeProvider source, int from, int to, int locationOffset) throws GkException{
+		addLines(source.lines, from, to, locationOffset);
+	}
+
+	/**
+	 * Add a range of lines of the given storage at the end of this provider. Ids being consecutive, the added lines get the ids
+	 * following the last line of this provider : they keep their ids only if they are at the same index in both providers
+	 * @param source the source storage
+	 * @param from the index of the first line to copy (inclusive)
+	 * @param to the index of the last line to copy (exclusive)
+	 * @param locationOffset offset applied to the location line of the copied lines
+	 * @throws GkException GkException
+	 */
+	public void addLines(GCodeLineStorage source, int from, int to, int locationOffset) throws GkException{
+		if(to <= from){
+			return;
+		}
+		Integer idLine = lineIdGenerator.getNextValues(to - from);
+		if(lines.size() == 0){
+			firstLineId = idLine;
+		}
+		lines.addAll(source, from, to, locationOffset);
 	}
 
 	/**
@@ -70,8 +111,8 @@ public class GCodeProvider implements IGCodeProvider {
 	 * @throws GkException GkException
 	 */
 	public void clear() throws GkException{		
-		cacheLines.removeAll();
-		linesSequence.clear();
+		lines.clear();
+		sourceLineHashes = null;
 	}
 	
 	/**
@@ -95,7 +136,11 @@ public class GCodeProvider implements IGCodeProvider {
 	 */
 	@Override
 	public GCodeLine getLine(Integer idLine) throws GkException {
-		return cacheLines.get(idLine);
+		int index = idLine == null ? -1 : idLine - firstLineId;
+		if(index < 0 || index >= lines.size()){
+			throw new GkTechnicalException("Unable to find object with key ["+String.valueOf(idLine)+"]");
+		}
+		return buildLine(index);
 	}
 
 	/** (inheritDoc)
@@ -103,13 +148,44 @@ public class GCodeProvider implements IGCodeProvider {
 	 */
 	@Override
 	public GCodeLine getLineAtIndex(Integer indexLine) throws GkException {
-		return cacheLines.get(getLinesSequence().get(indexLine));
+		if(indexLine < 0 || indexLine >= lines.size()){
+			throw new IndexOutOfBoundsException("Index: "+indexLine+", Size: "+lines.size());
+		}
+		return buildLine(indexLine);
+	}
+
+	/**
+	 * Build the line at the given index from the packed storage
+	 * @param index the index of the line
+	 * @return a new GCodeLine
+	 */
+	private GCodeLine buildLine(int index){
+		GCodeLine line = lines.get(index);
+		line.setId(firstLineId + index);
+		return line;
+	}
+
+	/**
+	 * Returns the hash of each line of the source this provider was parsed from
+	 * @return an array of hashes, or <code>null</code> if this provider was not parsed from a source
+	 */
+	public long[] getSourceLineHashes() {
+		return sourceLineHashes;
+	}
+
+	/**
+	 * @param sourceLineHashes the hash of each line of the source this provider was parsed from
+	 */
+	public void setSourceLineHashes(long[] sourceLineHashes) {
+		this.sourceLineHashes = sourceLineHashes;
 	}
+
 	/**
-	 * @return the linesSequence
+	 * Returns the packed storage of the lines of this provider
+	 * @return the storage
 	 */
-	private List<Integer> getLinesSequence() {
-		return linesSequence;
+	public GCodeLineStorage getLineStorage() {
+		return lines;
 	}
 
 	/** (inheritDoc)
@@ -220,4 +296,39 @@ public class GCodeProvider implements IGCodeProvider {
 	public void unlock() {
 		setLocked(false);
 	}
+
+	/**
+	 * Read only list of the lines of this provider, built on demand
+	 */
+	private class GCodeLineList extends AbstractList<GCodeLine> implements RandomAccess{
+		/** The size of the list */
+		private int size;
+
+		/**
+		 * Constructor
+		 * @param size the size of the list
+		 */
+		GCodeLineList(int size) {
+			this.size = size;
+		}
+
+		/** (inheritDoc)
+		 * @see java.util.AbstractList#get(int)
+		 */
+		@Override
+		public GCodeLine get(int index) {
+			if(index < 0 || index >= size){
+				throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+			}
+			return buildLine(index);
+		}
+
+		/** (inheritDoc)
+		 * @see java.util.AbstractCollection#size()
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+	}
 }
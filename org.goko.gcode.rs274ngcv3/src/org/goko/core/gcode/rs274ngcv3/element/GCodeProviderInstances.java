@@ -0,0 +1,62 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.rs274ngcv3.element;
+
+import java.util.List;
+
+import org.goko.core.gcode.element.IGCodeProvider;
+import org.goko.core.math.Tuple6b;
+
+/**
+ * Describes a GCodeProvider as translated copies of a base provider, as produced by array modifiers.
+ * Note that the modifiers only translate the motions made in absolute distance mode.
+ * The modifiers still build the expanded provider, since the execution, the statistics and the editor read it : the instances
+ * only spare the viewer the geometry of the copies.
+ *
+ * @author PsyKo
+ */
+public class GCodeProviderInstances {
+	/** The copied provider */
+	private final IGCodeProvider baseProvider;
+	/** The offset of each copy */
+	private final List<Tuple6b> offsets;
+
+	/**
+	 * Constructor
+	 * @param baseProvider the copied provider
+	 * @param offsets the offset of each copy
+	 */
+	public GCodeProviderInstances(IGCodeProvider baseProvider, List<Tuple6b> offsets) {
+		this.baseProvider = baseProvider;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * @return the copied provider
+	 */
+	public IGCodeProvider getBaseProvider() {
+		return baseProvider;
+	}
+
+	/**
+	 * @return the offset of each copy
+	 */
+	public List<Tuple6b> getOffsets() {
+		return offsets;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ *	This file is part of Goko.
+ *
+ *  Goko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Goko is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.goko.core.gcode.rs274ngcv3.element;
+
+import org.goko.core.common.measure.quantity.Length;
+import org.goko.core.math.BoundingTuple6b;
+
+/**
+ * Statistics of the motions of a GCodeProvider evaluated from a given context
+ *
+ * @author PsyKo
+ */
+public class GCodeProviderStatistics {
+	/** Bounds of the toolpath, arcs included */
+	private final BoundingTuple6b bounds;
+	/** Number of straight traverse motions */
+	private final int straightTraverseCount;
+	/** Number of straight feed motions */
+	private final int straightFeedCount;
+	/** Number of arc feed motions */
+	private final int arcFeedCount;
+	/** Total length of the straight traverse motions */
+	private final Length rapidLength;
+	/** Total length of the straight and arc feed motions */
+	private final Length feedLength;
+
+	/**
+	 * Constructor
+	 * @param bounds the bounds of the toolpath
+	 * @param straightTraverseCount the number of straight traverse motions
+	 * @param straightFeedCount the number of straight feed motions
+	 * @param arcFeedCount the number of arc feed motions
+	 * @param rapidLength the total length of the straight traverse motions
+	 * @param feedLength the total length of the feed motions
+	 */
+	public GCodeProviderStatistics(BoundingTuple6b bounds, int straightTraverseCount, int straightFeedCount, int arcFeedCount, Length rapidLength, Length feedLength) {
+		this.bounds = bounds;
+		this.straightTraverseCount = straightTraverseCount;
+		this.straightFeedCount = straightFeedCount;
+		this.arcFeedCount = arcFeedCount;
+		this.rapidLength = rapidLength;
+		this.feedLength = feedLength;
+	}
+
+	/**
+	 * @return the bounds of the toolpath, arcs included
+	 */
+	public BoundingTuple6b getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * @return the number of straight traverse motions
+	 */
+	public int getStraightTraverseCount() {
+		return straightTraverseCount;
+	}
+
+	/**
+	 * @return the number of straight feed motions
+	 */
+	public int getStraightFeedCount() {
+		return straightFeedCount;
+	}
+
+	/**
+	 * @return the number of arc feed motions
+	 */
+	public int getArcFeedCount() {
+		return arcFeedCount;
+	}
+
+	/**
+	 * @return the total number of motions
+	 */
+	public int getSegmentCount() {
+		return straightTraverseCount + straightFeedCount + arcFeedCount;
+	}
+
+	/**
+	 * @return the total length of the straight traverse motions
+	 */
+	public Length getRapidLength() {
+		return rapidLength;
+	}
+
+	/**
+	 * @return the total length of the straight and arc feed motions
+	 */
+	public Length getFeedLength() {
+		return feedLength;
+	}
+}
@@ -139,6 +139,14 @@ public class StackableGCodeProviderRoot extends GCodeProvider implements IGCodeP
 		this.parent = parent;
 	}
 
+	/**
+	 * Returns the provider wrapped by this root
+	 * @return the wrapped provider
+	 */
+	public IGCodeProvider getWrappedProvider() {
+		return parent;
+	}
+
 	/**
 	 * @return the child
 	 */
@@ -7,6 +7,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.goko.core.common.exception.GkException;
+import org.goko.core.common.measure.quantity.Angle;
+import org.goko.core.common.measure.quantity.AngleUnit;
 import org.goko.core.gcode.element.GCodeLine;
 import org.goko.core.gcode.element.IGCodeProvider;
 import org.goko.core.gcode.element.IInstructionSetIterator;
@@ -24,6 +26,7 @@ import org.goko.core.math.Tuple6b;
 
 /**
  * Array modifier 
+ * The copies are expanded in the target provider, the viewer draws them as instances of the source (see {@link #getInstanceOffsets()})
  * 
  * @author Psyko
  * @date 14 sept. 2016
@@ -149,6 +152,31 @@ public class ArrayModifier extends AbstractModifier<GCodeProvider> implements IM
 		}
 	}
 
+	/**
+	 * Returns the offset of each copy of the source code produced by this modifier, starting with the source itself at a zero offset
+	 * @return the list of offsets, count + 1 entries
+	 */
+	public List<Tuple6b> getInstanceOffsets(){
+		List<Tuple6b> lstOffsets = new ArrayList<Tuple6b>();
+		lstOffsets.add(new Tuple6b().setZero());
+		for (int i = 0; i < count; i++) {
+			lstOffsets.add(offset.scale(1 + i));
+		}
+		return lstOffsets;
+	}
+
+	/**
+	 * Returns <code>true</code> if the copies are only translated, which means the offset has no rotary component
+	 * @return <code>true</code> if the offset only has linear components
+	 */
+	public boolean isTranslationOnly(){
+		return isZero(offset.getA()) && isZero(offset.getB()) && isZero(offset.getC());
+	}
+
+	private boolean isZero(Angle angle){
+		return angle == null || angle.doubleValue(AngleUnit.DEGREE_ANGLE) == 0;
+	}
+
 	/**
 	 * @return the offset
 	 */
@@ -19,42 +19,24 @@ package org.goko.core.gcode.rs274ngcv3.parser;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import org.apache.commons.lang3.StringUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkFunctionalException;
 
 /**
- * GCode file tokenizer
+ * GCode file tokenizer.
+ * Lines are scanned character by character in a single pass. Use {@link #createTokenStream(InputStream)}
+ * to read a file line by line without loading all of its tokens in memory.
  * @author PsyKo
  *
  */
 public class GCodeLexer {
-	/** Multi line comment pattern */
-	private Pattern multilineCommentPattern;
-	/** Simple comment pattern*/
-	private Pattern simpleCommentPattern;
-	/** Line number pattern */
-	private Pattern lineNumberPattern;
-	/** Word pattern*/
-	private Pattern wordPattern;
-	/** White space detection pattern at the beginning*/
-	private Pattern spacePattern;	
-	/** Percent sign detection pattern at the beginning*/
-	private Pattern percentPattern;
+
 	/**
 	 * Constructor
 	 */
 	public GCodeLexer() {
-		multilineCommentPattern = Pattern.compile(GCodeTokenType.MULTILINE_COMMENT.getPattern(), Pattern.MULTILINE | Pattern.DOTALL);
-		simpleCommentPattern    = Pattern.compile(GCodeTokenType.SIMPLE_COMMENT.getPattern());
-		lineNumberPattern = Pattern.compile(GCodeTokenType.LINE_NUMBER.getPattern());
-		wordPattern    = Pattern.compile(GCodeTokenType.WORD.getPattern());
-		spacePattern    = Pattern.compile("^[ ]+");
-		percentPattern    = Pattern.compile(GCodeTokenType.PERCENT.getPattern());
+
 	}
 	/**
 	 * Create a list of token from a String
@@ -66,7 +48,7 @@ public class GCodeLexer {
 		List<GCodeToken> lstTokens = new ArrayList<GCodeToken>();
 		return createTokens(stringCommand, lstTokens, lineNumber, 0);
 	}
-	
+
 	/**
 	 * Create a list of token from an InputStream
 	 * @param inStream the input stream
@@ -74,90 +56,142 @@ public class GCodeLexer {
 	 * @throws GkException GkException
 	 */
 	public List<List<GCodeToken>> tokenize(InputStream inStream) throws GkException{
-		Scanner scanner = new Scanner(inStream);
-
 		List<List<GCodeToken>> lstFileTokens = new ArrayList<List<GCodeToken>>();
-		String line = null;
-		
-		List<GCodeToken> tokens = null;
-		int lineNumber = 0;
-		while(scanner.hasNextLine()){
-			line = scanner.nextLine();
-			tokens = tokenize(line, lineNumber);
-			lineNumber++;
-			lstFileTokens.add(tokens);
+		GCodeTokenStream tokenStream = createTokenStream(inStream);
+		try{
+			List<GCodeToken> tokens = tokenStream.nextLine();
+			while(tokens != null){
+				lstFileTokens.add(tokens);
+				tokens = tokenStream.nextLine();
+			}
+		}finally{
+			tokenStream.close();
 		}
-
-		scanner.close();
 		return lstFileTokens;
 	}
-	
+
+	/**
+	 * Create a stream of tokens from an InputStream. Lines are read and tokenized on demand.
+	 * @param inStream the input stream
+	 * @return a {@link GCodeTokenStream}
+	 */
+	public GCodeTokenStream createTokenStream(InputStream inStream){
+		return new GCodeTokenStream(this, inStream);
+	}
+
 	/**
-	 * Recursive method used to split the stringCommand into a list of tokens
+	 * Split the stringCommand into a list of tokens
 	 * @param stringCommand the string command
 	 * @param tokens the list of token
+	 * @param lineNumber the index of the line
+	 * @param columnNumber the column of the first character of the given string
+	 * @return the list of tokens
 	 * @throws GkException GkException
 	 */
-	protected List<GCodeToken> createTokens(String pStringCommand, List<GCodeToken> tokens, int lineNumber, int columnNumber) throws GkException{
-		String stringCommand = pStringCommand;
-		int totalColumn = columnNumber + StringUtils.length(stringCommand);
-		if(StringUtils.isBlank(stringCommand)){
+	protected List<GCodeToken> createTokens(String stringCommand, List<GCodeToken> tokens, int lineNumber, int columnNumber) throws GkException{
+		if(stringCommand == null){
 			return tokens;
 		}
-		Matcher spaceMatcher    = spacePattern.matcher(stringCommand);
-		if(spaceMatcher.find()){
-			String remainingString = spaceMatcher.replaceFirst(StringUtils.EMPTY);
-			return createTokens(remainingString,tokens, lineNumber, totalColumn - StringUtils.length(remainingString));
-		}
-		Matcher multilineCommentMatcher = multilineCommentPattern.matcher(stringCommand);
-		if(multilineCommentMatcher.find()){
-			String remainingString = extractToken(multilineCommentMatcher, tokens, GCodeTokenType.MULTILINE_COMMENT);
-			return createTokens(remainingString,tokens,  lineNumber, totalColumn - StringUtils.length(remainingString));
-		}
-		Matcher simpleCommentMatcher    = simpleCommentPattern.matcher(stringCommand);
-		if(simpleCommentMatcher.find()){
-			String remainingString = extractToken(simpleCommentMatcher, tokens,GCodeTokenType.SIMPLE_COMMENT);
-			return createTokens(remainingString,tokens, lineNumber, totalColumn - StringUtils.length(remainingString));
-		}
-		// Remove all white spaces ( comments already removed )
-		while(StringUtils.startsWith(stringCommand, " ")){
-			stringCommand = stringCommand.replaceFirst("\\s", StringUtils.EMPTY);
-			columnNumber += 1;
+		int length = stringCommand.length();
+		int index = 0;
+		while(index < length){
+			char c = stringCommand.charAt(index);
+			int start = index;
+			if(isSpace(c)){
+				index++;
+				continue;
+			}
+			if(c == '('){
+				index = stringCommand.indexOf(')', start + 1);
+				if(index < 0){
+					throw new GkFunctionalException("GCO-101", stringCommand.substring(start));
+				}
+				index++;
+				tokens.add(new GCodeToken(GCodeTokenType.MULTILINE_COMMENT, stringCommand.substring(start, index), lineNumber, columnNumber + start));
+
+			}else if(c == ';'){
+				index = length;
+				tokens.add(new GCodeToken(GCodeTokenType.SIMPLE_COMMENT, stringCommand.substring(start, index), lineNumber, columnNumber + start));
+
+			}else if(c == '%'){
+				index++;
+				tokens.add(new GCodeToken(GCodeTokenType.PERCENT, "%", lineNumber, columnNumber + start));
+
+			}else if(c == 'n' || c == 'N'){
+				index = scanDigits(stringCommand, start + 1);
+				if(index == start + 1){
+					throw new GkFunctionalException("GCO-101", stringCommand.substring(start));
+				}
+				tokens.add(new GCodeToken(GCodeTokenType.LINE_NUMBER, stringCommand.substring(start, index), lineNumber, columnNumber + start));
+
+			}else if(isLetter(c)){
+				index = scanNumber(stringCommand, start + 1);
+				if(index < 0){
+					throw new GkFunctionalException("GCO-101", stringCommand.substring(start));
+				}
+				tokens.add(new GCodeToken(GCodeTokenType.WORD, stringCommand.substring(start, index), lineNumber, columnNumber + start));
+
+			}else{
+				throw new GkFunctionalException("GCO-101", stringCommand.substring(start));
+			}
 		}
-		Matcher lineNumberMatcher    = lineNumberPattern.matcher(stringCommand);
-		if(lineNumberMatcher.find()){
-			String remainingString = extractToken(lineNumberMatcher, tokens, GCodeTokenType.LINE_NUMBER);
-			return createTokens(remainingString,tokens, lineNumber, totalColumn - StringUtils.length(remainingString));
+		return tokens;
+	}
+
+	/**
+	 * Scans a signed decimal number
+	 * @param str the scanned string
+	 * @param start the index of the first character of the number
+	 * @return the index of the first character after the number, or -1 if no number starts at the given index
+	 */
+	private int scanNumber(String str, int start){
+		int index = start;
+		if(index < str.length() && (str.charAt(index) == '-' || str.charAt(index) == '+')){
+			index++;
 		}
-		
-		Matcher wordMatcher    = wordPattern.matcher(stringCommand);
-		if(wordMatcher.find()){
-			String remainingString = extractToken(wordMatcher, tokens, GCodeTokenType.WORD);
-			return createTokens(remainingString,tokens, lineNumber, totalColumn - StringUtils.length(remainingString));
+		int integerEnd = scanDigits(str, index);
+		int end = integerEnd;
+		if(end < str.length() && str.charAt(end) == '.'){
+			end = scanDigits(str, end + 1);
+			if(integerEnd == index && end == integerEnd + 1){
+				// A single dot is not a number
+				return -1;
+			}
+		}else if(integerEnd == index){
+			return -1;
 		}
-		
-		Matcher percentMatcher    = percentPattern.matcher(stringCommand);
-		if(percentMatcher.find()){
-			String remainingString = extractToken(percentMatcher, tokens, GCodeTokenType.PERCENT);
-			return createTokens(remainingString,tokens, lineNumber, totalColumn - StringUtils.length(remainingString));
+		return end;
+	}
+
+	/**
+	 * Scans a sequence of digits
+	 * @param str the scanned string
+	 * @param start the index where the scan starts
+	 * @return the index of the first character which is not a digit
+	 */
+	private int scanDigits(String str, int start){
+		int index = start;
+		while(index < str.length() && str.charAt(index) >= '0' && str.charAt(index) <= '9'){
+			index++;
 		}
-//		if(validationTarget != null){
-//			ValidationElement vElement = new ValidationElement(ValidationSeverity.ERROR, new Location(lineNumber, columnNumber), StringUtils.length(stringCommand), I18n.get("GCO-101", stringCommand));
-//			validationTarget.addValidationElement(vElement);
-//			return tokens;
-//		}else{
-			throw new GkFunctionalException("GCO-101",stringCommand);
-//		}
+		return index;
+	}
+
+	/**
+	 * Determines if the given character is a word letter
+	 * @param c the character
+	 * @return <code>true</code> if it's a letter, <code>false</code> otherwise
+	 */
+	private boolean isLetter(char c){
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
 	}
+
 	/**
-	 * Extract the first token from the given matcher
-	 * @param matcher the matcher
-	 * @param tokens the list of tokens
-	 * @param type the type of token to create
-	 * @return the remaining String after the token extraction
+	 * Determines if the given character is a blank character
+	 * @param c the character
+	 * @return <code>true</code> if it's a blank, <code>false</code> otherwise
 	 */
-	protected String extractToken(Matcher matcher, List<GCodeToken> tokens, GCodeTokenType type){
-		tokens.add( new GCodeToken(type, matcher.group()) );
-		return matcher.replaceFirst(StringUtils.EMPTY);
+	private boolean isSpace(char c){
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n';
 	}
 }
@@ -21,14 +21,29 @@ public class GCodeToken {
 	private GCodeTokenType type;
 	/** The value */
 	private String value;
+	/** The index of the line this token was read from */
+	private int line;
+	/** The column of the first character of this token in its line */
+	private int column;
 	/**
 	 * @param type
 	 * @param value
 	 */
 	public GCodeToken(GCodeTokenType type, String value) {
+		this(type, value, 0, 0);
+	}
+	/**
+	 * @param type
+	 * @param value
+	 * @param line
+	 * @param column
+	 */
+	public GCodeToken(GCodeTokenType type, String value, int line, int column) {
 		super();
 		this.type = type;
 		this.value = value;
+		this.line = line;
+		this.column = column;
 	}
 	/**
 	 * @return the type
@@ -54,6 +69,30 @@ public class GCodeToken {
 	public void setValue(String value) {
 		this.value = value;
 	}
+	/**
+	 * @return the line
+	 */
+	public int getLine() {
+		return line;
+	}
+	/**
+	 * @param line the line to set
+	 */
+	public void setLine(int line) {
+		this.line = line;
+	}
+	/**
+	 * @return the column
+	 */
+	public int getColumn() {
+		return column;
+	}
+	/**
+	 * @param column the column to set
+	 */
+	public void setColumn(int column) {
+		this.column = column;
+	}
 	/** (inheritDoc)
 	 * @see java.lang.Object#hashCode()
 	 */
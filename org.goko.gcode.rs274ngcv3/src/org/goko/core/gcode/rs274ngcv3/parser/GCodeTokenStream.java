@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * 	This file is part of Goko.
+ *
+ *   Goko is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Goko is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package org.goko.core.gcode.rs274ngcv3.parser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.goko.core.common.exception.GkException;
+import org.goko.core.common.exception.GkTechnicalException;
+
+/**
+ * Lazy stream of tokens read line by line from an InputStream
+ *
+ * @author PsyKo
+ */
+public class GCodeTokenStream implements Closeable{
+	/** Size of the read buffer */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	/** The lexer used to tokenize each line */
+	private GCodeLexer lexer;
+	/** The underlying reader */
+	private BufferedReader reader;
+	/** Index of the latest line read */
+	private int lineNumber;
+
+	/**
+	 * Constructor
+	 * @param lexer the lexer used to tokenize each line
+	 * @param inStream the input stream
+	 */
+	GCodeTokenStream(GCodeLexer lexer, InputStream inStream) {
+		this.lexer = lexer;
+		this.reader = new BufferedReader(new InputStreamReader(inStream), BUFFER_SIZE);
+		this.lineNumber = -1;
+	}
+
+	/**
+	 * Reads and tokenize the next line
+	 * @return the list of tokens of the next line, or <code>null</code> if the end of the stream is reached
+	 * @throws GkException GkException
+	 */
+	public List<GCodeToken> nextLine() throws GkException{
+		String line = nextSourceLine();
+		if(line == null){
+			return null;
+		}
+		return lexer.createTokens(line, new ArrayList<GCodeToken>(), lineNumber, 0);
+	}
+
+	/**
+	 * Reads the next line without tokenizing it
+	 * @return the content of the next line, or <code>null</code> if the end of the stream is reached
+	 * @throws GkException GkException
+	 */
+	public String nextSourceLine() throws GkException{
+		String line = null;
+		try {
+			line = reader.readLine();
+		} catch (IOException e) {
+			throw new GkTechnicalException(e);
+		}
+		if(line != null){
+			lineNumber++;
+		}
+		return line;
+	}
+
+	/**
+	 * Computes a 64 bits hash of the given line (FNV-1a), used to detect changed lines between two versions of a source
+	 * @param line the line
+	 * @return the hash
+	 */
+	public static long hash(String line){
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < line.length(); i++) {
+			hash ^= line.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the index of the latest line returned by {@link #nextLine()}
+	 * @return the lineNumber
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/** (inheritDoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		try {
+			reader.close();
+		} catch (IOException e) {
+			// Nothing to do here, the stream is released
+		}
+	}
+}
@@ -6,18 +6,18 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.goko.core.common.GkUtils;
 import org.goko.core.common.exception.GkException;
-import org.goko.core.connection.IConnectionDataListener;
+import org.goko.core.connection.IConnectionByteListener;
 import org.junit.Assert;
 
 public class AssertSerialEmulator {
 
 	public static final void assertMessagePresent(SerialConnectionEmulator emulator, String message){
 		String lastMessage = StringUtils.EMPTY;
-		List<List<Byte>> buffers = emulator.getSentBuffer();
+		List<byte[]> buffers = emulator.getSentBuffer();
 		if(CollectionUtils.isNotEmpty(buffers)){			
-			for (List<Byte> list : buffers) {
-				lastMessage = GkUtils.toString(list);
-				if(StringUtils.equalsIgnoreCase(GkUtils.toString(list), message)){
+			for (byte[] data : buffers) {
+				lastMessage = GkUtils.toString(data);
+				if(StringUtils.equalsIgnoreCase(lastMessage, message)){
 					return;
 				}
 			}
@@ -35,24 +35,24 @@ public class AssertSerialEmulator {
 	public static final void assertOutputMessagePresent(final SerialConnectionEmulator emulator, final String message, long timeout) throws Exception{
 		final Object obj = new Object();
 		
-		IConnectionDataListener listener = new IConnectionDataListener() {			
+		IConnectionByteListener listener = new IConnectionByteListener() {			
 			@Override
-			public void onDataSent(List<Byte> data) throws GkException {				
+			public void onDataSent(byte[] data, int offset, int length) throws GkException {				
 				synchronized (obj) {
 					obj.notify();					
 				}				
 			}			
 			@Override
-			public void onDataReceived(List<Byte> data) throws GkException {
+			public void onDataReceived(byte[] data, int offset, int length) throws GkException {
 				// TODO Auto-generated method stub
 				
 			}
 		};
-		emulator.addOutputDataListener(listener);
+		emulator.addOutputByteListener(listener);
 		synchronized (obj) {
 			obj.wait(timeout);	
 		}		
-		emulator.removeOutputDataListener(listener);
+		emulator.removeOutputByteListener(listener);
 		assertMessagePresent(emulator, message);
 	}
 }
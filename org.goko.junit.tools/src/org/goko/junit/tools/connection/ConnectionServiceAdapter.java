@@ -6,10 +6,14 @@ package org.goko.junit.tools.connection;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.goko.core.common.exception.GkException;
+import org.goko.core.connection.ConnectionDataListenerAdapter;
 import org.goko.core.connection.EnumConnectionEvent;
+import org.goko.core.connection.IConnectionByteListener;
 import org.goko.core.connection.IConnectionDataListener;
 import org.goko.core.connection.IConnectionListener;
 import org.goko.core.connection.IConnectionService;
@@ -17,9 +21,11 @@ import org.goko.core.connection.IConnectionService;
 
 public abstract class ConnectionServiceAdapter implements IConnectionService {
 	/** Incoming data listeners */
-	private List<WeakReference<IConnectionDataListener>> inputListeners;
+	private List<WeakReference<IConnectionByteListener>> inputListeners;
 	/** Outgoing data listeners */
-	private List<WeakReference<IConnectionDataListener>> outputListeners;
+	private List<WeakReference<IConnectionByteListener>> outputListeners;
+	/** Adapters of the registered IConnectionDataListener */
+	private Map<IConnectionDataListener, ConnectionDataListenerAdapter> dataListenerAdapters;
 	/** Connection event listener */
 	private List<WeakReference<IConnectionListener>> connectionListeners;
 	
@@ -27,8 +33,9 @@ public abstract class ConnectionServiceAdapter implements IConnectionService {
 	 * Constructor
 	 */
 	protected ConnectionServiceAdapter() {
-		this.inputListeners 	 = new ArrayList<WeakReference<IConnectionDataListener>>();
-		this.outputListeners 	 = new ArrayList<WeakReference<IConnectionDataListener>>();
+		this.inputListeners 	 = new ArrayList<WeakReference<IConnectionByteListener>>();
+		this.outputListeners 	 = new ArrayList<WeakReference<IConnectionByteListener>>();
+		this.dataListenerAdapters = new WeakHashMap<IConnectionDataListener, ConnectionDataListenerAdapter>();
 		this.connectionListeners = new ArrayList<WeakReference<IConnectionListener>>();
 	}
 	/** (inheritDoc)
@@ -36,7 +43,7 @@ public abstract class ConnectionServiceAdapter implements IConnectionService {
 	 */
 	@Override
 	public void addInputDataListener(IConnectionDataListener listener) throws GkException {
-		inputListeners.add(new WeakReference<IConnectionDataListener>(listener));
+		addInputByteListener(getDataListenerAdapter(listener));
 	}
 
 	/** (inheritDoc)
@@ -44,12 +51,45 @@ public abstract class ConnectionServiceAdapter implements IConnectionService {
 	 */
 	@Override
 	public void removeInputDataListener(IConnectionDataListener listener) throws GkException {
-		WeakReference<IConnectionDataListener> reference = findListener(inputListeners, listener);
+		ConnectionDataListenerAdapter adapter = dataListenerAdapters.get(listener);
+		if(adapter != null){
+			removeInputByteListener(adapter);
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#addInputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void addInputByteListener(IConnectionByteListener listener) throws GkException {
+		inputListeners.add(new WeakReference<IConnectionByteListener>(listener));
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#removeInputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void removeInputByteListener(IConnectionByteListener listener) throws GkException {
+		WeakReference<IConnectionByteListener> reference = findListener(inputListeners, listener);
 		if(reference != null){
 			inputListeners.remove(reference);
 		}
+	}
 
+	/**
+	 * Returns the adapter of the given IConnectionDataListener, creating it if required
+	 * @param listener the listener
+	 * @return ConnectionDataListenerAdapter
+	 */
+	private ConnectionDataListenerAdapter getDataListenerAdapter(IConnectionDataListener listener){
+		ConnectionDataListenerAdapter adapter = dataListenerAdapters.get(listener);
+		if(adapter == null){
+			adapter = new ConnectionDataListenerAdapter(listener);
+			dataListenerAdapters.put(listener, adapter);
+		}
+		return adapter;
 	}
+
 	protected <T> WeakReference<T> findListener(List<WeakReference<T>> listenerList, T listener) throws GkException{
 		WeakReference<T> reference = null;
 		if(CollectionUtils.isNotEmpty(inputListeners)){
@@ -66,7 +106,7 @@ public abstract class ConnectionServiceAdapter implements IConnectionService {
 	 */
 	@Override
 	public void addOutputDataListener(IConnectionDataListener listener) throws GkException {
-		outputListeners.add(new WeakReference<IConnectionDataListener>(listener));
+		addOutputByteListener(getDataListenerAdapter(listener));
 	}
 
 	/** (inheritDoc)
@@ -74,7 +114,26 @@ public abstract class ConnectionServiceAdapter implements IConnectionService {
 	 */
 	@Override
 	public void removeOutputDataListener(IConnectionDataListener listener) throws GkException {
-		WeakReference<IConnectionDataListener> reference = findListener(outputListeners, listener);
+		ConnectionDataListenerAdapter adapter = dataListenerAdapters.get(listener);
+		if(adapter != null){
+			removeOutputByteListener(adapter);
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#addOutputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void addOutputByteListener(IConnectionByteListener listener) throws GkException {
+		outputListeners.add(new WeakReference<IConnectionByteListener>(listener));
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#removeOutputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void removeOutputByteListener(IConnectionByteListener listener) throws GkException {
+		WeakReference<IConnectionByteListener> reference = findListener(outputListeners, listener);
 		if(reference != null){
 			outputListeners.remove(reference);
 		}
@@ -118,11 +177,12 @@ public abstract class ConnectionServiceAdapter implements IConnectionService {
 	 * @param data the received data
 	 * @throws GkException GkException
 	 */
-	protected void notifyInputListeners(List<Byte> data) throws GkException{
+	protected void notifyInputListeners(byte[] data) throws GkException{
 		if(CollectionUtils.isNotEmpty(inputListeners)){
-			for(WeakReference<IConnectionDataListener> reference : inputListeners){
-				if(reference.get() != null){
-					reference.get().onDataReceived(data);
+			for(WeakReference<IConnectionByteListener> reference : inputListeners){
+				IConnectionByteListener listener = reference.get();
+				if(listener != null){
+					listener.onDataReceived(data, 0, data.length);
 				}
 			}
 		}
@@ -133,11 +193,12 @@ public abstract class ConnectionServiceAdapter implements IConnectionService {
 	 * @param data the received data
 	 * @throws GkException GkException
 	 */
-	protected void notifyOutputListeners(List<Byte> data) throws GkException{
+	protected void notifyOutputListeners(byte[] data) throws GkException{
 		if(CollectionUtils.isNotEmpty(outputListeners)){
-			for(WeakReference<IConnectionDataListener> reference : outputListeners){
-				if(reference.get() != null){
-					reference.get().onDataSent(data);
+			for(WeakReference<IConnectionByteListener> reference : outputListeners){
+				IConnectionByteListener listener = reference.get();
+				if(listener != null){
+					listener.onDataSent(data, 0, data.length);
 				}
 			}
 		}
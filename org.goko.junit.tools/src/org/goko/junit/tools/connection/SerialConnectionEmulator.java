@@ -15,7 +15,7 @@ public class SerialConnectionEmulator extends ConnectionServiceAdapter implement
 	/** Connected state */
 	private boolean connected;
 	/** Output buffer */
-	private List<List<Byte>> sentBuffer;
+	private List<byte[]> sentBuffer;
 	/** End line character */
 	private char endChararacter = '\n';
 	private EmulatedSerialConnection currentConnection;
@@ -25,7 +25,7 @@ public class SerialConnectionEmulator extends ConnectionServiceAdapter implement
 	 * Constructor 
 	 */
 	public SerialConnectionEmulator() {
-		sentBuffer = new ArrayList<List<Byte>>();
+		sentBuffer = new ArrayList<byte[]>();
 		currentConnection = new EmulatedSerialConnection();
 	}
 	
@@ -93,11 +93,7 @@ public class SerialConnectionEmulator extends ConnectionServiceAdapter implement
 	 */
 	@Override
 	public void send(List<Byte> data, DataPriority priority) throws GkException {
-		sentBuffer.add(data);		
-		if(debugOutputConsole){
-			LOG.info("Out: ["+GkUtils.toString(data)+"]");
-		}
-		notifyOutputListeners(data);
+		send(GkUtils.toBytes(data), priority);
 	}
 
 	/** {@inheritDoc}
@@ -105,6 +101,22 @@ public class SerialConnectionEmulator extends ConnectionServiceAdapter implement
 	 */
 	@Override
 	public void send(List<Byte> data) throws GkException {
+		send(GkUtils.toBytes(data));
+	}
+
+	/** {@inheritDoc}
+	 * @see org.goko.core.connection.IConnectionService#send(byte[], org.goko.core.connection.DataPriority)
+	 */
+	@Override
+	public void send(byte[] data, DataPriority priority) throws GkException {
+		send(data);
+	}
+
+	/** {@inheritDoc}
+	 * @see org.goko.core.connection.IConnectionService#send(byte[])
+	 */
+	@Override
+	public void send(byte[] data) throws GkException {
 		sentBuffer.add(data);
 		notifyOutputListeners(data);	
 		if(debugOutputConsole){
@@ -132,7 +144,7 @@ public class SerialConnectionEmulator extends ConnectionServiceAdapter implement
 	 * @throws GkException GkException
 	 */
 	public void receiveData(String data) throws GkException{
-		notifyInputListeners(GkUtils.toBytesList(data)); 
+		notifyInputListeners(data.getBytes()); 
 	}
 	/**
 	 * Simulate the reception of the given data 
@@ -140,7 +152,7 @@ public class SerialConnectionEmulator extends ConnectionServiceAdapter implement
 	 * @throws GkException GkException
 	 */
 	public void receiveDataWithEndChar(String data) throws GkException{
-		notifyInputListeners(GkUtils.toBytesList(data+endChararacter)); 
+		notifyInputListeners((data+endChararacter).getBytes()); 
 	}
 
 	/**
@@ -160,14 +172,14 @@ public class SerialConnectionEmulator extends ConnectionServiceAdapter implement
 	/**
 	 * @return the sentBuffer
 	 */
-	protected List<List<Byte>> getSentBuffer() {
+	protected List<byte[]> getSentBuffer() {
 		return sentBuffer;
 	}
 
 	/**
 	 * @param sentBuffer the sentBuffer to set
 	 */
-	protected void setSentBuffer(List<List<Byte>> sentBuffer) {
+	protected void setSentBuffer(List<byte[]> sentBuffer) {
 		this.sentBuffer = sentBuffer;
 	}
 
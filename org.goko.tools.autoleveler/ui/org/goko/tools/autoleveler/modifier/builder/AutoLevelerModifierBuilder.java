@@ -55,7 +55,7 @@ public class AutoLevelerModifierBuilder extends AbstractModifierUiProvider<GridA
 		GridAutoLevelerModifier modifier = new GridAutoLevelerModifier();
 		modifier.setIdGCodeProvider(idTargetGCodeProvider);
 		IGCodeProvider provider = getRS274NGCService().getGCodeProvider(idTargetGCodeProvider);
-		BoundingTuple6b bounds = getRS274NGCService().getBounds(new GCodeContext(), getRS274NGCService().getInstructions(new GCodeContext(), provider));
+		BoundingTuple6b bounds = getRS274NGCService().getStatistics(new GCodeContext(), provider).getBounds();
 		List<Tuple6b> offsets = new ArrayList<Tuple6b>();
 		offsets.add(new Tuple6b( bounds.getMin().getX(), bounds.getMin().getY(), Length.ZERO));
 		offsets.add(new Tuple6b( bounds.getMin().getX(), bounds.getMax().getY(), Length.ZERO));
@@ -11,6 +11,7 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.ObjectUtils;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.events.IEventBroker;
@@ -20,6 +21,7 @@ import org.eclipse.e4.ui.di.UISynchronize;
 import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
@@ -40,9 +42,14 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.wb.swt.ResourceManager;
 import org.goko.common.dialog.GkDialog;
 import org.goko.core.common.exception.GkException;
+import org.goko.core.common.exception.GkTechnicalException;
+import org.goko.core.common.utils.Location;
+import org.goko.core.gcode.rs274ngcv3.IRS274NGCService;
+import org.goko.gcode.rs274ngcv3.ui.workspace.GCodeLineSelection;
 import org.goko.tools.editor.component.GCodeSourceViewer;
 import org.goko.tools.editor.component.annotation.BasicAnnotationAccess;
 import org.goko.tools.editor.component.provider.DocumentProviderAdapter;
+import org.goko.tools.editor.component.provider.GCodeProviderSourceDocument;
 import org.goko.tools.editor.component.provider.IDocumentProvider;
 import org.goko.tools.editor.component.provider.IDocumentProviderListener;
 
@@ -64,6 +71,9 @@ public class GCodeEditorPart{
 	private UISynchronize uiSynchronize;
 	@Inject
 	private IEventBroker eventBroker;	
+	/** GCode service */
+	@Inject
+	private IRS274NGCService gcodeService;
 	/** Supplier for IFindReplaceTarget */
 	private Supplier<IFindReplaceTarget> findReplaceTargetSupplier;
 	
@@ -199,6 +209,43 @@ public class GCodeEditorPart{
 		mainTabFolder.setSelection(targetTab);
 		forceHandlerUpdate();
 	}
+
+	/**
+	 * Selects the requested line in the opened document of its GCodeProvider, if any. Lines rebuilt by a modifier
+	 * have no location in the document and are not selected
+	 * @param selection the line to select
+	 * @throws GkException GkException
+	 */
+	@Inject
+	@Optional
+	public void onSelectLineRequest(@UIEventTopic(GCodeLineSelection.TOPIC_SELECT_LINE) GCodeLineSelection selection) throws GkException{
+		for (IDocumentProvider provider : mapSourceViewerByDocumentProvider.keySet()) {
+			if(provider instanceof GCodeProviderSourceDocument
+					&& ObjectUtils.equals(((GCodeProviderSourceDocument) provider).getGCodeProvider().getId(), selection.getGCodeProvider().getId())){
+				Location location = gcodeService.findSourceLocation(selection.getGCodeProvider(), selection.getIdGCodeLine());
+				if(location == null){
+					return;
+				}
+				IDocument document = provider.getDocument();
+				try {
+					int lineOffset = document.getLineOffset(location.getLine());
+					int lineLength = document.getLineLength(location.getLine());
+					String lineDelimiter = document.getLineDelimiter(location.getLine());
+					if(lineDelimiter != null){
+						lineLength -= lineDelimiter.length();
+					}
+					GCodeSourceViewer viewer = mapSourceViewerByDocumentProvider.get(provider);
+					mainTabFolder.setSelection(mapTabItemByDocumentProvider.get(provider));
+					viewer.setSelectedRange(lineOffset, lineLength);
+					viewer.revealRange(lineOffset, lineLength);
+					forceHandlerUpdate();
+				} catch (BadLocationException e) {
+					throw new GkTechnicalException(e);
+				}
+				return;
+			}
+		}
+	}
 	
 	public void closeByDocumentProvider(IDocumentProvider provider) {
 		if(provider != null && mapSourceViewerByDocumentProvider.containsKey(provider)){
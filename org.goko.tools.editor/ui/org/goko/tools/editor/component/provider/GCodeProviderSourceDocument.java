@@ -123,6 +123,13 @@ public class GCodeProviderSourceDocument extends AbstractGCodeDocumentProvider {
 	public String getDocumentName() {		
 		return provider.getCode();
 	}
+
+	/**
+	 * @return the edited GCodeProvider
+	 */
+	public IGCodeProvider getGCodeProvider() {
+		return provider;
+	}
 	
 	/**
 	 * Utility getter on the source of the provider
@@ -38,4 +38,11 @@ public interface IJsscSerialConnectionService extends ISerialConnectionService {
 	 */
 	@Override
 	JsscSerialConnection getCurrentConnection() throws GkException;
+
+	/**
+	 * Returns the latency statistics of the real time lane of the current connection
+	 * @return JsscLatencyStatistics
+	 * @throws GkException GkException
+	 */
+	JsscLatencyStatistics getRealTimeLatency() throws GkException;
 }
@@ -0,0 +1,112 @@
+/*
+ *
+ *   Goko
+ *   Copyright (C) 2013  PsyKo
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.goko.tools.serial.jssc.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency statistics of a sending lane : time elapsed between the submission of data and the start of its write on the
+ * serial port, including the wait for a write in progress
+ *
+ * @author PsyKo
+ */
+public class JsscLatencyStatistics {
+	/** Number of measured writes */
+	private AtomicLong count;
+	/** Sum of the measured latencies in nanoseconds */
+	private AtomicLong totalLatency;
+	/** Latest measured latency in nanoseconds */
+	private AtomicLong lastLatency;
+	/** Maximum measured latency in nanoseconds */
+	private AtomicLong maxLatency;
+
+	/**
+	 * Constructor
+	 */
+	public JsscLatencyStatistics() {
+		this.count = new AtomicLong();
+		this.totalLatency = new AtomicLong();
+		this.lastLatency = new AtomicLong();
+		this.maxLatency = new AtomicLong();
+	}
+
+	/**
+	 * Records a latency
+	 * @param latency the latency in nanoseconds
+	 */
+	protected void record(long latency){
+		count.incrementAndGet();
+		totalLatency.addAndGet(latency);
+		lastLatency.set(latency);
+		long max = maxLatency.get();
+		while(latency > max && !maxLatency.compareAndSet(max, latency)){
+			max = maxLatency.get();
+		}
+	}
+
+	/**
+	 * Resets the statistics
+	 */
+	public void reset(){
+		count.set(0);
+		totalLatency.set(0);
+		lastLatency.set(0);
+		maxLatency.set(0);
+	}
+
+	/**
+	 * @return the number of measured writes
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Returns the latest measured latency
+	 * @param unit the target time unit
+	 * @return the latency in the given unit
+	 */
+	public long getLastLatency(TimeUnit unit) {
+		return unit.convert(lastLatency.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the maximum measured latency
+	 * @param unit the target time unit
+	 * @return the latency in the given unit
+	 */
+	public long getMaxLatency(TimeUnit unit) {
+		return unit.convert(maxLatency.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the average measured latency
+	 * @param unit the target time unit
+	 * @return the latency in the given unit, 0 if nothing was measured
+	 */
+	public long getAverageLatency(TimeUnit unit) {
+		long measures = count.get();
+		if(measures == 0){
+			return 0;
+		}
+		return unit.convert(totalLatency.get() / measures, TimeUnit.NANOSECONDS);
+	}
+}
@@ -19,39 +19,59 @@
  */
 package org.goko.tools.serial.jssc.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
-import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkTechnicalException;
 import org.goko.core.log.GkLog;
 
 import jssc.SerialPortException;
 
+/**
+ * Sender thread of the Jssc serial service.
+ * Data are sent through two lanes : the real time lane has a strict priority over the normal lane, and the
+ * data queued in the normal lane are coalesced into a single write. Single byte real time commands
+ * bypass the queues and are written directly by the calling thread.
+ */
 public class JsscSender implements Runnable {
 	/** LOG */
 	private static final GkLog LOG = GkLog.getLogger(JsscSender.class);
-	private BlockingQueue<List<Byte>> queue;
-	/** Important datas */
-	private BlockingQueue<List<Byte>> importantQueue;
+	/** Maximum number of bytes coalesced in a single write of the normal lane */
+	private static final int MAX_BATCH_SIZE = 1024;
+	/** Normal lane */
+	private Queue<PendingData> queue;
+	/** Real time lane, always emptied before the normal lane */
+	private Queue<PendingData> importantQueue;
 	/** The service holding the serial port */
 	private JsscSerialConnectionService jsscService;
-	private Object dataAvailableToSend;
-	private boolean stopped;
+	/** Lock used to wait for data */
+	private ReentrantLock lock;
+	/** Condition signaled when data are queued */
+	private Condition dataAvailableToSend;
+	/** Lock serializing the writes on the serial port */
+	private Object writeLock;
+	/** Latency statistics of the real time lane */
+	private JsscLatencyStatistics realTimeLatency;
+	/** Buffer used to coalesce the data of the normal lane, only used by the sender thread */
+	private byte[] batchBuffer;
+	private volatile boolean stopped;
 
 	/**
 	 * Constructor
 	 * @param serialPort the serial port to use
 	 */
 	public JsscSender(JsscSerialConnectionService jsscService) {
-		this.queue = new LinkedBlockingQueue<List<Byte>>();
-		this.importantQueue = new LinkedBlockingQueue<List<Byte>>();
+		this.queue = new ConcurrentLinkedQueue<PendingData>();
+		this.importantQueue = new ConcurrentLinkedQueue<PendingData>();
 		this.jsscService = jsscService;
-		this.dataAvailableToSend = new Object();
+		this.lock = new ReentrantLock();
+		this.dataAvailableToSend = lock.newCondition();
+		this.writeLock = new Object();
+		this.realTimeLatency = new JsscLatencyStatistics();
+		this.batchBuffer = new byte[MAX_BATCH_SIZE];
 	}
 
 	/** (inheritDoc)
@@ -59,32 +79,22 @@ public class JsscSender implements Runnable {
 	 */
 	@Override
 	public  void run() {
-
 		while(!stopped){
 			if(jsscService.getSerialPort().isOpened()){
-				List<Byte> lst = null;
 				try {
 					waitDataAvailableToSend();
-					if(CollectionUtils.isNotEmpty(queue)){
-						lst = queue.take();
-					}else if(CollectionUtils.isNotEmpty(importantQueue)){
-						lst = importantQueue.take();
+					PendingData important = importantQueue.poll();
+					if(important != null){
+						write(important.data, important.queuedTime);
+					}else{
+						byte[] batch = pollBatch();
+						if(batch != null){
+							write(batch, 0);
+						}
 					}
-				}catch (InterruptedException e) {
-					LOG.error(e);
 				} catch (GkException e) {
 					LOG.error(e);
 				}
-
-				if(lst != null){
-					try {
-						Byte[] bytes = lst.toArray(new Byte[lst.size()]);
-						jsscService.getSerialPort().writeBytes( ArrayUtils.toPrimitive(bytes) );
-						jsscService.notifyOutputListeners(lst);
-					} catch (SerialPortException e) {
-						LOG.error(e);
-					}
-				}
 			}else{
 				stop();
 			}
@@ -93,30 +103,33 @@ public class JsscSender implements Runnable {
 
 	public void stop() {
 		this.stopped = true;
+		signalDataAvailable();
 	}
 
 	public void start() {
 		this.stopped = false;
 	}
 	/**
-	 * Add Bytes to the output queue
-	 * @param bytes the list of {@link Byte} to add
+	 * Add Bytes to the output queue. The array is queued as is, without copy
+	 * @param bytes the bytes to add
 	 */
-	protected void sendBytes(List<Byte> bytes){
-		queue.offer(new ArrayList<Byte>(bytes));
-		synchronized (dataAvailableToSend) {
-			dataAvailableToSend.notify();
-		}
+	protected void sendBytes(byte[] bytes){
+		queue.offer(new PendingData(bytes));
+		signalDataAvailable();
 	}
 
 	/**
-	 * Add Bytes to the output queue as important. They will be sent event if the ClearToSend flag is <code>false</code>
-	 * @param bytes the list of {@link Byte} to add
+	 * Add Bytes to the real time lane. They are sent before any data of the normal lane.
+	 * A single byte is considered as a real time command and is written immediately by the calling thread
+	 * @param bytes the bytes to add
+	 * @throws GkException GkException
 	 */
-	protected void sendBytesImmediately(List<Byte> bytes){
-		importantQueue.add( new ArrayList<Byte>(bytes) );
-		synchronized (dataAvailableToSend) {
-			dataAvailableToSend.notify();
+	protected void sendBytesImmediately(byte[] bytes) throws GkException{
+		if(bytes.length == 1){
+			write(bytes, System.nanoTime());
+		}else{
+			importantQueue.offer(new PendingData(bytes));
+			signalDataAvailable();
 		}
 	}
 
@@ -128,15 +141,94 @@ public class JsscSender implements Runnable {
 		importantQueue.clear();
 	}
 
+	/**
+	 * @return the latency statistics of the real time lane
+	 */
+	protected JsscLatencyStatistics getRealTimeLatency() {
+		return realTimeLatency;
+	}
+
+	/**
+	 * Removes the data of the normal lane and concatenates them, up to {@link #MAX_BATCH_SIZE} bytes
+	 * @return the bytes to write, or <code>null</code> if the normal lane is empty
+	 */
+	private byte[] pollBatch(){
+		PendingData first = queue.poll();
+		if(first == null){
+			return null;
+		}
+		PendingData next = queue.peek();
+		if(next == null || first.data.length + next.data.length > MAX_BATCH_SIZE){
+			return first.data;
+		}
+		int length = first.data.length;
+		System.arraycopy(first.data, 0, batchBuffer, 0, length);
+		while(next != null && length + next.data.length <= MAX_BATCH_SIZE && importantQueue.isEmpty()){
+			queue.poll();
+			System.arraycopy(next.data, 0, batchBuffer, length, next.data.length);
+			length += next.data.length;
+			next = queue.peek();
+		}
+		byte[] result = new byte[length];
+		System.arraycopy(batchBuffer, 0, result, 0, length);
+		return result;
+	}
+
+	/**
+	 * Writes the given bytes on the serial port and notifies the output listeners
+	 * @param data the bytes to write
+	 * @param submissionTime the submission time of real time data in nanoseconds, 0 for the normal lane
+	 * @throws GkException GkException
+	 */
+	private void write(byte[] data, long submissionTime) throws GkException{
+		synchronized (writeLock) {
+			if(submissionTime != 0){
+				// Waiting time in the lane and for the port, the duration of the write itself is not included
+				realTimeLatency.record(System.nanoTime() - submissionTime);
+			}
+			try {
+				jsscService.getSerialPort().writeBytes(data);
+			} catch (SerialPortException e) {
+				throw new GkTechnicalException(e);
+			}
+		}
+		jsscService.notifyOutputListeners(data);
+	}
+
+	private void signalDataAvailable(){
+		lock.lock();
+		try{
+			dataAvailableToSend.signal();
+		}finally{
+			lock.unlock();
+		}
+	}
+
 	private void waitDataAvailableToSend() throws GkException{
-		while(importantQueue.isEmpty() && queue.isEmpty()){
-			synchronized (dataAvailableToSend) {
-				try {
-					dataAvailableToSend.wait();
-				} catch (InterruptedException e) {
-					throw new GkTechnicalException(e);
-				}
+		lock.lock();
+		try{
+			while(!stopped && importantQueue.isEmpty() && queue.isEmpty()){
+				dataAvailableToSend.await();
 			}
+		} catch (InterruptedException e) {
+			throw new GkTechnicalException(e);
+		}finally{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Data waiting in a lane
+	 */
+	private static class PendingData{
+		/** The bytes to send */
+		private final byte[] data;
+		/** Submission time in nanoseconds */
+		private final long queuedTime;
+
+		PendingData(byte[] data) {
+			this.data = data;
+			this.queuedTime = System.nanoTime();
 		}
 	}
 }
@@ -22,16 +22,22 @@ package org.goko.tools.serial.jssc.service;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.goko.core.common.GkUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkFunctionalException;
 import org.goko.core.common.exception.GkTechnicalException;
 import org.goko.core.common.service.AbstractGokoService;
+import org.goko.core.connection.ConnectionDataListenerAdapter;
 import org.goko.core.connection.DataPriority;
 import org.goko.core.connection.EnumConnectionEvent;
+import org.goko.core.connection.IConnectionByteListener;
 import org.goko.core.connection.IConnectionDataListener;
 import org.goko.core.connection.IConnectionListener;
 import org.goko.core.log.GkLog;
@@ -54,9 +60,11 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	/** Current used SerialPort */
 	private SerialPort serialPort;
 	/** Incoming data listeners */
-	private List<WeakReference<IConnectionDataListener>> inputListeners;
+	private List<WeakReference<IConnectionByteListener>> inputListeners;
 	/** Outgoing data listeners */
-	private List<WeakReference<IConnectionDataListener>> outputListeners;
+	private List<WeakReference<IConnectionByteListener>> outputListeners;
+	/** Adapters of the registered IConnectionDataListener, kept as long as the adapted listener is alive */
+	private Map<IConnectionDataListener, ConnectionDataListenerAdapter> dataListenerAdapters;
 	/** Connection event listener */
 	private List<WeakReference<IConnectionListener>> connectionListeners;
 	/** Jssc Sender runnable*/
@@ -79,8 +87,9 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	 */
 	@Override
 	public void startService() throws GkException {		
-		this.inputListeners 	 = new CopyOnWriteArrayList<WeakReference<IConnectionDataListener>>();
-		this.outputListeners 	 = new CopyOnWriteArrayList<WeakReference<IConnectionDataListener>>();
+		this.inputListeners 	 = new CopyOnWriteArrayList<WeakReference<IConnectionByteListener>>();
+		this.outputListeners 	 = new CopyOnWriteArrayList<WeakReference<IConnectionByteListener>>();
+		this.dataListenerAdapters = Collections.synchronizedMap(new WeakHashMap<IConnectionDataListener, ConnectionDataListenerAdapter>());
 		this.connectionListeners = new ArrayList<WeakReference<IConnectionListener>>();
 	}
 
@@ -94,6 +103,7 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 		}		
 		this.inputListeners.clear();
 		this.outputListeners.clear();
+		this.dataListenerAdapters.clear();
 		this.connectionListeners.clear();
 	}
 
@@ -170,6 +180,22 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	 */
 	@Override
 	public void send(List<Byte> data, DataPriority priority) throws GkException {
+		send(GkUtils.toBytes(data), priority);
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#send(java.util.List)
+	 */
+	@Override
+	public void send(List<Byte> data) throws GkException {
+		send(GkUtils.toBytes(data));
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#send(byte[], org.goko.core.connection.DataPriority)
+	 */
+	@Override
+	public void send(byte[] data, DataPriority priority) throws GkException {
 		if(isConnected()){
 			if(priority == DataPriority.IMPORTANT){
 				jsscSender.sendBytesImmediately(data);
@@ -180,10 +206,10 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	}
 
 	/** (inheritDoc)
-	 * @see org.goko.core.connection.IConnectionService#send(java.util.List)
+	 * @see org.goko.core.connection.IConnectionService#send(byte[])
 	 */
 	@Override
-	public void send(List<Byte> data) throws GkException {
+	public void send(byte[] data) throws GkException {
 		if(!isConnected()){
 			throw new GkFunctionalException("Not connected to any serial device.");
 		}
@@ -195,7 +221,7 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	 */
 	@Override
 	public void addInputDataListener(IConnectionDataListener listener) throws GkException {
-		inputListeners.add(new WeakReference<IConnectionDataListener>(listener));
+		addInputByteListener(getDataListenerAdapter(listener));
 	}
 
 	/** (inheritDoc)
@@ -203,12 +229,47 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	 */
 	@Override
 	public void removeInputDataListener(IConnectionDataListener listener) throws GkException {
-		WeakReference<IConnectionDataListener> reference = findListener(inputListeners, listener);
+		ConnectionDataListenerAdapter adapter = dataListenerAdapters.get(listener);
+		if(adapter != null){
+			removeInputByteListener(adapter);
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#addInputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void addInputByteListener(IConnectionByteListener listener) throws GkException {
+		inputListeners.add(new WeakReference<IConnectionByteListener>(listener));
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#removeInputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void removeInputByteListener(IConnectionByteListener listener) throws GkException {
+		WeakReference<IConnectionByteListener> reference = findListener(inputListeners, listener);
 		if(reference != null){
 			inputListeners.remove(reference);
 		}
+	}
 
+	/**
+	 * Returns the adapter of the given IConnectionDataListener, creating it if required
+	 * @param listener the listener
+	 * @return ConnectionDataListenerAdapter
+	 */
+	private ConnectionDataListenerAdapter getDataListenerAdapter(IConnectionDataListener listener){
+		synchronized (dataListenerAdapters) {
+			ConnectionDataListenerAdapter adapter = dataListenerAdapters.get(listener);
+			if(adapter == null){
+				adapter = new ConnectionDataListenerAdapter(listener);
+				dataListenerAdapters.put(listener, adapter);
+			}
+			return adapter;
+		}
 	}
+
 	protected <T> WeakReference<T> findListener(List<WeakReference<T>> listenerList, T listener) throws GkException{
 		WeakReference<T> reference = null;
 		if(CollectionUtils.isNotEmpty(inputListeners)){
@@ -225,7 +286,7 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	 */
 	@Override
 	public void addOutputDataListener(IConnectionDataListener listener) throws GkException {
-		outputListeners.add(new WeakReference<IConnectionDataListener>(listener));
+		addOutputByteListener(getDataListenerAdapter(listener));
 	}
 
 	/** (inheritDoc)
@@ -233,7 +294,26 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 	 */
 	@Override
 	public void removeOutputDataListener(IConnectionDataListener listener) throws GkException {
-		WeakReference<IConnectionDataListener> reference = findListener(outputListeners, listener);
+		ConnectionDataListenerAdapter adapter = dataListenerAdapters.get(listener);
+		if(adapter != null){
+			removeOutputByteListener(adapter);
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#addOutputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void addOutputByteListener(IConnectionByteListener listener) throws GkException {
+		outputListeners.add(new WeakReference<IConnectionByteListener>(listener));
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionService#removeOutputByteListener(org.goko.core.connection.IConnectionByteListener)
+	 */
+	@Override
+	public void removeOutputByteListener(IConnectionByteListener listener) throws GkException {
+		WeakReference<IConnectionByteListener> reference = findListener(outputListeners, listener);
 		if(reference != null){
 			outputListeners.remove(reference);
 		}
@@ -254,6 +334,17 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 		connectionListeners.remove(listener);		
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.tools.serial.jssc.service.IJsscSerialConnectionService#getRealTimeLatency()
+	 */
+	@Override
+	public JsscLatencyStatistics getRealTimeLatency() throws GkException {
+		if(!isConnected()){
+			throw new GkFunctionalException("Not connected to any serial device.");
+		}
+		return jsscSender.getRealTimeLatency();
+	}
+
 	/** (inheritDoc)
 	 * @see org.goko.core.connection.IConnectionService#clearOutputBuffer()
 	 */
@@ -279,12 +370,13 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 		}
 	}
 	
-	protected void notifyInputListeners(List<Byte> data){
+	protected void notifyInputListeners(byte[] data){
 		if(CollectionUtils.isNotEmpty(inputListeners)){					
-			for(WeakReference<IConnectionDataListener> reference : inputListeners){
-				if(reference.get() != null){
+			for(WeakReference<IConnectionByteListener> reference : inputListeners){
+				IConnectionByteListener listener = reference.get();
+				if(listener != null){
 					try {
-						reference.get().onDataReceived(data);
+						listener.onDataReceived(data, 0, data.length);
 					} catch (GkException e) {
 						LOG.error(e);
 					} 
@@ -293,12 +385,13 @@ public class JsscSerialConnectionService extends AbstractGokoService implements
 		}		
 	}
 
-	protected void notifyOutputListeners(List<Byte> data){
+	protected void notifyOutputListeners(byte[] data){
 		if(CollectionUtils.isNotEmpty(outputListeners)){
-			for(WeakReference<IConnectionDataListener> reference : outputListeners){
-				if(reference.get() != null){
+			for(WeakReference<IConnectionByteListener> reference : outputListeners){
+				IConnectionByteListener listener = reference.get();
+				if(listener != null){
 					try {
-						reference.get().onDataSent(data);
+						listener.onDataSent(data, 0, data.length);
 					} catch (GkException e) {
 						LOG.error(e);
 					}
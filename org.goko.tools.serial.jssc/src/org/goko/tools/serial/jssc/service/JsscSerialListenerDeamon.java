@@ -19,12 +19,9 @@
  */
 package org.goko.tools.serial.jssc.service;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
-import org.goko.core.common.GkUtils;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.log.GkLog;
 
@@ -36,19 +33,19 @@ public class JsscSerialListenerDeamon implements Runnable, SerialPortEventListen
 	/** LOG */
 	private static final GkLog LOG = GkLog.getLogger(JsscSerialListenerDeamon.class);
 	/** Outgoing queue */
-	private BlockingQueue<List<Byte>> queue;
+	private BlockingQueue<byte[]> queue;
 	/** The service holding the serial port */
 	private JsscSerialConnectionService jsscService;
 	/** Stop indicator */
 	private boolean stopped;
 
 	public JsscSerialListenerDeamon(JsscSerialConnectionService jsscService) {
-		this.queue = new LinkedBlockingQueue<List<Byte>>();
+		this.queue = new LinkedBlockingQueue<byte[]>();
 		this.jsscService = jsscService;
 	}
 
 	public void addAll(String buffer){
-		queue.add(GkUtils.toBytesList(buffer));
+		queue.add(buffer.getBytes());
 	}
 
 	@Override
@@ -58,7 +55,7 @@ public class JsscSerialListenerDeamon implements Runnable, SerialPortEventListen
 			try {
 				byte buffer[] = jsscService.getSerialPort().readBytes(dataAvailableCount);
 				if(buffer != null && buffer.length > 0){
-					queue.add( GkUtils.toBytesList(buffer));
+					queue.add(buffer);
 				}
 			} catch (SerialPortException e) {
 				LOG.error(e);
@@ -78,7 +75,7 @@ public class JsscSerialListenerDeamon implements Runnable, SerialPortEventListen
 	 */
 	@Override
 	public void run() {
-		List<Byte> notifiedBuffer = new ArrayList<Byte>();
+		byte[] notifiedBuffer = null;
 		while(!stopped){
 			try {
 				notifiedBuffer = queue.take();
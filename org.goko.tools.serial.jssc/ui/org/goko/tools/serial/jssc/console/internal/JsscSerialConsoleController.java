@@ -35,43 +35,46 @@ import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.widgets.Display;
 import org.goko.common.bindings.AbstractController;
 import org.goko.core.common.GkUtils;
-import org.goko.core.common.buffer.ByteCommandBuffer;
+import org.goko.core.common.buffer.ByteLineSplitter;
 import org.goko.core.common.exception.GkException;
-import org.goko.core.connection.IConnectionDataListener;
+import org.goko.core.connection.IConnectionByteListener;
 import org.goko.core.connection.IConnectionService;
 import org.goko.core.log.GkLog;
 import org.goko.tools.serial.jssc.preferences.connection.SerialConnectionPreference;
 
-public class JsscSerialConsoleController extends AbstractController<JsscSerialConsoleModel> implements IConnectionDataListener, IPropertyChangeListener {
+public class JsscSerialConsoleController extends AbstractController<JsscSerialConsoleModel> implements IConnectionByteListener, IPropertyChangeListener {
 	private static final GkLog LOG = GkLog.getLogger(JsscSerialConsoleController.class);
 	@Inject
 	private IConnectionService connectionService;
 	private StyledText textDisplay;
-	private ByteCommandBuffer inputBuffer;
-	private ByteCommandBuffer outputBuffer;
+	private ByteLineSplitter inputBuffer;
+	private ByteLineSplitter outputBuffer;
 	private List<JsscConsoleFilter> lstInputFilter;
 	
 	public JsscSerialConsoleController() {
 		super(new JsscSerialConsoleModel());
-		inputBuffer  = new ByteCommandBuffer((byte)('\n'));
-		outputBuffer = new ByteCommandBuffer((byte)('\n'));		
+		inputBuffer  = new ByteLineSplitter((byte)('\n'));
+		outputBuffer = new ByteLineSplitter((byte)('\n'));		
 	}
 
 	@Override
 	public void initialize() throws GkException {
 		// TODO Auto-generated method stub
-		connectionService.addOutputDataListener(this);
-		connectionService.addInputDataListener(this);
+		connectionService.addOutputByteListener(this);
+		connectionService.addInputByteListener(this);
 		SerialConnectionPreference.getInstance().addPropertyChangeListener(this);
 		updateInputFilters();
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataReceived(byte[], int, int)
+	 */
 	@Override
-	public void onDataReceived(List<Byte> data) throws GkException {
+	public void onDataReceived(byte[] data, int offset, int length) throws GkException {
 		if(getDataModel().isConsoleEnabled()){
-			inputBuffer.addAll(data);
+			inputBuffer.append(data, offset, length);
 			while(inputBuffer.hasNext()){
-				final String text = GkUtils.toString(inputBuffer.unstackNextCommand());
+				final String text = inputBuffer.nextLine() + '\n';
 				final String finalString = filterString(text, JsscConsoleFilterType.INPUT);
 				if(StringUtils.isNotBlank(finalString)){
 					Display.getDefault().asyncExec(new Runnable() {
@@ -90,12 +93,15 @@ public class JsscSerialConsoleController extends AbstractController<JsscSerialCo
 		}
 	}
 
+	/** (inheritDoc)
+	 * @see org.goko.core.connection.IConnectionByteListener#onDataSent(byte[], int, int)
+	 */
 	@Override
-	public void onDataSent(List<Byte> data) throws GkException {
+	public void onDataSent(byte[] data, int offset, int length) throws GkException {
 		if(getDataModel().isConsoleEnabled()){
-			outputBuffer.addAll(data);
+			outputBuffer.append(data, offset, length);
 			if(outputBuffer.hasNext()){
-				final String text = GkUtils.toString(outputBuffer.unstackNextCommand());	
+				final String text = outputBuffer.nextLine() + '\n';	
 				final String finalString = filterString(text, JsscConsoleFilterType.OUTPUT);
 				if(StringUtils.isNotBlank(finalString)){
 					Display.getDefault().asyncExec(new Runnable() {
@@ -142,10 +148,8 @@ public class JsscSerialConsoleController extends AbstractController<JsscSerialCo
 		this.textDisplay = text_1;
 	}
 
-	private List<Byte> getCompleteCommand(){
-		List<Byte> baseList = GkUtils.toBytesList(getDataModel().getCommand());
-		baseList.addAll(GkUtils.toBytesList( getDataModel().getEndLineToken().getValue()));
-		return baseList;
+	private byte[] getCompleteCommand(){
+		return GkUtils.toBytes(getDataModel().getCommand(), getDataModel().getEndLineToken().getValue());
 	}
 
 	public void sendCurrentCommand() throws GkException {
@@ -189,8 +193,8 @@ public class JsscSerialConsoleController extends AbstractController<JsscSerialCo
 	public void destroy() {
 		if(connectionService != null){
 			try {
-				connectionService.removeInputDataListener(this);
-				connectionService.removeOutputDataListener(this);
+				connectionService.removeInputByteListener(this);
+				connectionService.removeOutputByteListener(this);
 			} catch (GkException e) {
 				LOG.error(e);
 			}
@@ -44,6 +44,8 @@ public class JoglViewerPreference extends GkPreference{
 	public static final String NODE = "org.goko.tools.viewer.jogl";
 
 	public static final String MULTISAMPLING 		= "performances.multisampling";
+	public static final String MAX_FRAME_RATE 		= "performances.maxFrameRate";
+	public static final String STREAMING_FRAME_RATE = "performances.streamingFrameRate";
 	public static final String BACKGROUND_COLOR 	= "viewer.backgroundColor";
 	public static final String SHOW_FPS			 	= "viewer.showFps";
 	public static final String DEFAULT_CAMERA		= "viewer.defaultCamera";
@@ -184,6 +186,34 @@ public class JoglViewerPreference extends GkPreference{
 		setValue(MULTISAMPLING, String.valueOf(multisampling));
 	}
 
+	/**
+	 * @return the maximum number of frames rendered per second, 0 for no limit
+	 */
+	public int getMaximumFrameRate() {
+		return getInt(MAX_FRAME_RATE);
+	}
+
+	/**
+	 * @param maxFrameRate the maximum number of frames rendered per second, 0 for no limit
+	 */
+	public void setMaximumFrameRate(int maxFrameRate) {
+		setValue(MAX_FRAME_RATE, maxFrameRate);
+	}
+
+	/**
+	 * @return the maximum number of frames rendered per second while a GCode is streamed, 0 to use the maximum frame rate
+	 */
+	public int getStreamingFrameRate() {
+		return getInt(STREAMING_FRAME_RATE);
+	}
+
+	/**
+	 * @param streamingFrameRate the maximum number of frames rendered per second while a GCode is streamed, 0 to use the maximum frame rate
+	 */
+	public void setStreamingFrameRate(int streamingFrameRate) {
+		setValue(STREAMING_FRAME_RATE, streamingFrameRate);
+	}
+
 	/**
 	 * @return the majorGridSpacing
 	 * @throws GkException 
@@ -22,6 +22,8 @@ public class JoglViewerPreferenceInitializer extends GkPreferenceInitializer{
 		prefs.setDefault(JoglViewerPreference.ROTARY_AXIS_POSITION_Y, "0mm");
 		prefs.setDefault(JoglViewerPreference.ROTARY_AXIS_POSITION_Z, "0mm");		
 		prefs.setDefault(JoglViewerPreference.MULTISAMPLING, "16");
+		prefs.setDefault(JoglViewerPreference.MAX_FRAME_RATE, 30);
+		prefs.setDefault(JoglViewerPreference.STREAMING_FRAME_RATE, 0);
 		
 		prefs.setDefault(JoglViewerPreference.SHOW_FPS, false);
 		prefs.setDefault(JoglViewerPreference.BACKGROUND_COLOR, StringConverter.asString(new RGB(49, 49, 59)));
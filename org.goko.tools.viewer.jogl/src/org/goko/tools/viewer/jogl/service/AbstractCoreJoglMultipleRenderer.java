@@ -87,11 +87,25 @@ public abstract class AbstractCoreJoglMultipleRenderer extends AbstractCoreJoglR
 	}
 
 	public void addRenderer(AbstractCoreJoglRenderer renderer){
+		renderer.setRenderRequestListener(getRenderRequestListener());
 		this.renderers.add(renderer);
+		requestRender();
 	}
 	
 	public void removeRenderer(AbstractCoreJoglRenderer renderer){
 		this.renderers.remove(renderer);
+		requestRender();
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.tools.viewer.jogl.service.AbstractCoreJoglRenderer#setRenderRequestListener(org.goko.tools.viewer.jogl.service.IRenderRequestListener)
+	 */
+	@Override
+	public void setRenderRequestListener(IRenderRequestListener renderRequestListener) {
+		super.setRenderRequestListener(renderRequestListener);
+		for (AbstractCoreJoglRenderer abstractCoreJoglRenderer : renderers) {
+			abstractCoreJoglRenderer.setRenderRequestListener(renderRequestListener);
+		}
 	}
 	
 	/**
@@ -141,5 +155,6 @@ public abstract class AbstractCoreJoglMultipleRenderer extends AbstractCoreJoglR
 				abstractCoreJoglRenderer.update();
 			}
 		}
+		requestRender();
 	}
 }
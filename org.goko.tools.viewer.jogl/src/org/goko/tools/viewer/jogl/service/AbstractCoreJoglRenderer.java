@@ -51,6 +51,8 @@ public abstract class AbstractCoreJoglRenderer implements ICoreJoglRenderer {
 	private BoundingTuple6b bounds;
 	/** The code of this renderer */
 	private String code;
+	/** The listener notified when this renderer needs to be redrawn */
+	private IRenderRequestListener renderRequestListener;
 	
 	/**
 	 * Constructor
@@ -181,6 +183,7 @@ public abstract class AbstractCoreJoglRenderer implements ICoreJoglRenderer {
 	@Override
 	public void setEnabled(boolean enabled) {
 		this.disabled = !enabled;
+		requestRender();
 	}
 
 	/** (inheritDoc)
@@ -197,6 +200,7 @@ public abstract class AbstractCoreJoglRenderer implements ICoreJoglRenderer {
 	@Override
 	public void destroy() throws GkException {
 		shouldDestroy = true;
+		requestRender();
 	}
 
 	/**
@@ -248,4 +252,28 @@ public abstract class AbstractCoreJoglRenderer implements ICoreJoglRenderer {
 	public void setCode(String code) {
 		this.code = code;
 	}
+
+	/** (inheritDoc)
+	 * @see org.goko.tools.viewer.jogl.service.ICoreJoglRenderer#setRenderRequestListener(org.goko.tools.viewer.jogl.service.IRenderRequestListener)
+	 */
+	@Override
+	public void setRenderRequestListener(IRenderRequestListener renderRequestListener) {
+		this.renderRequestListener = renderRequestListener;
+	}
+
+	/**
+	 * @return the listener notified when this renderer needs to be redrawn
+	 */
+	protected IRenderRequestListener getRenderRequestListener() {
+		return renderRequestListener;
+	}
+
+	/**
+	 * Requests a new frame so that the changes of this renderer get displayed
+	 */
+	protected void requestRender(){
+		if(renderRequestListener != null){
+			renderRequestListener.onRenderRequest();
+		}
+	}
 }
@@ -49,6 +49,8 @@ public interface ICoreJoglRenderer {
 	BoundingTuple6b getBounds();
 	
 	void update();
+
+	void setRenderRequestListener(IRenderRequestListener listener);
 		
 	
 
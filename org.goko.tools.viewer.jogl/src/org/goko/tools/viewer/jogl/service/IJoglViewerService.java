@@ -71,4 +71,9 @@ public interface IJoglViewerService extends IViewer3DService{
 	void addOverlayRenderer(IOverlayRenderer overlayRenderer) throws GkException;
 	
 	void removeOverlayRenderer(IOverlayRenderer overlayRenderer) throws GkException;
+
+	/**
+	 * Requests the rendering of a new frame, for changes the viewer cannot detect by itself
+	 */
+	void requestRender();
 }
@@ -47,6 +47,8 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.MouseMoveListener;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.exception.GkFunctionalException;
 import org.goko.core.common.utils.CacheById;
@@ -72,9 +74,11 @@ import org.goko.tools.viewer.jogl.utils.render.JoglRendererWrapper;
 import com.jogamp.opengl.util.PMVMatrix;
 import com.jogamp.opengl.util.awt.Overlay;
 
-public abstract class JoglSceneManager implements GLEventListener, IPropertyChangeListener{
+public abstract class JoglSceneManager implements GLEventListener, IPropertyChangeListener, IRenderRequestListener{
 	/** LOG */
 	private static final GkLog LOG = GkLog.getLogger(JoglSceneManager.class);
+	/** Weight of the last frame in the average frame render time */
+	private static final double FRAME_TIME_SMOOTHING = 0.1;
 	/** Flag to enable/disable the render*/
 	private boolean enabled = true;
 	private Overlay overlay; 
@@ -106,6 +110,14 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 	private boolean updateBackgroundColor;
 	private Point2i mouseCanvasPosition;
 	private boolean displayPositionOverlay = true;
+	/** The scheduler rendering the canvas on demand */
+	private RenderScheduler renderScheduler;
+	/** Streaming state, used to select the frame rate limit */
+	private volatile boolean streaming;
+	/** Render time of the last frame in milliseconds */
+	private volatile double lastFrameRenderTime;
+	/** Average render time of the recent frames in milliseconds */
+	private volatile double averageFrameRenderTime;
 	
 	public JoglSceneManager() {
 		getRenderers();
@@ -165,7 +177,30 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 			}
 		});
 		onCanvasCreated(canvas);
-				
+		
+		// Camera moves and overlay updates are driven by the user input on the canvas
+		Listener inputListener = new Listener() {
+			
+			@Override
+			public void handleEvent(Event event) {
+				requestRender();
+			}
+		};
+		int[] inputEvents = new int[]{SWT.MouseMove, SWT.MouseDown, SWT.MouseUp, SWT.MouseWheel, SWT.KeyDown, SWT.KeyUp, SWT.FocusIn, SWT.FocusOut, SWT.Resize};
+		for (int inputEvent : inputEvents) {
+			canvas.addListener(inputEvent, inputListener);
+		}
+		canvas.addListener(SWT.Dispose, new Listener() {
+			
+			@Override
+			public void handleEvent(Event event) {
+				renderScheduler.stop();
+			}
+		});
+		renderScheduler = new RenderScheduler(canvas);
+		updateFrameRate();
+		renderScheduler.start();
+		
 		return canvas;
 	}
 
@@ -184,6 +219,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 	 */
 	@Override
 	public void display(GLAutoDrawable gLAutoDrawable) {
+		long frameStart = System.nanoTime();
 		GL3 gl = new DebugGL3( gLAutoDrawable.getGL().getGL3() );
 		if(updateBackgroundColor){
 			gl.glClearColor(backgroundColor.x, backgroundColor.y, backgroundColor.z, 1.0f); // reset background (clear) color
@@ -213,6 +249,74 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 		}
 		gl.glUseProgram(0);
 		drawOverlay();
+		updateFrameRenderTime((System.nanoTime() - frameStart) / 1000000.0);
+	}
+
+	/**
+	 * Records the render time of a frame
+	 * @param renderTime the render time of the frame in milliseconds
+	 */
+	private void updateFrameRenderTime(double renderTime){
+		lastFrameRenderTime = renderTime;
+		if(averageFrameRenderTime == 0){
+			averageFrameRenderTime = renderTime;
+		}else{
+			averageFrameRenderTime += (renderTime - averageFrameRenderTime) * FRAME_TIME_SMOOTHING;
+		}
+	}
+
+	/**
+	 * Requests the rendering of a new frame. Requests received before the frame is rendered are merged
+	 */
+	public void requestRender(){
+		if(renderScheduler != null){
+			renderScheduler.requestRender();
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.tools.viewer.jogl.service.IRenderRequestListener#onRenderRequest()
+	 */
+	@Override
+	public void onRenderRequest() {
+		requestRender();
+	}
+
+	/**
+	 * Applies the frame rate limit matching the current streaming state
+	 */
+	private void updateFrameRate(){
+		if(renderScheduler != null){
+			int frameRate = JoglViewerPreference.getInstance().getMaximumFrameRate();
+			int streamingFrameRate = JoglViewerPreference.getInstance().getStreamingFrameRate();
+			if(streaming && streamingFrameRate > 0 && (frameRate <= 0 || streamingFrameRate < frameRate)){
+				frameRate = streamingFrameRate;
+			}
+			renderScheduler.setMaximumFrameRate(frameRate);
+		}
+	}
+
+	/**
+	 * Sets the streaming state, which enables the streaming frame rate limit
+	 * @param streaming <code>true</code> if a GCode is being streamed
+	 */
+	public void setStreaming(boolean streaming){
+		this.streaming = streaming;
+		updateFrameRate();
+	}
+
+	/**
+	 * @return the render time of the last frame in milliseconds
+	 */
+	public double getLastFrameRenderTime() {
+		return lastFrameRenderTime;
+	}
+
+	/**
+	 * @return the average render time of the recent frames in milliseconds
+	 */
+	public double getAverageFrameRenderTime() {
+		return averageFrameRenderTime;
 	}
 
 	/**
@@ -255,23 +359,27 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 	}
 
 	public void addRenderer(ICoreJoglRenderer renderer) throws GkException {
+		renderer.setRenderRequestListener(this);
 		renderers.add(renderer);
 		LOG.info("Adding renderer "+renderer.getCode()+" ["+renderer.toString()+"]");
 		synchronized (renderers) {
 			// Make sure that renderer using alpha get rendered last
 			Collections.sort(getRenderers(), new CoreJoglRendererAlphaComparator());
 		}
+		requestRender();
 	}
 
 	public void removeRenderer(ICoreJoglRenderer renderer) throws GkException {
 		synchronized (renderers) {
 			getRenderers().remove(renderer);
 		}
+		requestRender();
 	}
 	public void removeRenderer(IViewer3DRenderer renderer) throws GkException {
 		synchronized (renderers) {
 			getRenderers().remove(renderer);
 		}
+		requestRender();
 	}
 	/**
 	 * Removes the given JOGL Renderer
@@ -280,6 +388,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 	 */
 	protected void removeRenderer(AbstractCoreJoglRenderer renderer) throws GkException {
 		getRenderers().remove(renderer);
+		requestRender();
 	}
 
 	/**
@@ -354,6 +463,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 		if(camera != null){
 			camera.reshape(drawable, x, y, width, height);
 		}
+		requestRender();
 	}
 
 
@@ -389,6 +499,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 					addOverlayRenderer(camera.getPositionOverlay());
 					camera.getPositionOverlay().setOverlayEnabled(displayPositionOverlay);
 				}
+				requestRender();
 				return;
 			}
 		}
@@ -434,6 +545,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 	 */
 	public void addOverlayRenderer(IOverlayRenderer overlayRenderer) throws GkException{
 		overlayRenderers.add(overlayRenderer);
+		requestRender();
 	}
 	
 	/**
@@ -443,6 +555,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 	 */
 	public void removeOverlayRenderer(IOverlayRenderer overlayRenderer) throws GkException{
 		overlayRenderers.remove(overlayRenderer);
+		requestRender();
 	}
 	
 	/**
@@ -482,6 +595,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 		}
 		
 		setBackgroundColor(JoglViewerPreference.getInstance().getBackgroundColor());
+		updateFrameRate();
 	}
 
 	public void addCamera(AbstractCamera camera) throws GkException{
@@ -499,6 +613,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 
 	public void setEnabled(boolean enabled) {
 		this.enabled = enabled;
+		requestRender();
 	}
 
 	/**
@@ -531,12 +646,14 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 
 	public void setLayerVisible(int layerId, boolean visible){
 		this.layerVisibility.put(layerId, visible);
+		requestRender();
 	}
 
 	public void zoomToFit() throws GkException {
 		BoundingTuple6b contentBounds = getContentBounds();
 		if(contentBounds != null){
 			getCamera().zoomToFit(contentBounds);
+			requestRender();
 		}
 	}
 
@@ -570,6 +687,7 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 	public void setBackgroundColor(Color3f backgroundColor) {
 		this.backgroundColor = backgroundColor;
 		this.updateBackgroundColor = true;
+		requestRender();
 	}
 
 	/**
@@ -601,5 +719,6 @@ public abstract class JoglSceneManager implements GLEventListener, IPropertyChan
 		if(camera.getPositionOverlay() != null){
 			camera.getPositionOverlay().setOverlayEnabled(displayPositionOverlay);
 		}
+		requestRender();
 	}
 }
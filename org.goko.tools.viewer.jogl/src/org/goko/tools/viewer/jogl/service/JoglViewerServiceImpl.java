@@ -21,6 +21,8 @@ import javax.media.opengl.GLAutoDrawable;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
+import org.goko.core.common.event.EventListener;
+import org.goko.core.common.event.IEventDispatcher;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.common.measure.quantity.Length;
 import org.goko.core.config.GokoPreference;
@@ -30,7 +32,13 @@ import org.goko.core.controller.IJogService;
 import org.goko.core.controller.IThreeAxisControllerAdapter;
 import org.goko.core.controller.IWorkVolumeProvider;
 import org.goko.core.controller.ThreeToFourAxisAdapterWrapper;
+import org.goko.core.controller.event.IGCodeContextListener;
+import org.goko.core.controller.event.MachineValueUpdateEvent;
 import org.goko.core.controller.listener.IWorkVolumeUpdateListener;
+import org.goko.core.gcode.execution.ExecutionQueueType;
+import org.goko.core.gcode.execution.ExecutionToken;
+import org.goko.core.gcode.execution.ExecutionTokenState;
+import org.goko.core.gcode.service.IExecutionService;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
 import org.goko.core.log.GkLog;
 import org.goko.core.math.Tuple6b;
@@ -50,7 +58,7 @@ import org.goko.tools.viewer.jogl.utils.render.tool.ToolRenderer;
  * @author PsyKo
  *
  */
-public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglViewerService, IPropertyChangeListener, IWorkVolumeUpdateListener{
+public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglViewerService, IPropertyChangeListener, IWorkVolumeUpdateListener, IGCodeContextListener<GCodeContext>{
 	/** LOG */
 	private static final GkLog LOG = GkLog.getLogger(JoglViewerServiceImpl.class);
 	/** SERVICE_ID */
@@ -68,7 +76,12 @@ public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglView
 	private FourAxisOriginRenderer zeroRenderer;	
 	private KeyboardJogAdatper keyboardJogAdapter;
 	private ToolRenderer toolRenderer;	
+	private ToolLinePrintRenderer toolLinePrintRenderer;
 	private IFourAxisControllerAdapter controllerAdapter;
+	/** The dispatcher notifying the tool position changes */
+	private IEventDispatcher positionEventSource;
+	/** Listener applying the streaming frame rate while a GCode is executed */
+	private StreamingStateListener streamingStateListener;
 	private IGCodeContextProvider<GCodeContext> gcodeContextProvider;
 	
 	/** (inheritDoc)
@@ -98,7 +111,11 @@ public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglView
 		this.toolRenderer.setGcodeContextProvider(gcodeContextProvider);
 		this.toolRenderer.setControllerAdapter(controllerAdapter);		
 		addRenderer(toolRenderer);
-		addRenderer(new ToolLinePrintRenderer(controllerAdapter, gcodeContextProvider));
+		this.toolLinePrintRenderer = new ToolLinePrintRenderer(controllerAdapter, gcodeContextProvider);
+		addRenderer(toolLinePrintRenderer);
+		if(gcodeContextProvider != null){
+			gcodeContextProvider.addObserver(this);
+		}
 		
 		
 		updateGridRenderer(xyGridRenderer);
@@ -129,6 +146,7 @@ public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglView
 			setControllerAdapter((IFourAxisControllerAdapter)controllerService);
 		}else{
 			setControllerAdapter(new ThreeToFourAxisAdapterWrapper(controllerService));
+			listenPositionEvents(controllerService);
 		}
 	}
 	/**
@@ -137,6 +155,49 @@ public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglView
 	 */
 	public void setControllerAdapter(IFourAxisControllerAdapter controllerService) throws GkException {
 		this.controllerAdapter = controllerService;	
+		listenPositionEvents(controllerService);
+	}
+
+	/**
+	 * Registers this service on the given adapter if it notifies its position changes
+	 * @param controllerService the adapter
+	 */
+	private void listenPositionEvents(Object controllerService){
+		if(controllerService instanceof IEventDispatcher && controllerService != positionEventSource){
+			positionEventSource = (IEventDispatcher) controllerService;
+			positionEventSource.addListener(this);
+		}
+	}
+
+	/**
+	 * Invalidates the position of the tool renderers when a machine value is updated
+	 * @param event the update event
+	 */
+	@EventListener(MachineValueUpdateEvent.class)
+	public void onMachineValueUpdate(MachineValueUpdateEvent event){
+		updateToolPosition();
+	}
+
+	/** (inheritDoc)
+	 * @see org.goko.core.controller.event.IGCodeContextListener#onGCodeContextEvent(org.goko.core.gcode.element.IGCodeContext)
+	 */
+	@Override
+	public void onGCodeContextEvent(GCodeContext context) {
+		updateToolPosition();
+		// Coordinate systems are also displayed from the context
+		requestRender();
+	}
+
+	/**
+	 * Requests the tool renderers to recompute their position on the next frame
+	 */
+	private void updateToolPosition(){
+		if(toolRenderer != null){
+			toolRenderer.updatePosition();
+		}
+		if(toolLinePrintRenderer != null){
+			toolLinePrintRenderer.updatePosition();
+		}
 	}
 	
 	/** (inheritDoc)
@@ -161,6 +222,7 @@ public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglView
 	@Override
 	public void setLockCameraOnTool(boolean lockCameraOnTool) {
 		this.lockCameraOnTool = lockCameraOnTool;
+		requestRender();
 	}
 
 	/**
@@ -298,6 +360,17 @@ public class JoglViewerServiceImpl extends JoglSceneManager implements IJoglView
 		this.workVolumeProvider = workVolumeProvider;
 	}
 
+	/**
+	 * @param executionService the execution service used to detect streaming
+	 * @throws GkException GkException
+	 */
+	public void setExecutionService(IExecutionService<ExecutionTokenState, ExecutionToken<ExecutionTokenState>> executionService) throws GkException {
+		if(streamingStateListener == null){
+			streamingStateListener = new StreamingStateListener(this);
+		}
+		executionService.addExecutionListener(ExecutionQueueType.DEFAULT, streamingStateListener);
+	}
+
 	/**
 	 * @return the gcodeContextProvider
 	 */
@@ -0,0 +1,30 @@
+/*
+ *
+ *   Goko
+ *   Copyright (C) 2013  PsyKo
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.goko.tools.viewer.jogl.service;
+
+/**
+ * Topics of the events posted by the 3D viewer
+ *
+ * @author PsyKo
+ */
+public class JoglViewerTopic {
+	/** A position of the canvas was double clicked. The data is the position as an org.eclipse.swt.graphics.Point, in pixels from the top left corner */
+	public static final String TOPIC_CANVAS_DOUBLE_CLICK = "topic/viewer/jogl/canvas/doubleClick";
+}
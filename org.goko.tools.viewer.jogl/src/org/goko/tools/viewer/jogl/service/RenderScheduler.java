@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * 	This file is part of Goko.
+ *
+ *   Goko is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Goko is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Goko.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package org.goko.tools.viewer.jogl.service;
+
+import javax.media.opengl.GLAutoDrawable;
+
+import org.goko.core.log.GkLog;
+
+/**
+ * Renders a drawable on demand. A frame is only rendered if it was requested since the previous one,
+ * and requests received while a frame is pending are merged into it. The frame rate can be limited.
+ *
+ * @author PsyKo
+ *
+ */
+public class RenderScheduler implements Runnable{
+	/** LOG */
+	private static final GkLog LOG = GkLog.getLogger(RenderScheduler.class);
+	/** The rendered drawable */
+	private GLAutoDrawable drawable;
+	/** Lock used to wait for render requests */
+	private final Object requestLock = new Object();
+	/** Pending render request */
+	private boolean renderRequested;
+	/** Running state */
+	private volatile boolean running;
+	/** Minimal delay between two frames in milliseconds */
+	private volatile long minimalFramePeriod;
+	/** The render thread */
+	private Thread thread;
+
+	/**
+	 * Constructor
+	 * @param drawable the drawable to render
+	 */
+	public RenderScheduler(GLAutoDrawable drawable) {
+		this.drawable = drawable;
+	}
+
+	/**
+	 * Starts the render thread and requests a first frame
+	 */
+	public synchronized void start(){
+		if(thread == null){
+			running = true;
+			thread = new Thread(this, "jogl-render-scheduler");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		requestRender();
+	}
+
+	/**
+	 * Stops the render thread
+	 */
+	public synchronized void stop(){
+		running = false;
+		if(thread != null){
+			thread.interrupt();
+			thread = null;
+		}
+	}
+
+	/**
+	 * Requests the rendering of a frame
+	 */
+	public void requestRender(){
+		synchronized (requestLock) {
+			renderRequested = true;
+			requestLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Limits the number of frames rendered per second
+	 * @param frameRate the maximum frame rate, 0 for no limit
+	 */
+	public void setMaximumFrameRate(int frameRate){
+		if(frameRate > 0){
+			this.minimalFramePeriod = 1000 / frameRate;
+		}else{
+			this.minimalFramePeriod = 0;
+		}
+	}
+
+	/** (inheritDoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		try{
+			while(running){
+				synchronized (requestLock) {
+					while(running && !renderRequested){
+						requestLock.wait();
+					}
+					renderRequested = false;
+				}
+				if(!running){
+					break;
+				}
+				long frameStart = System.currentTimeMillis();
+				try{
+					drawable.display();
+				}catch(RuntimeException e){
+					LOG.error(e);
+				}
+				long remainingTime = minimalFramePeriod - (System.currentTimeMillis() - frameStart);
+				if(remainingTime > 0){
+					Thread.sleep(remainingTime);
+				}
+			}
+		}catch(InterruptedException e){
+			// Stop requested
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the render thread is running
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+}
@@ -84,7 +84,7 @@ public class CameraNameOverlay extends AbstractIdBean implements IOverlayRendere
 			    	this.frame = 0;
 			    }
 			    g2d.setColor(new Color(0.55f,0.45f,0.28f));
-			    g2d.drawString(String.valueOf(this.fps*2)+"fps",x,y+glyphBounds.height+4);
+			    g2d.drawString(String.valueOf(this.fps*2)+"fps - "+String.format("%.1f", joglSceneManager.getAverageFrameRenderTime())+"ms",x,y+glyphBounds.height+4);
 		    }		    
 		}
 	}
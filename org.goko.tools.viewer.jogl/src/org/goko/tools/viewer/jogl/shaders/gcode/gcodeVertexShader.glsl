@@ -3,13 +3,14 @@
 layout(location = 0)in vec4 vertexPosition_modelspace;
 layout(location = 1)in vec4 vertexColor;
 layout(location = 2)in int vertexStatus;
+layout(location = 3)in vec3 instanceOffset;
 flat out vec4 vColor;
 uniform mat4 modelViewMatrix;
 uniform mat4 projectionMatrix;
 
 void main(){
 	// Output position of the vertex, in clip space : MVP * position
-    gl_Position = projectionMatrix*modelViewMatrix*vertexPosition_modelspace; 
+    gl_Position = projectionMatrix*modelViewMatrix*(vertexPosition_modelspace + vec4(instanceOffset, 0)); 
   	
   	 
     if(vertexStatus == 0){ // Normal
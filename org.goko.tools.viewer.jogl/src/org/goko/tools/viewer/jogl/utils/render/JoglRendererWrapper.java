@@ -124,7 +124,6 @@ public class JoglRendererWrapper extends AbstractCoreJoglRenderer {
 	 */
 	@Override
 	public void update() {
-		// TODO Auto-generated method stub
-		
+		requestRender();
 	}
 }
@@ -100,10 +100,12 @@ public abstract class AbstractVboJoglRenderer extends AbstractCoreJoglRenderer{
 
 	protected void updateBufferObjects() throws GkException {
 		this.updateBuffer = true;
+		requestRender();
 	}
 	
 	public void updateGeometry() throws GkException {
 		this.updateGeometry = true;
+		requestRender();
 	}
 	/**
 	 * Performs the update of the geometry
@@ -225,7 +227,7 @@ public abstract class AbstractVboJoglRenderer extends AbstractCoreJoglRenderer{
 		enableAdditionalVertexAttribArray(gl);
 		updateShaderData(gl);
 		
-		gl.glDrawArrays(getRenderPrimitive(), 0, getVerticesCount());
+		performDraw(gl);
 
 	    disableAdditionalVertexAttribArray(gl);
     
@@ -233,6 +235,15 @@ public abstract class AbstractVboJoglRenderer extends AbstractCoreJoglRenderer{
 	    gl.glUseProgram(0);
 	}
 
+	/**
+	 * Issues the draw calls once the buffers and the shader are bound. Draws all the vertices by default
+	 * @param gl the GL
+	 * @throws GkException GkException
+	 */
+	protected void performDraw(GL3 gl) throws GkException {
+		gl.glDrawArrays(getRenderPrimitive(), 0, getVerticesCount());
+	}
+
 	protected void updateShaderData(GL3 gl) throws GkException {
 
 	}
@@ -316,11 +327,23 @@ public abstract class AbstractVboJoglRenderer extends AbstractCoreJoglRenderer{
 		}
 		interleavedBuffer.rewind();
 	}
+
+	/**
+	 * Sets an interleaved buffer prepared by the subclass, for example out of the GL thread.
+	 * The layout has to match the used buffers
+	 * @param interleavedBuffer the interleaved buffer
+	 * @param stride the number of floats per vertex
+	 */
+	protected void setInterleavedBuffer(FloatBuffer interleavedBuffer, int stride){
+		this.interleavedBuffer = interleavedBuffer;
+		this.stride = stride;
+	}
 	/**
 	 * Update the buffers
 	 */
 	public void update(){
 		this.updateBuffer = true;
+		requestRender();
 	}
 	
 	/**
@@ -328,6 +351,7 @@ public abstract class AbstractVboJoglRenderer extends AbstractCoreJoglRenderer{
 	 */
 	public void updateShaderData(){
 		this.updateShader = true;
+		requestRender();
 	}
 	
 	/**
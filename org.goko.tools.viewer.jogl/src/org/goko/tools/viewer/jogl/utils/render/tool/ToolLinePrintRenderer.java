@@ -7,7 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.media.opengl.GL;
-import javax.media.opengl.GL3;
+import javax.media.opengl.fixedfunc.GLMatrixFunc;
 import javax.vecmath.Color4f;
 import javax.vecmath.Point4f;
 
@@ -15,18 +15,30 @@ import org.goko.core.common.exception.GkException;
 import org.goko.core.controller.IGCodeContextProvider;
 import org.goko.core.controller.IThreeAxisControllerAdapter;
 import org.goko.core.gcode.rs274ngcv3.context.GCodeContext;
+import org.goko.core.log.GkLog;
 import org.goko.core.math.Tuple6b;
 import org.goko.tools.viewer.jogl.service.JoglUtils;
 import org.goko.tools.viewer.jogl.utils.render.internal.AbstractLineRenderer;
 
+import com.jogamp.opengl.util.PMVMatrix;
+
 /**
+ * Renders the path from the active coordinate system origin to the tool, one colored segment per axis.
+ * The geometry is a unit path built once, the tool position is applied through the model matrix
+ * which is only recomputed when {@link #updatePosition()} was called.
+ * 
  * @author PsyKo
  *
  */
 public class ToolLinePrintRenderer extends AbstractLineRenderer{
+	/** LOG */
+	private static final GkLog LOG = GkLog.getLogger(ToolLinePrintRenderer.class);
 	/** Adapter giving the 3 axis positions */
 	private IThreeAxisControllerAdapter controllerAdapter;
 	private IGCodeContextProvider<GCodeContext> gcodeContextProvider;
+	/** Flag indicating the model matrix needs to be recomputed */
+	private volatile boolean positionDirty;
+	
 	/**
 	 * @param renderPrimitive
 	 * @param usedBuffers
@@ -35,18 +47,63 @@ public class ToolLinePrintRenderer extends AbstractLineRenderer{
 		super(GL.GL_LINES, VERTICES | COLORS);
 		this.controllerAdapter = controllerService;
 		this.gcodeContextProvider = gcodeContextProvider;
+		this.positionDirty = true;
 		this.setLineWidth(2f);
 	}	
 
+	/**
+	 * Notifies this renderer that the tool position or the active coordinate system changed
+	 */
+	public void updatePosition(){
+		this.positionDirty = true;
+		requestRender();
+	}
+	
 	/** (inheritDoc)
-	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#performRender(javax.media.opengl.GL3)
+	 * @see org.goko.tools.viewer.jogl.service.AbstractCoreJoglRenderer#getModelMatrix()
 	 */
 	@Override
-	protected void performRender(GL3 gl) throws GkException {		
-		updateGeometry();
-		super.performRender(gl);
-		
+	public PMVMatrix getModelMatrix() {
+		PMVMatrix modelMatrix = super.getModelMatrix();
+		if(positionDirty){
+			// Clear the flag first so an update received while reading the position is not lost
+			positionDirty = false;
+			updateRenderMatrix(modelMatrix);
+		}
+		return modelMatrix;
 	}
+	
+	/**
+	 * Translates the unit path to the active coordinate system origin and scales it to the tool position
+	 * @param modelMatrix the model matrix to update
+	 */
+	private void updateRenderMatrix(PMVMatrix modelMatrix){
+		if(controllerAdapter == null){
+			return;
+		}
+		try{
+			float x = controllerAdapter.getX().value(JoglUtils.JOGL_UNIT).floatValue();
+			float y = controllerAdapter.getY().value(JoglUtils.JOGL_UNIT).floatValue();
+			float z = controllerAdapter.getZ().value(JoglUtils.JOGL_UNIT).floatValue();
+			float sx = 0;
+			float sy = 0;
+			float sz = 0;
+			if(gcodeContextProvider != null){
+				Tuple6b offset = gcodeContextProvider.getGCodeContext().getActiveCoordinateSystemData();
+				sx = offset.getX().value(JoglUtils.JOGL_UNIT).floatValue();
+				sy = offset.getY().value(JoglUtils.JOGL_UNIT).floatValue();
+				sz = offset.getZ().value(JoglUtils.JOGL_UNIT).floatValue();
+			}
+			modelMatrix.glMatrixMode(GLMatrixFunc.GL_MODELVIEW);
+			modelMatrix.glLoadIdentity();
+			modelMatrix.glTranslatef(sx, sy, sz);
+			modelMatrix.glScalef(x, y, z);
+			modelMatrix.update();
+		}catch(GkException e){
+			LOG.error(e);
+		}
+	}
+	
 	/** (inheritDoc)
 	 * @see org.goko.tools.viewer.jogl.utils.render.internal.AbstractVboJoglRenderer#buildGeometry()
 	 */
@@ -55,34 +112,18 @@ public class ToolLinePrintRenderer extends AbstractLineRenderer{
 		List<Point4f> lstPoint = new ArrayList<Point4f>();
 		List<Color4f> lstColor = new ArrayList<Color4f>();
 		
-		float x = controllerAdapter.getX().value(JoglUtils.JOGL_UNIT).floatValue();
-		float y = controllerAdapter.getY().value(JoglUtils.JOGL_UNIT).floatValue();
-		float z = controllerAdapter.getZ().value(JoglUtils.JOGL_UNIT).floatValue();
-		Tuple6b offset = new Tuple6b().setZero();
-		float sx = 0;
-		float sy = 0;
-		float sz = 0;
-		if(gcodeContextProvider != null){
-			offset = gcodeContextProvider.getGCodeContext().getActiveCoordinateSystemData();
-			sx = offset.getX().value(JoglUtils.JOGL_UNIT).floatValue();
-			sy = offset.getY().value(JoglUtils.JOGL_UNIT).floatValue();
-			sz = offset.getZ().value(JoglUtils.JOGL_UNIT).floatValue();
-		}
-		x += sx;
-		y += sy;
-		z += sz;
-		lstPoint.add( new Point4f(sx,sy,sz,1));
-		lstPoint.add( new Point4f(x,sy,sz,1));		
+		lstPoint.add( new Point4f(0,0,0,1));
+		lstPoint.add( new Point4f(1,0,0,1));		
 		lstColor.add(new Color4f(1f, 0.0f, 0.0f, 1f));
 		lstColor.add(new Color4f(1f, 0.0f, 0.0f, 1f));
 		
-		lstPoint.add( new Point4f(x,sy, sz,1));
-		lstPoint.add( new Point4f(x,y, sz,1));
+		lstPoint.add( new Point4f(1,0,0,1));
+		lstPoint.add( new Point4f(1,1,0,1));
 		lstColor.add(new Color4f(0.0f, 1.0f, 0.0f, 1f));
 		lstColor.add(new Color4f(0.0f, 1.0f, 0.0f, 1f));
 		
-		lstPoint.add( new Point4f(x,y, sz,1));
-		lstPoint.add( new Point4f(x,y, z,1));
+		lstPoint.add( new Point4f(1,1,0,1));
+		lstPoint.add( new Point4f(1,1,1,1));
 		lstColor.add(new Color4f(0.0f, 0.0f, 1.0f, 1f));
 		lstColor.add(new Color4f(0.0f, 0.0f, 1.0f, 1f));
 		
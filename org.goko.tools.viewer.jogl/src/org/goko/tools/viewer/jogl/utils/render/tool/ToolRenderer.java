@@ -30,6 +30,8 @@ public class ToolRenderer extends AbstractLineRenderer {
 	private IGCodeContextProvider<GCodeContext> gcodeContextProvider;
 	/** */
 	private int segmentCount = 24;
+	/** Flag indicating the model matrix needs to be recomputed */
+	private volatile boolean positionDirty = true;
 	
 	/**
 	 * Constructor
@@ -48,6 +50,14 @@ public class ToolRenderer extends AbstractLineRenderer {
 	}
 
 
+	/**
+	 * Notifies this renderer that the tool position or the active coordinate system changed
+	 */
+	public void updatePosition(){
+		this.positionDirty = true;
+		requestRender();
+	}
+
 	private Point3d updateRenderMatrix(PMVMatrix modelMatrix){
 		Point3d p = new Point3d();
 		try{
@@ -77,7 +87,11 @@ public class ToolRenderer extends AbstractLineRenderer {
 	@Override
 	public PMVMatrix getModelMatrix() {
 		PMVMatrix modelMatrix = super.getModelMatrix();
-		updateRenderMatrix(modelMatrix);
+		if(positionDirty){
+			// Clear the flag first so an update received while reading the position is not lost
+			positionDirty = false;
+			updateRenderMatrix(modelMatrix);
+		}
 		return modelMatrix;
 	}
 
@@ -147,6 +161,7 @@ public class ToolRenderer extends AbstractLineRenderer {
 	 */
 	public void setGcodeContextProvider(IGCodeContextProvider<GCodeContext> gcodeContextProvider) {
 		this.gcodeContextProvider = gcodeContextProvider;
+		updatePosition();
 	}
 
 	/**
@@ -154,6 +169,7 @@ public class ToolRenderer extends AbstractLineRenderer {
 	 */
 	public void setControllerAdapter(IThreeAxisControllerAdapter controllerAdapter) {
 		this.controllerAdapter = controllerAdapter;
+		updatePosition();
 	}
 
 }
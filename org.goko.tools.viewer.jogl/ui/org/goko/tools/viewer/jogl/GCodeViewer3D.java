@@ -19,7 +19,6 @@ package org.goko.tools.viewer.jogl;
 import java.util.Map;
 
 import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import org.apache.commons.lang3.BooleanUtils;
@@ -35,6 +34,7 @@ import org.eclipse.swt.events.FocusEvent;
 import org.eclipse.swt.events.FocusListener;
 import org.eclipse.swt.events.MouseAdapter;
 import org.eclipse.swt.events.MouseEvent;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.opengl.GLData;
@@ -45,10 +45,9 @@ import org.goko.core.gcode.rs274ngcv3.IRS274NGCService;
 import org.goko.tools.viewer.jogl.model.GCodeViewer3DController;
 import org.goko.tools.viewer.jogl.model.GCodeViewer3DModel;
 import org.goko.tools.viewer.jogl.service.IJoglViewerService;
+import org.goko.tools.viewer.jogl.service.JoglViewerTopic;
 import org.osgi.service.event.EventHandler;
 
-import com.jogamp.opengl.util.FPSAnimator;
-
 public class GCodeViewer3D extends GkUiComponent<GCodeViewer3DController, GCodeViewer3DModel> implements EventHandler {
 	@Inject
 	IRS274NGCService gcodeService;
@@ -59,7 +58,6 @@ public class GCodeViewer3D extends GkUiComponent<GCodeViewer3DController, GCodeV
 
 	/** Widget that displays OpenGL content. */
 	private GokoJoglCanvas glcanvas;
-	private FPSAnimator animator;
 	private static final String VIEWER_ENABLED = "org.goko.tools.viewer.jogl.enabled";
 	private static final String VIEWER_GRID_ENABLED = "org.goko.tools.viewer.jogl.gridEnabled";
 	private static final String VIEWER_BOUNDS_ENABLED = "org.goko.tools.viewer.jogl.boundsEnabled";
@@ -105,6 +103,13 @@ public class GCodeViewer3D extends GkUiComponent<GCodeViewer3DController, GCodeV
 				glcanvas.setFocus();
 				glcanvas.forceFocus();				
 			}
+			/** (inheritDoc)
+			 * @see org.eclipse.swt.events.MouseAdapter#mouseDoubleClick(org.eclipse.swt.events.MouseEvent)
+			 */
+			@Override
+			public void mouseDoubleClick(MouseEvent e) {
+				broker.post(JoglViewerTopic.TOPIC_CANVAS_DOUBLE_CLICK, new Point(e.x, e.y));
+			}
 		});
 		glcanvas.addFocusListener(new FocusListener() {
 
@@ -121,11 +126,6 @@ public class GCodeViewer3D extends GkUiComponent<GCodeViewer3DController, GCodeV
 
 		glcanvas.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true, 1, 1));
 
-		animator = new FPSAnimator(30);
-
-		animator.add(glcanvas);
-		animator.start();
-
 		ContextInjectionFactory.inject(glcanvas, context);
 
 		Map<String, String> state = part.getPersistedState();
@@ -159,13 +159,6 @@ public class GCodeViewer3D extends GkUiComponent<GCodeViewer3DController, GCodeV
 		broker.subscribe(TOPIC_ENABLE_KEYBOARD_JOG, this);
 	}
 
-	@PreDestroy
-	public void dispose(MPart part) {
-		if (animator != null && animator.isStarted()) {
-			animator.stop();
-		}
-	}
-
 	@PersistState
 	public void persist(MPart part) {
 		if (getDataModel() != null) {
@@ -14,6 +14,7 @@ import org.goko.common.preferences.GkFieldEditorPreferencesPage;
 import org.goko.common.preferences.fieldeditor.preference.BooleanFieldEditor;
 import org.goko.common.preferences.fieldeditor.preference.ColorFieldEditor;
 import org.goko.common.preferences.fieldeditor.preference.ComboFieldEditor;
+import org.goko.common.preferences.fieldeditor.preference.IntegerFieldEditor;
 import org.goko.core.common.exception.GkException;
 import org.goko.core.config.GokoPreference;
 import org.goko.tools.viewer.jogl.camera.AbstractCamera;
@@ -63,6 +64,16 @@ public class JoglViewerPreferencePage extends GkFieldEditorPreferencesPage {
 		showFpsFieldEditor.setPreferenceName(JoglViewerPreference.SHOW_FPS);
 		showFpsFieldEditor.setLabel("Show FPS");
 		
+		IntegerFieldEditor maxFrameRateFieldEditor = new IntegerFieldEditor(grpPerformances, SWT.NONE);
+		maxFrameRateFieldEditor.setLabel("Maximum FPS (0 for unlimited)");
+		maxFrameRateFieldEditor.setWidthInChars(4);
+		maxFrameRateFieldEditor.setPreferenceName(JoglViewerPreference.MAX_FRAME_RATE);
+		
+		IntegerFieldEditor streamingFrameRateFieldEditor = new IntegerFieldEditor(grpPerformances, SWT.NONE);
+		streamingFrameRateFieldEditor.setLabel("Maximum FPS while streaming (0 for default)");
+		streamingFrameRateFieldEditor.setWidthInChars(4);
+		streamingFrameRateFieldEditor.setPreferenceName(JoglViewerPreference.STREAMING_FRAME_RATE);
+		
 		Group grpMisc = new Group(parent, SWT.NONE);
 		grpMisc.setLayout(new GridLayout(1, false));
 		grpMisc.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
@@ -79,6 +90,8 @@ public class JoglViewerPreferencePage extends GkFieldEditorPreferencesPage {
 
 		addField(comboFieldEditor);
 		addField(showFpsFieldEditor);
+		addField(maxFrameRateFieldEditor);
+		addField(streamingFrameRateFieldEditor);
 		addField(backgroundColorFieldEditor);
 		addField(defaultCameraFieldEditor);
 	}	